@@ -0,0 +1,55 @@
+package com.muscledia.muscledia_ai_service.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.muscledia.muscledia_ai_service.model.WorkoutRecommendation;
+import com.muscledia.muscledia_ai_service.service.AiResponseParser;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recommendation parsing on the shapes models actually return: bare JSON, JSON in a
+ * markdown fence, and JSON surrounded by chatter
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class AiResponseParserBenchmark {
+
+    private static final String JSON = """
+            {"suggestedWorkoutRoutine":"Upper/Lower Dumbbell Split","routineId":"r3",\
+            "description":"Four sessions a week on dumbbells only, with progressive overload on the compound lifts",\
+            "difficultyLevel":"INTERMEDIATE","workoutSplit":"UPPER_LOWER"}""";
+
+    @Param({"clean", "fenced", "chatty"})
+    public String shape;
+
+    private AiResponseParser parser;
+    private String response;
+
+    @Setup
+    public void setUp() {
+        parser = new AiResponseParser(new ObjectMapper(), new SimpleMeterRegistry());
+        response = switch (shape) {
+            case "clean" -> JSON;
+            case "fenced" -> "```json\n" + JSON + "\n```";
+            case "chatty" -> "Sure! Based on your goals and schedule, here is the routine I recommend:\n\n"
+                    + JSON
+                    + "\n\nThis routine balances volume across the week. Let me know if you want {alternatives}!";
+            default -> throw new IllegalArgumentException("Unknown shape " + shape);
+        };
+    }
+
+    @Benchmark
+    public WorkoutRecommendation parseRecommendation() {
+        return parser.parseRecommendation(response);
+    }
+}
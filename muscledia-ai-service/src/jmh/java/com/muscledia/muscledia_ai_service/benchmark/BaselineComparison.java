@@ -0,0 +1,129 @@
+package com.muscledia.muscledia_ai_service.benchmark;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Compares a JMH JSON result with the checked-in baseline, benchmark by benchmark
+ * (name plus parameters)
+ *
+ * Time (score) is flagged as slower when it grows by more than the threshold and by
+ * more than the combined error of both runs; it depends on the machine, so it only warns.
+ * Allocation per op (gc.alloc.rate.norm) is machine independent: growth beyond the
+ * threshold fails the build.
+ *
+ * Usage: BaselineComparison &lt;baseline.json&gt; &lt;result.json&gt; &lt;threshold, e.g. 0.15&gt;
+ */
+public final class BaselineComparison {
+
+    private static final String ALLOCATION = "gc.alloc.rate.norm";
+    // Allocation noise floor: a few bytes per op come and go with JIT decisions
+    private static final double ALLOCATION_SLACK_BYTES = 64;
+
+    private BaselineComparison() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 3) {
+            throw new IllegalArgumentException("Usage: BaselineComparison <baseline.json> <result.json> <threshold>");
+        }
+        Path baselineFile = Path.of(args[0]);
+        if (!Files.exists(baselineFile)) {
+            System.out.println("No JMH baseline at " + baselineFile + ", copy " + args[1] + " there to create one");
+            return;
+        }
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        Map<String, Run> baseline = read(objectMapper.readTree(baselineFile.toFile()));
+        Map<String, Run> result = read(objectMapper.readTree(Path.of(args[1]).toFile()));
+        double threshold = Double.parseDouble(args[2]);
+
+        List<String> report = new ArrayList<>();
+        List<String> regressions = new ArrayList<>();
+        report.add(String.format("%-70s %14s %14s %8s %12s %12s %8s  %s",
+                "benchmark", "base ns/op", "ns/op", "time", "base B/op", "B/op", "alloc", "verdict"));
+
+        result.forEach((name, run) -> {
+            Run base = baseline.get(name);
+            if (base == null) {
+                report.add(String.format("%-70s %14s %14.1f %8s %12s %12.0f %8s  new",
+                        name, "-", run.score(), "", "-", run.allocation(), ""));
+                return;
+            }
+
+            List<String> verdicts = new ArrayList<>();
+            double timeChange = change(base.score(), run.score());
+            if (timeChange > threshold && run.score() - base.score() > run.error() + base.error()) {
+                verdicts.add("slower");
+            }
+            double allocationChange = change(base.allocation(), run.allocation());
+            if (allocationChange > threshold && run.allocation() - base.allocation() > ALLOCATION_SLACK_BYTES) {
+                verdicts.add("allocates more");
+                regressions.add(String.format("%s: %.0f -> %.0f B/op", name, base.allocation(), run.allocation()));
+            }
+
+            report.add(String.format("%-70s %14.1f %14.1f %+7.1f%% %12.0f %12.0f %+7.1f%%  %s",
+                    name, base.score(), run.score(), 100 * timeChange,
+                    base.allocation(), run.allocation(), 100 * allocationChange,
+                    verdicts.isEmpty() ? "ok" : String.join(", ", verdicts)));
+        });
+        baseline.keySet().stream()
+                .filter(name -> !result.containsKey(name))
+                .forEach(name -> report.add(String.format("%-70s not run", name)));
+
+        System.out.println(String.join(System.lineSeparator(), report));
+        if (!regressions.isEmpty()) {
+            throw new IllegalStateException("Allocation regressed beyond " + Math.round(threshold * 100)
+                    + "% of the JMH baseline: " + String.join("; ", regressions));
+        }
+    }
+
+    private static Map<String, Run> read(JsonNode results) {
+        Map<String, Run> runs = new LinkedHashMap<>();
+        for (JsonNode result : results) {
+            JsonNode primary = result.path("primaryMetric");
+            JsonNode allocation = result.path("secondaryMetrics").path(ALLOCATION);
+            runs.put(name(result), new Run(
+                    primary.path("score").asDouble(),
+                    errorOf(primary),
+                    allocation.path("score").asDouble(Double.NaN)));
+        }
+        return runs;
+    }
+
+    /**
+     * Short benchmark name with its parameters, e.g. AiResponseParserBenchmark.parseRecommendation{shape=fenced}
+     */
+    private static String name(JsonNode result) {
+        String benchmark = result.path("benchmark").asText();
+        String[] parts = benchmark.split("\\.");
+        String name = parts.length >= 2 ? parts[parts.length - 2] + "." + parts[parts.length - 1] : benchmark;
+
+        Map<String, String> params = new TreeMap<>();
+        Iterator<Map.Entry<String, JsonNode>> fields = result.path("params").fields();
+        fields.forEachRemaining(field -> params.put(field.getKey(), field.getValue().asText()));
+        return params.isEmpty() ? name : name + params.toString().replace(", ", ",");
+    }
+
+    private static double errorOf(JsonNode metric) {
+        double error = metric.path("scoreError").asDouble(0);
+        return Double.isNaN(error) ? 0 : error;
+    }
+
+    private static double change(double base, double value) {
+        return base == 0 || Double.isNaN(base) || Double.isNaN(value) ? 0 : (value - base) / base;
+    }
+
+    private record Run(double score, double error, double allocation) {
+    }
+}
@@ -0,0 +1,63 @@
+package com.muscledia.muscledia_ai_service.benchmark;
+
+import com.muscledia.muscledia_ai_service.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-request token handling as the authentication filter does it: validate, then
+ * extract user id, username and roles. Served from the verified-token cache after the
+ * first call; signatureVerification is the uncached cost of parsing and verifying
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class JwtServiceBenchmark {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[64]);
+
+    private JwtService jwtService;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        jwtService = new JwtService(SECRET, 10_000, Duration.ofMinutes(5), new SimpleMeterRegistry());
+        token = Jwts.builder()
+                .subject("lifter")
+                .claim("userId", "42")
+                .claim("roles", List.of("USER"))
+                .expiration(Date.from(Instant.now().plus(Duration.ofDays(1))))
+                .signWith(Keys.hmacShaKeyFor(Base64.getDecoder().decode(SECRET)))
+                .compact();
+    }
+
+    @Benchmark
+    public void validateAndExtractClaims(Blackhole blackhole) {
+        blackhole.consume(jwtService.validateToken(token));
+        blackhole.consume(jwtService.extractUserId(token));
+        blackhole.consume(jwtService.extractUsername(token));
+        blackhole.consume(jwtService.extractRoles(token));
+    }
+
+    @Benchmark
+    public Claims signatureVerification() {
+        return jwtService.extractClaims(token);
+    }
+}
@@ -0,0 +1,55 @@
+package com.muscledia.muscledia_ai_service.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.muscledia.muscledia_ai_service.config.PromptProperties;
+import com.muscledia.muscledia_ai_service.dto.PreferencesDto;
+import com.muscledia.muscledia_ai_service.dto.UserData;
+import com.muscledia.muscledia_ai_service.model.DifficultyLevel;
+import com.muscledia.muscledia_ai_service.service.AiPromptService;
+import com.muscledia.muscledia_ai_service.service.PromptTemplateRegistry;
+import com.muscledia.muscledia_ai_service.service.ResourceLoaderService;
+import com.muscledia.muscledia_ai_service.service.RoutineCatalog;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Recommendation prompt construction: user context alone, and the full prompt with
+ * the level's routine summaries
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class PromptBuildBenchmark {
+
+    private final UserData userData = new UserData("1", 180, 80, "BUILD_MUSCLE", "MALE", 30);
+    private final PreferencesDto preferences = PreferencesDto.of(4, "INTERMEDIATE");
+
+    private AiPromptService promptService;
+    private String routines;
+
+    @Setup
+    public void setUp() {
+        promptService = new AiPromptService(new PromptTemplateRegistry(new PromptProperties(), new SimpleMeterRegistry()));
+        routines = new RoutineCatalog(new ResourceLoaderService(), new ObjectMapper())
+                .summaryJson(DifficultyLevel.INTERMEDIATE)
+                .orElseThrow();
+    }
+
+    @Benchmark
+    public String userContext() {
+        return promptService.buildUserContext(userData, preferences);
+    }
+
+    @Benchmark
+    public String recommendationPrompt() {
+        return promptService.buildRecommendationPrompt(promptService.buildUserContext(userData, preferences), routines);
+    }
+}
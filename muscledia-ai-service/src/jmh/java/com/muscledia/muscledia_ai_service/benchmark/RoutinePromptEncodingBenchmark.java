@@ -0,0 +1,52 @@
+package com.muscledia.muscledia_ai_service.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.muscledia.muscledia_ai_service.model.DifficultyLevel;
+import com.muscledia.muscledia_ai_service.model.EncodedRoutines;
+import com.muscledia.muscledia_ai_service.model.PublicRoutine;
+import com.muscledia.muscledia_ai_service.service.JsonRoutinePromptEncoder;
+import com.muscledia.muscledia_ai_service.service.ResourceLoaderService;
+import com.muscledia.muscledia_ai_service.service.RoutineCatalog;
+import com.muscledia.muscledia_ai_service.service.RoutinePromptEncoder;
+import com.muscledia.muscledia_ai_service.service.TabularRoutinePromptEncoder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Encoding the ranked candidates of one training level for the recommendation prompt
+ * (sizes are checked by RoutinePromptEncodingBenchmarkTest)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RoutinePromptEncodingBenchmark {
+
+    @Param({"json", "tabular"})
+    public String encoding;
+
+    private RoutinePromptEncoder encoder;
+    private List<PublicRoutine> routines;
+
+    @Setup
+    public void setUp() {
+        RoutineCatalog catalog = new RoutineCatalog(new ResourceLoaderService(), new ObjectMapper());
+        encoder = "json".equals(encoding) ? new JsonRoutinePromptEncoder(catalog) : new TabularRoutinePromptEncoder();
+        routines = catalog.byDifficulty(DifficultyLevel.INTERMEDIATE).stream()
+                .limit(RoutineCatalog.MAX_SUMMARIES_PER_LEVEL)
+                .toList();
+    }
+
+    @Benchmark
+    public EncodedRoutines encode() {
+        return encoder.encode(routines);
+    }
+}
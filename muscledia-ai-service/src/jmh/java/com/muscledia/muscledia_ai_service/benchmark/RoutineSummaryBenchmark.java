@@ -0,0 +1,63 @@
+package com.muscledia.muscledia_ai_service.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.muscledia.muscledia_ai_service.config.PromptProperties;
+import com.muscledia.muscledia_ai_service.config.RoutineRankingProperties;
+import com.muscledia.muscledia_ai_service.function.PublicRoutinesFunction;
+import com.muscledia.muscledia_ai_service.service.JsonRoutinePromptEncoder;
+import com.muscledia.muscledia_ai_service.service.ResourceLoaderService;
+import com.muscledia.muscledia_ai_service.service.RoutineCatalog;
+import com.muscledia.muscledia_ai_service.service.RoutineDataService;
+import com.muscledia.muscledia_ai_service.service.RoutineFilterService;
+import com.muscledia.muscledia_ai_service.service.RoutineRanker;
+import com.muscledia.muscledia_ai_service.service.TabularRoutinePromptEncoder;
+import com.muscledia.muscledia_ai_service.service.WeightedRoutineScorer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Routine data handed to the recommendation prompt: AI summaries and full filtered JSON
+ * per training level ("unknown" takes the fallback path)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RoutineSummaryBenchmark {
+
+    @Param({"BEGINNER", "ADVANCED", "unknown"})
+    public String level;
+
+    private PublicRoutinesFunction publicRoutines;
+    private RoutineFilterService routineFilter;
+
+    @Setup
+    public void setUp() {
+        RoutineCatalog catalog = new RoutineCatalog(new ResourceLoaderService(), new ObjectMapper());
+        RoutineRankingProperties ranking = new RoutineRankingProperties();
+        publicRoutines = new PublicRoutinesFunction(
+                catalog,
+                new RoutineRanker(catalog, new WeightedRoutineScorer(ranking), ranking),
+                List.of(new JsonRoutinePromptEncoder(catalog), new TabularRoutinePromptEncoder()),
+                new PromptProperties());
+        routineFilter = new RoutineFilterService(new RoutineDataService(catalog), catalog);
+    }
+
+    @Benchmark
+    public String optimizedRoutineSummaries() {
+        return publicRoutines.getOptimizedRoutineSummaries(level);
+    }
+
+    @Benchmark
+    public String filteredRoutinesJson() {
+        return routineFilter.getFilteredRoutinesJson(level);
+    }
+}
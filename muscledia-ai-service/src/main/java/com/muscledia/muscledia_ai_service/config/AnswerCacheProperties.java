@@ -0,0 +1,38 @@
+package com.muscledia.muscledia_ai_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "conversation.cache")
+public class AnswerCacheProperties {
+    private boolean enabled = true;
+    /**
+     * Approximate heap used by cached questions and answers; least recently used go first
+     */
+    private DataSize maxMemory = DataSize.ofMegabytes(16);
+    private Duration ttl = Duration.ofHours(1);
+    /**
+     * Second tier: serve the answer of a near-identical question
+     */
+    private boolean nearDuplicateEnabled = true;
+    /**
+     * Max differing bits between 64-bit SimHash signatures of near duplicates
+     */
+    private int maxHammingDistance = 3;
+    /**
+     * LSH bands the signature is split into; lookups are exhaustive within
+     * max-hamming-distance as long as bands > max-hamming-distance
+     */
+    private int lshBands = 4;
+    /**
+     * Min Jaccard similarity of the question terms, checked on every signature match
+     * so questions differing in a key word ("sets" vs "reps") are not merged
+     */
+    private double minTermSimilarity = 0.8;
+}
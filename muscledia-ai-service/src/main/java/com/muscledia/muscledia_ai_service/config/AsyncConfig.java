@@ -0,0 +1,41 @@
+package com.muscledia.muscledia_ai_service.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Executors for background AI work
+ */
+@Configuration
+public class AsyncConfig {
+
+    /**
+     * Bounded pool for recommendation jobs
+     * Fixed worker count and bounded queue; submissions beyond capacity are rejected
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ThreadPoolExecutor recommendationJobExecutor(RecommendationJobProperties properties) {
+        return new ThreadPoolExecutor(
+                properties.getWorkers(),
+                properties.getWorkers(),
+                0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                Thread.ofPlatform().name("recommendation-job-", 0).daemon(true).factory(),
+                new ThreadPoolExecutor.AbortPolicy()
+        );
+    }
+
+    /**
+     * Virtual threads for recommendation generations that outlive a request's deadline
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService pipelineStageThreads() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("pipeline-stage-", 0).factory());
+    }
+}
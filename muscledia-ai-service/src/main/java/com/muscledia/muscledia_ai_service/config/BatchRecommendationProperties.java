@@ -0,0 +1,27 @@
+package com.muscledia.muscledia_ai_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "recommendation.batch")
+public class BatchRecommendationProperties {
+    private int maxItems = 5_000;
+    /**
+     * Concurrent user-service requests per batch
+     */
+    private int userFetchConcurrency = 16;
+    /**
+     * Model generations running at once across all batches; kept below the Ollama
+     * concurrency limit so interactive requests still get slots
+     */
+    private int generationParallelism = 2;
+    /**
+     * How long a batch response may stay open
+     */
+    private Duration timeout = Duration.ofHours(2);
+}
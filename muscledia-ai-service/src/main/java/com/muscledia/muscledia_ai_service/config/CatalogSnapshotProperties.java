@@ -0,0 +1,20 @@
+package com.muscledia.muscledia_ai_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "catalog.snapshot")
+public class CatalogSnapshotProperties {
+    /**
+     * Read routines and plans from the binary snapshot instead of the JSON files
+     */
+    private boolean enabled = true;
+    /**
+     * Spring resource location of the snapshot written by the build; a classpath
+     * entry inside a jar is copied to a temporary file once so it can be mapped
+     */
+    private String location = "classpath:data/catalog.snapshot";
+}
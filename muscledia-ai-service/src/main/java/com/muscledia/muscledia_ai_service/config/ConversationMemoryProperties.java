@@ -0,0 +1,27 @@
+package com.muscledia.muscledia_ai_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "conversation.memory")
+public class ConversationMemoryProperties {
+    private boolean enabled = true;
+    /**
+     * Estimated tokens of history kept per conversation; oldest turns are dropped beyond it
+     */
+    private int maxTokens = 1500;
+    /**
+     * Approximate heap used by all conversations; least recently used go first
+     */
+    private DataSize maxMemory = DataSize.ofMegabytes(32);
+    /**
+     * Conversations without activity for this long are forgotten
+     */
+    private Duration idleTimeout = Duration.ofHours(2);
+}
@@ -0,0 +1,44 @@
+package com.muscledia.muscledia_ai_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "diagnostics.flight-recorder")
+public class FlightRecorderProperties {
+    /**
+     * Keep a continuous JFR recording and dump it when a request is slow
+     */
+    private boolean enabled = true;
+    /**
+     * JFR configuration: "default" is made for always-on production use (about 1% overhead),
+     * "profile" samples more and costs more
+     */
+    private String settings = "default";
+    /**
+     * Window of recent history a dump covers
+     */
+    private Duration maxAge = Duration.ofMinutes(10);
+    private DataSize maxSize = DataSize.ofMegabytes(100);
+    /**
+     * Requests taking longer than this dump the recording; zero disables dumps
+     */
+    private Duration slowRequestThreshold = Duration.ofSeconds(30);
+    /**
+     * At most one dump per interval, so a burst of slow requests writes one file
+     */
+    private Duration minDumpInterval = Duration.ofMinutes(1);
+    /**
+     * Directory for dumps; defaults to muscledia-flight-recordings under java.io.tmpdir
+     */
+    private String directory;
+    /**
+     * Dumps kept on disk, oldest deleted first
+     */
+    private int maxDumps = 20;
+}
@@ -0,0 +1,28 @@
+package com.muscledia.muscledia_ai_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ollama.limiter")
+public class OllamaLimiterProperties {
+    private boolean enabled = true;
+    private int initialLimit = 2;
+    private int minLimit = 1;
+    private int maxLimit = 8;
+    private int maxQueueSize = 20;
+    private Duration maxQueueTime = Duration.ofSeconds(10);
+    /**
+     * Weight of a new limit estimate (0..1); lower values adapt more slowly
+     */
+    private double smoothing = 0.2;
+    /**
+     * Multiplier applied to the limit when a call fails
+     */
+    private double backoffRatio = 0.9;
+    private Duration retryAfter = Duration.ofSeconds(10);
+}
@@ -0,0 +1,53 @@
+package com.muscledia.muscledia_ai_service.config;
+
+import com.muscledia.muscledia_ai_service.service.OllamaBackendPool;
+import com.muscledia.muscledia_ai_service.service.OllamaPoolRouter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.ai.ollama.api.OllamaApi;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.client.ResponseErrorHandler;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+
+/**
+ * Replaces Spring AI's single-URL OllamaApi with one routed through {@link OllamaBackendPool}
+ * Every ChatClient built from the auto-configured ChatClient.Builder uses the pool
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "ollama.pool", name = "enabled", havingValue = "true")
+public class OllamaPoolConfig {
+
+    /**
+     * Placeholder base URL; the router re-bases every request on the chosen endpoint
+     */
+    private static final String POOL_BASE_URL = "http://ollama-pool";
+
+    @Bean(initMethod = "start", destroyMethod = "close")
+    public OllamaBackendPool ollamaBackendPool(
+            OllamaPoolProperties properties,
+            @Value("${spring.ai.ollama.chat.options.model:}") String defaultModel,
+            MeterRegistry meterRegistry) {
+        return new OllamaBackendPool(properties, defaultModel, meterRegistry);
+    }
+
+    @Bean
+    public OllamaApi ollamaApi(
+            OllamaBackendPool pool,
+            ObjectProvider<RestClient.Builder> restClientBuilder,
+            ObjectProvider<WebClient.Builder> webClientBuilder,
+            ObjectProvider<ResponseErrorHandler> responseErrorHandler) {
+
+        // Clone: the shared builders are also used for other services
+        OllamaPoolRouter router = new OllamaPoolRouter(pool);
+        OllamaApi.Builder builder = OllamaApi.builder()
+                .baseUrl(POOL_BASE_URL)
+                .restClientBuilder(restClientBuilder.getIfAvailable(RestClient::builder).clone().requestInterceptor(router))
+                .webClientBuilder(webClientBuilder.getIfAvailable(WebClient::builder).clone().filter(router));
+        responseErrorHandler.ifAvailable(builder::responseErrorHandler);
+        return builder.build();
+    }
+}
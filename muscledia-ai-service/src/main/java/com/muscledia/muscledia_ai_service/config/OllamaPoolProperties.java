@@ -0,0 +1,40 @@
+package com.muscledia.muscledia_ai_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ollama.pool")
+public class OllamaPoolProperties {
+    /**
+     * When false, spring.ai.ollama.base-url is used as the single backend
+     */
+    private boolean enabled = false;
+    private List<Endpoint> endpoints = new ArrayList<>();
+    private Duration healthCheckInterval = Duration.ofSeconds(10);
+    private Duration healthCheckTimeout = Duration.ofSeconds(2);
+    /**
+     * Consecutive failed requests or health checks before an endpoint is ejected
+     */
+    private int failureThreshold = 3;
+    private Duration ejectionDuration = Duration.ofSeconds(30);
+    /**
+     * Time over which a readmitted endpoint ramps from 10% to full weight
+     */
+    private Duration slowStart = Duration.ofSeconds(60);
+
+    @Data
+    public static class Endpoint {
+        private String url;
+        /**
+         * Models this endpoint serves; empty means any model
+         */
+        private List<String> models = new ArrayList<>();
+    }
+}
@@ -0,0 +1,35 @@
+package com.muscledia.muscledia_ai_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "ollama.warmup")
+public class OllamaWarmupProperties {
+    /**
+     * When false the service reports ready immediately and never pings the model
+     */
+    private boolean enabled = true;
+    /**
+     * Pull the chat model in the background if the Ollama host doesn't have it
+     */
+    private boolean pullModel = true;
+    private Duration pullTimeout = Duration.ofMinutes(30);
+    /**
+     * Ollama keep_alive sent with warm-up and keep-alive requests
+     */
+    private String keepAlive = "30m";
+    /**
+     * Interval between keep-alive pings; must be shorter than keep-alive
+     */
+    private Duration keepAliveInterval = Duration.ofMinutes(5);
+    /**
+     * Consecutive keep-alive rounds failing on every endpoint before readiness is withdrawn
+     */
+    private int keepAliveFailureThreshold = 3;
+    private Duration retryInterval = Duration.ofSeconds(15);
+}
@@ -0,0 +1,31 @@
+package com.muscledia.muscledia_ai_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "recommendation.pipeline")
+public class PipelineProperties {
+    /**
+     * Limit on a user-service call; the request is cancelled when it runs over
+     */
+    private Duration userFetchTimeout = Duration.ofSeconds(5);
+    /**
+     * Limit on one recommendation model call; the stream from Ollama is cancelled when it runs over
+     */
+    private Duration llmCallTimeout = Duration.ofMinutes(3);
+    /**
+     * Default latency SLO for interactive recommendations; past it a provisional
+     * catalog-based answer is returned while the model keeps generating.
+     * Zero disables the fallback. Clients can ask for a shorter wait per request with "Prefer: wait=N".
+     */
+    private Duration deadline = Duration.ofSeconds(20);
+    /**
+     * Extra model calls when the output can't be parsed into a recommendation
+     */
+    private int parseRetries = 1;
+}
@@ -0,0 +1,28 @@
+package com.muscledia.muscledia_ai_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "recommendation.prompt")
+public class PromptProperties {
+    /**
+     * How routine candidates are written into the prompt: tabular or json
+     */
+    private String encoding = "tabular";
+
+    /**
+     * Optional directory of *.txt templates overriding the bundled static/ai/ ones;
+     * polled for changes and hot-reloaded. Unset disables hot reload
+     */
+    private String templateDirectory;
+
+    /**
+     * How often the template directory is checked for changes
+     */
+    private Duration templateReloadInterval = Duration.ofSeconds(5);
+}
@@ -0,0 +1,16 @@
+package com.muscledia.muscledia_ai_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "recommendation.cache")
+public class RecommendationCacheProperties {
+    private boolean enabled = true;
+    private long maxSize = 10_000;
+    private Duration ttl = Duration.ofHours(6);
+}
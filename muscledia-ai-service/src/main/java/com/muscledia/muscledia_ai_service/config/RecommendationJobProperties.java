@@ -0,0 +1,18 @@
+package com.muscledia.muscledia_ai_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "recommendation.jobs")
+public class RecommendationJobProperties {
+    private int workers = 2;
+    private int queueCapacity = 100;
+    private long maxJobs = 10_000;
+    private Duration resultTtl = Duration.ofMinutes(30);
+    private Duration retryAfter = Duration.ofSeconds(30);
+}
@@ -0,0 +1,18 @@
+package com.muscledia.muscledia_ai_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "recommendation.ranking")
+public class RoutineRankingProperties {
+    /**
+     * Candidates sent to the model after ranking
+     */
+    private int topK = 3;
+    private double goalWeight = 0.45;
+    private double frequencyWeight = 0.35;
+    private double equipmentWeight = 0.2;
+}
@@ -2,6 +2,7 @@ package com.muscledia.muscledia_ai_service.config;
 
 import com.muscledia.muscledia_ai_service.security.JwtAuthenticationEntryPoint;
 import com.muscledia.muscledia_ai_service.security.JwtAuthenticationWebFilter;
+import com.muscledia.muscledia_ai_service.util.ServerTiming;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -40,6 +41,9 @@ public class SecurityConfig {
                         .authenticationEntryPoint(jwtAuthenticationEntryPoint))
 
                 .authorizeHttpRequests(auth -> auth
+                        // Flight recordings hold request details, admins only
+                        .requestMatchers("/actuator/flightrecordings/**").hasRole("ADMIN")
+
                         // FIX: Allow Actuator Health Checks (Critical for Docker)
                         .requestMatchers("/actuator/**").permitAll()
 
@@ -80,6 +84,7 @@ public class SecurityConfig {
         configuration.setAllowedOrigins(Arrays.asList("http://localhost:3000", "http://localhost:8080"));
         configuration.setAllowedMethods(Arrays.asList("GET", "POST", "PUT", "DELETE", "OPTIONS"));
         configuration.setAllowedHeaders(Arrays.asList("*"));
+        configuration.setExposedHeaders(Arrays.asList(ServerTiming.HEADER));
         configuration.setAllowCredentials(true);
         configuration.setMaxAge(3600L);
 
@@ -0,0 +1,24 @@
+package com.muscledia.muscledia_ai_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "user-service.cache")
+public class UserDataCacheProperties {
+    private boolean enabled = true;
+    private long maxSize = 50_000;
+    /**
+     * Hard TTL: entries older than this are never served
+     */
+    private Duration ttl = Duration.ofMinutes(30);
+    /**
+     * Entries older than this are served stale and refreshed in the background
+     */
+    private Duration refreshAfter = Duration.ofMinutes(5);
+    private boolean staleWhileRevalidate = true;
+}
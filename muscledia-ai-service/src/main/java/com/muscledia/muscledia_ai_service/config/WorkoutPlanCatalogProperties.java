@@ -0,0 +1,24 @@
+package com.muscledia.muscledia_ai_service.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+@Data
+@Component
+@ConfigurationProperties(prefix = "catalog.workout-plans")
+public class WorkoutPlanCatalogProperties {
+
+    public static final String DEFAULT_LOCATION = "classpath:data/public_workout_plans.json";
+
+    /**
+     * Spring resource location of the plans file; a file: location avoids inflating
+     * the jar entry on every lazy load. Any other location than the default one
+     * turns the catalog snapshot off, which was built from the shipped file
+     */
+    private String location = DEFAULT_LOCATION;
+    /**
+     * Parsed plans kept on heap; the rest are re-read from the file by offset
+     */
+    private long maxCachedPlans = 256;
+}
@@ -0,0 +1,71 @@
+package com.muscledia.muscledia_ai_service.controller;
+
+import com.muscledia.muscledia_ai_service.dto.CacheInvalidationResponse;
+import com.muscledia.muscledia_ai_service.service.AnswerCache;
+import com.muscledia.muscledia_ai_service.service.RecommendationCache;
+import com.muscledia.muscledia_ai_service.service.UserDataCache;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.DeleteMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Admin operations on in-process caches
+ * Responsibility: Handle HTTP requests only, delegate to cache components
+ */
+@RestController
+@RequestMapping("/api/admin/cache")
+@Slf4j
+@Tag(name = "Admin Cache API", description = "Inspect and invalidate AI service caches")
+@SecurityRequirement(name = "bearer-key")
+public class AdminCacheController {
+
+    private final RecommendationCache recommendationCache;
+    private final UserDataCache userDataCache;
+    private final AnswerCache answerCache;
+
+    public AdminCacheController(RecommendationCache recommendationCache, UserDataCache userDataCache,
+                                AnswerCache answerCache) {
+        this.recommendationCache = recommendationCache;
+        this.userDataCache = userDataCache;
+        this.answerCache = answerCache;
+    }
+
+    @DeleteMapping("/recommendations")
+    @Operation(summary = "Invalidate all cached workout recommendations")
+    public ResponseEntity<CacheInvalidationResponse> invalidateRecommendations() {
+        long removed = recommendationCache.invalidateAll();
+        log.info("Admin invalidated recommendation cache, {} entries removed", removed);
+        return ResponseEntity.ok(new CacheInvalidationResponse("recommendations", removed));
+    }
+
+    @DeleteMapping("/answers")
+    @Operation(summary = "Invalidate all cached chat answers")
+    public ResponseEntity<CacheInvalidationResponse> invalidateAnswers() {
+        long removed = answerCache.invalidateAll();
+        log.info("Admin invalidated answer cache, {} entries removed", removed);
+        return ResponseEntity.ok(new CacheInvalidationResponse("answers", removed));
+    }
+
+    /**
+     * Called by user-service when a user's profile changes
+     */
+    @DeleteMapping("/users/{userId}")
+    @Operation(summary = "Invalidate cached profile data of one user")
+    public ResponseEntity<Void> invalidateUserData(@PathVariable Long userId) {
+        userDataCache.invalidate(userId);
+        return ResponseEntity.noContent().build();
+    }
+
+    @DeleteMapping("/users")
+    @Operation(summary = "Invalidate all cached user profile data")
+    public ResponseEntity<CacheInvalidationResponse> invalidateAllUserData() {
+        long removed = userDataCache.invalidateAll();
+        return ResponseEntity.ok(new CacheInvalidationResponse("user-data", removed));
+    }
+}
@@ -0,0 +1,118 @@
+package com.muscledia.muscledia_ai_service.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.muscledia.muscledia_ai_service.config.BatchRecommendationProperties;
+import com.muscledia.muscledia_ai_service.dto.BatchRecommendationRequest;
+import com.muscledia.muscledia_ai_service.dto.BatchRecommendationResult;
+import com.muscledia.muscledia_ai_service.service.BatchRecommendationService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.validation.Valid;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+
+/**
+ * Controller for batch recommendations (onboarding flows, admin tooling)
+ * Responsibility: Handle HTTP requests only, delegate to service layer
+ */
+@RestController
+@RequestMapping("/api/admin/recommendations")
+@Slf4j
+@Tag(name = "Batch Recommendations API", description = "AI workout recommendations for many users at once")
+@SecurityRequirement(name = "bearer-key")
+public class BatchRecommendationController {
+
+    private final BatchRecommendationService batchRecommendationService;
+    private final BatchRecommendationProperties properties;
+    private final ObjectMapper objectMapper;
+
+    public BatchRecommendationController(
+            BatchRecommendationService batchRecommendationService,
+            BatchRecommendationProperties properties,
+            ObjectMapper objectMapper) {
+        this.batchRecommendationService = batchRecommendationService;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * One NDJSON line per item, written as each item finishes; the response can stay
+     * open much longer than interactive streams, so it uses its own timeout
+     */
+    @PostMapping(value = "/batch", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @Operation(
+            summary = "Generate workout recommendations for many users",
+            description = "Streams one JSON object per line as each item finishes, in completion order; " +
+                    "index refers to the item's position in the request. Failed items carry an error " +
+                    "and do not stop the batch."
+    )
+    public ResponseEntity<ResponseBodyEmitter> recommend(
+            @Valid @RequestBody BatchRecommendationRequest batch,
+            HttpServletRequest request) {
+
+        String jwtToken = extractJwtToken(request);
+
+        Flux<BatchRecommendationResult> results;
+        try {
+            results = batchRecommendationService.recommend(batch.items(), jwtToken);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid batch: {}", e.getMessage());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        }
+
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(properties.getTimeout().toMillis());
+        Disposable subscription = results
+                // A failed write (client gone) ends the stream and cancels the remaining work
+                .doOnNext(result -> send(emitter, result))
+                .subscribe(result -> {
+                }, emitter::completeWithError, emitter::complete);
+        emitter.onTimeout(subscription::dispose);
+        emitter.onError(e -> subscription.dispose());
+
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(emitter);
+    }
+
+    private void send(ResponseBodyEmitter emitter, BatchRecommendationResult result) {
+        try {
+            emitter.send(objectMapper.writeValueAsString(result) + "\n", MediaType.APPLICATION_NDJSON);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize batch result", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * Extract JWT token from request header
+     * Presentation layer logic - validate authorization header format
+     */
+    private String extractJwtToken(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            log.warn("Missing or invalid Authorization header");
+            throw new ResponseStatusException(
+                    HttpStatus.UNAUTHORIZED,
+                    "Authorization header with Bearer token is required"
+            );
+        }
+
+        return authHeader.substring(7);
+    }
+}
@@ -0,0 +1,40 @@
+package com.muscledia.muscledia_ai_service.controller;
+
+import com.muscledia.muscledia_ai_service.service.FlightRecordingService;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.web.WebEndpointResponse;
+import org.springframework.boot.actuate.endpoint.web.annotation.WebEndpoint;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Actuator endpoint for the flight recordings dumped on slow requests
+ * GET /actuator/flightrecordings lists them, newest first;
+ * GET /actuator/flightrecordings/{name} downloads one (open with JDK Mission Control or "jfr print")
+ */
+@Component
+@WebEndpoint(id = "flightrecordings")
+public class FlightRecordingsEndpoint {
+
+    private final FlightRecordingService flightRecordings;
+
+    public FlightRecordingsEndpoint(FlightRecordingService flightRecordings) {
+        this.flightRecordings = flightRecordings;
+    }
+
+    @ReadOperation
+    public List<FlightRecordingService.Dump> recordings() {
+        return flightRecordings.dumps();
+    }
+
+    @ReadOperation(produces = "application/octet-stream")
+    public WebEndpointResponse<Resource> recording(@Selector String name) {
+        return flightRecordings.dump(name)
+                .map(file -> new WebEndpointResponse<Resource>(new FileSystemResource(file), WebEndpointResponse.STATUS_OK))
+                .orElseGet(() -> new WebEndpointResponse<>(WebEndpointResponse.STATUS_NOT_FOUND));
+    }
+}
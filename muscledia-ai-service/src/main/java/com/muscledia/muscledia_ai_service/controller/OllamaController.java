@@ -1,21 +1,32 @@
 package com.muscledia.muscledia_ai_service.controller;
 
+import com.muscledia.muscledia_ai_service.config.PipelineProperties;
 import com.muscledia.muscledia_ai_service.dto.PreferencesDto;
+import com.muscledia.muscledia_ai_service.dto.StreamStatus;
+import com.muscledia.muscledia_ai_service.exception.OllamaException.OllamaOverloadedException;
 import com.muscledia.muscledia_ai_service.model.Answer;
 import com.muscledia.muscledia_ai_service.model.Question;
 import com.muscledia.muscledia_ai_service.model.WorkoutRecommendation;
 import com.muscledia.muscledia_ai_service.service.OllamaService;
+import com.muscledia.muscledia_ai_service.util.ServerTiming;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Flux;
 
 import javax.validation.Valid;
+import java.time.Duration;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
 
 /**
  * Controller for AI operations
@@ -28,10 +39,26 @@ import javax.validation.Valid;
 @Tag(name = "Ollama API", description = "AI-powered workout recommendations")
 public class OllamaController {
 
+    private static final String TOKEN_EVENT = "token";
+    private static final String DONE_EVENT = "done";
+    private static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(15);
+    private static final int STREAM_BUFFER_TOKENS = 4096;
+    private static final Duration MIN_PREFER_WAIT = Duration.ofSeconds(1);
+    private static final Pattern PREFER_WAIT = Pattern.compile("(?:^|[,;\\s])wait\\s*=\\s*(\\d+)");
+
     private final OllamaService ollamaService;
+    private final PipelineProperties pipelineProperties;
+    private final Duration heartbeatInterval;
+
+    @Autowired
+    public OllamaController(OllamaService ollamaService, PipelineProperties pipelineProperties) {
+        this(ollamaService, pipelineProperties, HEARTBEAT_INTERVAL);
+    }
 
-    public OllamaController(OllamaService ollamaService) {
+    OllamaController(OllamaService ollamaService, PipelineProperties pipelineProperties, Duration heartbeatInterval) {
         this.ollamaService = ollamaService;
+        this.pipelineProperties = pipelineProperties;
+        this.heartbeatInterval = heartbeatInterval;
     }
 
     /**
@@ -49,6 +76,9 @@ public class OllamaController {
             log.warn("Invalid question input: {}", e.getMessage());
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
 
+        } catch (OllamaOverloadedException e) {
+            throw e;
+
         } catch (Exception e) {
             log.error("Error processing question: {}", e.getMessage(), e);
             throw new ResponseStatusException(
@@ -59,6 +89,56 @@ public class OllamaController {
         }
     }
 
+    /**
+     * Streaming conversational endpoint (Server-Sent Events)
+     *
+     * Events:
+     * - "token": next chunk of the answer
+     * - "done": terminal event, {"status":"completed"} or {"status":"failed","message":...}
+     * - comment lines every 15 seconds as heartbeat while the model is thinking
+     *
+     * The response is written asynchronously, no servlet thread is held during generation.
+     * Tokens are buffered (bounded) for slow clients; overflow fails the stream.
+     * A full Ollama queue is rejected with 429 and Retry-After before the stream starts;
+     * a request shed later (queue timeout) ends with a failed "done" event.
+     * With ollama.pool enabled, streamed calls are routed on the default chat model only:
+     * there is no per-request model affinity on this path (see OllamaPoolRouter).
+     */
+    @PostMapping(value = "/conversation/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Ask a question to Ollama model and stream the answer as Server-Sent Events")
+    public Flux<ServerSentEvent<Object>> streamAnswer(@Valid @RequestBody Question question) {
+        Flux<String> tokens;
+        try {
+            log.debug("Processing streamed question");
+            tokens = ollamaService.streamGeneralAnswer(question);
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid question input: {}", e.getMessage());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+        } catch (OllamaOverloadedException e) {
+            // Mapped to 429/503 with Retry-After while the status can still change
+            throw e;
+        }
+
+        Flux<ServerSentEvent<Object>> answer = tokens
+                .onBackpressureBuffer(STREAM_BUFFER_TOKENS)
+                .map(token -> ServerSentEvent.<Object>builder(token).event(TOKEN_EVENT).build())
+                .concatWith(Flux.just(doneEvent(StreamStatus.completed())))
+                .onErrorResume(OllamaOverloadedException.class, e -> {
+                    log.warn("Shedding streamed request: {}", e.getMessage());
+                    return Flux.just(doneEvent(StreamStatus.failed(e.getMessage())));
+                })
+                .onErrorResume(e -> {
+                    log.error("Error streaming answer: {}", e.getMessage(), e);
+                    return Flux.just(doneEvent(StreamStatus.failed("Failed to get response from AI service")));
+                });
+
+        Flux<ServerSentEvent<Object>> heartbeats = Flux.interval(heartbeatInterval)
+                .map(tick -> ServerSentEvent.builder().comment("heartbeat").build());
+
+        return Flux.merge(answer, heartbeats)
+                .takeUntil(event -> DONE_EVENT.equals(event.event()));
+    }
+
     /**
      * OPTIMIZED: Get workout recommendation
      *
@@ -69,44 +149,51 @@ public class OllamaController {
      * 4. Token limits on AI output
      *
      * Expected response time: 30-120 seconds (down from 5 minutes)
+     * Bounded by recommendation.pipeline.deadline, or a shorter "Prefer: wait=N"
+     * (N seconds, at least 1); past it a provisional catalog-based answer is returned
+     * and the model answer is cached for the next request
+     * For the model answer only, use POST /ollama/recommendations (async job)
      */
     @PostMapping("/getRecommendation")
     @Operation(
             summary = "Get personalized workout recommendation (OPTIMIZED)",
             description = "Fast AI recommendation using optimized data and model parameters. " +
-                    "Expected response time: 30-120 seconds."
+                    "Answers within the deadline; a late model answer is replaced by a provisional one."
     )
     @SecurityRequirement(name = "bearer-key")
     public ResponseEntity<WorkoutRecommendation> getStructuredAnswer(
             @Valid @RequestBody PreferencesDto preferences,
+            @RequestHeader(value = "Prefer", required = false) String prefer,
             HttpServletRequest request) {
 
-        long startTime = System.currentTimeMillis();
-
         try {
             String jwtToken = extractJwtToken(request);
 
             log.info("Starting optimized recommendation generation");
+            Duration requestedWait = parsePreferWait(prefer);
             WorkoutRecommendation recommendation = ollamaService.getStructuredAnswer(
                     preferences,
-                    jwtToken
+                    jwtToken,
+                    requestedWait != null ? requestedWait : pipelineProperties.getDeadline()
             );
 
-            long duration = System.currentTimeMillis() - startTime;
-            log.info("Recommendation generated in {} seconds", duration / 1000.0);
+            log.info("Recommendation generated (provisional: {}): {}", recommendation.provisional(), timings());
 
-            return ResponseEntity.ok(recommendation);
+            ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+            if (requestedWait != null) {
+                response.header("Preference-Applied", "wait=" + requestedWait.toSeconds());
+            }
+            return response.body(recommendation);
 
         } catch (IllegalArgumentException e) {
             log.warn("Invalid input: {}", e.getMessage());
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
 
-        } catch (ResponseStatusException e) {
+        } catch (ResponseStatusException | OllamaOverloadedException e) {
             throw e;
 
         } catch (Exception e) {
-            long duration = System.currentTimeMillis() - startTime;
-            log.error("Error after {} seconds: {}", duration / 1000.0, e.getMessage(), e);
+            log.error("Recommendation failed ({}): {}", timings(), e.getMessage(), e);
             throw new ResponseStatusException(
                     HttpStatus.INTERNAL_SERVER_ERROR,
                     "Failed to generate recommendation: " + e.getMessage(),
@@ -115,6 +202,44 @@ public class OllamaController {
         }
     }
 
+    /**
+     * Stage timings of the current request so far, as sent in the Server-Timing header
+     */
+    private static String timings() {
+        return ServerTiming.current().map(ServerTiming::header).orElse("no timings");
+    }
+
+    private ServerSentEvent<Object> doneEvent(StreamStatus status) {
+        return ServerSentEvent.<Object>builder(status).event(DONE_EVENT).build();
+    }
+
+    /**
+     * Parse the RFC 7240 "wait" preference (seconds), or null if absent
+     * Clamped to [1s, recommendation.pipeline.deadline]: a client can ask for less time, not more
+     * Ignored when no deadline is configured
+     */
+    private Duration parsePreferWait(String prefer) {
+        Duration max = pipelineProperties.getDeadline();
+        if (prefer == null || max == null || max.compareTo(MIN_PREFER_WAIT) < 0) {
+            return null;
+        }
+        Matcher matcher = PREFER_WAIT.matcher(prefer.toLowerCase());
+        if (!matcher.find()) {
+            return null;
+        }
+        long seconds;
+        try {
+            seconds = Long.parseLong(matcher.group(1));
+        } catch (NumberFormatException e) {
+            // Too many digits for a long: far beyond the cap
+            return max;
+        }
+        if (seconds < MIN_PREFER_WAIT.toSeconds()) {
+            return MIN_PREFER_WAIT;
+        }
+        return seconds >= max.toSeconds() ? max : Duration.ofSeconds(seconds);
+    }
+
     /**
      * Extract JWT token from request header
      * Presentation layer logic - validate authorization header format
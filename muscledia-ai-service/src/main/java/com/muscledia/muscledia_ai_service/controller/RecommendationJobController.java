@@ -0,0 +1,167 @@
+package com.muscledia.muscledia_ai_service.controller;
+
+import com.muscledia.muscledia_ai_service.config.RecommendationJobProperties;
+import com.muscledia.muscledia_ai_service.dto.PreferencesDto;
+import com.muscledia.muscledia_ai_service.dto.RecommendationJobResponse;
+import com.muscledia.muscledia_ai_service.exception.UnauthorizedException;
+import com.muscledia.muscledia_ai_service.exception.UserServiceException;
+import com.muscledia.muscledia_ai_service.service.AuthenticationService;
+import com.muscledia.muscledia_ai_service.service.RecommendationJob;
+import com.muscledia.muscledia_ai_service.service.RecommendationJobService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import javax.validation.Valid;
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * Controller for asynchronous recommendation jobs
+ * Responsibility: Handle HTTP requests only, delegate to service layer
+ */
+@RestController
+@RequestMapping("/ollama/recommendations")
+@Slf4j
+@CrossOrigin("*")
+@Tag(name = "Recommendation Jobs API", description = "Asynchronous AI workout recommendations")
+@SecurityRequirement(name = "bearer-key")
+public class RecommendationJobController {
+
+    private static final String STATUS_EVENT = "status";
+    private static final String DONE_EVENT = "done";
+    private static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(15);
+
+    private final RecommendationJobService recommendationJobService;
+    private final AuthenticationService authenticationService;
+    private final RecommendationJobProperties properties;
+
+    public RecommendationJobController(
+            RecommendationJobService recommendationJobService,
+            AuthenticationService authenticationService,
+            RecommendationJobProperties properties) {
+        this.recommendationJobService = recommendationJobService;
+        this.authenticationService = authenticationService;
+        this.properties = properties;
+    }
+
+    /**
+     * Queue a recommendation job and return its id immediately
+     */
+    @PostMapping
+    @Operation(
+            summary = "Queue a personalized workout recommendation",
+            description = "Fetches the user data, then returns 202 with a job id. Poll GET /ollama/recommendations/{jobId} " +
+                    "or subscribe to /ollama/recommendations/{jobId}/events for the result."
+    )
+    public ResponseEntity<RecommendationJobResponse> submit(
+            @Valid @RequestBody PreferencesDto preferences,
+            HttpServletRequest request) {
+
+        String jwtToken = extractJwtToken(request);
+        Long userId = authenticationService.getCurrentUserId();
+
+        try {
+            RecommendationJob job = recommendationJobService.submit(preferences, jwtToken, userId);
+
+            URI location = ServletUriComponentsBuilder.fromCurrentRequest()
+                    .path("/{jobId}")
+                    .buildAndExpand(job.getJobId())
+                    .toUri();
+
+            return ResponseEntity.accepted().location(location).body(job.toResponse());
+
+        } catch (IllegalArgumentException e) {
+            log.warn("Invalid input: {}", e.getMessage());
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, e.getMessage(), e);
+
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+                    .header(HttpHeaders.RETRY_AFTER, String.valueOf(properties.getRetryAfter().toSeconds()))
+                    .build();
+
+        } catch (UnauthorizedException e) {
+            log.warn("user-service rejected the token for a recommendation job: {}", e.getMessage());
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Invalid or expired JWT token", e);
+
+        } catch (UserServiceException e) {
+            log.error("Failed to retrieve user data for recommendation job: {}", e.getMessage(), e);
+            throw new ResponseStatusException(HttpStatus.BAD_GATEWAY, "Failed to retrieve user data", e);
+
+        } catch (RuntimeException e) {
+            log.error("Failed to queue recommendation job: {}", e.getMessage(), e);
+            throw new ResponseStatusException(HttpStatus.INTERNAL_SERVER_ERROR, "Failed to queue recommendation job", e);
+        }
+    }
+
+    @GetMapping("/{jobId}")
+    @Operation(summary = "Get the status and result of a recommendation job")
+    public ResponseEntity<RecommendationJobResponse> getJob(@PathVariable String jobId) {
+        return ResponseEntity.ok(findJob(jobId).toResponse());
+    }
+
+    /**
+     * Server-Sent Events for a job: a "status" event with the current snapshot,
+     * then a "done" event with the final snapshot once the job finishes
+     */
+    @GetMapping(value = "/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(summary = "Subscribe to a recommendation job over Server-Sent Events")
+    public Flux<ServerSentEvent<RecommendationJobResponse>> streamJob(@PathVariable String jobId) {
+        RecommendationJob job = findJob(jobId);
+
+        Flux<ServerSentEvent<RecommendationJobResponse>> done = Mono.fromFuture(job.result())
+                .onErrorResume(e -> Mono.empty())
+                .then(Mono.fromSupplier(() -> event(DONE_EVENT, job)))
+                .flux();
+
+        Flux<ServerSentEvent<RecommendationJobResponse>> heartbeats = Flux.interval(HEARTBEAT_INTERVAL)
+                .map(tick -> ServerSentEvent.<RecommendationJobResponse>builder().comment("heartbeat").build());
+
+        return Flux.just(event(STATUS_EVENT, job))
+                .concatWith(Flux.merge(done, heartbeats))
+                .takeUntil(event -> DONE_EVENT.equals(event.event()));
+    }
+
+    private RecommendationJob findJob(String jobId) {
+        return recommendationJobService.find(jobId, authenticationService.getCurrentUserId())
+                .orElseThrow(() -> new ResponseStatusException(
+                        HttpStatus.NOT_FOUND,
+                        "Recommendation job not found: " + jobId
+                ));
+    }
+
+    private ServerSentEvent<RecommendationJobResponse> event(String name, RecommendationJob job) {
+        return ServerSentEvent.builder(job.toResponse()).event(name).build();
+    }
+
+    /**
+     * Extract JWT token from request header
+     * Presentation layer logic - validate authorization header format
+     */
+    private String extractJwtToken(HttpServletRequest request) {
+        String authHeader = request.getHeader("Authorization");
+
+        if (authHeader == null || !authHeader.startsWith("Bearer ")) {
+            log.warn("Missing or invalid Authorization header");
+            throw new ResponseStatusException(
+                    HttpStatus.UNAUTHORIZED,
+                    "Authorization header with Bearer token is required"
+            );
+        }
+
+        return authHeader.substring(7);
+    }
+}
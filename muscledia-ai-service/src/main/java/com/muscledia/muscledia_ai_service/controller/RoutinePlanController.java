@@ -0,0 +1,60 @@
+package com.muscledia.muscledia_ai_service.controller;
+
+import com.muscledia.muscledia_ai_service.dto.RoutinePlansResponse;
+import com.muscledia.muscledia_ai_service.model.PublicRoutine;
+import com.muscledia.muscledia_ai_service.model.WorkoutPlan;
+import com.muscledia.muscledia_ai_service.service.RoutineCatalog;
+import com.muscledia.muscledia_ai_service.service.WorkoutPlanCatalog;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Controller for catalog routines
+ * Responsibility: Handle HTTP requests only, delegate to catalog components
+ */
+@RestController
+@RequestMapping("/ollama/routines")
+@Slf4j
+@CrossOrigin("*")
+@Tag(name = "Routine Catalog API", description = "Public routines and their workout plans")
+@SecurityRequirement(name = "bearer-key")
+public class RoutinePlanController {
+
+    private final RoutineCatalog routineCatalog;
+    private final WorkoutPlanCatalog workoutPlanCatalog;
+
+    public RoutinePlanController(RoutineCatalog routineCatalog, WorkoutPlanCatalog workoutPlanCatalog) {
+        this.routineCatalog = routineCatalog;
+        this.workoutPlanCatalog = workoutPlanCatalog;
+    }
+
+    /**
+     * Expand a routine (e.g. the routineId of a recommendation) into its full workout plans
+     */
+    @GetMapping("/{routineId}/workout-plans")
+    @Operation(summary = "Get the workout plans, with exercises and sets, of a catalog routine")
+    public ResponseEntity<RoutinePlansResponse> getWorkoutPlans(@PathVariable String routineId) {
+        PublicRoutine routine = routineCatalog.findById(routineId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "Unknown routine: " + routineId));
+
+        List<WorkoutPlan> plans = new ArrayList<>(routine.workoutPlanIds().size());
+        List<String> missing = new ArrayList<>();
+        for (String planId : routine.workoutPlanIds()) {
+            workoutPlanCatalog.findById(planId).ifPresentOrElse(plans::add, () -> missing.add(planId));
+        }
+        if (!missing.isEmpty()) {
+            log.warn("Routine {} references unknown workout plans: {}", routineId, missing);
+        }
+
+        return ResponseEntity.ok(new RoutinePlansResponse(routine.id(), routine.title(), plans, missing));
+    }
+}
@@ -0,0 +1,69 @@
+package com.muscledia.muscledia_ai_service.controller;
+
+import com.muscledia.muscledia_ai_service.util.ServerTiming;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.CorsConfigurationSource;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+/**
+ * Adds the request's Server-Timing header just before a response body is written,
+ * once all stages have run; streamed (SSE) responses commit their headers first and
+ * carry none. Timing-Allow-Origin lets a browser client read it cross-origin, and is
+ * only sent back to an origin the CORS configuration allows.
+ */
+@RestControllerAdvice
+public class ServerTimingAdvice implements ResponseBodyAdvice<Object> {
+
+    private static final String TIMING_ALLOW_ORIGIN = "Timing-Allow-Origin";
+
+    private final CorsConfigurationSource corsConfigurationSource;
+
+    // Qualified: the MVC handler mapping introspector is a CorsConfigurationSource too
+    public ServerTimingAdvice(@Qualifier("corsConfigurationSource") CorsConfigurationSource corsConfigurationSource) {
+        this.corsConfigurationSource = corsConfigurationSource;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+
+    @Override
+    public Object beforeBodyWrite(
+            Object body,
+            MethodParameter returnType,
+            MediaType selectedContentType,
+            Class<? extends HttpMessageConverter<?>> selectedConverterType,
+            ServerHttpRequest request,
+            ServerHttpResponse response) {
+        ServerTiming.current().ifPresent(timing -> {
+            response.getHeaders().set(ServerTiming.HEADER, timing.header());
+            String origin = allowedOrigin(request);
+            if (origin != null) {
+                response.getHeaders().set(TIMING_ALLOW_ORIGIN, origin);
+            }
+        });
+        return body;
+    }
+
+    /**
+     * The request's Origin if CORS allows it, else null (same-origin callers need no header)
+     */
+    private String allowedOrigin(ServerHttpRequest request) {
+        String origin = request.getHeaders().getFirst(HttpHeaders.ORIGIN);
+        if (origin == null || !(request instanceof ServletServerHttpRequest servletRequest)) {
+            return null;
+        }
+        CorsConfiguration configuration = corsConfigurationSource.getCorsConfiguration(servletRequest.getServletRequest());
+        return configuration == null ? null : configuration.checkOrigin(origin);
+    }
+}
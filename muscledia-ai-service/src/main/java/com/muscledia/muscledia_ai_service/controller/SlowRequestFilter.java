@@ -0,0 +1,51 @@
+package com.muscledia.muscledia_ai_service.controller;
+
+import com.muscledia.muscledia_ai_service.jfr.SlowRequestEvent;
+import com.muscledia.muscledia_ai_service.service.FlightRecordingService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * Dumps the flight recording when a request takes longer than the slow-request threshold
+ * Streamed (async) responses are left out: they are long by design
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class SlowRequestFilter extends OncePerRequestFilter {
+
+    private final FlightRecordingService flightRecordings;
+
+    public SlowRequestFilter(FlightRecordingService flightRecordings) {
+        this.flightRecordings = flightRecordings;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SlowRequestEvent event = new SlowRequestEvent();
+        event.begin();
+        long start = System.nanoTime();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+            if (!request.isAsyncStarted() && flightRecordings.isSlow(elapsed)) {
+                event.end();
+                event.method = request.getMethod();
+                event.path = request.getRequestURI();
+                event.status = response.getStatus();
+                event.commit();
+                flightRecordings.dumpSlowRequest(event.method + " " + event.path + " (" + elapsed.toMillis() + " ms)");
+            }
+        }
+    }
+}
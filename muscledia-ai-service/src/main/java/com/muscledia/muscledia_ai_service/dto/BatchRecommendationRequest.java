@@ -0,0 +1,25 @@
+package com.muscledia.muscledia_ai_service.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+
+import java.util.List;
+
+/**
+ * Recommendations for many users at once; items are validated one by one so a bad
+ * item only fails its own result line
+ */
+public record BatchRecommendationRequest(
+        @NotEmpty List<Item> items
+) {
+
+    /**
+     * One user's request; userData is optional and, when given (e.g. by an onboarding
+     * flow that just collected it), used instead of fetching the profile from user-service
+     */
+    public record Item(
+            Long userId,
+            PreferencesDto preferences,
+            UserDataDTO userData
+    ) {
+    }
+}
@@ -0,0 +1,28 @@
+package com.muscledia.muscledia_ai_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.muscledia.muscledia_ai_service.model.WorkoutRecommendation;
+
+/**
+ * One NDJSON line of a batch response, written as soon as its item finishes
+ * index is the item's position in the request, as lines arrive in completion order
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record BatchRecommendationResult(
+        int index,
+        Long userId,
+        String status,
+        WorkoutRecommendation result,
+        String error
+) {
+    public static final String COMPLETED = "COMPLETED";
+    public static final String FAILED = "FAILED";
+
+    public static BatchRecommendationResult completed(int index, Long userId, WorkoutRecommendation result) {
+        return new BatchRecommendationResult(index, userId, COMPLETED, result, null);
+    }
+
+    public static BatchRecommendationResult failed(int index, Long userId, String error) {
+        return new BatchRecommendationResult(index, userId, FAILED, null, error);
+    }
+}
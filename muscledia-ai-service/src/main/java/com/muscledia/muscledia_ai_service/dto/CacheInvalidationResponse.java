@@ -0,0 +1,7 @@
+package com.muscledia.muscledia_ai_service.dto;
+
+/**
+ * Result of an admin cache invalidation
+ */
+public record CacheInvalidationResponse(String cache, long removedEntries) {
+}
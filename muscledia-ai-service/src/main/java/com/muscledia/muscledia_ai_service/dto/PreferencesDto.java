@@ -3,17 +3,26 @@ package com.muscledia.muscledia_ai_service.dto;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
 
+/**
+ * Training preferences of a recommendation request
+ * equipmentType is optional (DUMBBELLS, EQUIPMENT_FREE, GYM_EQUIPMENT)
+ */
 public record PreferencesDto(
     @Positive int frequency,
-    @NotNull String lvlOfTraining
+    @NotNull String lvlOfTraining,
+    String equipmentType
 ) {
     public static PreferencesDto of(int frequency, String lvlOfTraining) {
+        return of(frequency, lvlOfTraining, null);
+    }
+
+    public static PreferencesDto of(int frequency, String lvlOfTraining, String equipmentType) {
         if (frequency <= 0) {
             throw new IllegalArgumentException("Frequency must be positive");
         }
         if (lvlOfTraining == null) {
             throw new IllegalArgumentException("TrainingLevel cannot be null");
         }
-        return new PreferencesDto(frequency, lvlOfTraining);
+        return new PreferencesDto(frequency, lvlOfTraining, equipmentType);
     }
 }
@@ -0,0 +1,21 @@
+package com.muscledia.muscledia_ai_service.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.muscledia.muscledia_ai_service.model.WorkoutRecommendation;
+
+import java.time.Instant;
+
+/**
+ * Snapshot of a recommendation job returned to clients
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record RecommendationJobResponse(
+        String jobId,
+        String status,
+        Instant submittedAt,
+        Instant startedAt,
+        Instant finishedAt,
+        WorkoutRecommendation result,
+        String error
+) {
+}
@@ -0,0 +1,17 @@
+package com.muscledia.muscledia_ai_service.dto;
+
+import com.muscledia.muscledia_ai_service.model.WorkoutPlan;
+
+import java.util.List;
+
+/**
+ * A routine expanded into its workout plans, in routine order
+ * missingPlanIds lists referenced plans that are not in the catalog
+ */
+public record RoutinePlansResponse(
+        String routineId,
+        String title,
+        List<WorkoutPlan> plans,
+        List<String> missingPlanIds
+) {
+}
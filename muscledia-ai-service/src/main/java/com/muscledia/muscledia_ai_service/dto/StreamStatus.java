@@ -0,0 +1,16 @@
+package com.muscledia.muscledia_ai_service.dto;
+
+/**
+ * Payload of the terminal event of a streamed answer
+ * status is "completed" or "failed"; message is set only on failure
+ */
+public record StreamStatus(String status, String message) {
+
+    public static StreamStatus completed() {
+        return new StreamStatus("completed", null);
+    }
+
+    public static StreamStatus failed(String message) {
+        return new StreamStatus("failed", message);
+    }
+}
@@ -0,0 +1,28 @@
+package com.muscledia.muscledia_ai_service.dto;
+
+import java.time.Instant;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Claims of a JWT whose signature has been verified
+ * Produced once per token by JwtService.verifyOnce
+ */
+public record VerifiedJwt(
+        Long userId,
+        String username,
+        List<String> roles,
+        Instant expiresAt,
+        Map<String, Object> claims
+) {
+    public VerifiedJwt {
+        roles = roles == null ? List.of() : List.copyOf(roles);
+        claims = claims == null ? Map.of() : Collections.unmodifiableMap(new LinkedHashMap<>(claims));
+    }
+
+    public boolean isExpired(Instant now) {
+        return expiresAt != null && !now.isBefore(expiresAt);
+    }
+}
@@ -0,0 +1,32 @@
+package com.muscledia.muscledia_ai_service.exception;
+
+import com.muscledia.muscledia_ai_service.exception.OllamaException.OllamaOverloadedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+/**
+ * Maps service exceptions that carry their own HTTP semantics
+ */
+@Slf4j
+@RestControllerAdvice
+public class GlobalExceptionHandler {
+
+    @ExceptionHandler(OllamaOverloadedException.class)
+    public ResponseEntity<Map<String, String>> handleOverloaded(OllamaOverloadedException e) {
+        log.warn("Shedding request: {}", e.getMessage());
+        return ResponseEntity.status(e.getStatus())
+                .header(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, e.getRetryAfter().toSeconds())))
+                // Preset: streaming clients accept only text/event-stream, the error body is JSON regardless
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(Map.of(
+                        "error", e.getStatus().getReasonPhrase(),
+                        "message", e.getMessage()
+                ));
+    }
+}
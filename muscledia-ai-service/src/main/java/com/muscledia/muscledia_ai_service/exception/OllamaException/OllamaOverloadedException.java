@@ -0,0 +1,29 @@
+package com.muscledia.muscledia_ai_service.exception.OllamaException;
+
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+
+/**
+ * Thrown when a call to Ollama is shed by the concurrency limiter
+ * Carries the HTTP status and Retry-After hint for the client
+ */
+public class OllamaOverloadedException extends OllamaException {
+
+    private final HttpStatus status;
+    private final Duration retryAfter;
+
+    public OllamaOverloadedException(String message, HttpStatus status, Duration retryAfter) {
+        super(message);
+        this.status = status;
+        this.retryAfter = retryAfter;
+    }
+
+    public HttpStatus getStatus() {
+        return status;
+    }
+
+    public Duration getRetryAfter() {
+        return retryAfter;
+    }
+}
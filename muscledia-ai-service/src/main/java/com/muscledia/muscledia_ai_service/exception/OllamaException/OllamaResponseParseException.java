@@ -0,0 +1,16 @@
+package com.muscledia.muscledia_ai_service.exception.OllamaException;
+
+/**
+ * Thrown when the model answered but its output is not a valid recommendation
+ * The call itself worked, so it is worth retrying
+ */
+public class OllamaResponseParseException extends OllamaException {
+
+    public OllamaResponseParseException(String message) {
+        super(message);
+    }
+
+    public OllamaResponseParseException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
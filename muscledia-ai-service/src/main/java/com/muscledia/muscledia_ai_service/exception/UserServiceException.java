@@ -0,0 +1,15 @@
+package com.muscledia.muscledia_ai_service.exception;
+
+/**
+ * user-service could not provide user data: an error status, no response or no body
+ */
+public class UserServiceException extends RuntimeException {
+
+    public UserServiceException(String message) {
+        super(message);
+    }
+
+    public UserServiceException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -1,16 +1,19 @@
 package com.muscledia.muscledia_ai_service.function;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.databind.node.ArrayNode;
-import com.fasterxml.jackson.databind.node.ObjectNode;
-import com.muscledia.muscledia_ai_service.util.AiPromptLoader;
+import com.muscledia.muscledia_ai_service.config.PromptProperties;
+import com.muscledia.muscledia_ai_service.model.DifficultyLevel;
+import com.muscledia.muscledia_ai_service.model.EncodedRoutines;
+import com.muscledia.muscledia_ai_service.model.PublicRoutine;
+import com.muscledia.muscledia_ai_service.model.RoutineQuery;
+import com.muscledia.muscledia_ai_service.service.RoutineCatalog;
+import com.muscledia.muscledia_ai_service.service.RoutinePromptEncoder;
+import com.muscledia.muscledia_ai_service.service.RoutineRanker;
+import com.muscledia.muscledia_ai_service.util.TokenEstimator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * Service for managing public workout routines
@@ -20,19 +23,34 @@ import java.util.List;
 @Service
 public class PublicRoutinesFunction {
 
-    private static final int MAX_ROUTINES_FOR_AI = 10;
-
-    private final ObjectMapper objectMapper;
-
-    public PublicRoutinesFunction(ObjectMapper objectMapper) {
-        this.objectMapper = objectMapper;
+    private static final int MAX_ROUTINES_FOR_AI = RoutineCatalog.MAX_SUMMARIES_PER_LEVEL;
+
+    private final RoutineCatalog routineCatalog;
+    private final RoutineRanker routineRanker;
+    private final RoutinePromptEncoder promptEncoder;
+
+    public PublicRoutinesFunction(
+            RoutineCatalog routineCatalog,
+            RoutineRanker routineRanker,
+            List<RoutinePromptEncoder> promptEncoders,
+            PromptProperties promptProperties) {
+        this.routineCatalog = routineCatalog;
+        this.routineRanker = routineRanker;
+        this.promptEncoder = promptEncoders.stream()
+                .filter(encoder -> encoder.name().equalsIgnoreCase(promptProperties.getEncoding()))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException(String.format(
+                        "Unknown recommendation.prompt.encoding '%s', expected one of %s",
+                        promptProperties.getEncoding(),
+                        promptEncoders.stream().map(RoutinePromptEncoder::name).toList())));
+        log.info("Routine prompt encoding: {}", promptEncoder.name());
     }
 
     /**
      * Get all public routines (for non-AI purposes)
      */
     public String getPublicRoutinesJson() {
-        return AiPromptLoader.loadJsonData("public_routines.json");
+        return routineCatalog.rawJson();
     }
 
     /**
@@ -40,36 +58,9 @@ public class PublicRoutinesFunction {
      * Used for general filtering, not optimized for AI
      */
     public String getFilteredPublicRoutinesJson(String trainingLevel) {
-        try {
-            String allRoutinesJson = AiPromptLoader.loadJsonData("public_routines.json");
-            JsonNode routinesArray = objectMapper.readTree(allRoutinesJson);
-
-            if (!routinesArray.isArray()) {
-                return allRoutinesJson;
-            }
-
-            List<JsonNode> filteredRoutines = new ArrayList<>();
-            Iterator<JsonNode> iterator = routinesArray.elements();
-
-            while (iterator.hasNext()) {
-                JsonNode routine = iterator.next();
-                String difficultyLevel = routine.has("difficultyLevel")
-                        ? routine.get("difficultyLevel").asText().toUpperCase()
-                        : "";
-
-                if (difficultyLevel.equalsIgnoreCase(trainingLevel.toUpperCase())) {
-                    filteredRoutines.add(routine);
-                }
-            }
-
-            if (filteredRoutines.isEmpty()) {
-                return allRoutinesJson;
-            }
-
-            return objectMapper.writeValueAsString(filteredRoutines);
-        } catch (Exception e) {
-            return getPublicRoutinesJson();
-        }
+        return DifficultyLevel.from(trainingLevel)
+                .flatMap(routineCatalog::fullJson)
+                .orElseGet(routineCatalog::rawJson);
     }
 
     /**
@@ -79,140 +70,39 @@ public class PublicRoutinesFunction {
      * 1. Limits to top 10 routines (reduces prompt size by ~80%)
      * 2. Returns only essential fields (6 fields vs full routine object)
      * 3. Minimal JSON structure (no nested arrays)
+     * 4. Served from summaries pre-serialized by {@link RoutineCatalog} at startup
      *
      * This reduces token count from ~4000 to ~800 characters
      * Expected speed improvement: 3-4 minutes faster
      */
     public String getOptimizedRoutineSummaries(String trainingLevel) {
-        try {
-            String allRoutinesJson = AiPromptLoader.loadJsonData("public_routines.json");
-            JsonNode routinesArray = objectMapper.readTree(allRoutinesJson);
-
-            if (!routinesArray.isArray()) {
-                log.warn("Routines data is not an array");
-                return createMinimalFallback(routinesArray);
-            }
-
-            List<JsonNode> filteredRoutines = filterAndLimitRoutines(
-                    routinesArray,
-                    trainingLevel,
-                    MAX_ROUTINES_FOR_AI
-            );
-
-            if (filteredRoutines.isEmpty()) {
-                log.info("No routines found for level: {}, using first {} routines",
-                        trainingLevel, MAX_ROUTINES_FOR_AI);
-                filteredRoutines = getFirstNRoutines(routinesArray, MAX_ROUTINES_FOR_AI);
-            }
-
-            ArrayNode minimalRoutines = createMinimalSummaries(filteredRoutines);
-            String result = objectMapper.writeValueAsString(minimalRoutines);
-
-            log.info("Optimized routines: {} items, {} characters (vs ~4000 for full data)",
-                    filteredRoutines.size(), result.length());
-
-            return result;
-
-        } catch (Exception e) {
-            log.error("Error creating optimized routine summaries", e);
-            return createEmergencyFallback();
-        }
-    }
-
-    /**
-     * Filter routines by level and limit to specified count
-     */
-    private List<JsonNode> filterAndLimitRoutines(
-            JsonNode routinesArray,
-            String trainingLevel,
-            int maxCount) {
-
-        List<JsonNode> filtered = new ArrayList<>();
-        Iterator<JsonNode> iterator = routinesArray.elements();
-        String normalizedLevel = trainingLevel.trim().toUpperCase();
-
-        while (iterator.hasNext() && filtered.size() < maxCount) {
-            JsonNode routine = iterator.next();
-
-            if (!routine.has("difficultyLevel")) {
-                continue;
-            }
-
-            String difficultyLevel = routine.get("difficultyLevel")
-                    .asText("")
-                    .trim()
-                    .toUpperCase();
+        Optional<String> summaries = DifficultyLevel.from(trainingLevel)
+                .flatMap(routineCatalog::summaryJson);
 
-            if (difficultyLevel.equals(normalizedLevel)) {
-                filtered.add(routine);
-            }
+        if (summaries.isEmpty()) {
+            log.info("No routines found for level: {}, using first {} routines",
+                    trainingLevel, MAX_ROUTINES_FOR_AI);
+            return routineCatalog.fallbackSummaryJson();
         }
 
-        return filtered;
-    }
-
-    /**
-     * Get first N routines as fallback
-     */
-    private List<JsonNode> getFirstNRoutines(JsonNode routinesArray, int count) {
-        List<JsonNode> result = new ArrayList<>();
-        Iterator<JsonNode> iterator = routinesArray.elements();
-
-        while (iterator.hasNext() && result.size() < count) {
-            result.add(iterator.next());
-        }
-
-        return result;
-    }
-
-    /**
-     * Create minimal summaries with only essential fields
-     * Fields included: id, title, difficultyLevel, workoutSplit, equipmentType, workoutPlanCount
-     */
-    private ArrayNode createMinimalSummaries(List<JsonNode> routines) {
-        ArrayNode minimalArray = objectMapper.createArrayNode();
-
-        for (JsonNode routine : routines) {
-            ObjectNode minimal = createMinimalSummary(routine);
-            minimalArray.add(minimal);
-        }
-
-        return minimalArray;
-    }
-
-    /**
-     * Extract only essential fields from routine
-     */
-    private ObjectNode createMinimalSummary(JsonNode routine) {
-        ObjectNode summary = objectMapper.createObjectNode();
-
-        summary.put("id", routine.path("id").asText(""));
-        summary.put("title", routine.path("title").asText(""));
-        summary.put("difficultyLevel", routine.path("difficultyLevel").asText(""));
-        summary.put("workoutSplit", routine.path("workoutSplit").asText(""));
-        summary.put("equipmentType", routine.path("equipmentType").asText(""));
-        summary.put("workoutPlanCount", routine.path("workoutPlanCount").asInt(0));
-
-        return summary;
-    }
-
-    /**
-     * Fallback for non-array data
-     */
-    private String createMinimalFallback(JsonNode data) {
-        try {
-            ArrayNode array = objectMapper.createArrayNode();
-            array.add(createMinimalSummary(data));
-            return objectMapper.writeValueAsString(array);
-        } catch (Exception e) {
-            return "[]";
-        }
+        log.debug("Optimized routines for level {}: {} characters", trainingLevel, summaries.get().length());
+        return summaries.get();
     }
 
     /**
-     * Emergency fallback - empty array
+     * OPTIMIZED FOR AI: The top-K routines for this user only, encoded for the prompt
+     * Routines are pre-ranked by goal, frequency and equipment (see {@link RoutineRanker}),
+     * so the model picks among a few strong candidates instead of the first 10 of a level.
+     * The default tabular encoding writes keys once and uses short refs for ids; map the
+     * model's answer back with {@link EncodedRoutines#resolve}
      */
-    private String createEmergencyFallback() {
-        return "[]";
+    public EncodedRoutines getRankedRoutines(RoutineQuery query) {
+        List<PublicRoutine> topRoutines = routineRanker.topK(query);
+        EncodedRoutines encoded = promptEncoder.encode(topRoutines);
+
+        log.debug("Ranked routines for level {}: {} routines, {} characters, ~{} tokens ({})",
+                query.level(), topRoutines.size(), encoded.text().length(),
+                TokenEstimator.estimate(encoded.text()), encoded.encoding());
+        return encoded;
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,45 @@
+package com.muscledia.muscledia_ai_service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * One call to Ollama, from asking for a concurrency slot to the last chunk read
+ * Token counts are only known when Ollama's final response was read (-1 otherwise)
+ */
+@Name("muscledia.OllamaCall")
+@Label("Ollama Call")
+@Category({"Muscledia", "AI Service"})
+@Description("Chat model call through the concurrency limiter")
+@StackTrace(false)
+public class OllamaCallEvent extends Event {
+
+    @Label("Model")
+    public String model;
+
+    @Label("Streamed")
+    public boolean streamed;
+
+    @Label("Prompt Characters")
+    public long promptChars;
+
+    @Label("Prompt Tokens")
+    public int promptTokens = -1;
+
+    @Label("Generated Tokens")
+    public int evalTokens = -1;
+
+    @Label("Queue Wait")
+    @Description("Time spent waiting for a concurrency slot")
+    @Timespan(Timespan.NANOSECONDS)
+    public long queueWait;
+
+    @Label("Outcome")
+    @Description("success, cancelled (early stop or client gone) or failure")
+    public String outcome;
+}
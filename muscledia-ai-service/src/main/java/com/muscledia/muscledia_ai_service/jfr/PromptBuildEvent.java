@@ -0,0 +1,26 @@
+package com.muscledia.muscledia_ai_service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Rendering of the recommendation prompt from user context and ranked routines
+ */
+@Name("muscledia.PromptBuild")
+@Label("Prompt Build")
+@Category({"Muscledia", "AI Service"})
+@StackTrace(false)
+public class PromptBuildEvent extends Event {
+
+    @Label("Routines Characters")
+    public long routinesChars;
+
+    @Label("Prompt Characters")
+    public long promptChars;
+
+    @Label("Estimated Prompt Tokens")
+    public int estimatedTokens;
+}
@@ -0,0 +1,25 @@
+package com.muscledia.muscledia_ai_service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Parsing of a model response into a recommendation
+ */
+@Name("muscledia.ResponseParse")
+@Label("Response Parse")
+@Category({"Muscledia", "AI Service"})
+@StackTrace(false)
+public class ResponseParseEvent extends Event {
+
+    @Label("Response Characters")
+    public long responseChars;
+
+    @Label("Outcome")
+    @Description("success, repaired (cut-off output closed) or failure")
+    public String outcome;
+}
@@ -0,0 +1,29 @@
+package com.muscledia.muscledia_ai_service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * HTTP request over the slow-request threshold; committed just before the recording
+ * is dumped, so every dump names the request that triggered it
+ */
+@Name("muscledia.SlowRequest")
+@Label("Slow Request")
+@Category({"Muscledia", "AI Service"})
+@Description("Request that took longer than the slow-request threshold")
+@StackTrace(false)
+public class SlowRequestEvent extends Event {
+
+    @Label("Method")
+    public String method;
+
+    @Label("Path")
+    public String path;
+
+    @Label("Status")
+    public int status;
+}
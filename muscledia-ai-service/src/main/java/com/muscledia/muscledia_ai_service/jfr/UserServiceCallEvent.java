@@ -0,0 +1,30 @@
+package com.muscledia.muscledia_ai_service.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * One blocking request to user-service for a user's profile data
+ */
+@Name("muscledia.UserServiceCall")
+@Label("User Service Call")
+@Category({"Muscledia", "AI Service"})
+@Description("Profile data request to user-service")
+@StackTrace(false)
+public class UserServiceCallEvent extends Event {
+
+    @Label("User Id")
+    @Description("From the token, 0 when it could not be read")
+    public long userId;
+
+    @Label("Status Code")
+    @Description("HTTP status of an error response, 0 otherwise")
+    public int statusCode;
+
+    @Label("Outcome")
+    public String outcome;
+}
@@ -0,0 +1,26 @@
+package com.muscledia.muscledia_ai_service.model;
+
+import java.util.Optional;
+
+/**
+ * Difficulty level of a public routine
+ */
+public enum DifficultyLevel {
+    BEGINNER,
+    INTERMEDIATE,
+    ADVANCED;
+
+    /**
+     * Lenient parse of a raw catalog or request value (case and whitespace insensitive)
+     */
+    public static Optional<DifficultyLevel> from(String value) {
+        if (value == null || value.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(valueOf(value.trim().toUpperCase()));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package com.muscledia.muscledia_ai_service.model;
+
+import com.muscledia.muscledia_ai_service.exception.OllamaException.OllamaResponseParseException;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Routine candidates encoded for a prompt
+ * idsByAlias maps the short references shown to the model back to catalog ids
+ * (empty when the encoding shows real ids); candidateIds are the catalog ids of
+ * every routine in the prompt, the only ones an answer may name
+ */
+public record EncodedRoutines(String encoding, String text, Map<String, String> idsByAlias, Set<String> candidateIds) {
+
+    public EncodedRoutines {
+        idsByAlias = idsByAlias == null ? Map.of() : Map.copyOf(idsByAlias);
+        candidateIds = candidateIds == null ? Set.of() : Set.copyOf(candidateIds);
+    }
+
+    /**
+     * Catalog id for a reference returned by the model: a short ref or a candidate's id
+     *
+     * @throws OllamaResponseParseException for anything else, e.g. a ref the model made up
+     */
+    public String resolveId(String reference) {
+        String trimmed = reference == null ? "" : reference.trim();
+        String id = idsByAlias.get(trimmed);
+        if (id != null) {
+            return id;
+        }
+        if (candidateIds.contains(trimmed)) {
+            return trimmed;
+        }
+        throw new OllamaResponseParseException(
+                "Answer names routine '" + reference + "', which is not one of the candidates");
+    }
+
+    /**
+     * Replace the alias in a model answer with the catalog id
+     *
+     * @throws OllamaResponseParseException if the answer names no candidate
+     */
+    public WorkoutRecommendation resolve(WorkoutRecommendation recommendation) {
+        if (recommendation == null) {
+            return null;
+        }
+        return new WorkoutRecommendation(
+                recommendation.suggestedWorkoutRoutine(),
+                resolveId(recommendation.routineId()),
+                recommendation.description(),
+                recommendation.difficultyLevel(),
+                recommendation.workoutSplit(),
+                recommendation.provisional()
+        );
+    }
+}
@@ -0,0 +1,26 @@
+package com.muscledia.muscledia_ai_service.model;
+
+import java.util.Optional;
+
+/**
+ * Equipment required by a public routine
+ */
+public enum EquipmentType {
+    DUMBBELLS,
+    EQUIPMENT_FREE,
+    GYM_EQUIPMENT;
+
+    /**
+     * Lenient parse of a raw catalog or request value (case and whitespace insensitive)
+     */
+    public static Optional<EquipmentType> from(String value) {
+        if (value == null || value.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(valueOf(value.trim().toUpperCase()));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+package com.muscledia.muscledia_ai_service.model;
+
+/**
+ * Request pipelines whose stages are timed, used as metric tags
+ */
+public enum Pipeline {
+    RECOMMENDATION("recommendation"),
+    CHAT("chat");
+
+    private final String tag;
+
+    Pipeline(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+}
@@ -0,0 +1,22 @@
+package com.muscledia.muscledia_ai_service.model;
+
+/**
+ * Stages of the recommendation and chat pipelines, used as metric tags
+ */
+public enum PipelineStage {
+    USER_FETCH("user_fetch"),
+    CATALOG_SUMMARY("catalog_summary"),
+    PROMPT_BUILD("prompt_build"),
+    LLM_CALL("llm_call"),
+    PARSE("parse");
+
+    private final String tag;
+
+    PipelineStage(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+}
@@ -0,0 +1,48 @@
+package com.muscledia.muscledia_ai_service.model;
+
+import com.muscledia.muscledia_ai_service.dto.PreferencesDto;
+import com.muscledia.muscledia_ai_service.dto.UserData;
+
+/**
+ * Quantized user profile used as a recommendation cache key
+ * Users falling into the same bucket share one AI recommendation
+ */
+public record ProfileBucket(
+        int ageBand,
+        String gender,
+        double bmiBand,
+        String goalType,
+        String level,
+        int frequency,
+        String equipment
+) {
+    private static final int AGE_BAND_YEARS = 5;
+    private static final double BMI_BAND_WIDTH = 2.5;
+
+    /**
+     * Build a bucket from user data and preferences
+     * Age is floored to 5-year bands, BMI to 2.5-point bands, text values normalized
+     */
+    public static ProfileBucket of(UserData userData, PreferencesDto preferences) {
+        if (userData == null || preferences == null) {
+            throw new IllegalArgumentException("User data and preferences are required");
+        }
+
+        double heightMeters = userData.height() / 100.0;
+        double bmi = userData.weight() / (heightMeters * heightMeters);
+
+        return new ProfileBucket(
+                (userData.age() / AGE_BAND_YEARS) * AGE_BAND_YEARS,
+                normalize(userData.gender()),
+                Math.floor(bmi / BMI_BAND_WIDTH) * BMI_BAND_WIDTH,
+                normalize(userData.goalType()),
+                normalize(preferences.lvlOfTraining()),
+                preferences.frequency(),
+                normalize(preferences.equipmentType())
+        );
+    }
+
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toUpperCase();
+    }
+}
@@ -0,0 +1,37 @@
+package com.muscledia.muscledia_ai_service.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Domain model for a public workout routine from the catalog
+ * Immutable; enum fields are null when the source value is missing or unknown
+ */
+public record PublicRoutine(
+        @JsonProperty("id") String id,
+        @JsonProperty("hevyId") Long hevyId,
+        @JsonProperty("folderIndex") Integer folderIndex,
+        @JsonProperty("title") String title,
+        @JsonProperty("workoutPlanIds") List<String> workoutPlanIds,
+        @JsonProperty("difficultyLevel") DifficultyLevel difficultyLevel,
+        @JsonProperty("equipmentType") EquipmentType equipmentType,
+        @JsonProperty("workoutSplit") WorkoutSplit workoutSplit,
+        @JsonProperty("isPublic") boolean isPublic,
+        @JsonProperty("createdBy") Long createdBy,
+        @JsonProperty("usageCount") long usageCount,
+        @JsonProperty("createdAt") String createdAt,
+        @JsonProperty("updatedAt") String updatedAt,
+        @JsonProperty("workoutPlanCount") int workoutPlanCount,
+        @JsonProperty("personal") boolean personal
+) {
+    /**
+     * Compact constructor for validation
+     */
+    public PublicRoutine {
+        if (id == null || id.isBlank()) {
+            throw new IllegalArgumentException("Routine ID cannot be null or blank");
+        }
+        workoutPlanIds = workoutPlanIds == null ? List.of() : List.copyOf(workoutPlanIds);
+    }
+}
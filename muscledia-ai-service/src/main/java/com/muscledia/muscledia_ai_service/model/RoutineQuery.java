@@ -0,0 +1,27 @@
+package com.muscledia.muscledia_ai_service.model;
+
+import com.muscledia.muscledia_ai_service.dto.PreferencesDto;
+import com.muscledia.muscledia_ai_service.dto.UserData;
+
+/**
+ * What a user is looking for in a routine, as seen by the routine ranker
+ * level and equipment are null when missing or unknown
+ */
+public record RoutineQuery(
+        DifficultyLevel level,
+        int frequency,
+        String goalType,
+        EquipmentType equipment
+) {
+    public static RoutineQuery of(UserData userData, PreferencesDto preferences) {
+        if (userData == null || preferences == null) {
+            throw new IllegalArgumentException("User data and preferences are required");
+        }
+        return new RoutineQuery(
+                DifficultyLevel.from(preferences.lvlOfTraining()).orElse(null),
+                preferences.frequency(),
+                userData.goalType() == null ? "" : userData.goalType().trim().toUpperCase(),
+                EquipmentType.from(preferences.equipmentType()).orElse(null)
+        );
+    }
+}
@@ -0,0 +1,30 @@
+package com.muscledia.muscledia_ai_service.model;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+/**
+ * Minimal routine view sent to the AI model
+ * Only the fields the model needs to pick a routine
+ */
+public record RoutineSummary(
+        @JsonProperty("id") String id,
+        @JsonProperty("title") String title,
+        @JsonProperty("difficultyLevel") String difficultyLevel,
+        @JsonProperty("workoutSplit") String workoutSplit,
+        @JsonProperty("equipmentType") String equipmentType,
+        @JsonProperty("workoutPlanCount") int workoutPlanCount
+) {
+    /**
+     * Build a summary from a catalog routine, using empty strings for missing values
+     */
+    public static RoutineSummary of(PublicRoutine routine) {
+        return new RoutineSummary(
+                routine.id(),
+                routine.title() != null ? routine.title() : "",
+                routine.difficultyLevel() != null ? routine.difficultyLevel().name() : "",
+                routine.workoutSplit() != null ? routine.workoutSplit().name() : "",
+                routine.equipmentType() != null ? routine.equipmentType().name() : "",
+                routine.workoutPlanCount()
+        );
+    }
+}
@@ -0,0 +1,7 @@
+package com.muscledia.muscledia_ai_service.model;
+
+/**
+ * Catalog routine with its ranking score (higher is a better match)
+ */
+public record ScoredRoutine(PublicRoutine routine, double score) {
+}
@@ -0,0 +1,53 @@
+package com.muscledia.muscledia_ai_service.model;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+import java.util.List;
+
+/**
+ * Domain model for a public workout plan (one session of a routine) with its exercises and sets
+ * Immutable; catalog bookkeeping fields of the source (createdBy, usageCount, ...) are not kept
+ */
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record WorkoutPlan(
+        @JsonProperty("id") String id,
+        @JsonProperty("title") String title,
+        @JsonProperty("folderId") String folderId,
+        @JsonProperty("description") String description,
+        @JsonProperty("estimatedDurationMinutes") Integer estimatedDurationMinutes,
+        @JsonProperty("exercises") List<Exercise> exercises
+) {
+    public WorkoutPlan {
+        exercises = exercises == null ? List.of() : List.copyOf(exercises);
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record Exercise(
+            @JsonProperty("index") int index,
+            @JsonProperty("title") String title,
+            @JsonProperty("notes") String notes,
+            @JsonProperty("exerciseTemplateId") String exerciseTemplateId,
+            @JsonProperty("supersetId") String supersetId,
+            @JsonProperty("restSeconds") Integer restSeconds,
+            @JsonProperty("sets") List<WorkoutSet> sets
+    ) {
+        public Exercise {
+            sets = sets == null ? List.of() : List.copyOf(sets);
+        }
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    public record WorkoutSet(
+            @JsonProperty("index") int index,
+            @JsonProperty("type") String type,
+            @JsonProperty("weightKg") Double weightKg,
+            @JsonProperty("reps") Integer reps,
+            @JsonProperty("distanceMeters") Double distanceMeters,
+            @JsonProperty("durationSeconds") Integer durationSeconds,
+            @JsonProperty("repRangeStart") Integer repRangeStart,
+            @JsonProperty("repRangeEnd") Integer repRangeEnd,
+            @JsonProperty("effectiveReps") String effectiveReps
+    ) {
+    }
+}
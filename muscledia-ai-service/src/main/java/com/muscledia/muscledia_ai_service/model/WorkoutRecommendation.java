@@ -1,17 +1,22 @@
 package com.muscledia.muscledia_ai_service.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonProperty;
 
 /**
  * Domain model for workout recommendations
  * Immutable with validation
+ * provisional marks a catalog-based answer served when the model missed the deadline;
+ * it is never read from model output
  */
+@JsonIgnoreProperties(value = "provisional", allowGetters = true)
 public record WorkoutRecommendation(
         @JsonProperty("suggestedWorkoutRoutine") String suggestedWorkoutRoutine,
         @JsonProperty("routineId") String routineId,
         @JsonProperty("description") String description,
         @JsonProperty("difficultyLevel") String difficultyLevel,
-        @JsonProperty("workoutSplit") String workoutSplit
+        @JsonProperty("workoutSplit") String workoutSplit,
+        @JsonProperty("provisional") boolean provisional
 ) {
     /**
      * Compact constructor for validation
@@ -27,4 +32,16 @@ public record WorkoutRecommendation(
             throw new IllegalArgumentException("Description cannot be null or blank");
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Final (model-generated) recommendation
+     */
+    public WorkoutRecommendation(
+            String suggestedWorkoutRoutine,
+            String routineId,
+            String description,
+            String difficultyLevel,
+            String workoutSplit) {
+        this(suggestedWorkoutRoutine, routineId, description, difficultyLevel, workoutSplit, false);
+    }
+}
@@ -0,0 +1,26 @@
+package com.muscledia.muscledia_ai_service.model;
+
+import java.util.Optional;
+
+/**
+ * Workout split of a public routine
+ */
+public enum WorkoutSplit {
+    FULL_BODY,
+    PUSH_PULL_LEGS,
+    UPPER_LOWER;
+
+    /**
+     * Lenient parse of a raw catalog or request value (case and whitespace insensitive)
+     */
+    public static Optional<WorkoutSplit> from(String value) {
+        if (value == null || value.isBlank()) {
+            return Optional.empty();
+        }
+        try {
+            return Optional.of(valueOf(value.trim().toUpperCase()));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.muscledia.muscledia_ai_service.security;
 
 import com.muscledia.muscledia_ai_service.dto.UserPrincipal;
+import com.muscledia.muscledia_ai_service.dto.VerifiedJwt;
 import com.muscledia.muscledia_ai_service.service.JwtService;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -60,21 +62,21 @@ public class JwtAuthenticationWebFilter extends OncePerRequestFilter {
     }
 
     private JwtAuthenticationToken validateAuthentication(String token) {
-        if (!jwtService.validateToken(token)) {
-            throw new AuthenticationServiceException("Invalid JWT token");
+        VerifiedJwt jwt;
+        try {
+            // One signature verification per token; repeat callers hit the verified-token cache
+            jwt = jwtService.verifyOnce(token);
+        } catch (JwtException | IllegalArgumentException e) {
+            throw new AuthenticationServiceException("Invalid JWT token", e);
         }
 
-        Long userId = jwtService.extractUserId(token);
-        String username = jwtService.extractUsername(token);
-        List<String> roles = jwtService.extractRoles(token);
-
-        log.debug("Authenticated user: {} with role: {}", username, roles);
+        log.debug("Authenticated user: {} with role: {}", jwt.username(), jwt.roles());
 
-        List<SimpleGrantedAuthority> authorities = roles.stream()
+        List<SimpleGrantedAuthority> authorities = jwt.roles().stream()
                 .map(role -> new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()))
                 .toList();
 
-        UserPrincipal principal = new UserPrincipal(userId, username, authorities);
+        UserPrincipal principal = new UserPrincipal(jwt.userId(), jwt.username(), authorities);
         return new JwtAuthenticationToken(principal, token, authorities);
     }
 
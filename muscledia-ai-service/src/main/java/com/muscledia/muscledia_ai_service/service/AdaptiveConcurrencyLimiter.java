@@ -0,0 +1,256 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.muscledia.muscledia_ai_service.config.OllamaLimiterProperties;
+import com.muscledia.muscledia_ai_service.exception.OllamaException.OllamaException;
+import com.muscledia.muscledia_ai_service.exception.OllamaException.OllamaOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Adaptive concurrency limiter for calls to the Ollama backend
+ *
+ * Gradient algorithm: the limit follows the ratio between the long-term
+ * (baseline) and short-term latency. When concurrent generations start
+ * to queue inside Ollama, short-term latency rises, the gradient drops
+ * below 1 and the limit shrinks; while latency is stable the limit grows
+ * by sqrt(limit). Failures back the limit off multiplicatively.
+ *
+ * Callers over the limit wait in a bounded queue for at most max-queue-time;
+ * a full queue sheds with 429, a queue timeout sheds with 503.
+ */
+@Slf4j
+@Component
+public class AdaptiveConcurrencyLimiter {
+
+    private static final double SHORT_RTT_ALPHA = 0.3;
+    private static final double LONG_RTT_ALPHA = 0.02;
+    private static final double RTT_TOLERANCE = 1.5;
+    private static final double MIN_GRADIENT = 0.5;
+
+    private final OllamaLimiterProperties properties;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition available = lock.newCondition();
+
+    private volatile double limit;
+    private volatile int inFlight;
+    private volatile int waiting;
+    private double shortRttNanos;
+    private double longRttNanos;
+
+    private final Counter queueFullCounter;
+    private final Counter queueTimeoutCounter;
+    private final Timer queueWaitTimer;
+
+    public AdaptiveConcurrencyLimiter(OllamaLimiterProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.limit = clamp(properties.getInitialLimit());
+
+        Gauge.builder("ollama.limiter.limit", this, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit for Ollama calls")
+                .register(meterRegistry);
+        Gauge.builder("ollama.limiter.inflight", this, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Ollama calls currently in flight")
+                .register(meterRegistry);
+        Gauge.builder("ollama.limiter.queue.size", this, AdaptiveConcurrencyLimiter::getQueueSize)
+                .description("Callers waiting for an Ollama slot")
+                .register(meterRegistry);
+        this.queueFullCounter = rejectedCounter(meterRegistry, "queue_full");
+        this.queueTimeoutCounter = rejectedCounter(meterRegistry, "queue_timeout");
+        this.queueWaitTimer = Timer.builder("ollama.limiter.queue.wait")
+                .description("Time spent waiting for an Ollama slot")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Acquire a slot, waiting up to max-queue-time
+     *
+     * @return a permit that must be released exactly once when the call finishes
+     * @throws OllamaOverloadedException if the call is shed
+     */
+    public Permit acquire() {
+        if (!properties.isEnabled()) {
+            // No-op permit: release() ignores permits that never took a slot
+            return new Permit(0);
+        }
+
+        long waitStart = System.nanoTime();
+        lock.lock();
+        try {
+            if (inFlight < getLimit() && waiting == 0) {
+                return grant();
+            }
+
+            if (waiting >= properties.getMaxQueueSize()) {
+                throw queueFull();
+            }
+
+            waiting++;
+            try {
+                long remaining = properties.getMaxQueueTime().toNanos();
+                while (inFlight >= getLimit()) {
+                    if (remaining <= 0) {
+                        queueTimeoutCounter.increment();
+                        throw new OllamaOverloadedException(
+                                "Timed out waiting for AI service capacity",
+                                HttpStatus.SERVICE_UNAVAILABLE,
+                                properties.getRetryAfter()
+                        );
+                    }
+                    remaining = available.awaitNanos(remaining);
+                }
+                return grant();
+            } finally {
+                waiting--;
+                queueWaitTimer.record(System.nanoTime() - waitStart, TimeUnit.NANOSECONDS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OllamaException("Interrupted while waiting for AI service capacity", e);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Shed now if a new caller would find the queue full, without taking a slot
+     * For callers that must fail before the work starts, e.g. streamed responses whose
+     * status is committed before the model call acquires its permit
+     * Best effort: the later acquire() can still shed on a queue timeout
+     *
+     * @throws OllamaOverloadedException if the queue is full
+     */
+    public void checkCapacity() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        lock.lock();
+        try {
+            boolean mustWait = inFlight >= getLimit() || waiting > 0;
+            if (mustWait && waiting >= properties.getMaxQueueSize()) {
+                throw queueFull();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight;
+    }
+
+    public int getQueueSize() {
+        return waiting;
+    }
+
+    private OllamaOverloadedException queueFull() {
+        queueFullCounter.increment();
+        return new OllamaOverloadedException(
+                "AI service is at capacity, please retry later",
+                HttpStatus.TOO_MANY_REQUESTS,
+                properties.getRetryAfter()
+        );
+    }
+
+    private Permit grant() {
+        inFlight++;
+        return new Permit(inFlight);
+    }
+
+    private void onRelease(long rttNanos, int inFlightAtStart, boolean success) {
+        lock.lock();
+        try {
+            inFlight--;
+
+            double previous = limit;
+            if (success) {
+                onSample(rttNanos, inFlightAtStart);
+            } else {
+                limit = clamp(limit * properties.getBackoffRatio());
+            }
+
+            if (getLimit() != (int) previous) {
+                log.debug("Ollama concurrency limit {} -> {}", (int) previous, getLimit());
+            }
+            available.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void onSample(long rttNanos, int inFlightAtStart) {
+        if (longRttNanos == 0) {
+            shortRttNanos = rttNanos;
+            longRttNanos = rttNanos;
+            return;
+        }
+
+        shortRttNanos = shortRttNanos + SHORT_RTT_ALPHA * (rttNanos - shortRttNanos);
+        longRttNanos = longRttNanos + LONG_RTT_ALPHA * (rttNanos - longRttNanos);
+
+        // Let the baseline follow a sustained latency shift instead of pinning the limit low forever
+        if (longRttNanos / shortRttNanos > 2) {
+            longRttNanos *= 0.95;
+        }
+
+        // App-limited: not enough load to learn anything about capacity
+        if (inFlightAtStart < limit / 2) {
+            return;
+        }
+
+        double gradient = Math.max(MIN_GRADIENT, Math.min(1.0, RTT_TOLERANCE * longRttNanos / shortRttNanos));
+        double estimate = limit * gradient + Math.sqrt(limit);
+        double smoothing = properties.getSmoothing();
+        limit = clamp(limit * (1 - smoothing) + estimate * smoothing);
+    }
+
+    private double clamp(double value) {
+        return Math.max(properties.getMinLimit(), Math.min(properties.getMaxLimit(), value));
+    }
+
+    private static Counter rejectedCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("ollama.limiter.rejected")
+                .description("Ollama calls shed by the concurrency limiter")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Slot held for the duration of one Ollama call
+     */
+    public final class Permit {
+
+        private final long startNanos = System.nanoTime();
+        private final int inFlightAtStart;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(int inFlightAtStart) {
+            this.inFlightAtStart = inFlightAtStart;
+        }
+
+        /**
+         * Release the slot and feed the call latency into the limit
+         *
+         * @param success false for errors and timeouts, which back the limit off
+         */
+        public void release(boolean success) {
+            if (inFlightAtStart == 0 || !released.compareAndSet(false, true)) {
+                return;
+            }
+            onRelease(System.nanoTime() - startNanos, inFlightAtStart, success);
+        }
+    }
+}
@@ -2,9 +2,14 @@ package com.muscledia.muscledia_ai_service.service;
 
 import com.muscledia.muscledia_ai_service.dto.UserData;
 import com.muscledia.muscledia_ai_service.dto.PreferencesDto;
+import com.muscledia.muscledia_ai_service.jfr.PromptBuildEvent;
+import com.muscledia.muscledia_ai_service.util.TokenEstimator;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
+import java.util.HashMap;
+import java.util.Map;
+
 /**
  * Domain service for AI prompts
  * OPTIMIZED: Concise prompts with strict JSON-only instructions
@@ -13,6 +18,15 @@ import org.springframework.stereotype.Service;
 @Service
 public class AiPromptService {
 
+    static final String USER_CONTEXT_TEMPLATE = "user_context";
+    static final String RECOMMENDATION_TEMPLATE = "recommendation_prompt";
+
+    private final PromptTemplateRegistry templates;
+
+    public AiPromptService(PromptTemplateRegistry templates) {
+        this.templates = templates;
+    }
+
     /**
      * OPTIMIZED: Build concise user context
      */
@@ -20,53 +34,46 @@ public class AiPromptService {
         validateUserData(userData);
         validatePreferences(preferences);
 
-        return String.format("""
-            User: %d yrs, %s, %.0f cm, %.0f kg
-            Goal: %s
-            Training: %s, %d days/week
-            """,
-                userData.age(),
-                userData.gender(),
-                userData.height(),
-                userData.weight(),
-                userData.goalType(),
-                preferences.lvlOfTraining(),
-                preferences.frequency()
-        );
+        Map<String, Object> values = new HashMap<>();
+        values.put("age", userData.age());
+        values.put("gender", userData.gender());
+        values.put("height", Math.round(userData.height()));
+        values.put("weight", Math.round(userData.weight()));
+        values.put("goal", userData.goalType());
+        values.put("level", preferences.lvlOfTraining());
+        values.put("frequency", preferences.frequency());
+        return templates.render(USER_CONTEXT_TEMPLATE, values);
     }
 
     /**
      * OPTIMIZED: Build strict JSON-only prompt
      * Forces AI to output only JSON, no preamble
      */
-    public String buildRecommendationPrompt(String userContext, String routinesJson) {
+    public String buildRecommendationPrompt(String userContext, String routines) {
         if (userContext == null || userContext.trim().isEmpty()) {
             throw new IllegalArgumentException("User context cannot be null or empty");
         }
-        if (routinesJson == null || routinesJson.trim().isEmpty()) {
-            throw new IllegalArgumentException("Routines JSON cannot be null or empty");
+        if (routines == null || routines.trim().isEmpty()) {
+            throw new IllegalArgumentException("Routines cannot be null or empty");
         }
 
-        // CRITICAL: Very strict instructions for JSON-only output
-        return String.format("""
-            YOU MUST RESPOND WITH ONLY A JSON OBJECT. NO TEXT BEFORE OR AFTER.
-            
-            %s
-            
-            Available routines:
-            %s
-            
-            Select the BEST routine and respond with ONLY this JSON (no explanations):
-            {
-              "suggestedWorkoutRoutine": "exact routine title",
-              "routineId": "exact routine id",
-              "description": "why this routine suits the user (max 50 words)",
-              "difficultyLevel": "exact difficulty from routine",
-              "workoutSplit": "exact workout split from routine"
-            }
-            
-            CRITICAL: Output ONLY the JSON object above. No preamble, no explanations, no markdown.
-            """, userContext, routinesJson);
+        PromptBuildEvent event = new PromptBuildEvent();
+        event.begin();
+
+        // CRITICAL: Very strict instructions for JSON-only output (see recommendation_prompt.txt)
+        String prompt = templates.render(RECOMMENDATION_TEMPLATE, Map.of(
+                "userContext", userContext,
+                "routines", routines
+        ));
+
+        event.end();
+        if (event.shouldCommit()) {
+            event.routinesChars = routines.length();
+            event.promptChars = prompt.length();
+            event.estimatedTokens = TokenEstimator.estimate(prompt);
+            event.commit();
+        }
+        return prompt;
     }
 
     private void validateUserData(UserData userData) {
@@ -2,24 +2,38 @@ package com.muscledia.muscledia_ai_service.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.muscledia.muscledia_ai_service.exception.OllamaException.OllamaException;
+import com.muscledia.muscledia_ai_service.exception.OllamaException.OllamaResponseParseException;
+import com.muscledia.muscledia_ai_service.jfr.ResponseParseEvent;
 import com.muscledia.muscledia_ai_service.model.WorkoutRecommendation;
-import lombok.RequiredArgsConstructor;
+import com.muscledia.muscledia_ai_service.util.JsonObjectExtractor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.util.regex.Matcher;
-import java.util.regex.Pattern;
+import reactor.core.publisher.Flux;
 
 /**
  * Service responsible for parsing AI responses
- * Single responsibility: clean and parse JSON responses
+ * Single responsibility: extract and parse JSON responses, whole or streamed
+ *
+ * Meter: recommendation.parse (counter) tagged with outcome: success, repaired, failure
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class AiResponseParser {
 
     private final ObjectMapper objectMapper;
+    private final Counter parsed;
+    private final Counter repaired;
+    private final Counter failed;
+
+    public AiResponseParser(ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.objectMapper = objectMapper;
+        this.parsed = outcomeCounter(meterRegistry, "success");
+        this.repaired = outcomeCounter(meterRegistry, "repaired");
+        this.failed = outcomeCounter(meterRegistry, "failure");
+    }
 
     /**
      * Parse JSON response to WorkoutRecommendation
@@ -30,113 +44,111 @@ public class AiResponseParser {
             throw new IllegalArgumentException("JSON response cannot be null or empty");
         }
 
-        try {
-            log.debug("Raw AI response length: {} characters", jsonResponse.length());
-            log.debug("Raw response preview: {}",
-                    jsonResponse.substring(0, Math.min(200, jsonResponse.length())));
+        log.debug("Raw AI response length: {} characters", jsonResponse.length());
+        JsonObjectExtractor extractor = new JsonObjectExtractor();
+        extractor.feed(jsonResponse);
+        return read(extractor, jsonResponse);
+    }
 
-            String cleaned = extractAndCleanJson(jsonResponse);
+    /**
+     * Parse the recommendation from a token stream, cancelling the stream (and so the
+     * generation) as soon as the top-level JSON object closes
+     * Blocks the calling thread until then
+     */
+    public WorkoutRecommendation parseRecommendation(Flux<String> tokens) {
+        return parseRecommendation(collect(tokens, 0));
+    }
 
-            log.debug("Cleaned JSON length: {} characters", cleaned.length());
-            log.debug("Cleaned JSON: {}", cleaned);
+    /**
+     * Parse a recommendation collected with {@link #collect}
+     */
+    public WorkoutRecommendation parseRecommendation(StreamedResponse response) {
+        return read(response.extractor(), response.raw());
+    }
 
-            WorkoutRecommendation recommendation = objectMapper.readValue(
-                    cleaned,
-                    WorkoutRecommendation.class
-            );
+    /**
+     * Consume a token stream until the top-level JSON object closes, then up to
+     * trailingChunks more before cancelling; Ollama sends its timings and token counts
+     * in the final (usually empty) chunk right after the last token, so one trailing
+     * chunk is enough to observe them. Trailing chunks are not part of the response.
+     * Blocks the calling thread until then
+     */
+    public StreamedResponse collect(Flux<String> tokens, int trailingChunks) {
+        JsonObjectExtractor extractor = new JsonObjectExtractor();
+        StringBuilder raw = new StringBuilder();
+        int[] trailing = {trailingChunks};
+
+        tokens.takeUntil(token -> {
+                    if (extractor.isComplete()) {
+                        return --trailing[0] <= 0;
+                    }
+                    raw.append(token);
+                    return extractor.feed(token) && trailing[0] <= 0;
+                })
+                .blockLast();
+
+        log.debug("AI stream consumed: {} characters, {} skipped before the JSON object",
+                raw.length(), extractor.skipped());
+        return new StreamedResponse(extractor, raw);
+    }
+
+    /**
+     * Read the extracted object; output cut off mid-object (num-predict reached) is
+     * repaired by closing the open string and braces
+     */
+    private WorkoutRecommendation read(JsonObjectExtractor extractor, CharSequence rawResponse) {
+        ResponseParseEvent event = new ResponseParseEvent();
+        event.begin();
+        boolean repair = !extractor.isComplete();
+        String json = repair ? extractor.repaired() : extractor.json();
+        if (json == null) {
+            failed.increment();
+            commit(event, rawResponse, "failure");
+            log.error("Could not extract JSON from response: {}",
+                    rawResponse.subSequence(0, Math.min(200, rawResponse.length())));
+            throw new OllamaResponseParseException("AI response does not contain valid JSON");
+        }
+
+        try {
+            log.debug("Extracted JSON{}: {}", repair ? " (repaired)" : "", json);
+
+            WorkoutRecommendation recommendation = objectMapper.readValue(json, WorkoutRecommendation.class);
 
             validateRecommendation(recommendation);
 
             log.info("Successfully parsed workout recommendation: {}",
                     recommendation.suggestedWorkoutRoutine());
 
+            (repair ? repaired : parsed).increment();
+            commit(event, rawResponse, repair ? "repaired" : "success");
             return recommendation;
 
         } catch (Exception e) {
-            log.error("Failed to parse AI response. Raw response: {}", jsonResponse);
+            failed.increment();
+            commit(event, rawResponse, "failure");
+            log.error("Failed to parse AI response. Raw response: {}", rawResponse);
             log.error("Parse error: {}", e.getMessage(), e);
-            throw new OllamaException(
+            throw new OllamaResponseParseException(
                     "Failed to parse AI response. The AI did not return valid JSON: " + e.getMessage(),
                     e
             );
         }
     }
 
-    /**
-     * Extract and clean JSON from response
-     * Handles multiple formats:
-     * 1. Pure JSON
-     * 2. JSON wrapped in markdown code blocks
-     * 3. Text with JSON embedded
-     */
-    private String extractAndCleanJson(String response) {
-        if (response == null) {
-            throw new IllegalArgumentException("Response cannot be null");
-        }
-
-        String trimmed = response.trim();
-
-        // 1. Check if it's already clean JSON
-        if (trimmed.startsWith("{") && trimmed.endsWith("}")) {
-            return trimmed;
-        }
-
-        // 2. Remove markdown code blocks
-        String cleaned = removeMarkdownCodeBlocks(trimmed);
-        if (cleaned.startsWith("{") && cleaned.endsWith("}")) {
-            return cleaned;
-        }
-
-        // 3. Extract JSON from text using regex
-        String extracted = extractJsonFromText(trimmed);
-        if (extracted != null) {
-            return extracted;
-        }
-
-        // If nothing worked, throw exception
-        log.error("Could not extract JSON from response: {}",
-                response.substring(0, Math.min(200, response.length())));
-        throw new OllamaException("AI response does not contain valid JSON");
-    }
-
-    /**
-     * Remove markdown code block markers
-     */
-    private String removeMarkdownCodeBlocks(String text) {
-        String result = text;
-
-        // Remove ```json ... ```
-        if (result.contains("```json")) {
-            result = result.replaceAll("```json\\s*", "");
-            result = result.replaceAll("```\\s*$", "");
-        }
-        // Remove ``` ... ```
-        else if (result.contains("```")) {
-            result = result.replaceAll("```\\s*", "");
-        }
-
-        return result.trim();
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("recommendation.parse")
+                .description("Model recommendation responses parsed, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
     }
 
-    /**
-     * Extract JSON object from text using regex
-     * Looks for first { and matching } to extract JSON
-     */
-    private String extractJsonFromText(String text) {
-        // Pattern to match JSON objects (handles nested objects)
-        Pattern pattern = Pattern.compile(
-                "\\{[^{}]*(?:\\{[^{}]*\\}[^{}]*)*\\}",
-                Pattern.DOTALL
-        );
-        Matcher matcher = pattern.matcher(text);
-
-        if (matcher.find()) {
-            String extracted = matcher.group();
-            log.debug("Extracted JSON from text using regex");
-            return extracted;
+    private static void commit(ResponseParseEvent event, CharSequence rawResponse, String outcome) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.responseChars = rawResponse.length();
+            event.outcome = outcome;
+            event.commit();
         }
-
-        return null;
     }
 
     /**
@@ -161,4 +173,10 @@ public class AiResponseParser {
         log.debug("Recommendation validated: {}",
                 recommendation.suggestedWorkoutRoutine());
     }
-}
\ No newline at end of file
+
+    /**
+     * A consumed token stream: the extractor's state and the raw text fed to it
+     */
+    public record StreamedResponse(JsonObjectExtractor extractor, CharSequence raw) {
+    }
+}
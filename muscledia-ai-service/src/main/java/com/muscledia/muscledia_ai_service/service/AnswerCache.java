@@ -0,0 +1,314 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.muscledia.muscledia_ai_service.config.AnswerCacheProperties;
+import com.muscledia.muscledia_ai_service.util.SimHash;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+
+/**
+ * Two-tier cache of general chat answers, fully in-process
+ *
+ * Tier 1 (exact): keyed by the normalized question (lowercase, punctuation and
+ * repeated whitespace removed).
+ * Tier 2 (near): question terms (stop words dropped, plurals folded) get a 64-bit
+ * SimHash; signatures are split into LSH bands, and questions sharing a band are
+ * candidates. A candidate is a hit if it is within max-hamming-distance bits and
+ * its terms are at least min-term-similarity (Jaccard) alike.
+ *
+ * Entries are bounded by estimated heap size, including their band index
+ * entries (Caffeine, least recently used evicted first) and expire after ttl.
+ *
+ * Meters: conversation.cache.requests (counter, tag result=exact|near|miss),
+ * conversation.cache.size, conversation.cache.memory (estimated bytes)
+ */
+@Slf4j
+@Component
+public class AnswerCache {
+
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "the", "and", "or", "of", "to", "in", "on", "for", "with", "at", "by", "from",
+            "is", "are", "was", "be", "do", "does", "did", "should", "can", "could", "would", "will",
+            "i", "me", "my", "you", "your", "we", "it", "its", "this", "that", "there",
+            "what", "how", "which", "when", "why", "please", "much", "some", "any");
+
+    // Object headers, references and the signature; strings are counted per char
+    private static final int ENTRY_OVERHEAD_BYTES = 96;
+    private static final int TERM_OVERHEAD_BYTES = 48;
+    // Set node and map share per band the question is indexed under
+    private static final int BAND_ENTRY_BYTES = 48;
+
+    private final AnswerCacheProperties properties;
+    private final Cache<String, CachedAnswer> answers;
+    private final Map<Long, Set<String>> bands = new ConcurrentHashMap<>();
+    private final Counter exactHits;
+    private final Counter nearHits;
+    private final Counter misses;
+
+    public AnswerCache(AnswerCacheProperties properties, MeterRegistry meterRegistry) {
+        if (properties.getLshBands() < 1 || properties.getLshBands() > Long.SIZE) {
+            throw new IllegalArgumentException("conversation.cache.lsh-bands must be between 1 and 64");
+        }
+        this.properties = properties;
+        this.answers = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxMemory().toBytes())
+                .weigher((String question, CachedAnswer answer) -> answer.weight()
+                        + (answer.terms().isEmpty() ? 0 : properties.getLshBands() * BAND_ENTRY_BYTES))
+                .expireAfterWrite(properties.getTtl())
+                // Keep the band index in step with evictions, on the calling thread
+                .executor(Runnable::run)
+                .removalListener((String question, CachedAnswer answer, RemovalCause cause) -> {
+                    if (question != null && answer != null && cause != RemovalCause.REPLACED) {
+                        unindex(question, answer);
+                    }
+                })
+                .build();
+
+        this.exactHits = requestCounter(meterRegistry, "exact");
+        this.nearHits = requestCounter(meterRegistry, "near");
+        this.misses = requestCounter(meterRegistry, "miss");
+        Gauge.builder("conversation.cache.size", answers, Cache::estimatedSize)
+                .description("Cached chat answers")
+                .register(meterRegistry);
+        Gauge.builder("conversation.cache.memory", answers,
+                        cache -> cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L))
+                .description("Estimated heap used by cached chat answers")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Return the cached answer for the question or a near-identical one, or generate and store it
+     */
+    public String getOrAnswer(String question, Supplier<String> generator) {
+        Optional<String> cached = get(question);
+        if (cached.isPresent()) {
+            return cached.get();
+        }
+        String answer = generator.get();
+        put(question, answer);
+        return answer;
+    }
+
+    public Optional<String> get(String question) {
+        if (!properties.isEnabled()) {
+            return Optional.empty();
+        }
+
+        String normalized = normalize(question);
+        CachedAnswer exact = answers.getIfPresent(normalized);
+        if (exact != null) {
+            exactHits.increment();
+            return Optional.of(exact.answer());
+        }
+
+        if (properties.isNearDuplicateEnabled()) {
+            Set<String> terms = terms(normalized);
+            if (!terms.isEmpty()) {
+                CachedAnswer near = findNear(SimHash.of(terms), terms);
+                if (near != null) {
+                    log.debug("Near-duplicate answer cache hit: \"{}\" ~ \"{}\"", normalized, near.question());
+                    nearHits.increment();
+                    return Optional.of(near.answer());
+                }
+            }
+        }
+
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public void put(String question, String answer) {
+        if (!properties.isEnabled() || answer == null || answer.isBlank()) {
+            return;
+        }
+
+        String normalized = normalize(question);
+        if (normalized.isEmpty()) {
+            return;
+        }
+        Set<String> terms = terms(normalized);
+        CachedAnswer entry = new CachedAnswer(normalized, SimHash.of(terms), Set.copyOf(terms), answer);
+        if (terms.isEmpty()) {
+            answers.put(normalized, entry);
+            return;
+        }
+
+        // Indexed before the put so an immediate eviction's unindex finds the band keys
+        index(normalized, entry);
+        answers.put(normalized, entry);
+        if (answers.asMap().get(normalized) == entry) {
+            // A concurrent removal of an older entry may have unindexed the same question meanwhile
+            index(normalized, entry);
+        } else {
+            unindex(normalized, entry);
+        }
+    }
+
+    /**
+     * Drop every cached answer
+     *
+     * @return number of entries removed
+     */
+    public long invalidateAll() {
+        long size = answers.estimatedSize();
+        answers.invalidateAll();
+        bands.clear();
+        log.info("Invalidated answer cache ({} entries)", size);
+        return size;
+    }
+
+    public long size() {
+        return answers.estimatedSize();
+    }
+
+    private CachedAnswer findNear(long signature, Set<String> terms) {
+        CachedAnswer best = null;
+        int bestDistance = Integer.MAX_VALUE;
+        Set<String> seen = new HashSet<>();
+
+        for (long band : bandKeys(signature)) {
+            Set<String> candidates = bands.get(band);
+            if (candidates == null) {
+                continue;
+            }
+            for (String candidate : candidates) {
+                if (!seen.add(candidate)) {
+                    continue;
+                }
+                CachedAnswer entry = answers.getIfPresent(candidate);
+                if (entry == null) {
+                    continue;
+                }
+                int distance = SimHash.distance(signature, entry.signature());
+                if (distance <= properties.getMaxHammingDistance()
+                        && distance < bestDistance
+                        && jaccard(terms, entry.terms()) >= properties.getMinTermSimilarity()) {
+                    best = entry;
+                    bestDistance = distance;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * One key per band from the band's signature bits and index; a collision only adds a candidate
+     */
+    private long[] bandKeys(long signature) {
+        int count = properties.getLshBands();
+        int width = Long.SIZE / count;
+        long[] keys = new long[count];
+        for (int band = 0; band < count; band++) {
+            int bits = band == count - 1 ? Long.SIZE - width * band : width;
+            long mask = bits == Long.SIZE ? -1L : (1L << bits) - 1;
+            long value = (signature >>> (width * band)) & mask;
+            keys[band] = value * 31 + band;
+        }
+        return keys;
+    }
+
+    private void index(String question, CachedAnswer answer) {
+        for (long band : bandKeys(answer.signature())) {
+            bands.computeIfAbsent(band, key -> ConcurrentHashMap.newKeySet()).add(question);
+        }
+    }
+
+    /**
+     * Questions held in the band index, one per band they are indexed under
+     */
+    long indexedBandEntries() {
+        answers.cleanUp();
+        return bands.values().stream().mapToLong(Set::size).sum();
+    }
+
+    private void unindex(String question, CachedAnswer answer) {
+        if (answers.asMap().containsKey(question)) {
+            return;
+        }
+        for (long band : bandKeys(answer.signature())) {
+            bands.computeIfPresent(band, (key, questions) -> {
+                questions.remove(question);
+                return questions.isEmpty() ? null : questions;
+            });
+        }
+    }
+
+    static String normalize(String question) {
+        if (question == null) {
+            return "";
+        }
+        StringBuilder normalized = new StringBuilder(question.length());
+        boolean space = false;
+        for (int i = 0; i < question.length(); i++) {
+            char c = question.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                if (space && !normalized.isEmpty()) {
+                    normalized.append(' ');
+                }
+                normalized.append(Character.toLowerCase(c));
+                space = false;
+            } else if (c != '\'') {
+                space = true;
+            }
+        }
+        return normalized.toString();
+    }
+
+    static Set<String> terms(String normalized) {
+        Set<String> terms = new HashSet<>();
+        for (String word : normalized.split(" ")) {
+            if (word.isEmpty() || STOP_WORDS.contains(word)) {
+                continue;
+            }
+            // Fold simple plurals: sets -> set, but keep "press", "abs"
+            if (word.length() > 3 && word.endsWith("s") && !word.endsWith("ss")) {
+                word = word.substring(0, word.length() - 1);
+            }
+            if (!STOP_WORDS.contains(word)) {
+                terms.add(word);
+            }
+        }
+        return terms;
+    }
+
+    private static double jaccard(Set<String> a, Set<String> b) {
+        int common = 0;
+        for (String term : a) {
+            if (b.contains(term)) {
+                common++;
+            }
+        }
+        int union = a.size() + b.size() - common;
+        return union == 0 ? 0 : (double) common / union;
+    }
+
+    private static Counter requestCounter(MeterRegistry meterRegistry, String result) {
+        return Counter.builder("conversation.cache.requests")
+                .description("Chat answer cache lookups by tier")
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    private record CachedAnswer(String question, long signature, Set<String> terms, String answer) {
+
+        int weight() {
+            long bytes = ENTRY_OVERHEAD_BYTES
+                    + 2L * (question.length() + answer.length())
+                    + (long) TERM_OVERHEAD_BYTES * terms.size();
+            return (int) Math.min(Integer.MAX_VALUE, bytes);
+        }
+    }
+}
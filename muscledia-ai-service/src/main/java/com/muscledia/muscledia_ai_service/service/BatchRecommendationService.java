@@ -0,0 +1,198 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.muscledia.muscledia_ai_service.config.BatchRecommendationProperties;
+import com.muscledia.muscledia_ai_service.dto.BatchRecommendationRequest;
+import com.muscledia.muscledia_ai_service.dto.BatchRecommendationResult;
+import com.muscledia.muscledia_ai_service.dto.PreferencesDto;
+import com.muscledia.muscledia_ai_service.dto.UserData;
+import com.muscledia.muscledia_ai_service.dto.UserDataDTO;
+import com.muscledia.muscledia_ai_service.model.ProfileBucket;
+import com.muscledia.muscledia_ai_service.model.WorkoutRecommendation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Recommendations for many users in one request, streamed back item by item
+ *
+ * Profiles not given inline are fetched from user-service with bounded concurrency,
+ * each user once. Items are grouped by profile bucket and each bucket is generated
+ * once per batch; generations run on a dedicated scheduler, at most
+ * generation-parallelism at a time across all batches, and buckets already in the
+ * recommendation cache are served from it. A failing item yields a FAILED line and
+ * never ends the batch. Cancelling a batch drops its queued generations; running ones
+ * finish, since interactive requests and jobs for the same profile bucket may be
+ * waiting on them (see OllamaServiceImpl), and fill the recommendation cache.
+ *
+ * Meter: recommendation.batch.items (counter) tagged with status
+ */
+@Slf4j
+@Service
+public class BatchRecommendationService {
+
+    private final OllamaService ollamaService;
+    private final UserServiceClient userServiceClient;
+    private final UserDataMapper userDataMapper;
+    private final BatchRecommendationProperties properties;
+    private final Scheduler generationScheduler;
+    private final Counter completedItems;
+    private final Counter failedItems;
+
+    public BatchRecommendationService(
+            OllamaService ollamaService,
+            UserServiceClient userServiceClient,
+            UserDataMapper userDataMapper,
+            BatchRecommendationProperties properties,
+            MeterRegistry meterRegistry) {
+        this.ollamaService = ollamaService;
+        this.userServiceClient = userServiceClient;
+        this.userDataMapper = userDataMapper;
+        this.properties = properties;
+        // Generation blocks its thread for the whole model call, so threads cap parallelism
+        this.generationScheduler = Schedulers.newBoundedElastic(
+                Math.max(1, properties.getGenerationParallelism()), Integer.MAX_VALUE,
+                "batch-recommendation", 60, true);
+        this.completedItems = itemCounter(meterRegistry, BatchRecommendationResult.COMPLETED);
+        this.failedItems = itemCounter(meterRegistry, BatchRecommendationResult.FAILED);
+    }
+
+    @PreDestroy
+    void stop() {
+        generationScheduler.dispose();
+    }
+
+    /**
+     * Results in completion order; cancelling the subscription drops the batch's queued
+     * generations, running ones are left to finish
+     *
+     * @param jwtToken the caller's token, used for user-service requests
+     * @throws IllegalArgumentException if the batch is empty or larger than max-items
+     */
+    public Flux<BatchRecommendationResult> recommend(List<BatchRecommendationRequest.Item> items, String jwtToken) {
+        if (items == null || items.isEmpty()) {
+            throw new IllegalArgumentException("Batch must contain at least one item");
+        }
+        if (items.size() > properties.getMaxItems()) {
+            throw new IllegalArgumentException(String.format(
+                    "Batch has %d items, at most %d are allowed", items.size(), properties.getMaxItems()));
+        }
+
+        Map<Long, Mono<UserData>> profiles = new ConcurrentHashMap<>();
+        Map<ProfileBucket, Mono<WorkoutRecommendation>> generations = new ConcurrentHashMap<>();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        AtomicInteger failures = new AtomicInteger();
+        long startNanos = System.nanoTime();
+
+        return Flux.range(0, items.size())
+                .flatMap(index -> resolve(index, items.get(index), jwtToken, profiles),
+                        Math.max(1, properties.getUserFetchConcurrency()))
+                // Waiting on a shared generation is cheap, so every resolved item may wait at once
+                .flatMap(item -> item.error() != null
+                        ? Mono.just(BatchRecommendationResult.failed(item.index(), item.userId(), item.error()))
+                        : generate(item, generations, cancelled), items.size())
+                .doOnNext(result -> {
+                    if (BatchRecommendationResult.FAILED.equals(result.status())) {
+                        failedItems.increment();
+                        failures.incrementAndGet();
+                    } else {
+                        completedItems.increment();
+                    }
+                })
+                .doOnCancel(() -> cancelled.set(true))
+                .doOnComplete(() -> log.info("Batch of {} items done in {} ms: {} profile buckets, {} failed",
+                        items.size(), (System.nanoTime() - startNanos) / 1_000_000, generations.size(), failures.get()));
+    }
+
+    /**
+     * Validate an item and get its user data; failures become the item's error
+     */
+    private Mono<ResolvedItem> resolve(int index, BatchRecommendationRequest.Item item, String jwtToken,
+                                       Map<Long, Mono<UserData>> profiles) {
+        Long userId = item == null ? null : item.userId();
+        return Mono.defer(() -> {
+                    if (userId == null) {
+                        throw new IllegalArgumentException("userId is required");
+                    }
+                    PreferencesDto preferences = validated(item.preferences());
+                    Mono<UserData> userData = item.userData() != null
+                            ? Mono.just(inline(userId, item.userData()))
+                            : profiles.computeIfAbsent(userId, id -> userServiceClient.getUserDataById(id, jwtToken)
+                                    .map(userDataMapper::toDomain)
+                                    .cache());
+                    return userData.map(data -> new ResolvedItem(index, userId, preferences, data, null));
+                })
+                .onErrorResume(e -> Mono.just(new ResolvedItem(index, userId, null, null, message(e))));
+    }
+
+    /**
+     * The item's recommendation, from the generation shared by its profile bucket
+     */
+    private Mono<BatchRecommendationResult> generate(ResolvedItem item,
+                                                     Map<ProfileBucket, Mono<WorkoutRecommendation>> generations,
+                                                     AtomicBoolean cancelled) {
+        return Mono.defer(() -> generations.computeIfAbsent(
+                        ProfileBucket.of(item.userData(), item.preferences()),
+                        bucket -> start(item, cancelled)))
+                .map(recommendation -> BatchRecommendationResult.completed(item.index(), item.userId(), recommendation))
+                .onErrorResume(e -> Mono.just(BatchRecommendationResult.failed(item.index(), item.userId(), message(e))));
+    }
+
+    /**
+     * Queue the bucket's generation; items of the bucket wait on the returned result
+     * A generation still queued when the batch is cancelled completes empty without
+     * calling the model. One already running is not interrupted: other callers may
+     * share it, and interrupting would fail them too
+     */
+    private Mono<WorkoutRecommendation> start(ResolvedItem item, AtomicBoolean cancelled) {
+        Sinks.One<WorkoutRecommendation> result = Sinks.one();
+        Mono.fromCallable(() -> cancelled.get()
+                        ? null
+                        : ollamaService.getStructuredAnswer(item.userData(), item.preferences()))
+                .subscribeOn(generationScheduler)
+                .subscribe(result::tryEmitValue, result::tryEmitError, result::tryEmitEmpty);
+        return result.asMono();
+    }
+
+    private UserData inline(Long userId, UserDataDTO userData) {
+        if (userData.getUserId() != null && !Objects.equals(userData.getUserId(), userId)) {
+            throw new IllegalArgumentException("userData.userId does not match userId");
+        }
+        userData.setUserId(userId);
+        return userDataMapper.toDomain(userData);
+    }
+
+    private static PreferencesDto validated(PreferencesDto preferences) {
+        if (preferences == null) {
+            throw new IllegalArgumentException("Preferences cannot be null");
+        }
+        return PreferencesDto.of(preferences.frequency(), preferences.lvlOfTraining(), preferences.equipmentType());
+    }
+
+    private static String message(Throwable e) {
+        return e.getMessage() != null ? e.getMessage() : e.getClass().getSimpleName();
+    }
+
+    private static Counter itemCounter(MeterRegistry meterRegistry, String status) {
+        return Counter.builder("recommendation.batch.items")
+                .description("Batch recommendation items by result")
+                .tag("status", status)
+                .register(meterRegistry);
+    }
+
+    private record ResolvedItem(int index, Long userId, PreferencesDto preferences, UserData userData, String error) {
+    }
+}
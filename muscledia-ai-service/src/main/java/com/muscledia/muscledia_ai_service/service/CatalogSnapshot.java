@@ -0,0 +1,321 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.muscledia.muscledia_ai_service.model.DifficultyLevel;
+import com.muscledia.muscledia_ai_service.model.EquipmentType;
+import com.muscledia.muscledia_ai_service.model.PublicRoutine;
+import com.muscledia.muscledia_ai_service.model.WorkoutPlan;
+import com.muscledia.muscledia_ai_service.model.WorkoutSplit;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedInputStream;
+
+/**
+ * Read-only view of a binary catalog snapshot (routines and workout plans)
+ *
+ * Layout (big-endian), written by {@link CatalogSnapshotWriter} at build time:
+ * - header: magic "MDCS", format version, string table position, then size and
+ *   CRC-32 of each source file (routines, plans) so a stale snapshot can be detected
+ * - per table (routines, plan id refs, plans, exercises, sets): row count, column
+ *   count and the position of every column
+ * - columns: one fixed-width array per field (int, long or double), so a field of
+ *   row n is read at column position + n * width; strings are int refs
+ * - string table: count, offsets[count + 1], UTF-8 bytes; each distinct string once
+ *
+ * Nulls: string ref -1, int {@link Integer#MIN_VALUE}, long {@link Long#MIN_VALUE}, double NaN.
+ * Child rows (plan ids of a routine, exercises of a plan, sets of an exercise) are
+ * contiguous ranges given by start and count columns.
+ *
+ * The file is memory-mapped; fields are read in place and records are only built
+ * when asked for. Absolute reads only, so instances are thread-safe.
+ */
+public final class CatalogSnapshot {
+
+    static final int MAGIC = 0x4D444353;
+    static final int VERSION = 2;
+
+    static final int NULL_REF = -1;
+    static final int NULL_INT = Integer.MIN_VALUE;
+    static final long NULL_LONG = Long.MIN_VALUE;
+
+    static final int ROUTINES = 0;
+    static final int PLAN_ID_REFS = 1;
+    static final int PLANS = 2;
+    static final int EXERCISES = 3;
+    static final int SETS = 4;
+    static final int TABLE_COUNT = 5;
+
+    static final int ROUTINES_SOURCE = 0;
+    static final int PLANS_SOURCE = 1;
+    static final int SOURCE_COUNT = 2;
+    static final int SOURCES_POSITION = 3 * Integer.BYTES;
+    static final int SOURCE_BYTES = Long.BYTES + Integer.BYTES;
+    static final int TABLES_POSITION = SOURCES_POSITION + SOURCE_COUNT * SOURCE_BYTES;
+
+    // Routine columns
+    static final int R_ID = 0, R_HEVY_ID = 1, R_FOLDER_INDEX = 2, R_TITLE = 3, R_DIFFICULTY = 4,
+            R_EQUIPMENT = 5, R_SPLIT = 6, R_IS_PUBLIC = 7, R_CREATED_BY = 8, R_USAGE_COUNT = 9,
+            R_CREATED_AT = 10, R_UPDATED_AT = 11, R_PLAN_COUNT = 12, R_PERSONAL = 13,
+            R_PLAN_IDS_START = 14, R_PLAN_IDS_COUNT = 15, R_COLUMNS = 16;
+    // Plan id ref column
+    static final int PI_REF = 0, PI_COLUMNS = 1;
+    // Plan columns
+    static final int P_ID = 0, P_TITLE = 1, P_FOLDER_ID = 2, P_DESCRIPTION = 3, P_DURATION = 4,
+            P_EXERCISES_START = 5, P_EXERCISES_COUNT = 6, P_COLUMNS = 7;
+    // Exercise columns
+    static final int E_INDEX = 0, E_TITLE = 1, E_NOTES = 2, E_TEMPLATE_ID = 3, E_SUPERSET_ID = 4,
+            E_REST_SECONDS = 5, E_SETS_START = 6, E_SETS_COUNT = 7, E_COLUMNS = 8;
+    // Set columns
+    static final int S_INDEX = 0, S_TYPE = 1, S_WEIGHT_KG = 2, S_REPS = 3, S_DISTANCE = 4,
+            S_DURATION = 5, S_REP_RANGE_START = 6, S_REP_RANGE_END = 7, S_EFFECTIVE_REPS = 8,
+            S_COLUMNS = 9;
+
+    static final int[] COLUMNS = {R_COLUMNS, PI_COLUMNS, P_COLUMNS, E_COLUMNS, S_COLUMNS};
+
+    private final ByteBuffer buffer;
+    private final int[] rows = new int[TABLE_COUNT];
+    private final int[][] columns = new int[TABLE_COUNT][];
+    private final int stringCount;
+    private final int stringOffsets;
+    private final int stringBytes;
+    private final Map<String, Integer> planRows;
+
+    CatalogSnapshot(ByteBuffer buffer) {
+        this.buffer = buffer;
+        if (buffer.getInt(0) != MAGIC) {
+            throw new IllegalStateException("Not a catalog snapshot");
+        }
+        int version = buffer.getInt(4);
+        if (version != VERSION) {
+            throw new IllegalStateException("Unsupported catalog snapshot version " + version + ", expected " + VERSION);
+        }
+
+        int stringTable = buffer.getInt(8);
+        int position = TABLES_POSITION;
+        for (int table = 0; table < TABLE_COUNT; table++) {
+            rows[table] = buffer.getInt(position);
+            int columnCount = buffer.getInt(position + 4);
+            if (columnCount != COLUMNS[table]) {
+                throw new IllegalStateException("Catalog snapshot table " + table + " has " + columnCount + " columns");
+            }
+            position += 8;
+            columns[table] = new int[columnCount];
+            for (int column = 0; column < columnCount; column++) {
+                columns[table][column] = buffer.getInt(position);
+                position += 4;
+            }
+        }
+        this.stringCount = buffer.getInt(stringTable);
+        this.stringOffsets = stringTable + 4;
+        this.stringBytes = stringOffsets + 4 * (stringCount + 1);
+
+        Map<String, Integer> ids = new LinkedHashMap<>(rows[PLANS] * 2);
+        for (int plan = 0; plan < rows[PLANS]; plan++) {
+            ids.putIfAbsent(string(PLANS, P_ID, plan), plan);
+        }
+        this.planRows = Collections.unmodifiableMap(ids);
+    }
+
+    /**
+     * Memory-map a snapshot file
+     *
+     * @throws IllegalStateException if the file is not a snapshot of this version
+     */
+    public static CatalogSnapshot open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            return new CatalogSnapshot(mapped);
+        }
+    }
+
+    /**
+     * Size and checksum of the JSON file the snapshot was built from
+     *
+     * @param source {@link #ROUTINES_SOURCE} or {@link #PLANS_SOURCE}
+     */
+    public Source source(int source) {
+        int position = SOURCES_POSITION + source * SOURCE_BYTES;
+        return new Source(buffer.getLong(position), buffer.getInt(position + Long.BYTES));
+    }
+
+    public int sizeBytes() {
+        return buffer.capacity();
+    }
+
+    public int stringCount() {
+        return stringCount;
+    }
+
+    public int routineCount() {
+        return rows[ROUTINES];
+    }
+
+    public int planCount() {
+        return rows[PLANS];
+    }
+
+    /**
+     * Plan ids in source order
+     */
+    public Set<String> planIds() {
+        return planRows.keySet();
+    }
+
+    /**
+     * All routines in source order
+     */
+    public List<PublicRoutine> routines() {
+        List<PublicRoutine> routines = new ArrayList<>(routineCount());
+        for (int row = 0; row < routineCount(); row++) {
+            routines.add(routine(row));
+        }
+        return List.copyOf(routines);
+    }
+
+    public Optional<WorkoutPlan> plan(String id) {
+        Integer row = planRows.get(id);
+        return row == null ? Optional.empty() : Optional.of(plan(row));
+    }
+
+    private PublicRoutine routine(int row) {
+        int start = intAt(ROUTINES, R_PLAN_IDS_START, row);
+        int count = intAt(ROUTINES, R_PLAN_IDS_COUNT, row);
+        List<String> planIds = new ArrayList<>(count);
+        for (int i = start; i < start + count; i++) {
+            planIds.add(string(PLAN_ID_REFS, PI_REF, i));
+        }
+
+        return new PublicRoutine(
+                string(ROUTINES, R_ID, row),
+                nullableLong(ROUTINES, R_HEVY_ID, row),
+                nullableInt(ROUTINES, R_FOLDER_INDEX, row),
+                string(ROUTINES, R_TITLE, row),
+                planIds,
+                DifficultyLevel.from(string(ROUTINES, R_DIFFICULTY, row)).orElse(null),
+                EquipmentType.from(string(ROUTINES, R_EQUIPMENT, row)).orElse(null),
+                WorkoutSplit.from(string(ROUTINES, R_SPLIT, row)).orElse(null),
+                intAt(ROUTINES, R_IS_PUBLIC, row) != 0,
+                nullableLong(ROUTINES, R_CREATED_BY, row),
+                longAt(ROUTINES, R_USAGE_COUNT, row),
+                string(ROUTINES, R_CREATED_AT, row),
+                string(ROUTINES, R_UPDATED_AT, row),
+                intAt(ROUTINES, R_PLAN_COUNT, row),
+                intAt(ROUTINES, R_PERSONAL, row) != 0
+        );
+    }
+
+    private WorkoutPlan plan(int row) {
+        int start = intAt(PLANS, P_EXERCISES_START, row);
+        int count = intAt(PLANS, P_EXERCISES_COUNT, row);
+        List<WorkoutPlan.Exercise> exercises = new ArrayList<>(count);
+        for (int exercise = start; exercise < start + count; exercise++) {
+            exercises.add(exercise(exercise));
+        }
+
+        return new WorkoutPlan(
+                string(PLANS, P_ID, row),
+                string(PLANS, P_TITLE, row),
+                string(PLANS, P_FOLDER_ID, row),
+                string(PLANS, P_DESCRIPTION, row),
+                nullableInt(PLANS, P_DURATION, row),
+                exercises
+        );
+    }
+
+    private WorkoutPlan.Exercise exercise(int row) {
+        int start = intAt(EXERCISES, E_SETS_START, row);
+        int count = intAt(EXERCISES, E_SETS_COUNT, row);
+        List<WorkoutPlan.WorkoutSet> sets = new ArrayList<>(count);
+        for (int set = start; set < start + count; set++) {
+            sets.add(new WorkoutPlan.WorkoutSet(
+                    intAt(SETS, S_INDEX, set),
+                    string(SETS, S_TYPE, set),
+                    nullableDouble(SETS, S_WEIGHT_KG, set),
+                    nullableInt(SETS, S_REPS, set),
+                    nullableDouble(SETS, S_DISTANCE, set),
+                    nullableInt(SETS, S_DURATION, set),
+                    nullableInt(SETS, S_REP_RANGE_START, set),
+                    nullableInt(SETS, S_REP_RANGE_END, set),
+                    string(SETS, S_EFFECTIVE_REPS, set)));
+        }
+
+        return new WorkoutPlan.Exercise(
+                intAt(EXERCISES, E_INDEX, row),
+                string(EXERCISES, E_TITLE, row),
+                string(EXERCISES, E_NOTES, row),
+                string(EXERCISES, E_TEMPLATE_ID, row),
+                string(EXERCISES, E_SUPERSET_ID, row),
+                nullableInt(EXERCISES, E_REST_SECONDS, row),
+                sets
+        );
+    }
+
+    private int intAt(int table, int column, int row) {
+        return buffer.getInt(columns[table][column] + row * Integer.BYTES);
+    }
+
+    private long longAt(int table, int column, int row) {
+        return buffer.getLong(columns[table][column] + row * Long.BYTES);
+    }
+
+    private Integer nullableInt(int table, int column, int row) {
+        int value = intAt(table, column, row);
+        return value == NULL_INT ? null : value;
+    }
+
+    private Long nullableLong(int table, int column, int row) {
+        long value = longAt(table, column, row);
+        return value == NULL_LONG ? null : value;
+    }
+
+    private Double nullableDouble(int table, int column, int row) {
+        double value = buffer.getDouble(columns[table][column] + row * Double.BYTES);
+        return Double.isNaN(value) ? null : value;
+    }
+
+    private String string(int table, int column, int row) {
+        int ref = intAt(table, column, row);
+        if (ref == NULL_REF) {
+            return null;
+        }
+        int start = buffer.getInt(stringOffsets + ref * Integer.BYTES);
+        int end = buffer.getInt(stringOffsets + (ref + 1) * Integer.BYTES);
+        byte[] utf8 = new byte[end - start];
+        buffer.get(stringBytes + start, utf8);
+        return new String(utf8, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Size and CRC-32 of a source file
+     */
+    public record Source(long sizeBytes, int crc32) {
+
+        /**
+         * Read the stream to its end and close it
+         */
+        public static Source of(InputStream in) throws IOException {
+            try (CheckedInputStream checked = new CheckedInputStream(in, new CRC32())) {
+                byte[] chunk = new byte[8192];
+                long size = 0;
+                for (int read; (read = checked.read(chunk)) != -1; ) {
+                    size += read;
+                }
+                return new Source(size, (int) checked.getChecksum().getValue());
+            }
+        }
+    }
+}
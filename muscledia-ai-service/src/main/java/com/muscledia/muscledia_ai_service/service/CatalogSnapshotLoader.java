@@ -0,0 +1,109 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.muscledia.muscledia_ai_service.config.CatalogSnapshotProperties;
+import com.muscledia.muscledia_ai_service.config.WorkoutPlanCatalogProperties;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Optional;
+
+import static com.muscledia.muscledia_ai_service.service.CatalogSnapshot.PLANS_SOURCE;
+import static com.muscledia.muscledia_ai_service.service.CatalogSnapshot.ROUTINES_SOURCE;
+
+/**
+ * Opens the catalog snapshot once for {@link RoutineCatalog} and {@link WorkoutPlanCatalog}
+ * Empty when disabled, missing, unreadable, built from other JSON files than the ones
+ * on the classpath, or when catalog.workout-plans.location points somewhere else;
+ * the catalogs then read the JSON files
+ */
+@Slf4j
+@Component
+public class CatalogSnapshotLoader {
+
+    static final String ROUTINES_LOCATION = "classpath:data/" + CatalogSnapshotWriter.ROUTINES_FILENAME;
+
+    private final Optional<CatalogSnapshot> snapshot;
+
+    public CatalogSnapshotLoader(
+            CatalogSnapshotProperties properties,
+            WorkoutPlanCatalogProperties planProperties,
+            ResourceLoader resourceLoader) {
+        if (!properties.isEnabled()) {
+            log.info("Catalog snapshot disabled, using the JSON catalogs");
+            this.snapshot = Optional.empty();
+        } else if (!WorkoutPlanCatalogProperties.DEFAULT_LOCATION.equals(planProperties.getLocation())) {
+            log.info("Workout plans configured at {}, using the JSON catalogs instead of the snapshot",
+                    planProperties.getLocation());
+            this.snapshot = Optional.empty();
+        } else {
+            this.snapshot = open(resourceLoader.getResource(properties.getLocation()),
+                    resourceLoader.getResource(ROUTINES_LOCATION),
+                    resourceLoader.getResource(planProperties.getLocation()));
+        }
+    }
+
+    public Optional<CatalogSnapshot> snapshot() {
+        return snapshot;
+    }
+
+    private static Optional<CatalogSnapshot> open(Resource resource, Resource routines, Resource plans) {
+        if (!resource.exists()) {
+            log.info("No catalog snapshot at {}, using the JSON catalogs", resource.getDescription());
+            return Optional.empty();
+        }
+
+        long start = System.nanoTime();
+        try {
+            CatalogSnapshot snapshot = CatalogSnapshot.open(localFile(resource));
+            if (!builtFrom(snapshot, ROUTINES_SOURCE, routines) || !builtFrom(snapshot, PLANS_SOURCE, plans)) {
+                return Optional.empty();
+            }
+            log.info("Using catalog snapshot v{} ({} KB, {} routines, {} plans, {} strings), mapped and verified in {} ms",
+                    CatalogSnapshot.VERSION, snapshot.sizeBytes() / 1024, snapshot.routineCount(),
+                    snapshot.planCount(), snapshot.stringCount(), (System.nanoTime() - start) / 1_000_000);
+            return Optional.of(snapshot);
+        } catch (IOException | RuntimeException e) {
+            log.warn("Catalog snapshot {} unusable, using the JSON catalogs: {}", resource.getDescription(), e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Whether the source file is the one the snapshot was built from; the size is
+     * compared first so a changed file is usually caught without reading it
+     */
+    private static boolean builtFrom(CatalogSnapshot snapshot, int source, Resource resource) throws IOException {
+        CatalogSnapshot.Source expected = snapshot.source(source);
+        if (resource.exists()
+                && resource.contentLength() == expected.sizeBytes()
+                && CatalogSnapshot.Source.of(resource.getInputStream()).equals(expected)) {
+            return true;
+        }
+        log.warn("Catalog snapshot is stale: {} differs from the file it was built from ({} bytes, crc {}), "
+                        + "using the JSON catalogs", resource.getDescription(), expected.sizeBytes(),
+                Integer.toHexString(expected.crc32()));
+        return false;
+    }
+
+    /**
+     * The resource's own file, or a temporary copy when it lives inside a jar
+     */
+    private static Path localFile(Resource resource) throws IOException {
+        if (resource.isFile()) {
+            return resource.getFile().toPath();
+        }
+        Path copy = Files.createTempFile("catalog", ".snapshot");
+        copy.toFile().deleteOnExit();
+        try (InputStream in = resource.getInputStream()) {
+            Files.copy(in, copy, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return copy;
+    }
+}
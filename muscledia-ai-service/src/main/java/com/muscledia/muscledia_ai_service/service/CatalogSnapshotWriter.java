@@ -0,0 +1,298 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.muscledia.muscledia_ai_service.model.PublicRoutine;
+import com.muscledia.muscledia_ai_service.model.WorkoutPlan;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static com.muscledia.muscledia_ai_service.service.CatalogSnapshot.*;
+
+/**
+ * Build-time converter from the catalog JSON files to a {@link CatalogSnapshot}
+ *
+ * Run by the Maven build (exec-maven-plugin, process-classes phase):
+ * CatalogSnapshotWriter &lt;data directory&gt; &lt;snapshot file&gt;
+ */
+@Slf4j
+public final class CatalogSnapshotWriter {
+
+    static final String ROUTINES_FILENAME = "public_routines.json";
+    static final String PLANS_FILENAME = "public_workout_plans.json";
+
+    private final Map<String, Integer> strings = new LinkedHashMap<>();
+    private final List<Column>[] tables = newTables();
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            throw new IllegalArgumentException("Usage: CatalogSnapshotWriter <data directory> <snapshot file>");
+        }
+        long start = System.nanoTime();
+        Path output = Path.of(args[1]);
+        int bytes = write(Path.of(args[0]), output, new ObjectMapper());
+        log.info("Wrote catalog snapshot {} ({} KB) in {} ms",
+                output, bytes / 1024, (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Convert routines and plans from the data directory; the output is replaced atomically
+     *
+     * @return snapshot size in bytes
+     */
+    public static int write(Path dataDirectory, Path output, ObjectMapper objectMapper) throws IOException {
+        List<PublicRoutine> routines = RoutineCatalog.parseRoutines(
+                objectMapper, Files.readString(dataDirectory.resolve(ROUTINES_FILENAME), StandardCharsets.UTF_8));
+        List<WorkoutPlan> plans = objectMapper.readValue(
+                dataDirectory.resolve(PLANS_FILENAME).toFile(), new TypeReference<>() {
+                });
+
+        Source[] sources = new Source[SOURCE_COUNT];
+        sources[ROUTINES_SOURCE] = Source.of(Files.newInputStream(dataDirectory.resolve(ROUTINES_FILENAME)));
+        sources[PLANS_SOURCE] = Source.of(Files.newInputStream(dataDirectory.resolve(PLANS_FILENAME)));
+
+        byte[] snapshot = new CatalogSnapshotWriter().encode(routines, plans, sources);
+
+        Files.createDirectories(output.toAbsolutePath().getParent());
+        Path temp = output.resolveSibling(output.getFileName() + ".tmp");
+        Files.write(temp, snapshot);
+        Files.move(temp, output, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        return snapshot.length;
+    }
+
+    byte[] encode(List<PublicRoutine> routines, List<WorkoutPlan> plans, Source[] sources) throws IOException {
+        addRoutines(routines);
+        addPlans(plans);
+        return layout(sources);
+    }
+
+    private void addRoutines(List<PublicRoutine> routines) {
+        Column id = ints(ROUTINES), hevyId = longs(ROUTINES), folderIndex = ints(ROUTINES), title = ints(ROUTINES),
+                difficulty = ints(ROUTINES), equipment = ints(ROUTINES), split = ints(ROUTINES),
+                isPublic = ints(ROUTINES), createdBy = longs(ROUTINES), usageCount = longs(ROUTINES),
+                createdAt = ints(ROUTINES), updatedAt = ints(ROUTINES), planCount = ints(ROUTINES),
+                personal = ints(ROUTINES), planIdsStart = ints(ROUTINES), planIdsCount = ints(ROUTINES);
+        Column planIdRef = ints(PLAN_ID_REFS);
+
+        for (PublicRoutine routine : routines) {
+            id.addInt(ref(routine.id()));
+            hevyId.addLong(routine.hevyId() == null ? NULL_LONG : routine.hevyId());
+            folderIndex.addInt(nullable(routine.folderIndex()));
+            title.addInt(ref(routine.title()));
+            difficulty.addInt(ref(routine.difficultyLevel() == null ? null : routine.difficultyLevel().name()));
+            equipment.addInt(ref(routine.equipmentType() == null ? null : routine.equipmentType().name()));
+            split.addInt(ref(routine.workoutSplit() == null ? null : routine.workoutSplit().name()));
+            isPublic.addInt(routine.isPublic() ? 1 : 0);
+            createdBy.addLong(routine.createdBy() == null ? NULL_LONG : routine.createdBy());
+            usageCount.addLong(routine.usageCount());
+            createdAt.addInt(ref(routine.createdAt()));
+            updatedAt.addInt(ref(routine.updatedAt()));
+            planCount.addInt(routine.workoutPlanCount());
+            personal.addInt(routine.personal() ? 1 : 0);
+            planIdsStart.addInt(planIdRef.rows());
+            planIdsCount.addInt(routine.workoutPlanIds().size());
+            routine.workoutPlanIds().forEach(planId -> planIdRef.addInt(ref(planId)));
+        }
+    }
+
+    private void addPlans(List<WorkoutPlan> plans) {
+        Column id = ints(PLANS), title = ints(PLANS), folderId = ints(PLANS), description = ints(PLANS),
+                duration = ints(PLANS), exercisesStart = ints(PLANS), exercisesCount = ints(PLANS);
+        Column index = ints(EXERCISES), exerciseTitle = ints(EXERCISES), notes = ints(EXERCISES),
+                templateId = ints(EXERCISES), supersetId = ints(EXERCISES), restSeconds = ints(EXERCISES),
+                setsStart = ints(EXERCISES), setsCount = ints(EXERCISES);
+        Column setIndex = ints(SETS), type = ints(SETS), weightKg = doubles(SETS), reps = ints(SETS),
+                distance = doubles(SETS), setDuration = ints(SETS), repRangeStart = ints(SETS),
+                repRangeEnd = ints(SETS), effectiveReps = ints(SETS);
+
+        for (WorkoutPlan plan : plans) {
+            id.addInt(ref(plan.id()));
+            title.addInt(ref(plan.title()));
+            folderId.addInt(ref(plan.folderId()));
+            description.addInt(ref(plan.description()));
+            duration.addInt(nullable(plan.estimatedDurationMinutes()));
+            exercisesStart.addInt(index.rows());
+            exercisesCount.addInt(plan.exercises().size());
+
+            for (WorkoutPlan.Exercise exercise : plan.exercises()) {
+                index.addInt(exercise.index());
+                exerciseTitle.addInt(ref(exercise.title()));
+                notes.addInt(ref(exercise.notes()));
+                templateId.addInt(ref(exercise.exerciseTemplateId()));
+                supersetId.addInt(ref(exercise.supersetId()));
+                restSeconds.addInt(nullable(exercise.restSeconds()));
+                setsStart.addInt(setIndex.rows());
+                setsCount.addInt(exercise.sets().size());
+
+                for (WorkoutPlan.WorkoutSet set : exercise.sets()) {
+                    setIndex.addInt(set.index());
+                    type.addInt(ref(set.type()));
+                    weightKg.addDouble(set.weightKg() == null ? Double.NaN : set.weightKg());
+                    reps.addInt(nullable(set.reps()));
+                    distance.addDouble(set.distanceMeters() == null ? Double.NaN : set.distanceMeters());
+                    setDuration.addInt(nullable(set.durationSeconds()));
+                    repRangeStart.addInt(nullable(set.repRangeStart()));
+                    repRangeEnd.addInt(nullable(set.repRangeEnd()));
+                    effectiveReps.addInt(ref(set.effectiveReps()));
+                }
+            }
+        }
+    }
+
+    /**
+     * Header and column directory first, then every column, then the string table
+     */
+    private byte[] layout(Source[] sources) throws IOException {
+        int position = TABLES_POSITION;
+        for (int table = 0; table < TABLE_COUNT; table++) {
+            if (tables[table].size() != COLUMNS[table]) {
+                throw new IllegalStateException("Table " + table + " has " + tables[table].size() + " columns");
+            }
+            position += 2 * Integer.BYTES + Integer.BYTES * COLUMNS[table];
+        }
+
+        int[][] columnPositions = new int[TABLE_COUNT][];
+        for (int table = 0; table < TABLE_COUNT; table++) {
+            columnPositions[table] = new int[COLUMNS[table]];
+            for (int column = 0; column < COLUMNS[table]; column++) {
+                columnPositions[table][column] = position;
+                position += tables[table].get(column).length();
+            }
+        }
+        int stringTable = position;
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(position + 64 * strings.size());
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        out.writeInt(stringTable);
+        for (Source source : sources) {
+            out.writeLong(source.sizeBytes());
+            out.writeInt(source.crc32());
+        }
+        for (int table = 0; table < TABLE_COUNT; table++) {
+            out.writeInt(tables[table].getFirst().rows());
+            out.writeInt(COLUMNS[table]);
+            for (int columnPosition : columnPositions[table]) {
+                out.writeInt(columnPosition);
+            }
+        }
+        for (List<Column> table : tables) {
+            for (Column column : table) {
+                if (column.rows() != table.getFirst().rows()) {
+                    throw new IllegalStateException("Columns of a table must have the same row count");
+                }
+                column.writeTo(out);
+            }
+        }
+
+        List<byte[]> utf8 = strings.keySet().stream().map(value -> value.getBytes(StandardCharsets.UTF_8)).toList();
+        out.writeInt(utf8.size());
+        int offset = 0;
+        out.writeInt(offset);
+        for (byte[] value : utf8) {
+            offset += value.length;
+            out.writeInt(offset);
+        }
+        for (byte[] value : utf8) {
+            out.write(value);
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private int ref(String value) {
+        return value == null ? NULL_REF : strings.computeIfAbsent(value, key -> strings.size());
+    }
+
+    private static int nullable(Integer value) {
+        return value == null ? NULL_INT : value;
+    }
+
+    private Column ints(int table) {
+        return column(table, Integer.BYTES);
+    }
+
+    private Column longs(int table) {
+        return column(table, Long.BYTES);
+    }
+
+    private Column doubles(int table) {
+        return column(table, Double.BYTES);
+    }
+
+    private Column column(int table, int width) {
+        Column column = new Column(width);
+        tables[table].add(column);
+        return column;
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<Column>[] newTables() {
+        List<Column>[] tables = new List[TABLE_COUNT];
+        for (int table = 0; table < TABLE_COUNT; table++) {
+            tables[table] = new ArrayList<>();
+        }
+        return tables;
+    }
+
+    /**
+     * One column being written; every value has the column's width
+     */
+    private static final class Column {
+        private final int width;
+        private ByteBuffer bytes = ByteBuffer.allocate(256);
+        private int rows;
+
+        Column(int width) {
+            this.width = width;
+        }
+
+        void addInt(int value) {
+            reserve(Integer.BYTES).putInt(value);
+        }
+
+        void addLong(long value) {
+            reserve(Long.BYTES).putLong(value);
+        }
+
+        void addDouble(double value) {
+            reserve(Double.BYTES).putDouble(value);
+        }
+
+        int rows() {
+            return rows;
+        }
+
+        int length() {
+            return bytes.position();
+        }
+
+        void writeTo(DataOutputStream out) throws IOException {
+            out.write(bytes.array(), 0, bytes.position());
+        }
+
+        private ByteBuffer reserve(int valueWidth) {
+            if (valueWidth != width) {
+                throw new IllegalStateException("Column holds " + width + "-byte values, got " + valueWidth);
+            }
+            if (bytes.remaining() < width) {
+                bytes = ByteBuffer.allocate(bytes.capacity() * 2).put(bytes.flip());
+            }
+            rows++;
+            return bytes;
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.muscledia.muscledia_ai_service.jfr.OllamaCallEvent;
+import org.springframework.ai.chat.client.ChatClientRequest;
+import org.springframework.ai.chat.client.ChatClientResponse;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisor;
+import org.springframework.ai.chat.client.advisor.api.CallAdvisorChain;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisor;
+import org.springframework.ai.chat.client.advisor.api.StreamAdvisorChain;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+import reactor.core.scheduler.Schedulers;
+
+/**
+ * ChatClient advisor that runs every model call through the {@link AdaptiveConcurrencyLimiter}
+ * Registered as a default advisor on all ChatClients so no call to Ollama bypasses the limit
+ * Each call is also recorded as an {@link OllamaCallEvent} for the flight recorder
+ */
+@Component
+public class ConcurrencyLimitAdvisor implements CallAdvisor, StreamAdvisor {
+
+    /**
+     * Runs close to the model so outer advisors (memory, caching) do not hold a slot
+     */
+    private static final int ORDER = Ordered.LOWEST_PRECEDENCE - 1000;
+
+    private final AdaptiveConcurrencyLimiter limiter;
+
+    public ConcurrencyLimitAdvisor(AdaptiveConcurrencyLimiter limiter) {
+        this.limiter = limiter;
+    }
+
+    @Override
+    public ChatClientResponse adviseCall(ChatClientRequest request, CallAdvisorChain chain) {
+        OllamaCallEvent event = begin(request, false);
+        AdaptiveConcurrencyLimiter.Permit permit = acquire(event);
+        boolean success = false;
+        try {
+            ChatClientResponse response = chain.nextCall(request);
+            observe(event, response);
+            success = true;
+            return response;
+        } finally {
+            permit.release(success);
+            commit(event, success ? "success" : "failure");
+        }
+    }
+
+    @Override
+    public Flux<ChatClientResponse> adviseStream(ChatClientRequest request, StreamAdvisorChain chain) {
+        return Flux.defer(() -> {
+            OllamaCallEvent event = begin(request, true);
+            // Waiting for a slot blocks, so keep it off the event-loop threads
+            return Mono.fromCallable(() -> acquire(event))
+                    .subscribeOn(Schedulers.boundedElastic())
+                    .flatMapMany(permit -> chain.nextStream(request)
+                            .doOnNext(response -> observe(event, response))
+                            // Cancelling is a normal outcome (early stop once the JSON is complete, client gone)
+                            .doFinally(signal -> {
+                                permit.release(signal != SignalType.ON_ERROR);
+                                commit(event, switch (signal) {
+                                    case ON_ERROR -> "failure";
+                                    case CANCEL -> "cancelled";
+                                    default -> "success";
+                                });
+                            }));
+        });
+    }
+
+    @Override
+    public String getName() {
+        return "ConcurrencyLimitAdvisor";
+    }
+
+    @Override
+    public int getOrder() {
+        return ORDER;
+    }
+
+    private AdaptiveConcurrencyLimiter.Permit acquire(OllamaCallEvent event) {
+        long start = System.nanoTime();
+        try {
+            AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire();
+            event.queueWait = System.nanoTime() - start;
+            return permit;
+        } catch (RuntimeException e) {
+            event.queueWait = System.nanoTime() - start;
+            commit(event, "rejected");
+            throw e;
+        }
+    }
+
+    private static OllamaCallEvent begin(ChatClientRequest request, boolean streamed) {
+        OllamaCallEvent event = new OllamaCallEvent();
+        if (event.isEnabled()) {
+            event.streamed = streamed;
+            event.model = request.prompt().getOptions() == null ? null : request.prompt().getOptions().getModel();
+            for (Message message : request.prompt().getInstructions()) {
+                event.promptChars += message.getText() == null ? 0 : message.getText().length();
+            }
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     * Model and token counts come with the response; for streams only with the final chunk
+     */
+    private static void observe(OllamaCallEvent event, ChatClientResponse response) {
+        ChatResponse chatResponse = response.chatResponse();
+        if (!event.isEnabled() || !OllamaResponseMetrics.isFinal(chatResponse)) {
+            return;
+        }
+        ChatResponseMetadata metadata = chatResponse.getMetadata();
+        if (metadata.getModel() != null && !metadata.getModel().isBlank()) {
+            event.model = metadata.getModel();
+        }
+        if (metadata.get(OllamaResponseMetrics.PROMPT_EVAL_COUNT) instanceof Number count) {
+            event.promptTokens = count.intValue();
+        }
+        if (metadata.get(OllamaResponseMetrics.EVAL_COUNT) instanceof Number count) {
+            event.evalTokens = count.intValue();
+        }
+    }
+
+    private static void commit(OllamaCallEvent event, String outcome) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.outcome = outcome;
+            event.commit();
+        }
+    }
+}
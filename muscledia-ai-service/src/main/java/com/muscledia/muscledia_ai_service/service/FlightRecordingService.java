@@ -0,0 +1,230 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.muscledia.muscledia_ai_service.config.FlightRecorderProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.FlightRecorder;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Continuous JDK Flight Recorder recording of the last few minutes, dumped to disk
+ * when a request passes the slow-request threshold
+ *
+ * The recording runs with JFR's "default" settings, which are meant to stay on in
+ * production, plus the service's own events (package jfr). Dumps are rate limited,
+ * written on a background thread and pruned to max-dumps.
+ *
+ * Meter: flight.recording.dumps (counter) tagged with outcome: written, skipped, failure
+ */
+@Slf4j
+@Service
+public class FlightRecordingService {
+
+    private static final String RECORDING_NAME = "muscledia-continuous";
+    private static final Pattern DUMP_NAME = Pattern.compile("slow-[0-9-]+\\.jfr");
+    private static final DateTimeFormatter TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS").withZone(ZoneOffset.UTC);
+
+    private final FlightRecorderProperties properties;
+    private final Path directory;
+    private final AtomicLong lastDumpNanos = new AtomicLong();
+    private final Counter written;
+    private final Counter skipped;
+    private final Counter failed;
+    private volatile Recording recording;
+    private ExecutorService dumper;
+
+    public FlightRecordingService(FlightRecorderProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.directory = properties.getDirectory() == null || properties.getDirectory().isBlank()
+                ? Path.of(System.getProperty("java.io.tmpdir"), "muscledia-flight-recordings")
+                : Path.of(properties.getDirectory());
+        this.written = dumpCounter(meterRegistry, "written");
+        this.skipped = dumpCounter(meterRegistry, "skipped");
+        this.failed = dumpCounter(meterRegistry, "failure");
+    }
+
+    @PostConstruct
+    void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        if (!FlightRecorder.isAvailable()) {
+            log.warn("JDK Flight Recorder is not available, slow requests will not be recorded");
+            return;
+        }
+        try {
+            Recording continuous = new Recording(Configuration.getConfiguration(properties.getSettings()));
+            continuous.setName(RECORDING_NAME);
+            continuous.setToDisk(true);
+            continuous.setMaxAge(properties.getMaxAge());
+            continuous.setMaxSize(properties.getMaxSize().toBytes());
+            continuous.start();
+            dumper = Executors.newSingleThreadExecutor(
+                    Thread.ofPlatform().name("flight-recording-dump").daemon(true).factory());
+            recording = continuous;
+            log.info("Flight recording started ({} settings, last {} kept), requests over {} are dumped to {}",
+                    properties.getSettings(), properties.getMaxAge(), properties.getSlowRequestThreshold(), directory);
+        } catch (IOException | ParseException | RuntimeException e) {
+            log.warn("Could not start flight recording: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Stops recording; a dump in progress is allowed to finish
+     */
+    @PreDestroy
+    void stop() throws InterruptedException {
+        if (dumper != null) {
+            dumper.shutdown();
+            dumper.awaitTermination(10, TimeUnit.SECONDS);
+        }
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    public boolean isRecording() {
+        return recording != null;
+    }
+
+    /**
+     * Whether a request that took this long should be dumped
+     */
+    public boolean isSlow(Duration elapsed) {
+        Duration threshold = properties.getSlowRequestThreshold();
+        return isRecording() && threshold.isPositive() && elapsed.compareTo(threshold) > 0;
+    }
+
+    /**
+     * Write the recent recording window to a new file in the background, unless
+     * another dump started within min-dump-interval
+     *
+     * @param request what was slow, for the log
+     * @return whether a dump was started
+     */
+    public boolean dumpSlowRequest(String request) {
+        long now = System.nanoTime();
+        long last = lastDumpNanos.get();
+        boolean tooSoon = last != 0 && now - last < properties.getMinDumpInterval().toNanos();
+        if (!isRecording() || tooSoon || !lastDumpNanos.compareAndSet(last, now)) {
+            skipped.increment();
+            return false;
+        }
+
+        Path file = directory.resolve("slow-" + TIMESTAMP.format(Instant.now()) + ".jfr");
+        try {
+            dumper.execute(() -> dump(file, request));
+            return true;
+        } catch (RejectedExecutionException e) {
+            skipped.increment();
+            return false;
+        }
+    }
+
+    /**
+     * Dumps on disk, newest first
+     */
+    public List<Dump> dumps() {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> DUMP_NAME.matcher(file.getFileName().toString()).matches())
+                    .map(FlightRecordingService::describe)
+                    // Names start with the UTC timestamp, so they sort by age
+                    .sorted(Comparator.comparing(Dump::name).reversed())
+                    .toList();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /**
+     * A dump by file name; names not produced by this service are never resolved
+     */
+    public Optional<Path> dump(String name) {
+        if (name == null || !DUMP_NAME.matcher(name).matches()) {
+            return Optional.empty();
+        }
+        Path file = directory.resolve(name);
+        return Files.isRegularFile(file) ? Optional.of(file) : Optional.empty();
+    }
+
+    private void dump(Path file, String request) {
+        Recording current = recording;
+        if (current == null) {
+            return;
+        }
+        try {
+            Files.createDirectories(directory);
+            current.dump(file);
+            written.increment();
+            log.warn("Slow request {}: flight recording of the last {} written to {}",
+                    request, properties.getMaxAge(), file);
+            prune();
+        } catch (IOException | RuntimeException e) {
+            failed.increment();
+            log.error("Could not write flight recording for slow request {}: {}", request, e.getMessage());
+        }
+    }
+
+    private void prune() {
+        List<Dump> dumps = dumps();
+        for (Dump old : dumps.subList(Math.min(dumps.size(), Math.max(1, properties.getMaxDumps())), dumps.size())) {
+            try {
+                Files.deleteIfExists(directory.resolve(old.name()));
+            } catch (IOException e) {
+                log.warn("Could not delete old flight recording {}: {}", old.name(), e.getMessage());
+            }
+        }
+    }
+
+    private static Dump describe(Path file) {
+        try {
+            return new Dump(file.getFileName().toString(), Files.size(file),
+                    Files.getLastModifiedTime(file).toInstant());
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Counter dumpCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("flight.recording.dumps")
+                .description("Flight recordings dumped for slow requests")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+
+    /**
+     * A flight recording on disk
+     */
+    public record Dump(String name, long sizeBytes, Instant createdAt) {
+    }
+}
@@ -0,0 +1,36 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.muscledia.muscledia_ai_service.model.EncodedRoutines;
+import com.muscledia.muscledia_ai_service.model.PublicRoutine;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * JSON array of routine summaries with real ids (the original prompt format)
+ */
+@Component
+public class JsonRoutinePromptEncoder implements RoutinePromptEncoder {
+
+    public static final String NAME = "json";
+
+    private final RoutineCatalog routineCatalog;
+
+    public JsonRoutinePromptEncoder(RoutineCatalog routineCatalog) {
+        this.routineCatalog = routineCatalog;
+    }
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public EncodedRoutines encode(List<PublicRoutine> routines) {
+        Set<String> ids = routines.stream().map(PublicRoutine::id).collect(Collectors.toSet());
+        return new EncodedRoutines(NAME, routineCatalog.summaryJson(routines), Map.of(), ids);
+    }
+}
@@ -1,29 +1,80 @@
 package com.muscledia.muscledia_ai_service.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.muscledia.muscledia_ai_service.dto.VerifiedJwt;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
 import java.util.*;
 
 @Service
 @Slf4j
 public class JwtService {
 
-    @Value("${jwt.secret}")
-    private String secretKey;
-
     @Value("${jwt.expiration:86400000}")
     private int jwtExpirationMs;
 
     @Value("${jwt.issuer}")
     private String issuer;
 
-    private SecretKey getSigningKey() {
+    private final SecretKey signingKey;
+    private final JwtParser parser;
+    private final Duration verifiedCacheMaxTtl;
+    private final Cache<String, VerifiedJwt> verifiedTokens;
+
+    public JwtService(
+            @Value("${jwt.secret}") String secretKey,
+            @Value("${jwt.cache.max-size:10000}") long verifiedCacheMaxSize,
+            @Value("${jwt.cache.max-ttl:5m}") Duration verifiedCacheMaxTtl,
+            MeterRegistry meterRegistry) {
+
+        // Key and parser are immutable and thread-safe: build them once
+        this.signingKey = buildSigningKey(secretKey);
+        this.parser = Jwts.parser()
+                .verifyWith(signingKey)
+                //.requireIssuer(issuer)
+                .build();
+        this.verifiedCacheMaxTtl = verifiedCacheMaxTtl;
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaxSize)
+                .expireAfter(new Expiry<String, VerifiedJwt>() {
+                    @Override
+                    public long expireAfterCreate(String key, VerifiedJwt jwt, long currentTime) {
+                        return cacheTtl(jwt).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, VerifiedJwt jwt, long currentTime, long currentDuration) {
+                        return cacheTtl(jwt).toNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, VerifiedJwt jwt, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "verified-jwt");
+    }
+
+    private SecretKey buildSigningKey(String secretKey) {
         // Compatible with User Service - handles both base64 and raw secret
         try {
             // Try base64 decoding first (as your User Service does)
@@ -35,13 +86,39 @@ public class JwtService {
         }
     }
 
+    /**
+     * Verify the token signature and expiry once and return all claims
+     * Repeat calls with the same token are served from a bounded cache
+     * (keyed by SHA-256 of the token) until the token expires
+     *
+     * @throws io.jsonwebtoken.JwtException if the token is invalid or expired
+     */
+    public VerifiedJwt verifyOnce(String token) {
+        String cacheKey = hash(token);
+
+        VerifiedJwt cached = verifiedTokens.getIfPresent(cacheKey);
+        if (cached != null && !cached.isExpired(Instant.now())) {
+            return cached;
+        }
+
+        Claims claims = parser.parseSignedClaims(token).getPayload();
+        VerifiedJwt verified = new VerifiedJwt(
+                userIdFrom(claims),
+                claims.getSubject(),
+                rolesFrom(claims),
+                claims.getExpiration() != null ? claims.getExpiration().toInstant() : null,
+                claims
+        );
+
+        if (!cacheTtl(verified).isZero()) {
+            verifiedTokens.put(cacheKey, verified);
+        }
+        return verified;
+    }
+
     public boolean validateToken(String token) {
         try {
-            Jwts.parser()
-                    .verifyWith(getSigningKey())
-                    //.requireIssuer(issuer)
-                    .build()
-                    .parseSignedClaims(token);
+            verifyOnce(token);
             return true;
         } catch (Exception e) {
             log.error("JWT validation failed: {}", e.getMessage());
@@ -50,21 +127,37 @@ public class JwtService {
     }
 
     public Claims extractClaims(String token) {
-        return Jwts.parser()
-                .verifyWith(getSigningKey())
-                .build()
-                .parseSignedClaims(token)
-                .getPayload();
+        return parser.parseSignedClaims(token).getPayload();
     }
 
     public String extractUsername(String token) {
-        return extractClaims(token).getSubject();
+        return verifyOnce(token).username();
     }
 
-    // FIXED: Handle userId extraction properly
     public Long extractUserId(String token) {
-        Claims claims = extractClaims(token);
+        return verifyOnce(token).userId();
+    }
+
+    public List<String> extractRoles(String token) {
+        return verifyOnce(token).roles();
+    }
+
+    public String extractRole(String token) {
+        Object role = verifyOnce(token).claims().get("role");
+        return role instanceof String ? (String) role : null;
+    }
+
 
+    public boolean isTokenExpired(String token) {
+        try {
+            return verifyOnce(token).isExpired(Instant.now());
+        } catch (Exception e) {
+            return true;
+        }
+    }
+
+    // FIXED: Handle userId extraction properly
+    private Long userIdFrom(Claims claims) {
         // Try to get userIdLong first (if available)
         Object userIdLong = claims.get("userIdLong");
         if (userIdLong instanceof Long) {
@@ -97,8 +190,7 @@ public class JwtService {
 
     // FIXED: Handle roles extraction properly
     @SuppressWarnings("unchecked")
-    public List<String> extractRoles(String token) {
-        Claims claims = extractClaims(token);
+    private List<String> rolesFrom(Claims claims) {
         Object rolesObj = claims.get("roles");
 
         if (rolesObj instanceof List) {
@@ -114,17 +206,26 @@ public class JwtService {
         return Collections.emptyList();
     }
 
-    public String extractRole(String token) {
-        return extractClaims(token).get("role", String.class);
+    /**
+     * Cache a verified token until it expires, capped at jwt.cache.max-ttl
+     */
+    private Duration cacheTtl(VerifiedJwt jwt) {
+        if (jwt.expiresAt() == null) {
+            return verifiedCacheMaxTtl;
+        }
+        Duration untilExpiry = Duration.between(Instant.now(), jwt.expiresAt());
+        if (untilExpiry.isNegative()) {
+            return Duration.ZERO;
+        }
+        return untilExpiry.compareTo(verifiedCacheMaxTtl) < 0 ? untilExpiry : verifiedCacheMaxTtl;
     }
 
-
-    public boolean isTokenExpired(String token) {
+    private static String hash(String token) {
         try {
-            Claims claims = extractClaims(token);
-            return claims.getExpiration().before(new Date());
-        } catch (Exception e) {
-            return true;
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,327 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.muscledia.muscledia_ai_service.config.OllamaPoolProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Pool of Ollama endpoints with least-outstanding-requests routing
+ *
+ * Routing: among available endpoints serving the requested model, pick the one with
+ * the lowest (in-flight + 1) / weight; endpoints that don't have the model loaded
+ * (per the last /api/ps check) count one extra request, so warm endpoints win ties.
+ *
+ * Health: failed requests (I/O errors, 5xx) and failed /api/ps checks count as
+ * consecutive failures; at failure-threshold the endpoint is ejected. After
+ * ejection-duration a successful health check readmits it with a weight that ramps
+ * from 10% to 100% over slow-start. If every endpoint is ejected, all are used.
+ *
+ * Meters (tag endpoint): ollama.pool.inflight, ollama.pool.available,
+ * ollama.pool.request (timer, tag outcome), ollama.pool.ejections
+ */
+@Slf4j
+public class OllamaBackendPool implements AutoCloseable {
+
+    private static final double MIN_WEIGHT = 0.1;
+    private static final int COLD_MODEL_PENALTY = 1;
+
+    private final OllamaPoolProperties properties;
+    private final String defaultModel;
+    private final List<Backend> backends;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient healthClient;
+    private final ScheduledExecutorService scheduler;
+    private final AtomicInteger rotation = new AtomicInteger();
+
+    public OllamaBackendPool(OllamaPoolProperties properties, String defaultModel, MeterRegistry meterRegistry) {
+        if (properties.getEndpoints() == null || properties.getEndpoints().isEmpty()) {
+            throw new IllegalArgumentException("ollama.pool.endpoints must list at least one endpoint");
+        }
+        this.properties = properties;
+        this.defaultModel = defaultModel;
+        this.backends = properties.getEndpoints().stream()
+                .map(endpoint -> new Backend(endpoint, meterRegistry))
+                .toList();
+        this.healthClient = HttpClient.newBuilder()
+                .connectTimeout(properties.getHealthCheckTimeout())
+                .build();
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("ollama-pool-health").daemon(true).factory());
+    }
+
+    /**
+     * Start periodic health checks
+     */
+    public void start() {
+        long intervalMs = properties.getHealthCheckInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::checkHealth, 0, intervalMs, TimeUnit.MILLISECONDS);
+        log.info("Ollama pool started with {} endpoints", backends.size());
+    }
+
+    @Override
+    public void close() {
+        scheduler.shutdownNow();
+    }
+
+    public List<Backend> backends() {
+        return backends;
+    }
+
+    /**
+     * Reserve the best endpoint for a request; the lease must be released exactly once
+     *
+     * @param model requested model, or null for the default model
+     */
+    public Lease acquire(String model) {
+        Backend backend = choose(model != null && !model.isBlank() ? model : defaultModel);
+        backend.inFlight.incrementAndGet();
+        return new Lease(backend, System.nanoTime());
+    }
+
+    Backend choose(String model) {
+        long now = System.nanoTime();
+
+        List<Backend> candidates = new ArrayList<>(backends.size());
+        for (Backend backend : backends) {
+            if (!backend.isEjected()) {
+                candidates.add(backend);
+            }
+        }
+        if (candidates.isEmpty()) {
+            log.warn("All Ollama endpoints are ejected, routing to all of them");
+            candidates.addAll(backends);
+        }
+
+        List<Backend> serving = candidates.stream().filter(backend -> backend.serves(model)).toList();
+        if (!serving.isEmpty()) {
+            candidates = serving;
+        }
+
+        // Rotate the starting point so equal scores spread across endpoints
+        int offset = Math.floorMod(rotation.getAndIncrement(), candidates.size());
+        Backend best = null;
+        double bestScore = Double.MAX_VALUE;
+        for (int i = 0; i < candidates.size(); i++) {
+            Backend backend = candidates.get((offset + i) % candidates.size());
+            int outstanding = backend.inFlight.get() + 1 + (backend.hasLoaded(model) ? 0 : COLD_MODEL_PENALTY);
+            double score = outstanding / backend.weight(now);
+            if (score < bestScore) {
+                bestScore = score;
+                best = backend;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Probe every endpoint once (GET /api/ps); runs on the health-check thread
+     */
+    void checkHealth() {
+        for (Backend backend : backends) {
+            try {
+                HttpRequest request = HttpRequest.newBuilder(backend.resolve("/api/ps"))
+                        .timeout(properties.getHealthCheckTimeout())
+                        .GET()
+                        .build();
+                HttpResponse<String> response = healthClient.send(request, HttpResponse.BodyHandlers.ofString());
+                if (response.statusCode() / 100 != 2) {
+                    throw new IllegalStateException("HTTP " + response.statusCode());
+                }
+                backend.loadedModels = parseLoadedModels(response.body());
+                onHealthCheckSuccess(backend);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.debug("Health check failed for {}: {}", backend.url(), e.getMessage());
+                onFailure(backend);
+            }
+        }
+    }
+
+    private void onHealthCheckSuccess(Backend backend) {
+        synchronized (backend) {
+            long now = System.nanoTime();
+            if (backend.ejected) {
+                if (now - backend.ejectedAtNanos < properties.getEjectionDuration().toNanos()) {
+                    return;
+                }
+                backend.readmittedAtNanos = now;
+                backend.ejected = false;
+                log.info("Ollama endpoint {} readmitted, slow start over {}", backend.url(), properties.getSlowStart());
+            }
+            backend.consecutiveFailures.set(0);
+        }
+    }
+
+    private void onFailure(Backend backend) {
+        synchronized (backend) {
+            int failures = backend.consecutiveFailures.incrementAndGet();
+            if (failures >= properties.getFailureThreshold() && !backend.ejected) {
+                backend.ejectedAtNanos = System.nanoTime();
+                backend.ejected = true;
+                backend.ejections.increment();
+                log.warn("Ollama endpoint {} ejected after {} consecutive failures", backend.url(), failures);
+            }
+        }
+    }
+
+    private Set<String> parseLoadedModels(String body) throws Exception {
+        Set<String> loaded = new HashSet<>();
+        JsonNode models = objectMapper.readTree(body).path("models");
+        for (JsonNode model : models) {
+            loaded.add(normalize(model.path("name").asText(model.path("model").asText())));
+        }
+        return Set.copyOf(loaded);
+    }
+
+    private static String normalize(String model) {
+        return model == null ? "" : model.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * One pooled Ollama endpoint
+     */
+    public class Backend {
+        private final URI baseUri;
+        private final Set<String> models;
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger consecutiveFailures = new AtomicInteger();
+        private final Timer successTimer;
+        private final Timer failureTimer;
+        private final Counter ejections;
+        private volatile boolean ejected;
+        private volatile long ejectedAtNanos;
+        private volatile long readmittedAtNanos = Long.MIN_VALUE;
+        private volatile Set<String> loadedModels = Set.of();
+
+        Backend(OllamaPoolProperties.Endpoint endpoint, MeterRegistry meterRegistry) {
+            String url = endpoint.getUrl().endsWith("/")
+                    ? endpoint.getUrl().substring(0, endpoint.getUrl().length() - 1)
+                    : endpoint.getUrl();
+            this.baseUri = URI.create(url);
+            this.models = endpoint.getModels().stream().map(OllamaBackendPool::normalize).collect(Collectors.toUnmodifiableSet());
+
+            Gauge.builder("ollama.pool.inflight", inFlight, AtomicInteger::get)
+                    .description("Requests in flight to an Ollama endpoint")
+                    .tag("endpoint", url)
+                    .register(meterRegistry);
+            Gauge.builder("ollama.pool.available", this, backend -> backend.isEjected() ? 0 : 1)
+                    .description("1 if the Ollama endpoint receives traffic, 0 while ejected")
+                    .tag("endpoint", url)
+                    .register(meterRegistry);
+            this.successTimer = requestTimer(meterRegistry, url, "success");
+            this.failureTimer = requestTimer(meterRegistry, url, "failure");
+            this.ejections = Counter.builder("ollama.pool.ejections")
+                    .description("Times an Ollama endpoint was ejected from the pool")
+                    .tag("endpoint", url)
+                    .register(meterRegistry);
+        }
+
+        public String url() {
+            return baseUri.toString();
+        }
+
+        public int inFlight() {
+            return inFlight.get();
+        }
+
+        public boolean isAvailable() {
+            return !isEjected();
+        }
+
+        /**
+         * Absolute URI of a path on this endpoint, keeping any base path of the endpoint URL
+         */
+        public URI resolve(String pathAndQuery) {
+            return URI.create(url() + pathAndQuery);
+        }
+
+        boolean isEjected() {
+            return ejected;
+        }
+
+        boolean serves(String model) {
+            return models.isEmpty() || model == null || models.contains(normalize(model));
+        }
+
+        boolean hasLoaded(String model) {
+            return model == null || loadedModels.contains(normalize(model));
+        }
+
+        double weight(long now) {
+            long readmittedAt = readmittedAtNanos;
+            long slowStartNanos = properties.getSlowStart().toNanos();
+            if (readmittedAt == Long.MIN_VALUE || slowStartNanos <= 0) {
+                return 1.0;
+            }
+            double progress = (double) (now - readmittedAt) / slowStartNanos;
+            return progress >= 1.0 ? 1.0 : Math.max(MIN_WEIGHT, progress);
+        }
+
+        private Timer requestTimer(MeterRegistry meterRegistry, String url, String outcome) {
+            return Timer.builder("ollama.pool.request")
+                    .description("Requests routed to an Ollama endpoint")
+                    .tag("endpoint", url)
+                    .tag("outcome", outcome)
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * A routed request; release once with its outcome
+     */
+    public class Lease {
+        private final Backend backend;
+        private final long startNanos;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        Lease(Backend backend, long startNanos) {
+            this.backend = backend;
+            this.startNanos = startNanos;
+        }
+
+        public Backend backend() {
+            return backend;
+        }
+
+        /**
+         * @param success false for I/O errors and 5xx responses; counts toward ejection
+         */
+        public void release(boolean success) {
+            if (!released.compareAndSet(false, true)) {
+                return;
+            }
+            backend.inFlight.decrementAndGet();
+            long elapsed = System.nanoTime() - startNanos;
+            if (success) {
+                backend.successTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                backend.consecutiveFailures.set(0);
+            } else {
+                backend.failureTimer.record(elapsed, TimeUnit.NANOSECONDS);
+                onFailure(backend);
+            }
+        }
+    }
+}
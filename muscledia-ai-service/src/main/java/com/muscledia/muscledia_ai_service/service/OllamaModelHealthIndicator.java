@@ -0,0 +1,27 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+/**
+ * Health contributor "ollamaModel": UP while the chat model is warm
+ * Reports UNKNOWN while warming, and again when keep-alive pings keep failing, so liveness
+ * stays green; the readiness group includes it
+ */
+@Component
+public class OllamaModelHealthIndicator implements HealthIndicator {
+
+    private final OllamaModelLifecycle modelLifecycle;
+
+    public OllamaModelHealthIndicator(OllamaModelLifecycle modelLifecycle) {
+        this.modelLifecycle = modelLifecycle;
+    }
+
+    @Override
+    public Health health() {
+        return (modelLifecycle.isWarm() ? Health.up() : Health.unknown())
+                .withDetails(modelLifecycle.details())
+                .build();
+    }
+}
@@ -0,0 +1,261 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.muscledia.muscledia_ai_service.config.OllamaWarmupProperties;
+import com.netflix.appinfo.ApplicationInfoManager;
+import com.netflix.appinfo.InstanceInfo;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.ollama.api.OllamaApi;
+import org.springframework.ai.ollama.management.ModelManagementOptions;
+import org.springframework.ai.ollama.management.OllamaModelManager;
+import org.springframework.ai.ollama.management.PullModelStrategy;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps the chat model loaded and warm, and gates readiness on it
+ *
+ * After startup, in the background:
+ * 1. pulls the model if the Ollama host doesn't have it (replaces the blocking
+ *    spring.ai.ollama.init pull at startup)
+ * 2. sends a 1-token generation per static system prompt, which loads the model
+ *    and primes Ollama's prompt cache with the shared prefix
+ * 3. pings every keep-alive-interval with an empty chat and keep_alive so Ollama
+ *    doesn't unload the idle model
+ *
+ * Until step 2 succeeds on at least one endpoint the readiness state is
+ * REFUSING_TRAFFIC and the Eureka instance is STARTING, so neither load balancers
+ * nor discovery clients send requests that would pay the model load time.
+ * When keep-alive-failure-threshold rounds of pings in a row fail on every endpoint,
+ * readiness is withdrawn the same way; the next successful ping restores it.
+ */
+@Slf4j
+@Component
+public class OllamaModelLifecycle {
+
+    private static final String WARMUP_USER_MESSAGE = "ok";
+
+    private final OllamaApi ollamaApi;
+    private final ObjectProvider<OllamaBackendPool> backendPool;
+    private final ObjectProvider<ApplicationInfoManager> eurekaInstance;
+    private final ApplicationEventPublisher eventPublisher;
+    private final PromptTemplateRegistry promptTemplates;
+    private final OllamaWarmupProperties properties;
+    private final String model;
+    private final ScheduledExecutorService scheduler;
+
+    private volatile boolean warm;
+    private volatile Duration lastWarmupDuration;
+    private volatile Instant lastKeepAlive;
+    private volatile String lastError;
+    private volatile int keepAliveFailures;
+    private List<OllamaApi> targets;
+
+    public OllamaModelLifecycle(
+            OllamaApi ollamaApi,
+            ObjectProvider<OllamaBackendPool> backendPool,
+            ObjectProvider<ApplicationInfoManager> eurekaInstance,
+            ApplicationEventPublisher eventPublisher,
+            PromptTemplateRegistry promptTemplates,
+            OllamaWarmupProperties properties,
+            @Value("${spring.ai.ollama.chat.options.model}") String model) {
+        this.ollamaApi = ollamaApi;
+        this.backendPool = backendPool;
+        this.eurekaInstance = eurekaInstance;
+        this.eventPublisher = eventPublisher;
+        this.promptTemplates = promptTemplates;
+        this.properties = properties;
+        this.model = model;
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("ollama-warmup").daemon(true).factory());
+        this.warm = !properties.isEnabled();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        refuseTraffic();
+        scheduler.execute(this::warmUp);
+    }
+
+    /**
+     * Spring Boot switches to ACCEPTING_TRAFFIC right after ApplicationReadyEvent; hold it back until warm
+     */
+    @EventListener
+    public void onReadinessChange(AvailabilityChangeEvent<ReadinessState> event) {
+        if (event.getState() == ReadinessState.ACCEPTING_TRAFFIC && !warm) {
+            AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        }
+    }
+
+    @PreDestroy
+    public void stop() {
+        scheduler.shutdownNow();
+    }
+
+    public boolean isWarm() {
+        return warm;
+    }
+
+    public Map<String, Object> details() {
+        Map<String, Object> details = new LinkedHashMap<>();
+        details.put("model", model);
+        details.put("state", !properties.isEnabled() ? "disabled"
+                : warm ? "warm"
+                : lastWarmupDuration != null ? "unreachable" : "warming");
+        Optional.ofNullable(lastWarmupDuration).ifPresent(d -> details.put("warmupMs", d.toMillis()));
+        Optional.ofNullable(lastKeepAlive).ifPresent(t -> details.put("lastKeepAlive", t.toString()));
+        if (keepAliveFailures > 0) {
+            details.put("keepAliveFailures", keepAliveFailures);
+        }
+        Optional.ofNullable(lastError).ifPresent(e -> details.put("lastError", e));
+        return details;
+    }
+
+    void warmUp() {
+        long start = System.nanoTime();
+        List<String> systemPrompts = List.of(
+                promptTemplates.get(OllamaServiceImpl.CONVERSATION_PROMPT_TEMPLATE).text(),
+                OllamaServiceImpl.RECOMMENDATION_SYSTEM_PROMPT
+        );
+
+        int warmed = 0;
+        for (OllamaApi target : targets()) {
+            try {
+                if (properties.isPullModel()) {
+                    pullIfMissing(target);
+                }
+                for (String systemPrompt : systemPrompts) {
+                    target.chat(warmupRequest(systemPrompt));
+                }
+                warmed++;
+            } catch (RuntimeException e) {
+                lastError = e.getMessage();
+                log.warn("Warm-up of model {} failed: {}", model, e.getMessage());
+            }
+        }
+
+        if (warmed == 0) {
+            log.info("Model {} not warm yet, retrying in {}", model, properties.getRetryInterval());
+            scheduler.schedule(this::warmUp, properties.getRetryInterval().toMillis(), TimeUnit.MILLISECONDS);
+            return;
+        }
+
+        lastWarmupDuration = Duration.ofNanos(System.nanoTime() - start);
+        lastError = null;
+        warm = true;
+        log.info("Model {} warm on {}/{} endpoints in {} ms, accepting traffic",
+                model, warmed, targets().size(), lastWarmupDuration.toMillis());
+        acceptTraffic();
+
+        long intervalMs = properties.getKeepAliveInterval().toMillis();
+        scheduler.scheduleWithFixedDelay(this::keepAlive, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Runs on the scheduler thread only
+     */
+    void keepAlive() {
+        int reached = 0;
+        for (OllamaApi target : targets()) {
+            try {
+                // An empty chat only loads the model and resets its keep_alive timer
+                target.chat(OllamaApi.ChatRequest.builder(model)
+                        .messages(List.of())
+                        .stream(false)
+                        .keepAlive(properties.getKeepAlive())
+                        .build());
+                lastKeepAlive = Instant.now();
+                reached++;
+            } catch (RuntimeException e) {
+                lastError = e.getMessage();
+                log.warn("Keep-alive ping for model {} failed: {}", model, e.getMessage());
+            }
+        }
+
+        if (reached > 0) {
+            keepAliveFailures = 0;
+            if (!warm) {
+                warm = true;
+                lastError = null;
+                log.info("Model {} reachable again, accepting traffic", model);
+                acceptTraffic();
+            }
+            return;
+        }
+
+        keepAliveFailures++;
+        if (warm && keepAliveFailures >= properties.getKeepAliveFailureThreshold()) {
+            warm = false;
+            log.warn("Keep-alive for model {} failed {} times in a row on every endpoint, refusing traffic",
+                    model, keepAliveFailures);
+            refuseTraffic();
+        }
+    }
+
+    private void pullIfMissing(OllamaApi target) {
+        ModelManagementOptions options = ModelManagementOptions.builder()
+                .pullModelStrategy(PullModelStrategy.WHEN_MISSING)
+                .timeout(properties.getPullTimeout())
+                .maxRetries(0)
+                .build();
+        new OllamaModelManager(target, options).pullModel(model, PullModelStrategy.WHEN_MISSING);
+    }
+
+    private OllamaApi.ChatRequest warmupRequest(String systemPrompt) {
+        return OllamaApi.ChatRequest.builder(model)
+                .messages(List.of(
+                        OllamaApi.Message.builder(OllamaApi.Message.Role.SYSTEM).content(systemPrompt).build(),
+                        OllamaApi.Message.builder(OllamaApi.Message.Role.USER).content(WARMUP_USER_MESSAGE).build()))
+                .stream(false)
+                .keepAlive(properties.getKeepAlive())
+                .options(Map.of("num_predict", 1))
+                .build();
+    }
+
+    /**
+     * Every pooled endpoint must be warmed, not just the one the router picks
+     */
+    private List<OllamaApi> targets() {
+        if (targets == null) {
+            OllamaBackendPool pool = backendPool.getIfAvailable();
+            if (pool == null) {
+                targets = List.of(ollamaApi);
+            } else {
+                List<OllamaApi> perEndpoint = new ArrayList<>();
+                pool.backends().forEach(backend -> perEndpoint.add(OllamaApi.builder().baseUrl(backend.url()).build()));
+                targets = List.copyOf(perEndpoint);
+            }
+        }
+        return targets;
+    }
+
+    private void refuseTraffic() {
+        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.REFUSING_TRAFFIC);
+        eurekaInstance.ifAvailable(manager -> manager.setInstanceStatus(InstanceInfo.InstanceStatus.STARTING));
+    }
+
+    private void acceptTraffic() {
+        AvailabilityChangeEvent.publish(eventPublisher, this, ReadinessState.ACCEPTING_TRAFFIC);
+        eurekaInstance.ifAvailable(manager -> manager.setInstanceStatus(InstanceInfo.InstanceStatus.UP));
+    }
+}
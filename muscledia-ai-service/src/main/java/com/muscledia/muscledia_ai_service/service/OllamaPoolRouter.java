@@ -0,0 +1,164 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+import org.springframework.http.client.support.HttpRequestWrapper;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+
+/**
+ * Routes Ollama HTTP calls to an endpoint chosen by {@link OllamaBackendPool}
+ *
+ * Installed on both clients of Spring AI's OllamaApi: as a RestClient interceptor
+ * (blocking chat, model management) and as a WebClient filter (streaming chat).
+ * The request URI's path is kept and re-based on the chosen endpoint. The lease is
+ * released when the response body is closed or fully consumed, so in-flight counts
+ * cover the whole generation. The blocking path reads the model from the request
+ * body; the streaming path routes on the pool's default model.
+ */
+public class OllamaPoolRouter implements ClientHttpRequestInterceptor, ExchangeFilterFunction {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final OllamaBackendPool pool;
+
+    public OllamaPoolRouter(OllamaBackendPool pool) {
+        this.pool = pool;
+    }
+
+    @Override
+    public ClientHttpResponse intercept(HttpRequest request, byte[] body, ClientHttpRequestExecution execution)
+            throws IOException {
+
+        OllamaBackendPool.Lease lease = pool.acquire(modelOf(body));
+        URI target = rebase(request.getURI(), lease.backend());
+
+        ClientHttpResponse response;
+        try {
+            response = execution.execute(new HttpRequestWrapper(request) {
+                @Override
+                public URI getURI() {
+                    return target;
+                }
+            }, body);
+        } catch (IOException | RuntimeException e) {
+            lease.release(false);
+            throw e;
+        }
+
+        if (response.getStatusCode().is5xxServerError()) {
+            lease.release(false);
+            return response;
+        }
+        return new LeasedResponse(response, lease);
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.defer(() -> {
+            OllamaBackendPool.Lease lease = pool.acquire(null);
+            ClientRequest routed = ClientRequest.from(request)
+                    .url(rebase(request.url(), lease.backend()))
+                    .build();
+
+            return next.exchange(routed)
+                    .map(response -> {
+                        boolean healthy = !response.statusCode().is5xxServerError();
+                        return response.mutate()
+                                .body(body -> body.doFinally(signal ->
+                                        lease.release(healthy && signal != SignalType.ON_ERROR)))
+                                .build();
+                    })
+                    .doOnError(e -> lease.release(false))
+                    .doOnCancel(() -> lease.release(true));
+        });
+    }
+
+    /**
+     * Read the top-level "model" field without parsing the (possibly large) messages
+     */
+    static String modelOf(byte[] body) {
+        if (body == null || body.length == 0) {
+            return null;
+        }
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return null;
+            }
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("model".equals(field) && value == JsonToken.VALUE_STRING) {
+                    return parser.getText();
+                }
+                parser.skipChildren();
+            }
+        } catch (IOException e) {
+            return null;
+        }
+        return null;
+    }
+
+    private static URI rebase(URI original, OllamaBackendPool.Backend backend) {
+        String pathAndQuery = original.getRawPath() + (original.getRawQuery() != null ? "?" + original.getRawQuery() : "");
+        return backend.resolve(pathAndQuery);
+    }
+
+    /**
+     * Releases the lease when the caller closes the response
+     */
+    private static final class LeasedResponse implements ClientHttpResponse {
+
+        private final ClientHttpResponse delegate;
+        private final OllamaBackendPool.Lease lease;
+
+        LeasedResponse(ClientHttpResponse delegate, OllamaBackendPool.Lease lease) {
+            this.delegate = delegate;
+            this.lease = lease;
+        }
+
+        @Override
+        public HttpStatusCode getStatusCode() throws IOException {
+            return delegate.getStatusCode();
+        }
+
+        @Override
+        public String getStatusText() throws IOException {
+            return delegate.getStatusText();
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return delegate.getHeaders();
+        }
+
+        @Override
+        public InputStream getBody() throws IOException {
+            return delegate.getBody();
+        }
+
+        @Override
+        public void close() {
+            try {
+                delegate.close();
+            } finally {
+                lease.release(true);
+            }
+        }
+    }
+}
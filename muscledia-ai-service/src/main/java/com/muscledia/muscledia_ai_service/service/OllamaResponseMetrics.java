@@ -0,0 +1,133 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.muscledia.muscledia_ai_service.util.ServerTiming;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the timings and token counts Ollama reports with a finished generation
+ * Only the final response (done=true) carries them; streamed chunks before it are skipped.
+ *
+ * Meters, tagged with model:
+ * - ollama.load.duration, ollama.prompt.eval.duration, ollama.eval.duration (timers)
+ * - ollama.prompt.eval.count, ollama.eval.count (distribution summaries, tokens)
+ */
+@Component
+public class OllamaResponseMetrics {
+
+    static final String PROMPT_EVAL_COUNT = "prompt-eval-count";
+    static final String EVAL_COUNT = "eval-count";
+
+    private static final String UNKNOWN_MODEL = "unknown";
+
+    private final MeterRegistry meterRegistry;
+    private final Map<String, ModelMeters> meters = new ConcurrentHashMap<>();
+
+    public OllamaResponseMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Text of a response or streamed chunk, empty when it has none
+     */
+    public static String text(ChatResponse response) {
+        if (response == null || response.getResult() == null || response.getResult().getOutput() == null) {
+            return "";
+        }
+        String text = response.getResult().getOutput().getText();
+        return text == null ? "" : text;
+    }
+
+    /**
+     * Whether this is Ollama's final response, the one with timings and token counts
+     */
+    public static boolean isFinal(ChatResponse response) {
+        return response != null && response.getMetadata() != null
+                && Boolean.TRUE.equals(response.getMetadata().get("done"));
+    }
+
+    public void record(ChatResponse response) {
+        record(response, null);
+    }
+
+    /**
+     * Record a response; Ollama's durations are also added to the request timing when given,
+     * as it may be read on a stream thread rather than the request thread
+     */
+    public void record(ChatResponse response, ServerTiming timing) {
+        if (!isFinal(response)) {
+            return;
+        }
+        ChatResponseMetadata metadata = response.getMetadata();
+        String model = metadata.getModel() == null || metadata.getModel().isBlank() ? UNKNOWN_MODEL : metadata.getModel();
+        ModelMeters modelMeters = meters.computeIfAbsent(model, this::register);
+
+        record(modelMeters.loadDuration(), metadata.get("load-duration"), "ollama_load", timing);
+        record(modelMeters.promptEvalDuration(), metadata.get("prompt-eval-duration"), "ollama_prompt_eval", timing);
+        record(modelMeters.evalDuration(), metadata.get("eval-duration"), "ollama_eval", timing);
+        record(modelMeters.promptEvalCount(), metadata.get(PROMPT_EVAL_COUNT));
+        record(modelMeters.evalCount(), metadata.get(EVAL_COUNT));
+    }
+
+    private static void record(Timer timer, Object value, String timingName, ServerTiming timing) {
+        if (value instanceof Duration duration) {
+            timer.record(duration);
+            if (timing != null) {
+                timing.add(timingName, duration.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+    }
+
+    private static void record(DistributionSummary summary, Object value) {
+        if (value instanceof Number count) {
+            summary.record(count.doubleValue());
+        }
+    }
+
+    private ModelMeters register(String model) {
+        return new ModelMeters(
+                timer("ollama.load.duration", "Time Ollama spent loading the model", model),
+                timer("ollama.prompt.eval.duration", "Time Ollama spent evaluating the prompt", model),
+                timer("ollama.eval.duration", "Time Ollama spent generating the response", model),
+                tokens("ollama.prompt.eval.count", "Prompt tokens evaluated by Ollama", model),
+                tokens("ollama.eval.count", "Response tokens generated by Ollama", model));
+    }
+
+    private Timer timer(String name, String description, String model) {
+        return Timer.builder(name)
+                .description(description)
+                .tag("model", model)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofMinutes(5))
+                .register(meterRegistry);
+    }
+
+    private DistributionSummary tokens(String name, String description, String model) {
+        return DistributionSummary.builder(name)
+                .description(description)
+                .baseUnit("tokens")
+                .tag("model", model)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(1.0)
+                .maximumExpectedValue(32_768.0)
+                .register(meterRegistry);
+    }
+
+    private record ModelMeters(
+            Timer loadDuration,
+            Timer promptEvalDuration,
+            Timer evalDuration,
+            DistributionSummary promptEvalCount,
+            DistributionSummary evalCount) {
+    }
+}
@@ -1,10 +1,15 @@
 package com.muscledia.muscledia_ai_service.service;
 
 import com.muscledia.muscledia_ai_service.dto.PreferencesDto;
+import com.muscledia.muscledia_ai_service.dto.UserData;
 import com.muscledia.muscledia_ai_service.model.Answer;
 import com.muscledia.muscledia_ai_service.model.Question;
 import com.muscledia.muscledia_ai_service.model.WorkoutRecommendation;
 import com.muscledia.muscledia_ai_service.exception.OllamaException.OllamaException;
+import com.muscledia.muscledia_ai_service.exception.OllamaException.OllamaOverloadedException;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
 
 /**
  * Interface for fetching an AI-generated answer based on a given question.
@@ -20,6 +25,16 @@ public interface OllamaService {
      */
     Answer getGeneralAnswer(Question question);
 
+    /**
+     * Streams the answer for the provided question token by token as the model generates it.
+     *
+     * @param question the question object containing the query details
+     * @return a Flux of answer chunks; completes when generation ends, errors with OllamaException on failure
+     * @throws IllegalArgumentException if the question is null or invalid
+     * @throws OllamaOverloadedException if the AI service is at capacity, before anything is streamed
+     */
+    Flux<String> streamGeneralAnswer(Question question);
+
     /**
      * Generates a structured workout recommendation based on user data and preferences.
      *
@@ -30,4 +45,25 @@ public interface OllamaService {
      * @throws OllamaException custom exception if there is an error in communicating with the AI service
      */
     WorkoutRecommendation getStructuredAnswer(PreferencesDto preferences, String jwtToken);
-}
\ No newline at end of file
+
+    /**
+     * Generates a structured workout recommendation within a deadline.
+     * If the AI model has not answered in time (or fails), a catalog-based recommendation
+     * marked provisional is returned; generation continues in the background and its
+     * result replaces the provisional one for subsequent requests.
+     *
+     * @param deadline latency budget for the whole request; null or non-positive waits for the model
+     * @throws IllegalArgumentException if the request is null or invalid
+     * @throws OllamaException if neither the model nor the catalog can produce a recommendation
+     */
+    WorkoutRecommendation getStructuredAnswer(PreferencesDto preferences, String jwtToken, Duration deadline);
+
+    /**
+     * Cached or freshly generated recommendation for user data already at hand, as used by
+     * batch requests; generations for the same profile bucket are shared.
+     *
+     * @throws IllegalArgumentException if the preferences are invalid
+     * @throws OllamaException if the AI model fails to produce a recommendation
+     */
+    WorkoutRecommendation getStructuredAnswer(UserData userData, PreferencesDto preferences);
+}
@@ -1,16 +1,45 @@
 package com.muscledia.muscledia_ai_service.service;
 
+import com.muscledia.muscledia_ai_service.config.PipelineProperties;
 import com.muscledia.muscledia_ai_service.dto.UserData;
 import com.muscledia.muscledia_ai_service.dto.PreferencesDto;
-import com.muscledia.muscledia_ai_service.dto.UserDataDTO;
 import com.muscledia.muscledia_ai_service.exception.OllamaException.OllamaException;
+import com.muscledia.muscledia_ai_service.exception.OllamaException.OllamaOverloadedException;
+import com.muscledia.muscledia_ai_service.exception.OllamaException.OllamaResponseParseException;
 import com.muscledia.muscledia_ai_service.function.PublicRoutinesFunction;
 import com.muscledia.muscledia_ai_service.model.Answer;
+import com.muscledia.muscledia_ai_service.model.EncodedRoutines;
+import com.muscledia.muscledia_ai_service.model.Pipeline;
+import com.muscledia.muscledia_ai_service.model.PipelineStage;
+import com.muscledia.muscledia_ai_service.model.ProfileBucket;
 import com.muscledia.muscledia_ai_service.model.Question;
+import com.muscledia.muscledia_ai_service.model.RoutineQuery;
 import com.muscledia.muscledia_ai_service.model.WorkoutRecommendation;
+import com.muscledia.muscledia_ai_service.util.ServerTiming;
+import com.muscledia.muscledia_ai_service.util.SingleFlight;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.ai.chat.client.ChatClient;
+import org.springframework.ai.chat.client.advisor.MessageChatMemoryAdvisor;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.ollama.api.OllamaChatOptions;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 /**
  * Application service for AI operations
@@ -21,6 +50,16 @@ import org.springframework.stereotype.Service;
 @Service
 public class OllamaServiceImpl implements OllamaService {
 
+    static final String CONVERSATION_PROMPT_TEMPLATE = "assistant_role";
+
+    /**
+     * Static system prompt of the recommendation client; also primed by {@link OllamaModelLifecycle}
+     */
+    static final String RECOMMENDATION_SYSTEM_PROMPT = """
+            You are a workout routines information service that returns structured data.
+            Always respond with a single JSON object.
+            """;
+
     private final ChatClient memoryChatClient;
     private final ChatClient statelessChatClient;
     private final PublicRoutinesFunction publicRoutinesFunction;
@@ -28,7 +67,24 @@ public class OllamaServiceImpl implements OllamaService {
     private final UserDataMapper userDataMapper;
     private final AiPromptService aiPromptService;
     private final AiResponseParser aiResponseParser;
-    private final ResourceLoaderService resourceLoaderService;
+    private final PromptTemplateRegistry promptTemplates;
+    private final RecommendationCache recommendationCache;
+    private final AnswerCache answerCache;
+    private final TokenBudgetChatMemory chatMemory;
+    private final MessageChatMemoryAdvisor chatMemoryAdvisor;
+    private final AuthenticationService authenticationService;
+    private final AdaptiveConcurrencyLimiter concurrencyLimiter;
+    private final JwtService jwtService;
+    private final PipelineStageExecutor pipeline;
+    private final OllamaResponseMetrics ollamaResponseMetrics;
+    private final PipelineProperties pipelineProperties;
+    private final ProvisionalRecommendationService provisionalRecommendationService;
+    private final ExecutorService backgroundExecutor;
+    private final SingleFlight<RecommendationRequestKey, WorkoutRecommendation> inFlightRecommendations;
+    private final SingleFlight<ProfileBucket, WorkoutRecommendation> inFlightGenerations;
+    private final Counter provisionalOnTimeout;
+    private final Counter provisionalOnError;
+    private final Counter parseRetries;
 
     public OllamaServiceImpl(
             ChatClient.Builder builder,
@@ -37,22 +93,57 @@ public class OllamaServiceImpl implements OllamaService {
             UserDataMapper userDataMapper,
             AiPromptService aiPromptService,
             AiResponseParser aiResponseParser,
-            ResourceLoaderService resourceLoaderService) {
+            PromptTemplateRegistry promptTemplates,
+            RecommendationCache recommendationCache,
+            AnswerCache answerCache,
+            TokenBudgetChatMemory chatMemory,
+            AuthenticationService authenticationService,
+            ConcurrencyLimitAdvisor concurrencyLimitAdvisor,
+            AdaptiveConcurrencyLimiter concurrencyLimiter,
+            JwtService jwtService,
+            PipelineStageExecutor pipeline,
+            OllamaResponseMetrics ollamaResponseMetrics,
+            PipelineProperties pipelineProperties,
+            ProvisionalRecommendationService provisionalRecommendationService,
+            RecommendationOutputSchema outputSchema,
+            @Qualifier("pipelineStageThreads") ExecutorService backgroundExecutor,
+            MeterRegistry meterRegistry) {
 
         this.publicRoutinesFunction = publicRoutinesFunction;
         this.userServiceClient = userServiceClient;
         this.userDataMapper = userDataMapper;
         this.aiPromptService = aiPromptService;
         this.aiResponseParser = aiResponseParser;
-        this.resourceLoaderService = resourceLoaderService;
+        this.promptTemplates = promptTemplates;
+        this.recommendationCache = recommendationCache;
+        this.answerCache = answerCache;
+        this.chatMemory = chatMemory;
+        this.chatMemoryAdvisor = MessageChatMemoryAdvisor.builder(chatMemory).build();
+        this.authenticationService = authenticationService;
+        this.concurrencyLimiter = concurrencyLimiter;
+        this.jwtService = jwtService;
+        this.pipeline = pipeline;
+        this.ollamaResponseMetrics = ollamaResponseMetrics;
+        this.pipelineProperties = pipelineProperties;
+        this.provisionalRecommendationService = provisionalRecommendationService;
+        this.backgroundExecutor = backgroundExecutor;
+        this.inFlightRecommendations = new SingleFlight<>("recommendation", meterRegistry);
+        this.inFlightGenerations = new SingleFlight<>("recommendation-generation", meterRegistry);
+        this.provisionalOnTimeout = provisionalCounter(meterRegistry, "timeout");
+        this.provisionalOnError = provisionalCounter(meterRegistry, "error");
+        this.parseRetries = Counter.builder("recommendation.parse.retries")
+                .description("Model calls repeated because the recommendation output could not be parsed")
+                .register(meterRegistry);
+
+        // Every call to Ollama goes through the adaptive concurrency limiter
+        builder.defaultAdvisors(concurrencyLimitAdvisor);
 
         this.memoryChatClient = builder.build();
 
+        // The JSON shape is enforced by Ollama's structured output, not described in the prompt
         this.statelessChatClient = builder
-                .defaultSystem("""
-                You are a workout routines information service that returns structured data.
-                Always respond with valid JSON that matches the requested schema.
-                """)
+                .defaultSystem(RECOMMENDATION_SYSTEM_PROMPT)
+                .defaultOptions(OllamaChatOptions.builder().format(outputSchema.schema()).build())
                 .build();
     }
 
@@ -62,17 +153,28 @@ public class OllamaServiceImpl implements OllamaService {
             throw new IllegalArgumentException("Question cannot be null");
         }
 
+        Optional<String> conversationId = conversationId();
+        boolean firstQuestion = isFirstQuestion(conversationId);
         try {
-            String conversationSystemPrompt = resourceLoaderService.loadPrompt("assistant_role.txt");
+            Optional<String> cached = cachedAnswer(question.question(), conversationId, firstQuestion);
+            if (cached.isPresent()) {
+                return new Answer(cached.get());
+            }
 
-            String response = this.memoryChatClient.prompt()
-                    .user(question.question())
-                    .system(conversationSystemPrompt)
-                    .advisors()
-                    .call()
-                    .content();
+            ChatClient.ChatClientRequestSpec prompt = pipeline.run(Pipeline.CHAT, PipelineStage.PROMPT_BUILD,
+                    () -> conversationPrompt(question.question(), conversationId));
+            String response = pipeline.run(Pipeline.CHAT, PipelineStage.LLM_CALL, () -> {
+                ChatResponse chatResponse = prompt.call().chatResponse();
+                ollamaResponseMetrics.record(chatResponse, ServerTiming.current().orElse(null));
+                return OllamaResponseMetrics.text(chatResponse);
+            });
 
+            if (firstQuestion) {
+                answerCache.put(question.question(), response);
+            }
             return new Answer(response);
+        } catch (OllamaOverloadedException e) {
+            throw e;
         } catch (RuntimeException e) {
             throw new OllamaException(
                     String.format("Error while calling Ollama API: %s", e.getMessage()), e
@@ -80,39 +182,154 @@ public class OllamaServiceImpl implements OllamaService {
         }
     }
 
-
     @Override
-    public WorkoutRecommendation getStructuredAnswer(PreferencesDto preferences, String jwtToken) {
-        validateInput(preferences, jwtToken);
+    public Flux<String> streamGeneralAnswer(Question question) {
+        if (question == null || question.question() == null || question.question().trim().isEmpty()) {
+            throw new IllegalArgumentException("Question cannot be null");
+        }
+
+        Optional<String> conversationId = conversationId();
+        boolean firstQuestion = isFirstQuestion(conversationId);
+        Optional<String> cached = cachedAnswer(question.question(), conversationId, firstQuestion);
+        if (cached.isPresent()) {
+            return Flux.just(cached.get());
+        }
+        // The permit is taken on subscription, after the response status is sent: shed a full queue now
+        concurrencyLimiter.checkCapacity();
+
+        StringBuilder answer = new StringBuilder();
+
+        return conversationPrompt(question.question(), conversationId)
+                .stream()
+                .chatResponse()
+                .doOnNext(ollamaResponseMetrics::record)
+                .map(OllamaResponseMetrics::text)
+                .filter(token -> !token.isEmpty())
+                .doOnNext(answer::append)
+                // Only complete answers are cached, not streams the client abandoned
+                .doOnComplete(() -> {
+                    if (firstQuestion) {
+                        answerCache.put(question.question(), answer.toString());
+                    }
+                })
+                .onErrorMap(e -> !(e instanceof OllamaException), e -> new OllamaException(
+                        String.format("Error while streaming from Ollama API: %s", e.getMessage()), e
+                ));
+    }
+
+    /**
+     * Chat prompt with the user's conversation history; without a user it is stateless
+     */
+    private ChatClient.ChatClientRequestSpec conversationPrompt(String question, Optional<String> conversationId) {
+        ChatClient.ChatClientRequestSpec prompt = this.memoryChatClient.prompt()
+                .user(question)
+                .system(promptTemplates.render(CONVERSATION_PROMPT_TEMPLATE, Map.of()));
+        conversationId.ifPresent(id -> prompt.advisors(advisors -> advisors
+                .advisors(chatMemoryAdvisor)
+                .param(ChatMemory.CONVERSATION_ID, id)));
+        return prompt;
+    }
+
+    /**
+     * Cached answers are shared across users only for the opening question of a
+     * conversation, since follow-ups depend on the history. A hit is still recorded
+     * in the user's history so the next question has its context
+     */
+    private Optional<String> cachedAnswer(String question, Optional<String> conversationId, boolean firstQuestion) {
+        if (!firstQuestion) {
+            return Optional.empty();
+        }
+        Optional<String> cached = answerCache.get(question);
+        cached.ifPresent(answer -> conversationId.ifPresent(id ->
+                chatMemory.add(id, List.of(new UserMessage(question), new AssistantMessage(answer)))));
+        return cached;
+    }
+
+    private boolean isFirstQuestion(Optional<String> conversationId) {
+        return conversationId.map(id -> !chatMemory.hasHistory(id)).orElse(true);
+    }
 
+    private Optional<String> conversationId() {
         try {
-            log.info("Starting optimized recommendation generation");
+            return Optional.ofNullable(authenticationService.getCurrentUserId()).map(String::valueOf);
+        } catch (RuntimeException e) {
+            log.debug("No user for conversation memory: {}", e.getMessage());
+            return Optional.empty();
+        }
+    }
 
-            UserDataDTO userDataDTO = userServiceClient.getUserData(jwtToken);
-            UserData userData = userDataMapper.toDomain(userDataDTO);
-            log.info("Retrieved user data for userId: {}", userData.userId());
+    @Override
+    public WorkoutRecommendation getStructuredAnswer(PreferencesDto preferences, String jwtToken) {
+        return getStructuredAnswer(preferences, jwtToken, null);
+    }
 
-            String userContext = aiPromptService.buildUserContext(userData, preferences);
+    @Override
+    public WorkoutRecommendation getStructuredAnswer(PreferencesDto preferences, String jwtToken, Duration deadline) {
+        validateInput(preferences, jwtToken);
+        Duration budget = deadline != null && deadline.isPositive() ? deadline : null;
 
-            log.info("Retrieving OPTIMIZED routines for level: {}", preferences.lvlOfTraining());
-            String routinesJson = publicRoutinesFunction.getOptimizedRoutineSummaries(
-                    preferences.lvlOfTraining()
-            );
-            log.info("Optimized routines: {} characters", routinesJson.length());
+        // Retries and double taps attach to the generation already running for the same inputs
+        RecommendationRequestKey key = RecommendationRequestKey.of(resolveUserId(jwtToken), preferences, budget);
+        if (key == null) {
+            return recommend(preferences, jwtToken, budget);
+        }
+        return inFlightRecommendations.execute(key, () -> recommend(preferences, jwtToken, budget));
+    }
 
-            String prompt = aiPromptService.buildRecommendationPrompt(userContext, routinesJson);
+    @Override
+    public WorkoutRecommendation getStructuredAnswer(UserData userData, PreferencesDto preferences) {
+        if (userData == null) {
+            throw new IllegalArgumentException("User data cannot be null");
+        }
+        if (preferences == null) {
+            throw new IllegalArgumentException("Preferences cannot be null");
+        }
+        ProfileBucket bucket = ProfileBucket.of(userData, preferences);
+        try {
+            return inFlightGenerations.execute(bucket, () -> recommendationCache.getOrGenerate(bucket,
+                    () -> generateRecommendation(userData, preferences)));
+        } catch (OllamaException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            throw new OllamaException(
+                    String.format("Error generating recommendation: %s", e.getMessage()), e
+            );
+        }
+    }
 
-            log.info("Calling AI with optimized prompt");
+    /**
+     * Fetch user data and return the cached or freshly generated recommendation
+     *
+     * Pipeline: every stage needs the one before it, so they run in order on the calling
+     * thread. The user-service fetch and the LLM call are cancelled when they pass their
+     * timeouts. Routine ranking needs the user's goal and runs only on a cache miss,
+     * together with the prompt build and LLM call; it only scores the in-memory catalog.
+     *
+     * With a deadline, generation runs in the background (one per profile bucket) and
+     * a provisional answer is returned if it does not finish in time.
+     */
+    private WorkoutRecommendation recommend(PreferencesDto preferences, String jwtToken, Duration deadline) {
+        long startNanos = System.nanoTime();
+        try {
+            log.info("Starting optimized recommendation generation");
 
-            // OPTIMIZATION: Use entity method for structured output
-            WorkoutRecommendation recommendation = this.statelessChatClient.prompt()
-                    .user(prompt)
-                    .call()
-                    .entity(WorkoutRecommendation.class);
+            // Bounded by recommendation.pipeline.user-fetch-timeout inside the client
+            UserData userData = pipeline.run(PipelineStage.USER_FETCH,
+                    () -> userDataMapper.toDomain(userServiceClient.getUserData(jwtToken)));
+            log.info("Retrieved user data for userId: {}", userData.userId());
 
-            log.info("Successfully generated recommendation");
+            ProfileBucket bucket = ProfileBucket.of(userData, preferences);
+            if (deadline == null) {
+                return inFlightGenerations.execute(bucket, () -> recommendationCache.getOrGenerate(bucket,
+                        () -> generateRecommendation(userData, preferences)));
+            }
 
-            return recommendation;
+            CompletableFuture<WorkoutRecommendation> generation = inFlightGenerations.submit(bucket,
+                    ServerTiming.wrap(() -> recommendationCache.getOrGenerate(bucket,
+                            () -> generateRecommendation(userData, preferences))),
+                    backgroundExecutor);
+            return awaitOrProvisional(generation, deadline.toNanos() - (System.nanoTime() - startNanos),
+                    userData, preferences);
 
         } catch (OllamaException e) {
             throw e;
@@ -123,6 +340,106 @@ public class OllamaServiceImpl implements OllamaService {
         }
     }
 
+    /**
+     * Rank routines, build the prompt and call the AI model (cache miss path)
+     */
+    private WorkoutRecommendation generateRecommendation(UserData userData, PreferencesDto preferences) {
+        EncodedRoutines routines = pipeline.run(PipelineStage.CATALOG_SUMMARY, () ->
+                publicRoutinesFunction.getRankedRoutines(RoutineQuery.of(userData, preferences)));
+
+        log.info("Optimized routines: {} characters ({})", routines.text().length(), routines.encoding());
+
+        String prompt = pipeline.run(PipelineStage.PROMPT_BUILD, () -> aiPromptService.buildRecommendationPrompt(
+                aiPromptService.buildUserContext(userData, preferences),
+                routines.text()
+        ));
+
+        log.info("Calling AI with optimized prompt");
+
+        WorkoutRecommendation recommendation = callModel(prompt, routines);
+
+        log.info("Successfully generated recommendation");
+        return recommendation;
+    }
+
+    /**
+     * Decoding is constrained by the output schema; output that still doesn't parse
+     * (e.g. cut off by num-predict and not repairable), or that names a routine not
+     * among the candidates, is retried. Short refs are mapped back to catalog ids
+     */
+    private WorkoutRecommendation callModel(String prompt, EncodedRoutines routines) {
+        int attempt = 0;
+        while (true) {
+            try {
+                // Streamed so the generation is cut off once the JSON object closes; one more
+                // chunk is read past it for the timings Ollama sends with its final chunk
+                ServerTiming timing = ServerTiming.current().orElse(null);
+                AiResponseParser.StreamedResponse response = pipeline.run(PipelineStage.LLM_CALL, () ->
+                        aiResponseParser.collect(pipeline.timeout(PipelineStage.LLM_CALL,
+                                pipelineProperties.getLlmCallTimeout(),
+                                this.statelessChatClient.prompt()
+                                        .user(prompt)
+                                        .stream()
+                                        .chatResponse()
+                                        .doOnNext(chunk -> ollamaResponseMetrics.record(chunk, timing))
+                                        .map(OllamaResponseMetrics::text)), 1));
+                return pipeline.run(PipelineStage.PARSE, () ->
+                        routines.resolve(aiResponseParser.parseRecommendation(response)));
+            } catch (OllamaResponseParseException e) {
+                if (attempt++ >= pipelineProperties.getParseRetries()) {
+                    throw e;
+                }
+                parseRetries.increment();
+                log.warn("Unparseable recommendation output, retrying ({}/{}): {}",
+                        attempt, pipelineProperties.getParseRetries(), e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * Wait for the model within the remaining budget, else fall back to the catalog
+     * The background generation is not cancelled: it fills the recommendation cache when done
+     */
+    private WorkoutRecommendation awaitOrProvisional(
+            CompletableFuture<WorkoutRecommendation> generation,
+            long remainingNanos,
+            UserData userData,
+            PreferencesDto preferences) {
+
+        try {
+            return generation.get(Math.max(0, remainingNanos), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            log.warn("Recommendation deadline exceeded for userId: {}, serving provisional answer", userData.userId());
+            provisionalOnTimeout.increment();
+        } catch (ExecutionException e) {
+            log.warn("Recommendation generation failed for userId: {}, serving provisional answer: {}",
+                    userData.userId(), e.getCause().getMessage());
+            provisionalOnError.increment();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OllamaException("Interrupted while waiting for recommendation", e);
+        }
+
+        return provisionalRecommendationService.recommend(userData, preferences)
+                .orElseThrow(() -> new OllamaException("No recommendation available within the deadline"));
+    }
+
+    private static Counter provisionalCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("recommendation.provisional")
+                .description("Provisional catalog-based recommendations served instead of a model answer")
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private Long resolveUserId(String jwtToken) {
+        try {
+            return jwtService.extractUserId(jwtToken);
+        } catch (RuntimeException e) {
+            log.debug("Could not resolve userId for request coalescing: {}", e.getMessage());
+            return null;
+        }
+    }
+
     /**
      * Input validation
      */
@@ -134,4 +451,23 @@ public class OllamaServiceImpl implements OllamaService {
             throw new IllegalArgumentException("JWT token is required");
         }
     }
+
+    /**
+     * Normalized identity of a recommendation request, used to coalesce duplicates
+     */
+    private record RecommendationRequestKey(Long userId, int frequency, String level, String equipment, Duration deadline) {
+
+        static RecommendationRequestKey of(Long userId, PreferencesDto preferences, Duration deadline) {
+            if (userId == null || preferences.lvlOfTraining() == null) {
+                return null;
+            }
+            return new RecommendationRequestKey(
+                    userId,
+                    preferences.frequency(),
+                    preferences.lvlOfTraining().trim().toUpperCase(),
+                    preferences.equipmentType() == null ? "" : preferences.equipmentType().trim().toUpperCase(),
+                    deadline
+            );
+        }
+    }
 }
\ No newline at end of file
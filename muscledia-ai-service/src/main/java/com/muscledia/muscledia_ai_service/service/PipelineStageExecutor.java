@@ -0,0 +1,93 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.muscledia.muscledia_ai_service.exception.OllamaException.OllamaException;
+import com.muscledia.muscledia_ai_service.model.Pipeline;
+import com.muscledia.muscledia_ai_service.model.PipelineStage;
+import com.muscledia.muscledia_ai_service.util.ServerTiming;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Runs recommendation and chat pipeline stages on the calling thread, timing each one
+ * Stages that wait on another service bound their reactive call with {@link #timeout},
+ * which cancels the request when it runs over; the in-memory stages (ranking, prompt
+ * build, parse) do not wait on anything and run unbounded.
+ * Stage times also go to the request's {@link ServerTiming}, if any.
+ *
+ * Meter: recommendation.pipeline.stage (timer with percentile histogram) tagged with
+ * pipeline, stage and outcome
+ */
+@Slf4j
+@Component
+public class PipelineStageExecutor {
+
+    private final MeterRegistry meterRegistry;
+    private final Map<TimerKey, Timer> timers = new ConcurrentHashMap<>();
+
+    public PipelineStageExecutor(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Run a recommendation pipeline stage on the calling thread
+     */
+    public <T> T run(PipelineStage stage, Supplier<T> work) {
+        return run(Pipeline.RECOMMENDATION, stage, work);
+    }
+
+    /**
+     * Run a stage of the given pipeline on the calling thread
+     *
+     * @throws RuntimeException the stage's own exception, unchanged
+     */
+    public <T> T run(Pipeline pipeline, PipelineStage stage, Supplier<T> work) {
+        long start = System.nanoTime();
+        boolean success = false;
+        try {
+            T result = work.get();
+            success = true;
+            return result;
+        } finally {
+            long elapsed = System.nanoTime() - start;
+            timers.computeIfAbsent(new TimerKey(pipeline, stage, success), this::timer)
+                    .record(elapsed, TimeUnit.NANOSECONDS);
+            ServerTiming.current().ifPresent(timing -> timing.add(stage.tag(), elapsed, TimeUnit.NANOSECONDS));
+            log.debug("{} pipeline stage {} took {} ms", pipeline.tag(), stage.tag(), elapsed / 1_000_000);
+        }
+    }
+
+    /**
+     * Cancel a stage's reactive call once it runs longer than the timeout
+     * The subscriber then gets an {@link OllamaException} naming the stage
+     */
+    public <T> Flux<T> timeout(PipelineStage stage, Duration timeout, Flux<T> work) {
+        return work.timeout(timeout)
+                .onErrorMap(TimeoutException.class, e -> new OllamaException(String.format(
+                        "Pipeline stage %s timed out after %d ms", stage.tag(), timeout.toMillis()), e));
+    }
+
+    private Timer timer(TimerKey key) {
+        return Timer.builder("recommendation.pipeline.stage")
+                .description("Time spent in a recommendation or chat pipeline stage")
+                .tag("pipeline", key.pipeline().tag())
+                .tag("stage", key.stage().tag())
+                .tag("outcome", key.success() ? "success" : "failure")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(100_000))
+                .maximumExpectedValue(Duration.ofMinutes(5))
+                .register(meterRegistry);
+    }
+
+    private record TimerKey(Pipeline pipeline, PipelineStage stage, boolean success) {
+    }
+}
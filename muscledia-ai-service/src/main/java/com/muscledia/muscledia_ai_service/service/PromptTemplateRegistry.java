@@ -0,0 +1,191 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.muscledia.muscledia_ai_service.config.PromptProperties;
+import com.muscledia.muscledia_ai_service.util.PromptTemplate;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Prompt templates from static/ai/*.txt, loaded and compiled once at startup
+ * Templates are addressed by file name without extension ("assistant_role")
+ *
+ * With recommendation.prompt.template-directory set, *.txt files there override the
+ * bundled ones; the directory is polled and on change every template is recompiled
+ * and swapped in at once. A reload that fails to compile keeps the current set.
+ *
+ * Meter: prompt.template.render (timer) tagged with template
+ */
+@Slf4j
+@Service
+public class PromptTemplateRegistry {
+
+    private static final String CLASSPATH_TEMPLATES = "classpath*:static/ai/*.txt";
+    private static final String EXTENSION = ".txt";
+
+    private final PromptProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Timer> renderTimers = new ConcurrentHashMap<>();
+    private final Map<String, String> bundledSources;
+    private volatile Map<String, PromptTemplate> templates;
+    private String directoryFingerprint = "";
+    private ScheduledExecutorService reloader;
+
+    public PromptTemplateRegistry(PromptProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+        this.bundledSources = loadBundled();
+        this.templates = compile(bundledSources);
+        reload();
+        log.info("Loaded {} prompt templates", templates.size());
+    }
+
+    @PostConstruct
+    void start() {
+        if (directory() == null) {
+            return;
+        }
+        long intervalMs = properties.getTemplateReloadInterval().toMillis();
+        reloader = Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("prompt-template-reload").daemon(true).factory());
+        reloader.scheduleWithFixedDelay(this::reload, intervalMs, intervalMs, TimeUnit.MILLISECONDS);
+        log.info("Hot reloading prompt templates from {}", directory());
+    }
+
+    @PreDestroy
+    void stop() {
+        if (reloader != null) {
+            reloader.shutdownNow();
+        }
+    }
+
+    /**
+     * @throws IllegalArgumentException if there is no such template
+     */
+    public PromptTemplate get(String name) {
+        PromptTemplate template = templates.get(name);
+        if (template == null) {
+            throw new IllegalArgumentException("Unknown prompt template: " + name);
+        }
+        return template;
+    }
+
+    public String render(String name, Map<String, ?> values) {
+        PromptTemplate template = get(name);
+        long start = System.nanoTime();
+        try {
+            return template.render(values);
+        } finally {
+            renderTimer(name).record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Re-read the override directory if it changed; runs on the reload thread
+     */
+    synchronized void reload() {
+        Path directory = directory();
+        if (directory == null) {
+            return;
+        }
+        try {
+            List<Path> files = overrideFiles(directory);
+            String fingerprint = fingerprint(files);
+            if (fingerprint.equals(directoryFingerprint)) {
+                return;
+            }
+
+            Map<String, String> sources = new HashMap<>(bundledSources);
+            for (Path file : files) {
+                sources.put(templateName(file.getFileName().toString()), Files.readString(file, StandardCharsets.UTF_8));
+            }
+            Map<String, PromptTemplate> compiled = compile(sources);
+
+            templates = compiled;
+            directoryFingerprint = fingerprint;
+            log.info("Reloaded prompt templates from {} ({} overrides)", directory, files.size());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Prompt template reload from {} failed, keeping current templates: {}", directory, e.getMessage());
+        }
+    }
+
+    private Map<String, String> loadBundled() {
+        try {
+            Map<String, String> sources = new HashMap<>();
+            for (Resource resource : new PathMatchingResourcePatternResolver().getResources(CLASSPATH_TEMPLATES)) {
+                try (InputStream inputStream = resource.getInputStream()) {
+                    sources.put(templateName(resource.getFilename()),
+                            new String(inputStream.readAllBytes(), StandardCharsets.UTF_8));
+                }
+            }
+            return Map.copyOf(sources);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load prompt templates from " + CLASSPATH_TEMPLATES, e);
+        }
+    }
+
+    private static Map<String, PromptTemplate> compile(Map<String, String> sources) {
+        return sources.entrySet().stream()
+                .collect(Collectors.toUnmodifiableMap(Map.Entry::getKey,
+                        entry -> PromptTemplate.compile(entry.getKey(), entry.getValue())));
+    }
+
+    private static List<Path> overrideFiles(Path directory) throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(file -> file.getFileName().toString().endsWith(EXTENSION))
+                    .filter(Files::isRegularFile)
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static String fingerprint(List<Path> files) throws IOException {
+        StringBuilder fingerprint = new StringBuilder();
+        for (Path file : files) {
+            fingerprint.append(file.getFileName())
+                    .append(':').append(Files.getLastModifiedTime(file).toMillis())
+                    .append(':').append(Files.size(file))
+                    .append(';');
+        }
+        return fingerprint.toString();
+    }
+
+    private static String templateName(String filename) {
+        return filename.endsWith(EXTENSION) ? filename.substring(0, filename.length() - EXTENSION.length()) : filename;
+    }
+
+    private Path directory() {
+        String directory = properties.getTemplateDirectory();
+        return directory == null || directory.isBlank() ? null : Path.of(directory);
+    }
+
+    private Timer renderTimer(String name) {
+        return renderTimers.computeIfAbsent(name, template -> Timer.builder("prompt.template.render")
+                .description("Time to render a prompt template")
+                .tag("template", template)
+                .register(meterRegistry));
+    }
+}
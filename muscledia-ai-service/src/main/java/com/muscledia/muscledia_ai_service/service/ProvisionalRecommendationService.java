@@ -0,0 +1,61 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.muscledia.muscledia_ai_service.dto.PreferencesDto;
+import com.muscledia.muscledia_ai_service.dto.UserData;
+import com.muscledia.muscledia_ai_service.model.PublicRoutine;
+import com.muscledia.muscledia_ai_service.model.RoutineQuery;
+import com.muscledia.muscledia_ai_service.model.WorkoutRecommendation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Locale;
+import java.util.Optional;
+
+/**
+ * Builds recommendations without the AI model
+ * Picks the best-ranked catalog routine and describes it from a template;
+ * results are marked provisional until the model's answer replaces them
+ */
+@Slf4j
+@Service
+public class ProvisionalRecommendationService {
+
+    private static final String DESCRIPTION_TEMPLATE =
+            "%s is a %s routine for %s lifters with %d workouts, a good fit for %d training days "
+                    + "per week and your goal to %s. A personalised explanation is on its way.";
+
+    private final RoutineRanker routineRanker;
+
+    public ProvisionalRecommendationService(RoutineRanker routineRanker) {
+        this.routineRanker = routineRanker;
+    }
+
+    /**
+     * @return the best catalog match, or empty if the catalog has no candidates
+     */
+    public Optional<WorkoutRecommendation> recommend(UserData userData, PreferencesDto preferences) {
+        RoutineQuery query = RoutineQuery.of(userData, preferences);
+        return routineRanker.best(query)
+                .map(scored -> toRecommendation(scored.routine(), query));
+    }
+
+    private WorkoutRecommendation toRecommendation(PublicRoutine routine, RoutineQuery query) {
+        String title = routine.title() != null && !routine.title().isBlank() ? routine.title() : routine.id();
+        String level = routine.difficultyLevel() != null ? routine.difficultyLevel().name() : "";
+        String split = routine.workoutSplit() != null ? routine.workoutSplit().name() : "";
+
+        String description = String.format(DESCRIPTION_TEMPLATE,
+                title,
+                split.isEmpty() ? "balanced" : humanize(split),
+                level.isEmpty() ? "all" : humanize(level),
+                routine.workoutPlanCount(),
+                query.frequency(),
+                query.goalType().isEmpty() ? "get fitter" : humanize(query.goalType()));
+
+        return new WorkoutRecommendation(title, routine.id(), description, level, split, true);
+    }
+
+    private static String humanize(String constant) {
+        return constant.replace('_', ' ').toLowerCase(Locale.ROOT);
+    }
+}
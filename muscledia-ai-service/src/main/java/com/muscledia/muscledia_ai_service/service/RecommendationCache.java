@@ -0,0 +1,93 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.muscledia.muscledia_ai_service.config.RecommendationCacheProperties;
+import com.muscledia.muscledia_ai_service.model.ProfileBucket;
+import com.muscledia.muscledia_ai_service.model.WorkoutRecommendation;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Optional;
+import java.util.function.Supplier;
+
+/**
+ * Bounded cache of AI recommendations keyed by quantized profile bucket
+ * TTL and size-based eviction; hit/miss/eviction metrics are published
+ * as cache.* meters with tag cache=recommendations
+ */
+@Slf4j
+@Component
+public class RecommendationCache {
+
+    static final String CACHE_NAME = "recommendations";
+
+    private final RecommendationCacheProperties properties;
+    private final Cache<ProfileBucket, WorkoutRecommendation> cache;
+
+    public RecommendationCache(RecommendationCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    /**
+     * Return the cached recommendation for the bucket, or generate and store it
+     * Generation runs outside the cache lock so a slow AI call never blocks other buckets.
+     * This is not atomic: concurrent misses for one bucket would each generate, so callers
+     * go through a {@link com.muscledia.muscledia_ai_service.util.SingleFlight} keyed by
+     * bucket, which is the dedupe layer. Failed or null generations are not cached.
+     */
+    public WorkoutRecommendation getOrGenerate(ProfileBucket bucket, Supplier<WorkoutRecommendation> generator) {
+        if (!properties.isEnabled()) {
+            return generator.get();
+        }
+
+        WorkoutRecommendation cached = cache.getIfPresent(bucket);
+        if (cached != null) {
+            log.info("Recommendation cache hit for bucket: {}", bucket);
+            return cached;
+        }
+
+        WorkoutRecommendation recommendation = generator.get();
+        if (recommendation != null) {
+            cache.put(bucket, recommendation);
+        }
+        return recommendation;
+    }
+
+    public Optional<WorkoutRecommendation> get(ProfileBucket bucket) {
+        return Optional.ofNullable(cache.getIfPresent(bucket));
+    }
+
+    public void put(ProfileBucket bucket, WorkoutRecommendation recommendation) {
+        cache.put(bucket, recommendation);
+    }
+
+    public void invalidate(ProfileBucket bucket) {
+        cache.invalidate(bucket);
+    }
+
+    /**
+     * Drop every cached recommendation
+     *
+     * @return number of entries removed
+     */
+    public long invalidateAll() {
+        long size = cache.estimatedSize();
+        cache.invalidateAll();
+        log.info("Invalidated recommendation cache ({} entries)", size);
+        return size;
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+}
@@ -0,0 +1,96 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.muscledia.muscledia_ai_service.dto.RecommendationJobResponse;
+import com.muscledia.muscledia_ai_service.model.WorkoutRecommendation;
+
+import java.time.Instant;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * State of one asynchronous recommendation job
+ * Thread-safe: written by the worker thread, read by request threads. The finished
+ * statuses are derived from the result future, so a reader that sees COMPLETED
+ * always sees the result, and result callbacks already see the final status
+ */
+public final class RecommendationJob {
+
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED
+    }
+
+    private final String jobId;
+    private final Long ownerId;
+    private final Instant submittedAt;
+    private final CompletableFuture<WorkoutRecommendation> result = new CompletableFuture<>();
+
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String error;
+
+    RecommendationJob(String jobId, Long ownerId) {
+        this.jobId = jobId;
+        this.ownerId = ownerId;
+        this.submittedAt = Instant.now();
+    }
+
+    public String getJobId() {
+        return jobId;
+    }
+
+    public Long getOwnerId() {
+        return ownerId;
+    }
+
+    public Status getStatus() {
+        if (result.isDone()) {
+            return result.isCompletedExceptionally() ? Status.FAILED : Status.COMPLETED;
+        }
+        return startedAt != null ? Status.RUNNING : Status.QUEUED;
+    }
+
+    public Instant getSubmittedAt() {
+        return submittedAt;
+    }
+
+    public boolean isFinished() {
+        return result.isDone();
+    }
+
+    /**
+     * Completes when the job finishes; fails with the job error
+     */
+    public CompletableFuture<WorkoutRecommendation> result() {
+        return result;
+    }
+
+    void markRunning() {
+        this.startedAt = Instant.now();
+    }
+
+    void complete(WorkoutRecommendation recommendation) {
+        this.finishedAt = Instant.now();
+        result.complete(recommendation);
+    }
+
+    /**
+     * @param message client-facing error, never the raw cause message
+     */
+    void fail(Throwable cause, String message) {
+        this.finishedAt = Instant.now();
+        this.error = message;
+        result.completeExceptionally(cause);
+    }
+
+    public RecommendationJobResponse toResponse() {
+        Status status = getStatus();
+        return new RecommendationJobResponse(
+                jobId,
+                status.name(),
+                submittedAt,
+                startedAt,
+                finishedAt,
+                status == Status.COMPLETED ? result.getNow(null) : null,
+                error
+        );
+    }
+}
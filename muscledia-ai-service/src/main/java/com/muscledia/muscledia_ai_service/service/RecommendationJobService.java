@@ -0,0 +1,188 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.muscledia.muscledia_ai_service.config.RecommendationJobProperties;
+import com.muscledia.muscledia_ai_service.dto.PreferencesDto;
+import com.muscledia.muscledia_ai_service.dto.UserData;
+import com.muscledia.muscledia_ai_service.exception.OllamaException.OllamaOverloadedException;
+import com.muscledia.muscledia_ai_service.exception.UnauthorizedException;
+import com.muscledia.muscledia_ai_service.exception.UserServiceException;
+import com.muscledia.muscledia_ai_service.model.WorkoutRecommendation;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+
+/**
+ * Application service for asynchronous recommendation jobs
+ * Responsibility: queue recommendation work on a bounded executor and keep results for polling
+ * User data is fetched at submit time so a queued job never depends on a JWT that may expire
+ * before a worker picks it up
+ */
+@Slf4j
+@Service
+public class RecommendationJobService {
+
+    static final String GENERATION_FAILED = "Failed to generate recommendation";
+    static final String OVERLOADED = "AI service is overloaded, please try again later";
+
+    private final OllamaService ollamaService;
+    private final UserServiceClient userServiceClient;
+    private final UserDataMapper userDataMapper;
+    private final ThreadPoolExecutor executor;
+    private final Cache<String, RecommendationJob> jobs;
+    private final Timer waitTimer;
+    private final Timer runSuccessTimer;
+    private final Timer runFailureTimer;
+    private final Counter rejectedCounter;
+
+    public RecommendationJobService(
+            OllamaService ollamaService,
+            UserServiceClient userServiceClient,
+            UserDataMapper userDataMapper,
+            ThreadPoolExecutor recommendationJobExecutor,
+            RecommendationJobProperties properties,
+            MeterRegistry meterRegistry) {
+
+        this.ollamaService = ollamaService;
+        this.userServiceClient = userServiceClient;
+        this.userDataMapper = userDataMapper;
+        this.executor = recommendationJobExecutor;
+
+        long resultTtlNanos = properties.getResultTtl().toNanos();
+        // Unfinished jobs never expire: the executor queue and max-jobs already bound them
+        this.jobs = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxJobs())
+                .expireAfter(new Expiry<String, RecommendationJob>() {
+                    @Override
+                    public long expireAfterCreate(String key, RecommendationJob job, long currentTime) {
+                        return job.isFinished() ? resultTtlNanos : Long.MAX_VALUE;
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, RecommendationJob job,
+                                                  long currentTime, long currentDuration) {
+                        return job.isFinished() ? resultTtlNanos : currentDuration;
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, RecommendationJob job,
+                                                long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .build();
+
+        Gauge.builder("recommendation.jobs.queue.size", executor, e -> e.getQueue().size())
+                .description("Recommendation jobs waiting for a worker")
+                .register(meterRegistry);
+        Gauge.builder("recommendation.jobs.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Recommendation jobs currently running")
+                .register(meterRegistry);
+        this.waitTimer = Timer.builder("recommendation.jobs.wait")
+                .description("Time a recommendation job spent queued before a worker picked it up")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.runSuccessTimer = runTimer(meterRegistry, "success");
+        this.runFailureTimer = runTimer(meterRegistry, "failure");
+        this.rejectedCounter = Counter.builder("recommendation.jobs.rejected")
+                .description("Recommendation jobs rejected because the queue was full")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Fetch the user's data and queue a recommendation job
+     *
+     * @return the queued job
+     * @throws RejectedExecutionException if the queue is full
+     * @throws UnauthorizedException if user-service rejects the token
+     * @throws UserServiceException if user data cannot be retrieved
+     */
+    public RecommendationJob submit(PreferencesDto preferences, String jwtToken, Long ownerId) {
+        if (preferences == null) {
+            throw new IllegalArgumentException("Preferences cannot be null");
+        }
+        if (jwtToken == null || jwtToken.isBlank()) {
+            throw new IllegalArgumentException("JWT token is required");
+        }
+
+        // Reject before fetching so a full queue costs no user-service call
+        if (executor.getQueue().remainingCapacity() == 0) {
+            rejectedCounter.increment();
+            throw new RejectedExecutionException("Recommendation job queue is full");
+        }
+        UserData userData = userDataMapper.toDomain(userServiceClient.getUserData(jwtToken));
+
+        RecommendationJob job = new RecommendationJob(UUID.randomUUID().toString(), ownerId);
+        jobs.put(job.getJobId(), job);
+
+        try {
+            executor.execute(() -> run(job, userData, preferences));
+        } catch (RejectedExecutionException e) {
+            jobs.invalidate(job.getJobId());
+            rejectedCounter.increment();
+            log.warn("Recommendation job queue is full ({} queued), rejecting job",
+                    executor.getQueue().size());
+            throw e;
+        }
+
+        log.info("Queued recommendation job {} ({} queued)", job.getJobId(), executor.getQueue().size());
+        return job;
+    }
+
+    /**
+     * Find a job visible to the given user
+     */
+    public Optional<RecommendationJob> find(String jobId, Long ownerId) {
+        return Optional.ofNullable(jobId)
+                .map(jobs::getIfPresent)
+                .filter(job -> Objects.equals(job.getOwnerId(), ownerId));
+    }
+
+    private void run(RecommendationJob job, UserData userData, PreferencesDto preferences) {
+        waitTimer.record(Duration.between(job.getSubmittedAt(), Instant.now()));
+        job.markRunning();
+        long start = System.nanoTime();
+
+        try {
+            WorkoutRecommendation recommendation = ollamaService.getStructuredAnswer(userData, preferences);
+            job.complete(recommendation);
+            runSuccessTimer.record(Duration.ofNanos(System.nanoTime() - start));
+            log.info("Recommendation job {} completed", job.getJobId());
+        } catch (RuntimeException e) {
+            job.fail(e, clientMessage(e));
+            runFailureTimer.record(Duration.ofNanos(System.nanoTime() - start));
+            log.error("Recommendation job {} failed: {}", job.getJobId(), e.getMessage(), e);
+        } finally {
+            // Replace so the store applies the finished-result TTL, without re-adding an evicted job
+            jobs.asMap().replace(job.getJobId(), job);
+        }
+    }
+
+    /**
+     * Stable message for clients; the cause is only logged
+     */
+    private static String clientMessage(RuntimeException e) {
+        return e instanceof OllamaOverloadedException ? OVERLOADED : GENERATION_FAILED;
+    }
+
+    private static Timer runTimer(MeterRegistry meterRegistry, String outcome) {
+        return Timer.builder("recommendation.jobs.run")
+                .description("Time spent generating a recommendation job")
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,50 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.muscledia.muscledia_ai_service.model.WorkoutRecommendation;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.converter.BeanOutputConverter;
+import org.springframework.stereotype.Component;
+
+import java.lang.reflect.RecordComponent;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * JSON schema of {@link WorkoutRecommendation}, generated once at startup and sent as
+ * Ollama's structured-output "format" so decoding is constrained to valid JSON
+ *
+ * Properties keep the record's declaration order (the generator sorts them):
+ * Ollama generates fields in schema order, so the routine is picked before the
+ * description is written. Fields ignored on read (provisional) are not part of it.
+ */
+@Slf4j
+@Component
+public class RecommendationOutputSchema {
+
+    private final Map<String, Object> schema;
+
+    public RecommendationOutputSchema() {
+        Map<String, Object> generated = new BeanOutputConverter<>(WorkoutRecommendation.class).getJsonSchemaMap();
+
+        Map<String, Object> schema = new LinkedHashMap<>(generated);
+        schema.remove("$schema");
+        if (generated.get("properties") instanceof Map<?, ?> properties) {
+            Map<Object, Object> ordered = new LinkedHashMap<>();
+            for (RecordComponent component : WorkoutRecommendation.class.getRecordComponents()) {
+                if (properties.containsKey(component.getName())) {
+                    ordered.put(component.getName(), properties.get(component.getName()));
+                }
+            }
+            properties.forEach(ordered::putIfAbsent);
+            schema.put("properties", ordered);
+        }
+
+        this.schema = Collections.unmodifiableMap(schema);
+        log.debug("Recommendation output schema: {}", this.schema);
+    }
+
+    public Map<String, Object> schema() {
+        return schema;
+    }
+}
@@ -0,0 +1,275 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.muscledia.muscledia_ai_service.model.DifficultyLevel;
+import com.muscledia.muscledia_ai_service.model.EquipmentType;
+import com.muscledia.muscledia_ai_service.model.PublicRoutine;
+import com.muscledia.muscledia_ai_service.model.RoutineSummary;
+import com.muscledia.muscledia_ai_service.model.WorkoutSplit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+
+/**
+ * In-memory catalog of public workout routines
+ * Reads the routines once at startup into immutable records, from the mapped
+ * catalog snapshot when the build produced one and from public_routines.json
+ * otherwise; indexes them by difficulty, equipment and split, and pre-serializes
+ * the per-level JSON views used on the recommendation path
+ */
+@Slf4j
+@Component
+public class RoutineCatalog {
+
+    /**
+     * Max routines in a pre-serialized AI summary (keeps the prompt small)
+     */
+    public static final int MAX_SUMMARIES_PER_LEVEL = 10;
+
+    private static final String ROUTINES_FILENAME = "public_routines.json";
+
+    private final ResourceLoaderService resourceLoaderService;
+    private final ObjectMapper objectMapper;
+    private volatile String rawJson;
+    private final List<PublicRoutine> routines;
+    private final Map<String, PublicRoutine> byId;
+    private final Map<DifficultyLevel, List<PublicRoutine>> byDifficulty;
+    private final Map<EquipmentType, List<PublicRoutine>> byEquipment;
+    private final Map<WorkoutSplit, List<PublicRoutine>> bySplit;
+    private final Map<DifficultyLevel, byte[]> summaryBytesByLevel;
+    private final Map<DifficultyLevel, String> summaryJsonByLevel;
+    private final Map<DifficultyLevel, String> fullJsonByLevel;
+    private final byte[] fallbackSummaryBytes;
+    private final String fallbackSummaryJson;
+
+    public RoutineCatalog(ResourceLoaderService resourceLoaderService, ObjectMapper objectMapper) {
+        this(resourceLoaderService, objectMapper, Optional.empty());
+    }
+
+    @Autowired
+    public RoutineCatalog(
+            ResourceLoaderService resourceLoaderService,
+            ObjectMapper objectMapper,
+            CatalogSnapshotLoader snapshotLoader) {
+        this(resourceLoaderService, objectMapper, snapshotLoader.snapshot());
+    }
+
+    private RoutineCatalog(
+            ResourceLoaderService resourceLoaderService,
+            ObjectMapper objectMapper,
+            Optional<CatalogSnapshot> snapshot) {
+        this.resourceLoaderService = resourceLoaderService;
+        this.objectMapper = objectMapper;
+
+        long start = System.nanoTime();
+        if (snapshot.isPresent()) {
+            this.routines = snapshot.get().routines();
+        } else {
+            this.rawJson = resourceLoaderService.loadJsonData(ROUTINES_FILENAME);
+            this.routines = parseRoutines(objectMapper, rawJson);
+        }
+
+        Map<String, PublicRoutine> ids = new LinkedHashMap<>();
+        routines.forEach(routine -> ids.putIfAbsent(routine.id(), routine));
+        this.byId = Collections.unmodifiableMap(ids);
+
+        this.byDifficulty = index(DifficultyLevel.class, PublicRoutine::difficultyLevel);
+        this.byEquipment = index(EquipmentType.class, PublicRoutine::equipmentType);
+        this.bySplit = index(WorkoutSplit.class, PublicRoutine::workoutSplit);
+
+        this.summaryBytesByLevel = new EnumMap<>(DifficultyLevel.class);
+        this.summaryJsonByLevel = new EnumMap<>(DifficultyLevel.class);
+        this.fullJsonByLevel = new EnumMap<>(DifficultyLevel.class);
+        byDifficulty.forEach((level, levelRoutines) -> {
+            byte[] summary = serializeSummaries(levelRoutines);
+            summaryBytesByLevel.put(level, summary);
+            summaryJsonByLevel.put(level, new String(summary, StandardCharsets.UTF_8));
+            fullJsonByLevel.put(level, writeJson(levelRoutines));
+        });
+
+        this.fallbackSummaryBytes = serializeSummaries(routines);
+        this.fallbackSummaryJson = new String(fallbackSummaryBytes, StandardCharsets.UTF_8);
+
+        log.info("Loaded routine catalog: {} routines from {} in {} ms",
+                routines.size(), snapshot.isPresent() ? "snapshot" : ROUTINES_FILENAME,
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * All routines in source order
+     */
+    public List<PublicRoutine> all() {
+        return routines;
+    }
+
+    /**
+     * Original catalog JSON, exactly as shipped; read on first use when the catalog came from the snapshot
+     */
+    public String rawJson() {
+        String json = rawJson;
+        if (json == null) {
+            synchronized (this) {
+                json = rawJson;
+                if (json == null) {
+                    json = resourceLoaderService.loadJsonData(ROUTINES_FILENAME);
+                    rawJson = json;
+                }
+            }
+        }
+        return json;
+    }
+
+    public Optional<PublicRoutine> findById(String id) {
+        return Optional.ofNullable(id).map(byId::get);
+    }
+
+    public List<PublicRoutine> byDifficulty(DifficultyLevel level) {
+        return byDifficulty.getOrDefault(level, List.of());
+    }
+
+    public List<PublicRoutine> byEquipment(EquipmentType equipmentType) {
+        return byEquipment.getOrDefault(equipmentType, List.of());
+    }
+
+    public List<PublicRoutine> bySplit(WorkoutSplit split) {
+        return bySplit.getOrDefault(split, List.of());
+    }
+
+    /**
+     * Pre-serialized AI summary JSON for a level, or empty if no routine has that level
+     */
+    public Optional<String> summaryJson(DifficultyLevel level) {
+        return Optional.ofNullable(summaryJsonByLevel.get(level));
+    }
+
+    /**
+     * Pre-serialized AI summary bytes (UTF-8) for a level, or empty if no routine has that level
+     */
+    public Optional<byte[]> summaryBytes(DifficultyLevel level) {
+        return Optional.ofNullable(summaryBytesByLevel.get(level)).map(byte[]::clone);
+    }
+
+    /**
+     * Summary JSON of the first routines in source order, used when the level is unknown
+     */
+    public String fallbackSummaryJson() {
+        return fallbackSummaryJson;
+    }
+
+    public byte[] fallbackSummaryBytes() {
+        return fallbackSummaryBytes.clone();
+    }
+
+    /**
+     * Summary JSON for an arbitrary selection of routines, in the given order
+     */
+    public String summaryJson(List<PublicRoutine> selection) {
+        return new String(serializeSummaries(selection), StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Pre-serialized full routine JSON for a level, or empty if no routine has that level
+     */
+    public Optional<String> fullJson(DifficultyLevel level) {
+        return Optional.ofNullable(fullJsonByLevel.get(level));
+    }
+
+    /**
+     * Map raw JSON nodes to typed records, skipping malformed entries
+     */
+    static List<PublicRoutine> parseRoutines(ObjectMapper objectMapper, String json) {
+        try {
+            JsonNode root = objectMapper.readTree(json);
+            if (!root.isArray()) {
+                throw new IllegalStateException("Routine catalog must be a JSON array");
+            }
+
+            List<PublicRoutine> parsed = new ArrayList<>(root.size());
+            for (JsonNode node : root) {
+                try {
+                    parsed.add(toRoutine(node));
+                } catch (IllegalArgumentException e) {
+                    log.warn("Skipping invalid routine in catalog: {}", e.getMessage());
+                }
+            }
+            return List.copyOf(parsed);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to parse routine catalog: " + ROUTINES_FILENAME, e);
+        }
+    }
+
+    private static PublicRoutine toRoutine(JsonNode node) {
+        List<String> planIds = new ArrayList<>();
+        node.path("workoutPlanIds").forEach(planId -> planIds.add(planId.asText()));
+
+        return new PublicRoutine(
+                textOrNull(node, "id"),
+                node.hasNonNull("hevyId") ? node.get("hevyId").asLong() : null,
+                node.hasNonNull("folderIndex") ? node.get("folderIndex").asInt() : null,
+                textOrNull(node, "title"),
+                planIds,
+                DifficultyLevel.from(textOrNull(node, "difficultyLevel")).orElse(null),
+                EquipmentType.from(textOrNull(node, "equipmentType")).orElse(null),
+                WorkoutSplit.from(textOrNull(node, "workoutSplit")).orElse(null),
+                node.path("isPublic").asBoolean(false),
+                node.hasNonNull("createdBy") ? node.get("createdBy").asLong() : null,
+                node.path("usageCount").asLong(0),
+                textOrNull(node, "createdAt"),
+                textOrNull(node, "updatedAt"),
+                node.path("workoutPlanCount").asInt(planIds.size()),
+                node.path("personal").asBoolean(false)
+        );
+    }
+
+    private static String textOrNull(JsonNode node, String field) {
+        JsonNode value = node.get(field);
+        return value == null || value.isNull() ? null : value.asText();
+    }
+
+    private <E extends Enum<E>> Map<E, List<PublicRoutine>> index(
+            Class<E> type,
+            Function<PublicRoutine, E> key) {
+
+        Map<E, List<PublicRoutine>> index = new EnumMap<>(type);
+        for (PublicRoutine routine : routines) {
+            E value = key.apply(routine);
+            if (value != null) {
+                index.computeIfAbsent(value, k -> new ArrayList<>()).add(routine);
+            }
+        }
+        index.replaceAll((k, list) -> List.copyOf(list));
+        return Collections.unmodifiableMap(index);
+    }
+
+    private byte[] serializeSummaries(List<PublicRoutine> source) {
+        List<RoutineSummary> summaries = source.stream()
+                .limit(MAX_SUMMARIES_PER_LEVEL)
+                .map(RoutineSummary::of)
+                .toList();
+        try {
+            return objectMapper.writeValueAsBytes(summaries);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize routine summaries", e);
+        }
+    }
+
+    private String writeJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize routines", e);
+        }
+    }
+}
@@ -13,15 +13,14 @@ import org.springframework.stereotype.Service;
 @RequiredArgsConstructor
 public class RoutineDataService {
 
-    private static final String ROUTINES_FILENAME = "public_routines.json";
-
-    private final ResourceLoaderService resourceLoaderService;
+    private final RoutineCatalog routineCatalog;
 
     /**
      * Load all public routines from data source
+     * Served from the catalog loaded at startup, no classpath read per call
      */
     public String loadAllRoutines() {
         log.debug("Loading all public routines");
-        return resourceLoaderService.loadJsonData(ROUTINES_FILENAME);
+        return routineCatalog.rawJson();
     }
-}
\ No newline at end of file
+}
@@ -1,14 +1,11 @@
 package com.muscledia.muscledia_ai_service.service;
 
-import com.fasterxml.jackson.databind.JsonNode;
-import com.fasterxml.jackson.databind.ObjectMapper;
+import com.muscledia.muscledia_ai_service.model.DifficultyLevel;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.util.ArrayList;
-import java.util.Iterator;
-import java.util.List;
+import java.util.Optional;
 
 /**
  * Service responsible for filtering workout routines
@@ -19,8 +16,8 @@ import java.util.List;
 @RequiredArgsConstructor
 public class RoutineFilterService {
 
-    private final ObjectMapper objectMapper;
     private final RoutineDataService routineDataService;
+    private final RoutineCatalog routineCatalog;
 
     /**
      * Get all routines as JSON string
@@ -39,62 +36,15 @@ public class RoutineFilterService {
             return getAllRoutinesJson();
         }
 
-        try {
-            String allRoutinesJson = routineDataService.loadAllRoutines();
-            JsonNode routinesArray = objectMapper.readTree(allRoutinesJson);
+        Optional<String> filtered = DifficultyLevel.from(trainingLevel)
+                .flatMap(routineCatalog::fullJson);
 
-            if (!routinesArray.isArray()) {
-                log.warn("Routines data is not an array, returning as is");
-                return allRoutinesJson;
-            }
-
-            List<JsonNode> filteredRoutines = filterByDifficultyLevel(
-                    routinesArray,
-                    trainingLevel
-            );
-
-            if (filteredRoutines.isEmpty()) {
-                log.info("No routines found for level: {}, returning all routines", trainingLevel);
-                return allRoutinesJson;
-            }
-
-            String result = objectMapper.writeValueAsString(filteredRoutines);
-            log.info("Filtered {} routines for level: {}", filteredRoutines.size(), trainingLevel);
-
-            return result;
-
-        } catch (Exception e) {
-            log.error("Error filtering routines for level: {}", trainingLevel, e);
+        if (filtered.isEmpty()) {
+            log.info("No routines found for level: {}, returning all routines", trainingLevel);
             return getAllRoutinesJson();
         }
-    }
-
-    /**
-     * Business logic: filter routines by difficulty level
-     */
-    private List<JsonNode> filterByDifficultyLevel(JsonNode routinesArray, String targetLevel) {
-        List<JsonNode> filtered = new ArrayList<>();
-        Iterator<JsonNode> iterator = routinesArray.elements();
-
-        String normalizedTarget = targetLevel.trim().toUpperCase();
-
-        while (iterator.hasNext()) {
-            JsonNode routine = iterator.next();
-
-            if (!routine.has("difficultyLevel")) {
-                continue;
-            }
-
-            String difficultyLevel = routine.get("difficultyLevel")
-                    .asText("")
-                    .trim()
-                    .toUpperCase();
-
-            if (difficultyLevel.equals(normalizedTarget)) {
-                filtered.add(routine);
-            }
-        }
 
-        return filtered;
+        log.debug("Filtered routines for level: {}", trainingLevel);
+        return filtered.get();
     }
-}
\ No newline at end of file
+}
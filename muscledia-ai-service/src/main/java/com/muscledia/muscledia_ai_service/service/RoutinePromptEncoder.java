@@ -0,0 +1,20 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.muscledia.muscledia_ai_service.model.EncodedRoutines;
+import com.muscledia.muscledia_ai_service.model.PublicRoutine;
+
+import java.util.List;
+
+/**
+ * Encodes routine candidates for the recommendation prompt
+ * Selected by recommendation.prompt.encoding
+ */
+public interface RoutinePromptEncoder {
+
+    /**
+     * Name used in configuration and logs
+     */
+    String name();
+
+    EncodedRoutines encode(List<PublicRoutine> routines);
+}
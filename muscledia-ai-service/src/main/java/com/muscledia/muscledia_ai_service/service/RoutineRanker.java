@@ -0,0 +1,74 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.muscledia.muscledia_ai_service.config.RoutineRankingProperties;
+import com.muscledia.muscledia_ai_service.model.PublicRoutine;
+import com.muscledia.muscledia_ai_service.model.RoutineQuery;
+import com.muscledia.muscledia_ai_service.model.ScoredRoutine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Deterministic pre-ranking of catalog routines before they reach the model
+ * Candidates are the routines of the requested level (all routines if the level
+ * is unknown or empty), ordered by {@link RoutineScorer}; ties keep catalog order
+ */
+@Slf4j
+@Service
+public class RoutineRanker {
+
+    private static final Comparator<ScoredRoutine> BY_SCORE_DESC =
+            Comparator.comparingDouble(ScoredRoutine::score).reversed();
+
+    private final RoutineCatalog routineCatalog;
+    private final RoutineScorer routineScorer;
+    private final RoutineRankingProperties properties;
+
+    public RoutineRanker(RoutineCatalog routineCatalog, RoutineScorer routineScorer, RoutineRankingProperties properties) {
+        this.routineCatalog = routineCatalog;
+        this.routineScorer = routineScorer;
+        this.properties = properties;
+    }
+
+    /**
+     * Routines the ranker chooses from for a query
+     */
+    public List<PublicRoutine> candidates(RoutineQuery query) {
+        List<PublicRoutine> levelRoutines = query.level() != null
+                ? routineCatalog.byDifficulty(query.level())
+                : List.of();
+        return levelRoutines.isEmpty() ? routineCatalog.all() : levelRoutines;
+    }
+
+    /**
+     * All candidates, best match first
+     */
+    public List<ScoredRoutine> rank(RoutineQuery query) {
+        return candidates(query).stream()
+                .map(routine -> new ScoredRoutine(routine, routineScorer.score(routine, query)))
+                .sorted(BY_SCORE_DESC)
+                .toList();
+    }
+
+    /**
+     * The configured number of best candidates, as sent to the model
+     */
+    public List<PublicRoutine> topK(RoutineQuery query) {
+        List<PublicRoutine> top = rank(query).stream()
+                .limit(Math.max(1, properties.getTopK()))
+                .map(ScoredRoutine::routine)
+                .toList();
+        log.debug("Top {} routines for {}: {}", top.size(), query, top.stream().map(PublicRoutine::id).toList());
+        return top;
+    }
+
+    /**
+     * Best candidate, usable as a recommendation without the model
+     */
+    public Optional<ScoredRoutine> best(RoutineQuery query) {
+        return rank(query).stream().findFirst();
+    }
+}
@@ -0,0 +1,16 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.muscledia.muscledia_ai_service.model.PublicRoutine;
+import com.muscledia.muscledia_ai_service.model.RoutineQuery;
+
+/**
+ * Scores how well a catalog routine fits a user
+ * Implementations must be deterministic and cheap: every candidate is scored on each request
+ */
+public interface RoutineScorer {
+
+    /**
+     * @return score in [0, 1], higher is a better match
+     */
+    double score(PublicRoutine routine, RoutineQuery query);
+}
@@ -0,0 +1,65 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.muscledia.muscledia_ai_service.model.EncodedRoutines;
+import com.muscledia.muscledia_ai_service.model.PublicRoutine;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Compact table: one header row, then one pipe-separated line per routine
+ *
+ * ref|title|level|split|equipment|workouts
+ * r1|Beginner Full Body|BEGINNER|FULL_BODY|DUMBBELLS|3
+ *
+ * Keys are written once instead of per routine, and 24-character catalog ids are
+ * replaced by short refs (r1, r2, ...) that are mapped back after parsing.
+ */
+@Component
+public class TabularRoutinePromptEncoder implements RoutinePromptEncoder {
+
+    public static final String NAME = "tabular";
+
+    static final String HEADER = "ref|title|level|split|equipment|workouts";
+    private static final String ALIAS_PREFIX = "r";
+    private static final int ESTIMATED_ROW_LENGTH = 64;
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public EncodedRoutines encode(List<PublicRoutine> routines) {
+        StringBuilder text = new StringBuilder(HEADER.length() + 1 + routines.size() * ESTIMATED_ROW_LENGTH);
+        Map<String, String> idsByAlias = new LinkedHashMap<>();
+        text.append(HEADER);
+
+        int index = 1;
+        for (PublicRoutine routine : routines) {
+            String alias = ALIAS_PREFIX + index++;
+            idsByAlias.put(alias, routine.id());
+
+            text.append('\n').append(alias)
+                    .append('|').append(cell(routine.title()))
+                    .append('|').append(routine.difficultyLevel() != null ? routine.difficultyLevel().name() : "")
+                    .append('|').append(routine.workoutSplit() != null ? routine.workoutSplit().name() : "")
+                    .append('|').append(routine.equipmentType() != null ? routine.equipmentType().name() : "")
+                    .append('|').append(routine.workoutPlanCount());
+        }
+        return new EncodedRoutines(NAME, text.toString(), idsByAlias, Set.copyOf(idsByAlias.values()));
+    }
+
+    /**
+     * Keep each routine on one line and the column count fixed
+     */
+    private static String cell(String value) {
+        if (value == null) {
+            return "";
+        }
+        return value.replace('|', '/').replace('\n', ' ').replace('\r', ' ').trim();
+    }
+}
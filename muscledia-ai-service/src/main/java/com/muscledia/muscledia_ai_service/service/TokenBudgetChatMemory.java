@@ -0,0 +1,154 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.muscledia.muscledia_ai_service.config.ConversationMemoryProperties;
+import com.muscledia.muscledia_ai_service.util.TokenEstimator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.ai.chat.memory.ChatMemory;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.MessageType;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Per-user conversation memory bounded by a token budget, replacing Spring AI's default ChatMemory
+ *
+ * Each conversation keeps at most max-tokens (estimated) of history: when a new turn
+ * pushes it over, whole turns (a user message and the replies to it) are dropped from
+ * the oldest end; the newest turn is always kept. Conversations live in Caffeine,
+ * bounded by estimated heap size (least recently used go first) and forgotten after
+ * idle-timeout.
+ *
+ * Meters: conversation.memory.conversations, conversation.memory.bytes (estimated),
+ * conversation.memory.prompt.tokens (summary of history tokens added to each prompt),
+ * conversation.memory.evicted.turns
+ */
+@Slf4j
+@Component
+public class TokenBudgetChatMemory implements ChatMemory {
+
+    // Role marker and message framing in the chat template
+    private static final int MESSAGE_OVERHEAD_TOKENS = 4;
+    private static final int MESSAGE_OVERHEAD_BYTES = 64;
+
+    private final ConversationMemoryProperties properties;
+    private final Cache<String, Conversation> conversations;
+    private final DistributionSummary promptTokens;
+    private final Counter evictedTurns;
+
+    public TokenBudgetChatMemory(ConversationMemoryProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.conversations = Caffeine.newBuilder()
+                .maximumWeight(properties.getMaxMemory().toBytes())
+                .weigher((String id, Conversation conversation) -> conversation.bytes())
+                .expireAfterAccess(properties.getIdleTimeout())
+                // Evict on the writing thread so the memory cap holds right after each turn
+                .executor(Runnable::run)
+                .build();
+
+        Gauge.builder("conversation.memory.conversations", conversations, Cache::estimatedSize)
+                .description("Conversations held in memory")
+                .register(meterRegistry);
+        Gauge.builder("conversation.memory.bytes", conversations,
+                        cache -> cache.policy().eviction().map(eviction -> eviction.weightedSize().orElse(0)).orElse(0L))
+                .description("Estimated heap used by conversation history")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+        this.promptTokens = DistributionSummary.builder("conversation.memory.prompt.tokens")
+                .description("Estimated tokens of conversation history added to a prompt")
+                .register(meterRegistry);
+        this.evictedTurns = Counter.builder("conversation.memory.evicted.turns")
+                .description("Oldest turns dropped to keep conversations within the token budget")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void add(String conversationId, List<Message> messages) {
+        if (!properties.isEnabled() || messages.isEmpty()) {
+            return;
+        }
+        conversations.asMap().compute(conversationId, (id, conversation) ->
+                (conversation == null ? Conversation.EMPTY : conversation).append(messages, properties.getMaxTokens(), evictedTurns));
+    }
+
+    @Override
+    public List<Message> get(String conversationId) {
+        Conversation conversation = properties.isEnabled() ? conversations.getIfPresent(conversationId) : null;
+        if (conversation == null) {
+            promptTokens.record(0);
+            return List.of();
+        }
+        promptTokens.record(conversation.tokens());
+        return conversation.messages();
+    }
+
+    @Override
+    public void clear(String conversationId) {
+        conversations.invalidate(conversationId);
+    }
+
+    public boolean hasHistory(String conversationId) {
+        return properties.isEnabled() && conversations.getIfPresent(conversationId) != null;
+    }
+
+    static int tokens(Message message) {
+        return TokenEstimator.estimate(message.getText()) + MESSAGE_OVERHEAD_TOKENS;
+    }
+
+    /**
+     * Immutable snapshot of one conversation; replaced on every update so the weight stays current
+     */
+    private record Conversation(List<Message> messages, int tokens, int bytes) {
+
+        static final Conversation EMPTY = new Conversation(List.of(), 0, 0);
+
+        Conversation append(List<Message> added, int maxTokens, Counter evictedTurns) {
+            List<Message> all = new ArrayList<>(messages.size() + added.size());
+            all.addAll(messages);
+            all.addAll(added);
+
+            int total = tokens;
+            for (Message message : added) {
+                total += TokenBudgetChatMemory.tokens(message);
+            }
+
+            // Drop whole turns from the oldest end, never the newest turn
+            int start = 0;
+            int newestTurn = newestTurnStart(all);
+            while (total > maxTokens && start < newestTurn) {
+                int end = start + 1;
+                while (end < newestTurn && all.get(end).getMessageType() != MessageType.USER) {
+                    end++;
+                }
+                for (int i = start; i < end; i++) {
+                    total -= TokenBudgetChatMemory.tokens(all.get(i));
+                }
+                start = end;
+                evictedTurns.increment();
+            }
+
+            List<Message> kept = List.copyOf(all.subList(start, all.size()));
+            long bytes = 0;
+            for (Message message : kept) {
+                bytes += MESSAGE_OVERHEAD_BYTES + 2L * (message.getText() == null ? 0 : message.getText().length());
+            }
+            return new Conversation(kept, total, (int) Math.min(Integer.MAX_VALUE, bytes));
+        }
+
+        private static int newestTurnStart(List<Message> messages) {
+            for (int i = messages.size() - 1; i >= 0; i--) {
+                if (messages.get(i).getMessageType() == MessageType.USER) {
+                    return i;
+                }
+            }
+            return Math.max(0, messages.size() - 1);
+        }
+    }
+}
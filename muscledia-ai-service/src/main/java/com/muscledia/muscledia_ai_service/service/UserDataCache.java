@@ -0,0 +1,135 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.muscledia.muscledia_ai_service.config.UserDataCacheProperties;
+import com.muscledia.muscledia_ai_service.dto.UserDataDTO;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-user cache of profile data from user-service
+ * Bounded, with a hard TTL; entries past refresh-after are reported stale
+ * so the client can serve them while revalidating
+ * Every invalidation bumps an epoch; a fetch started under an older epoch
+ * is not cached, so a refresh in flight cannot restore invalidated data
+ */
+@Slf4j
+@Component
+public class UserDataCache {
+
+    static final String CACHE_NAME = "user-data";
+
+    private final UserDataCacheProperties properties;
+    private final Cache<Long, Entry> cache;
+    private final Set<Long> refreshing = ConcurrentHashMap.newKeySet();
+    private final AtomicLong epoch = new AtomicLong();
+
+    public UserDataCache(UserDataCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxSize())
+                .expireAfterWrite(properties.getTtl())
+                .recordStats()
+                .build();
+
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, CACHE_NAME);
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    public Optional<Entry> get(Long userId) {
+        return Optional.ofNullable(cache.getIfPresent(userId));
+    }
+
+    /**
+     * Current epoch; read it before fetching and pass it to {@link #put}
+     */
+    public long epoch() {
+        return epoch.get();
+    }
+
+    /**
+     * Cache fetched data unless an invalidation happened since the fetch started
+     *
+     * @param fetchEpoch {@link #epoch()} read before the fetch
+     * @return false if the data was dropped as stale
+     */
+    public boolean put(Long userId, UserDataDTO userData, long fetchEpoch) {
+        if (epoch.get() != fetchEpoch) {
+            return false;
+        }
+        Entry entry = new Entry(userData, System.nanoTime());
+        cache.put(userId, entry);
+        // An invalidation between the check and the put: undo our own write only
+        if (epoch.get() != fetchEpoch) {
+            cache.asMap().remove(userId, entry);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Claim the background refresh for a user; false if one is already running
+     */
+    public boolean startRefresh(Long userId) {
+        return refreshing.add(userId);
+    }
+
+    public void endRefresh(Long userId) {
+        refreshing.remove(userId);
+    }
+
+    public void invalidate(Long userId) {
+        epoch.incrementAndGet();
+        cache.invalidate(userId);
+        log.info("Invalidated cached user data for userId: {}", userId);
+    }
+
+    /**
+     * @return number of entries removed
+     */
+    public long invalidateAll() {
+        long size = cache.estimatedSize();
+        epoch.incrementAndGet();
+        cache.invalidateAll();
+        log.info("Invalidated user data cache ({} entries)", size);
+        return size;
+    }
+
+    /**
+     * Cached user data with its fetch time
+     */
+    public final class Entry {
+
+        private final UserDataDTO userData;
+        private final long fetchedAtNanos;
+
+        private Entry(UserDataDTO userData, long fetchedAtNanos) {
+            this.userData = userData;
+            this.fetchedAtNanos = fetchedAtNanos;
+        }
+
+        public UserDataDTO userData() {
+            return userData;
+        }
+
+        /**
+         * True once the entry is older than refresh-after
+         */
+        public boolean isStale() {
+            Duration age = Duration.ofNanos(System.nanoTime() - fetchedAtNanos);
+            return age.compareTo(properties.getRefreshAfter()) > 0;
+        }
+    }
+}
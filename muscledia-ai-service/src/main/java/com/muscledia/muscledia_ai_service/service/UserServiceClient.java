@@ -1,7 +1,11 @@
 package com.muscledia.muscledia_ai_service.service;
 
+import com.muscledia.muscledia_ai_service.config.PipelineProperties;
+import com.muscledia.muscledia_ai_service.config.UserDataCacheProperties;
 import com.muscledia.muscledia_ai_service.dto.UserDataDTO;
-import lombok.RequiredArgsConstructor;
+import com.muscledia.muscledia_ai_service.exception.UnauthorizedException;
+import com.muscledia.muscledia_ai_service.exception.UserServiceException;
+import com.muscledia.muscledia_ai_service.jfr.UserServiceCallEvent;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpHeaders;
@@ -11,22 +15,50 @@ import org.springframework.web.reactive.function.client.WebClient;
 import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.TimeoutException;
+
 /**
  * Client service for communicating with user-service
  * Handles HTTP calls to retrieve user data using JWT authentication
+ * Responses are cached per userId (see {@link UserDataCache}); stale entries
+ * are served while a non-blocking refresh runs in the background
  */
 @Slf4j
 @Service
-@RequiredArgsConstructor
 public class UserServiceClient {
 
+    private static final String USER_DATA_PATH = "/api/users/me/data";
+
     private final WebClient.Builder webClientBuilder;
-    
+    private final UserDataCache userDataCache;
+    private final UserDataCacheProperties cacheProperties;
+    private final JwtService jwtService;
+    private final PipelineProperties pipelineProperties;
+
     @Value("${user-service.url}")
     private String userServiceUrl;
-    
+
+    @Value("${user-service.user-data-by-id-path:/api/users/{userId}/data}")
+    private String userDataByIdPath;
+
     private WebClient webClient;
 
+    public UserServiceClient(
+            WebClient.Builder webClientBuilder,
+            UserDataCache userDataCache,
+            UserDataCacheProperties cacheProperties,
+            JwtService jwtService,
+            PipelineProperties pipelineProperties) {
+        this.webClientBuilder = webClientBuilder;
+        this.userDataCache = userDataCache;
+        this.cacheProperties = cacheProperties;
+        this.jwtService = jwtService;
+        this.pipelineProperties = pipelineProperties;
+    }
+
     /**
      * Initialize WebClient with base URL
      * Using @PostConstruct would require @Component, so we'll initialize lazily
@@ -43,48 +75,193 @@ public class UserServiceClient {
 
     /**
      * Retrieves user data from user-service using JWT token
-     * 
+     * Served from cache when possible
+     *
      * @param jwtToken The JWT token (with or without "Bearer " prefix)
      * @return UserDataDTO containing user information
-     * @throws RuntimeException if the request fails or user is not found
+     * @throws UnauthorizedException if user-service rejects the token
+     * @throws UserServiceException if the request fails or user is not found
      */
     public UserDataDTO getUserData(String jwtToken) {
-        log.info("Fetching user data from user-service at: {}/api/users/me/data", userServiceUrl);
-        
-        // Ensure token has "Bearer " prefix
-        String bearerToken = jwtToken.startsWith("Bearer ") ? jwtToken : "Bearer " + jwtToken;
-        
+        String bearerToken = toBearer(jwtToken);
+        Long userId = userDataCache.isEnabled() ? resolveUserId(bearerToken) : null;
+
+        if (userId == null) {
+            return fetchUserData(null, bearerToken);
+        }
+
+        Optional<UserDataCache.Entry> cached = userDataCache.get(userId);
+        if (cached.isPresent()) {
+            UserDataCache.Entry entry = cached.get();
+            if (!entry.isStale()) {
+                log.debug("User data cache hit for userId: {}", userId);
+                return copyOf(entry.userData());
+            }
+            if (cacheProperties.isStaleWhileRevalidate()) {
+                log.debug("Serving stale user data for userId: {}, revalidating", userId);
+                refreshInBackground(userId, bearerToken);
+                return copyOf(entry.userData());
+            }
+        }
+
+        long epoch = userDataCache.epoch();
+        UserDataDTO userData = fetchUserData(userId, bearerToken);
+        cacheIfOwned(userId, userData, epoch);
+        return copyOf(userData);
+    }
+
+    /**
+     * User data of any user by id, for batch work on behalf of an admin
+     * Served from cache when fresh, else fetched without blocking and cached
+     *
+     * @param jwtToken the caller's JWT token (with or without "Bearer " prefix)
+     */
+    public Mono<UserDataDTO> getUserDataById(Long userId, String jwtToken) {
+        if (userDataCache.isEnabled()) {
+            Optional<UserDataCache.Entry> cached = userDataCache.get(userId);
+            if (cached.isPresent() && !cached.get().isStale()) {
+                return Mono.just(copyOf(cached.get().userData()));
+            }
+        }
+
+        long epoch = userDataCache.epoch();
+        return getWebClient()
+                .get()
+                .uri(userDataByIdPath, userId)
+                .header(HttpHeaders.AUTHORIZATION, toBearer(jwtToken))
+                .retrieve()
+                .bodyToMono(UserDataDTO.class)
+                .transform(this::withTimeout)
+                .switchIfEmpty(Mono.error(() -> new UserServiceException("Failed to retrieve user data: response was null")))
+                .onErrorMap(WebClientResponseException.class, e -> e.getStatusCode() == HttpStatus.NOT_FOUND
+                        ? new UserServiceException("User not found", e)
+                        : new UserServiceException("Failed to retrieve user data from user-service: " + e.getMessage(), e))
+                .doOnNext(userData -> cacheIfOwned(userId, userData, epoch))
+                .map(UserServiceClient::copyOf);
+    }
+
+    /**
+     * Blocking call to user-service
+     *
+     * @param userId from the token when known, for the flight recorder event
+     */
+    private UserDataDTO fetchUserData(Long userId, String bearerToken) {
+        log.info("Fetching user data from user-service at: {}{}", userServiceUrl, USER_DATA_PATH);
+
+        UserServiceCallEvent event = new UserServiceCallEvent();
+        event.begin();
+        event.outcome = "failure";
         try {
-            UserDataDTO userData = getWebClient()
-                    .get()
-                    .uri("/api/users/me/data")
-                    .header(HttpHeaders.AUTHORIZATION, bearerToken)
-                    .retrieve()
-                    .bodyToMono(UserDataDTO.class)
+            UserDataDTO userData = requestUserData(bearerToken)
                     .block(); // Blocking call since we're in a non-reactive context
-            
+
             if (userData == null) {
                 log.error("User data is null from user-service");
                 throw new RuntimeException("Failed to retrieve user data: response was null");
             }
-            
+
             log.info("Successfully retrieved user data for userId: {}", userData.getUserId());
+            event.outcome = "success";
             return userData;
-            
+
+        } catch (UserServiceException e) {
+            log.error("Error calling user-service: {}", e.getMessage());
+            throw e;
         } catch (WebClientResponseException e) {
+            event.statusCode = e.getStatusCode().value();
             log.error("Error calling user-service: Status={}, Message={}", e.getStatusCode(), e.getMessage());
-            
+
             if (e.getStatusCode() == HttpStatus.UNAUTHORIZED) {
-                throw new RuntimeException("Unauthorized: Invalid or expired JWT token", e);
+                throw new UnauthorizedException("Unauthorized: Invalid or expired JWT token", e);
             } else if (e.getStatusCode() == HttpStatus.NOT_FOUND) {
-                throw new RuntimeException("User not found", e);
+                throw new UserServiceException("User not found", e);
             } else {
-                throw new RuntimeException("Failed to retrieve user data from user-service: " + e.getMessage(), e);
+                throw new UserServiceException("Failed to retrieve user data from user-service: " + e.getMessage(), e);
             }
         } catch (Exception e) {
             log.error("Unexpected error calling user-service: {}", e.getMessage(), e);
-            throw new RuntimeException("Failed to retrieve user data: " + e.getMessage(), e);
+            throw new UserServiceException("Failed to retrieve user data: " + e.getMessage(), e);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                event.userId = userId == null ? 0 : userId;
+                event.commit();
+            }
         }
     }
-}
 
+    /**
+     * Non-blocking refresh; at most one per user at a time, failures keep the stale entry
+     * The result is dropped if the cache is invalidated while the refresh is in flight
+     */
+    private void refreshInBackground(Long userId, String bearerToken) {
+        if (!userDataCache.startRefresh(userId)) {
+            return;
+        }
+
+        long epoch = userDataCache.epoch();
+        requestUserData(bearerToken)
+                .doFinally(signal -> userDataCache.endRefresh(userId))
+                .subscribe(
+                        userData -> cacheIfOwned(userId, userData, epoch),
+                        error -> log.warn("Background refresh of user data failed for userId: {}: {}",
+                                userId, error.getMessage())
+                );
+    }
+
+    private Mono<UserDataDTO> requestUserData(String bearerToken) {
+        return getWebClient()
+                .get()
+                .uri(USER_DATA_PATH)
+                .header(HttpHeaders.AUTHORIZATION, bearerToken)
+                .retrieve()
+                .bodyToMono(UserDataDTO.class)
+                .transform(this::withTimeout);
+    }
+
+    /**
+     * Cancel the request once it passes recommendation.pipeline.user-fetch-timeout,
+     * so a hung user-service does not hold a connection and a blocked caller
+     */
+    private Mono<UserDataDTO> withTimeout(Mono<UserDataDTO> request) {
+        Duration timeout = pipelineProperties.getUserFetchTimeout();
+        return request.timeout(timeout)
+                .onErrorMap(TimeoutException.class, e -> new UserServiceException(
+                        "user-service did not answer within " + timeout.toMillis() + " ms", e));
+    }
+
+    /**
+     * Only cache data that belongs to the user named in the token
+     */
+    private void cacheIfOwned(Long userId, UserDataDTO userData, long epoch) {
+        if (userData != null && Objects.equals(userId, userData.getUserId())
+                && !userDataCache.put(userId, copyOf(userData), epoch)) {
+            log.debug("Dropped user data fetched before an invalidation for userId: {}", userId);
+        }
+    }
+
+    private Long resolveUserId(String bearerToken) {
+        try {
+            return jwtService.extractUserId(bearerToken.substring(7));
+        } catch (RuntimeException e) {
+            log.debug("Could not resolve userId from token, bypassing user data cache: {}", e.getMessage());
+            return null;
+        }
+    }
+
+    private static String toBearer(String jwtToken) {
+        // Ensure token has "Bearer " prefix
+        return jwtToken.startsWith("Bearer ") ? jwtToken : "Bearer " + jwtToken;
+    }
+
+    private static UserDataDTO copyOf(UserDataDTO source) {
+        return UserDataDTO.builder()
+                .userId(source.getUserId())
+                .height(source.getHeight())
+                .weight(source.getWeight())
+                .goalType(source.getGoalType())
+                .gender(source.getGender())
+                .age(source.getAge())
+                .build();
+    }
+}
@@ -0,0 +1,119 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.muscledia.muscledia_ai_service.config.RoutineRankingProperties;
+import com.muscledia.muscledia_ai_service.model.EquipmentType;
+import com.muscledia.muscledia_ai_service.model.PublicRoutine;
+import com.muscledia.muscledia_ai_service.model.RoutineQuery;
+import com.muscledia.muscledia_ai_service.model.WorkoutSplit;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Default routine scorer: weighted sum of three components in [0, 1]
+ *
+ * - goal: affinity of the user's goal for the routine's split
+ * - frequency: training days per week vs the routine's workoutPlanCount
+ * - equipment: requested equipment vs what the routine needs
+ *
+ * Unknown goals and missing preferences score neutral (0.5) so they don't reorder candidates.
+ */
+@Component
+public class WeightedRoutineScorer implements RoutineScorer {
+
+    private static final double NEUTRAL = 0.5;
+    private static final double UNKNOWN_ROUTINE_VALUE = 0.3;
+    private static final int MAX_FREQUENCY_GAP = 3;
+
+    private static final Map<String, Map<WorkoutSplit, Double>> GOAL_SPLIT_AFFINITY = new HashMap<>();
+
+    static {
+        Map<WorkoutSplit, Double> muscle = affinity(0.6, 1.0, 0.85);
+        Map<WorkoutSplit, Double> strength = affinity(0.8, 0.7, 1.0);
+        Map<WorkoutSplit, Double> fatLoss = affinity(1.0, 0.6, 0.7);
+        Map<WorkoutSplit, Double> general = affinity(1.0, 0.6, 0.8);
+
+        for (String goal : new String[]{"BUILD_MUSCLE", "GAIN_MUSCLE", "MUSCLE_GAIN", "HYPERTROPHY"}) {
+            GOAL_SPLIT_AFFINITY.put(goal, muscle);
+        }
+        for (String goal : new String[]{"BUILD_STRENGTH", "GAIN_STRENGTH", "STRENGTH"}) {
+            GOAL_SPLIT_AFFINITY.put(goal, strength);
+        }
+        for (String goal : new String[]{"LOSE_WEIGHT", "LOSE_FAT", "WEIGHT_LOSS", "FAT_LOSS"}) {
+            GOAL_SPLIT_AFFINITY.put(goal, fatLoss);
+        }
+        for (String goal : new String[]{"MAINTAIN", "MAINTENANCE", "GENERAL_FITNESS", "STAY_FIT", "ENDURANCE"}) {
+            GOAL_SPLIT_AFFINITY.put(goal, general);
+        }
+    }
+
+    private final RoutineRankingProperties properties;
+
+    public WeightedRoutineScorer(RoutineRankingProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public double score(PublicRoutine routine, RoutineQuery query) {
+        double totalWeight = properties.getGoalWeight() + properties.getFrequencyWeight() + properties.getEquipmentWeight();
+        if (totalWeight <= 0) {
+            return NEUTRAL;
+        }
+
+        double weighted = properties.getGoalWeight() * goalScore(routine, query)
+                + properties.getFrequencyWeight() * frequencyScore(routine, query)
+                + properties.getEquipmentWeight() * equipmentScore(routine, query);
+        return weighted / totalWeight;
+    }
+
+    double goalScore(PublicRoutine routine, RoutineQuery query) {
+        Map<WorkoutSplit, Double> affinity = GOAL_SPLIT_AFFINITY.get(query.goalType());
+        if (affinity == null) {
+            return NEUTRAL;
+        }
+        if (routine.workoutSplit() == null) {
+            return UNKNOWN_ROUTINE_VALUE;
+        }
+        return affinity.get(routine.workoutSplit());
+    }
+
+    double frequencyScore(PublicRoutine routine, RoutineQuery query) {
+        if (query.frequency() <= 0 || routine.workoutPlanCount() <= 0) {
+            return NEUTRAL;
+        }
+        int gap = Math.abs(query.frequency() - routine.workoutPlanCount());
+        return Math.max(0.0, 1.0 - (double) gap / MAX_FREQUENCY_GAP);
+    }
+
+    double equipmentScore(PublicRoutine routine, RoutineQuery query) {
+        EquipmentType wanted = query.equipment();
+        EquipmentType needed = routine.equipmentType();
+        if (wanted == null) {
+            return NEUTRAL;
+        }
+        if (needed == null) {
+            return UNKNOWN_ROUTINE_VALUE;
+        }
+        if (wanted == needed) {
+            return 1.0;
+        }
+        // Anything can be done with more equipment than the routine needs
+        if (needed == EquipmentType.EQUIPMENT_FREE) {
+            return 0.6;
+        }
+        if (wanted == EquipmentType.GYM_EQUIPMENT && needed == EquipmentType.DUMBBELLS) {
+            return 0.8;
+        }
+        return 0.0;
+    }
+
+    private static Map<WorkoutSplit, Double> affinity(double fullBody, double pushPullLegs, double upperLower) {
+        Map<WorkoutSplit, Double> affinity = new EnumMap<>(WorkoutSplit.class);
+        affinity.put(WorkoutSplit.FULL_BODY, fullBody);
+        affinity.put(WorkoutSplit.PUSH_PULL_LEGS, pushPullLegs);
+        affinity.put(WorkoutSplit.UPPER_LOWER, upperLower);
+        return affinity;
+    }
+}
@@ -0,0 +1,186 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.muscledia.muscledia_ai_service.config.WorkoutPlanCatalogProperties;
+import com.muscledia.muscledia_ai_service.model.WorkoutPlan;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Catalog of public workout plans, indexed by id without holding the file in memory
+ *
+ * With a catalog snapshot, ids come from the snapshot and plans are built from its
+ * mapped columns. Otherwise startup makes one streaming pass over
+ * public_workout_plans.json with Jackson's JsonParser, recording the byte range of
+ * every plan object and skipping its contents, and plans are parsed on first
+ * request by reading just their byte range. Either way built plans are kept in a
+ * bounded cache.
+ *
+ * Meters: cache.* with tag cache=workout-plans
+ */
+@Slf4j
+@Component
+public class WorkoutPlanCatalog {
+
+    static final String CACHE_NAME = "workout-plans";
+
+    // Map node, key and value objects per index entry; id strings are counted per char
+    private static final int INDEX_ENTRY_OVERHEAD_BYTES = 112;
+
+    private final Resource resource;
+    private final ObjectMapper objectMapper;
+    private final CatalogSnapshot snapshot;
+    private final Map<String, Extent> index;
+    private final LoadingCache<String, WorkoutPlan> plans;
+
+    public WorkoutPlanCatalog(
+            WorkoutPlanCatalogProperties properties,
+            ResourceLoader resourceLoader,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry) {
+        this(properties, resourceLoader, objectMapper, meterRegistry, Optional.empty());
+    }
+
+    @Autowired
+    public WorkoutPlanCatalog(
+            WorkoutPlanCatalogProperties properties,
+            ResourceLoader resourceLoader,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            CatalogSnapshotLoader snapshotLoader) {
+        this(properties, resourceLoader, objectMapper, meterRegistry, snapshotLoader.snapshot());
+    }
+
+    private WorkoutPlanCatalog(
+            WorkoutPlanCatalogProperties properties,
+            ResourceLoader resourceLoader,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            Optional<CatalogSnapshot> snapshot) {
+        this.resource = resourceLoader.getResource(properties.getLocation());
+        this.objectMapper = objectMapper;
+        this.snapshot = snapshot.orElse(null);
+
+        this.plans = Caffeine.newBuilder()
+                .maximumSize(properties.getMaxCachedPlans())
+                .recordStats()
+                .build(this::load);
+        CaffeineCacheMetrics.monitor(meterRegistry, plans, CACHE_NAME);
+
+        if (this.snapshot != null) {
+            this.index = Map.of();
+            log.info("Indexed {} workout plans from the catalog snapshot, plans built on demand",
+                    this.snapshot.planCount());
+            return;
+        }
+
+        long start = System.nanoTime();
+        this.index = buildIndex();
+        long elapsedMs = (System.nanoTime() - start) / 1_000_000;
+
+        long fileBytes = index.values().stream().mapToLong(extent -> extent.offset() + extent.length()).max().orElse(0);
+        long indexBytes = index.keySet().stream()
+                .mapToLong(id -> INDEX_ENTRY_OVERHEAD_BYTES + 2L * id.length())
+                .sum();
+        log.info("Indexed {} workout plans from {} ({} KB of plans) in {} ms; index ~{} KB on heap, plans loaded on demand",
+                index.size(), properties.getLocation(), fileBytes / 1024, elapsedMs, indexBytes / 1024);
+    }
+
+    public Set<String> ids() {
+        return snapshot != null ? snapshot.planIds() : index.keySet();
+    }
+
+    public Optional<WorkoutPlan> findById(String id) {
+        if (id == null || !ids().contains(id)) {
+            return Optional.empty();
+        }
+        return Optional.of(plans.get(id));
+    }
+
+    /**
+     * Plans for the given ids in the same order; unknown ids are skipped
+     */
+    public List<WorkoutPlan> findAll(List<String> ids) {
+        List<WorkoutPlan> found = new ArrayList<>(ids.size());
+        for (String id : ids) {
+            findById(id).ifPresent(found::add);
+        }
+        return found;
+    }
+
+    /**
+     * One pass over the top-level array: record each object's byte range and id
+     */
+    private Map<String, Extent> buildIndex() {
+        Map<String, Extent> extents = new LinkedHashMap<>();
+        try (InputStream in = resource.getInputStream();
+             JsonParser parser = objectMapper.getFactory().createParser(in)) {
+
+            if (parser.nextToken() != JsonToken.START_ARRAY) {
+                throw new IllegalStateException("Expected a JSON array of workout plans in " + resource);
+            }
+            while (parser.nextToken() == JsonToken.START_OBJECT) {
+                long offset = parser.currentTokenLocation().getByteOffset();
+                String id = null;
+                while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                    String field = parser.currentName();
+                    parser.nextToken();
+                    if ("id".equals(field)) {
+                        id = parser.getValueAsString();
+                    } else {
+                        parser.skipChildren();
+                    }
+                }
+                long end = parser.currentTokenLocation().getByteOffset() + 1;
+                if (id == null) {
+                    log.warn("Workout plan without id at byte {} skipped", offset);
+                } else if (extents.putIfAbsent(id, new Extent(offset, Math.toIntExact(end - offset))) != null) {
+                    log.warn("Duplicate workout plan id {} at byte {} ignored", id, offset);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to index workout plans from " + resource, e);
+        }
+        return Collections.unmodifiableMap(extents);
+    }
+
+    /**
+     * Build one plan from the snapshot, or parse it from its byte range
+     */
+    private WorkoutPlan load(String id) {
+        if (snapshot != null) {
+            return snapshot.plan(id).orElseThrow();
+        }
+        Extent extent = index.get(id);
+        try (InputStream in = resource.getInputStream()) {
+            in.skipNBytes(extent.offset());
+            byte[] json = in.readNBytes(extent.length());
+            return objectMapper.readValue(json, WorkoutPlan.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to load workout plan " + id + " from " + resource, e);
+        }
+    }
+
+    private record Extent(long offset, int length) {
+    }
+}
@@ -0,0 +1,117 @@
+package com.muscledia.muscledia_ai_service.util;
+
+/**
+ * Single-pass extractor of the first top-level JSON object in model output
+ *
+ * Text is fed chunk by chunk as tokens arrive. Everything before the first '{'
+ * (preamble, markdown fences) is skipped; after that, brace depth is tracked outside
+ * of string literals (honouring backslash escapes) and the object is complete as soon
+ * as its closing brace arrives, so the caller can stop the generation there.
+ * Not thread-safe; one instance per response.
+ */
+public final class JsonObjectExtractor {
+
+    private final StringBuilder json = new StringBuilder(256);
+    private int depth;
+    private boolean inString;
+    private boolean escaped;
+    private boolean complete;
+    private int skipped;
+
+    /**
+     * Extract the first complete JSON object from a whole response
+     *
+     * @return the object text, or null if the response has no complete object
+     */
+    public static String extract(CharSequence response) {
+        JsonObjectExtractor extractor = new JsonObjectExtractor();
+        return extractor.feed(response) ? extractor.json() : null;
+    }
+
+    /**
+     * Consume the next chunk; characters after the completed object are ignored
+     *
+     * @return true once the top-level object is complete
+     */
+    public boolean feed(CharSequence chunk) {
+        if (complete || chunk == null) {
+            return complete;
+        }
+
+        for (int i = 0, length = chunk.length(); i < length; i++) {
+            char c = chunk.charAt(i);
+            if (depth == 0) {
+                if (c != '{') {
+                    skipped++;
+                    continue;
+                }
+                json.append(c);
+                depth = 1;
+                continue;
+            }
+
+            json.append(c);
+            if (inString) {
+                if (escaped) {
+                    escaped = false;
+                } else if (c == '\\') {
+                    escaped = true;
+                } else if (c == '"') {
+                    inString = false;
+                }
+            } else if (c == '"') {
+                inString = true;
+            } else if (c == '{') {
+                depth++;
+            } else if (c == '}' && --depth == 0) {
+                complete = true;
+                return true;
+            }
+        }
+        return false;
+    }
+
+    public boolean isComplete() {
+        return complete;
+    }
+
+    /**
+     * @throws IllegalStateException if the object is not complete yet
+     */
+    public String json() {
+        if (!complete) {
+            throw new IllegalStateException("JSON object is not complete (depth " + depth + ")");
+        }
+        return json.toString();
+    }
+
+    /**
+     * The object so far closed off: the open string terminated and every open brace
+     * closed. Only helps when the output stopped between values
+     *
+     * @return the completed object, or null if no object was started
+     */
+    public String repaired() {
+        if (complete) {
+            return json.toString();
+        }
+        if (depth == 0) {
+            return null;
+        }
+        StringBuilder repaired = new StringBuilder(json.length() + depth + 2).append(json);
+        if (escaped) {
+            repaired.setLength(repaired.length() - 1);
+        }
+        if (inString) {
+            repaired.append('"');
+        }
+        return repaired.append("}".repeat(depth)).toString();
+    }
+
+    /**
+     * Characters skipped before the object started
+     */
+    public int skipped() {
+        return skipped;
+    }
+}
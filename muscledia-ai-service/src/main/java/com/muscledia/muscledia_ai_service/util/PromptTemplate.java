@@ -0,0 +1,98 @@
+package com.muscledia.muscledia_ai_service.util;
+
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Prompt template parsed once into literal and {{variable}} segments
+ *
+ * Rendering concatenates the segments into a builder sized exactly for the result;
+ * no format-string parsing or regex work per call. Immutable and thread-safe.
+ */
+public final class PromptTemplate {
+
+    private static final String OPEN = "{{";
+    private static final String CLOSE = "}}";
+
+    private final String name;
+    // literals.length == variables.length + 1, rendered as l0 v0 l1 v1 ... ln
+    private final String[] literals;
+    private final String[] variables;
+    private final int literalLength;
+
+    private PromptTemplate(String name, List<String> literals, List<String> variables) {
+        this.name = name;
+        this.literals = literals.toArray(String[]::new);
+        this.variables = variables.toArray(String[]::new);
+        this.literalLength = literals.stream().mapToInt(String::length).sum();
+    }
+
+    /**
+     * @throws IllegalArgumentException on an unclosed or empty placeholder
+     */
+    public static PromptTemplate compile(String name, String source) {
+        List<String> literals = new ArrayList<>();
+        List<String> variables = new ArrayList<>();
+
+        int position = 0;
+        int open;
+        while ((open = source.indexOf(OPEN, position)) >= 0) {
+            int close = source.indexOf(CLOSE, open + OPEN.length());
+            if (close < 0) {
+                throw new IllegalArgumentException("Unclosed placeholder in prompt template " + name + " at " + open);
+            }
+            String variable = source.substring(open + OPEN.length(), close).trim();
+            if (variable.isEmpty()) {
+                throw new IllegalArgumentException("Empty placeholder in prompt template " + name + " at " + open);
+            }
+            literals.add(source.substring(position, open));
+            variables.add(variable);
+            position = close + CLOSE.length();
+        }
+        literals.add(source.substring(position));
+
+        return new PromptTemplate(name, literals, variables);
+    }
+
+    public String name() {
+        return name;
+    }
+
+    public Set<String> variables() {
+        return new LinkedHashSet<>(List.of(variables));
+    }
+
+    /**
+     * Template text; only valid for templates without placeholders
+     */
+    public String text() {
+        if (variables.length > 0) {
+            throw new IllegalStateException("Prompt template " + name + " has placeholders " + variables());
+        }
+        return literals[0];
+    }
+
+    /**
+     * @throws IllegalArgumentException if a placeholder has no value; null values render as "null"
+     */
+    public String render(Map<String, ?> values) {
+        String[] rendered = new String[variables.length];
+        int length = literalLength;
+        for (int i = 0; i < variables.length; i++) {
+            if (!values.containsKey(variables[i])) {
+                throw new IllegalArgumentException("No value for " + variables[i] + " in prompt template " + name);
+            }
+            rendered[i] = String.valueOf(values.get(variables[i]));
+            length += rendered[i].length();
+        }
+
+        StringBuilder out = new StringBuilder(length);
+        for (int i = 0; i < variables.length; i++) {
+            out.append(literals[i]).append(rendered[i]);
+        }
+        return out.append(literals[variables.length]).toString();
+    }
+}
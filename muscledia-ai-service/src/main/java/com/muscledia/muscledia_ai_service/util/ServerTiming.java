@@ -0,0 +1,87 @@
+package com.muscledia.muscledia_ai_service.util;
+
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.StringJoiner;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Timings of one request, rendered as a Server-Timing response header
+ * e.g. "user_fetch;dur=12.4, llm_call;dur=5321.0, total;dur=5340.2"
+ *
+ * Bound to the request thread for the duration of the request; work handed to
+ * other threads takes it along with {@link #wrap}. Repeated names (retries) add up.
+ */
+public final class ServerTiming {
+
+    public static final String HEADER = "Server-Timing";
+
+    private static final ThreadLocal<ServerTiming> CURRENT = new ThreadLocal<>();
+
+    private final long startNanos = System.nanoTime();
+    private final Map<String, Long> durations = new LinkedHashMap<>();
+
+    /**
+     * Start timing a request on the calling thread
+     */
+    public static ServerTiming start() {
+        ServerTiming timing = new ServerTiming();
+        CURRENT.set(timing);
+        return timing;
+    }
+
+    public static void clear() {
+        CURRENT.remove();
+    }
+
+    public static Optional<ServerTiming> current() {
+        return Optional.ofNullable(CURRENT.get());
+    }
+
+    /**
+     * Run the work with the caller's timing bound, on whatever thread it ends up on
+     */
+    public static <T> Supplier<T> wrap(Supplier<T> work) {
+        ServerTiming timing = CURRENT.get();
+        if (timing == null) {
+            return work;
+        }
+        return () -> {
+            ServerTiming previous = CURRENT.get();
+            CURRENT.set(timing);
+            try {
+                return work.get();
+            } finally {
+                if (previous == null) {
+                    CURRENT.remove();
+                } else {
+                    CURRENT.set(previous);
+                }
+            }
+        };
+    }
+
+    /**
+     * @param name metric name, a token such as "llm_call"
+     */
+    public synchronized void add(String name, long duration, TimeUnit unit) {
+        durations.merge(name, unit.toNanos(duration), Long::sum);
+    }
+
+    /**
+     * Header value with every recorded metric and the time since the request started
+     */
+    public synchronized String header() {
+        StringJoiner header = new StringJoiner(", ");
+        durations.forEach((name, nanos) -> header.add(metric(name, nanos)));
+        header.add(metric("total", System.nanoTime() - startNanos));
+        return header.toString();
+    }
+
+    private static String metric(String name, long nanos) {
+        return String.format(Locale.ROOT, "%s;dur=%.1f", name, nanos / 1e6);
+    }
+}
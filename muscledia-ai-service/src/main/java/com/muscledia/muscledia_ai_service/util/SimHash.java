@@ -0,0 +1,55 @@
+package com.muscledia.muscledia_ai_service.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collection;
+
+/**
+ * 64-bit SimHash: similar feature sets get signatures with a small Hamming distance
+ *
+ * Each feature is hashed (FNV-1a, then a murmur3 finalizer to spread the bits) and
+ * votes +1/-1 on every bit position; the signature keeps the positive positions.
+ */
+public final class SimHash {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private SimHash() {
+    }
+
+    public static long of(Collection<String> features) {
+        int[] votes = new int[Long.SIZE];
+        for (String feature : features) {
+            long hash = hash(feature);
+            for (int bit = 0; bit < Long.SIZE; bit++) {
+                votes[bit] += ((hash >>> bit) & 1L) != 0 ? 1 : -1;
+            }
+        }
+
+        long signature = 0;
+        for (int bit = 0; bit < Long.SIZE; bit++) {
+            if (votes[bit] > 0) {
+                signature |= 1L << bit;
+            }
+        }
+        return signature;
+    }
+
+    public static int distance(long a, long b) {
+        return Long.bitCount(a ^ b);
+    }
+
+    static long hash(String feature) {
+        long hash = FNV_OFFSET;
+        for (byte b : feature.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
@@ -0,0 +1,119 @@
+package com.muscledia.muscledia_ai_service.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Coalesces concurrent calls with the same key into one computation
+ *
+ * The first caller for a key runs the supplier; callers arriving while it
+ * runs wait for and share its result (or its exception). The key is removed
+ * as soon as the computation finishes, successfully or not, so later calls
+ * start fresh.
+ *
+ * Meters: singleflight.coalesced (callers that joined an in-flight call)
+ * and singleflight.inflight, both tagged with name.
+ */
+public class SingleFlight<K, V> {
+
+    private final Map<K, CompletableFuture<V>> inFlight = new ConcurrentHashMap<>();
+    private final Counter coalescedCounter;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.coalescedCounter = Counter.builder("singleflight.coalesced")
+                .description("Calls that attached to an identical in-flight computation")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("singleflight.inflight", inFlight, Map::size)
+                .description("Distinct computations currently in flight")
+                .tag("name", name)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Run the supplier for the key, or wait for the identical call already in flight
+     *
+     * @throws RuntimeException the exception thrown by the shared computation
+     */
+    public V execute(K key, Supplier<V> supplier) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+
+        if (existing != null) {
+            coalescedCounter.increment();
+            return await(existing);
+        }
+
+        try {
+            V value = supplier.get();
+            created.complete(value);
+            return value;
+        } catch (RuntimeException | Error e) {
+            created.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(key, created);
+        }
+    }
+
+    /**
+     * Start the supplier for the key on the executor, or return the identical call already in flight
+     * Callers may stop waiting on the returned future; the computation runs to completion regardless
+     */
+    public CompletableFuture<V> submit(K key, Supplier<V> supplier, Executor executor) {
+        CompletableFuture<V> created = new CompletableFuture<>();
+        CompletableFuture<V> existing = inFlight.putIfAbsent(key, created);
+
+        if (existing != null) {
+            coalescedCounter.increment();
+            return existing;
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    created.complete(supplier.get());
+                } catch (RuntimeException | Error e) {
+                    created.completeExceptionally(e);
+                } finally {
+                    inFlight.remove(key, created);
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.remove(key, created);
+            created.completeExceptionally(e);
+        }
+        return created;
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+
+    private V await(CompletableFuture<V> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for in-flight call", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new CompletionException(cause);
+        }
+    }
+}
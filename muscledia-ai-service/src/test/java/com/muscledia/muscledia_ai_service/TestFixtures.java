@@ -0,0 +1,25 @@
+package com.muscledia.muscledia_ai_service;
+
+import com.muscledia.muscledia_ai_service.dto.UserDataDTO;
+import com.muscledia.muscledia_ai_service.model.WorkoutRecommendation;
+
+/**
+ * Profiles and recommendations shared by the tests that mock the user-service and the model
+ */
+public final class TestFixtures {
+
+    private TestFixtures() {
+    }
+
+    public static UserDataDTO profile(Long userId) {
+        return new UserDataDTO(userId, 180.0, 80.0, "BUILD_MUSCLE", "MALE", 30);
+    }
+
+    public static WorkoutRecommendation recommendation(String description) {
+        return recommendation("Full Body", description);
+    }
+
+    public static WorkoutRecommendation recommendation(String workoutName, String description) {
+        return new WorkoutRecommendation(workoutName, "r1", description, "BEGINNER", "FULL_BODY", false);
+    }
+}
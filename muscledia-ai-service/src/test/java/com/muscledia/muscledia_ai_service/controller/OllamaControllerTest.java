@@ -0,0 +1,180 @@
+package com.muscledia.muscledia_ai_service.controller;
+
+import com.muscledia.muscledia_ai_service.config.PipelineProperties;
+import com.muscledia.muscledia_ai_service.dto.PreferencesDto;
+import com.muscledia.muscledia_ai_service.exception.GlobalExceptionHandler;
+import com.muscledia.muscledia_ai_service.exception.OllamaException.OllamaOverloadedException;
+import com.muscledia.muscledia_ai_service.model.Question;
+import com.muscledia.muscledia_ai_service.service.OllamaService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.List;
+
+import static com.muscledia.muscledia_ai_service.TestFixtures.recommendation;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class OllamaControllerTest {
+
+    private static final String QUESTION = "{\"question\":\"How many sets?\"}";
+
+    private final OllamaService ollamaService = mock(OllamaService.class);
+    private final MockMvc mvc = MockMvcBuilders
+            .standaloneSetup(new OllamaController(ollamaService, new PipelineProperties(), Duration.ofMillis(50)))
+            .setControllerAdvice(new GlobalExceptionHandler())
+            .build();
+
+    @BeforeEach
+    void stub() {
+        streams(Flux.empty());
+        when(ollamaService.getStructuredAnswer(any(PreferencesDto.class), anyString(), any(Duration.class)))
+                .thenReturn(recommendation("Three sessions"));
+    }
+
+    @Test
+    void streamsTokensThenCompletedEvent() throws Exception {
+        streams(Flux.just("Three", " sets"));
+
+        List<String> events = stream();
+
+        assertEquals(List.of(
+                "event:token", "data:Three",
+                "event:token", "data: sets",
+                "event:done", "data:{\"status\":\"completed\",\"message\":null}"), withoutHeartbeats(events));
+    }
+
+    @Test
+    void sendsHeartbeatsWhileTheModelIsThinking() throws Exception {
+        streams(Flux.just("Three").delaySubscription(Duration.ofMillis(300)));
+
+        List<String> events = stream();
+
+        assertTrue(events.indexOf(":heartbeat") >= 0, "expected a heartbeat before the first token: " + events);
+        assertTrue(events.indexOf(":heartbeat") < events.indexOf("event:token"));
+        assertEquals("event:done", events.get(events.size() - 2));
+    }
+
+    @Test
+    void endsWithFailedEventWhenGenerationFails() throws Exception {
+        streams(Flux.concat(Flux.just("Three"), Flux.error(new IllegalStateException("connection reset"))));
+
+        List<String> events = withoutHeartbeats(stream());
+
+        assertEquals(List.of(
+                "event:token", "data:Three",
+                "event:done", "data:{\"status\":\"failed\",\"message\":\"Failed to get response from AI service\"}"), events);
+    }
+
+    @Test
+    void shedsFullQueueWithRetryAfterBeforeTheStreamStarts() throws Exception {
+        when(ollamaService.streamGeneralAnswer(any(Question.class))).thenThrow(new OllamaOverloadedException(
+                "AI service is at capacity, please retry later", HttpStatus.TOO_MANY_REQUESTS, Duration.ofSeconds(7)));
+
+        mvc.perform(post("/ollama/conversation/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .content(QUESTION))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string(HttpHeaders.RETRY_AFTER, "7"));
+    }
+
+    @Test
+    void endsWithOverloadMessageWhenShedAfterTheStreamStarted() throws Exception {
+        streams(Flux.error(new OllamaOverloadedException("Timed out waiting for AI service capacity",
+                HttpStatus.SERVICE_UNAVAILABLE, Duration.ofSeconds(7))));
+
+        assertEquals(List.of(
+                "event:done", "data:{\"status\":\"failed\",\"message\":\"Timed out waiting for AI service capacity\"}"),
+                withoutHeartbeats(stream()));
+    }
+
+    @Test
+    void clampsPreferWaitToTheConfiguredDeadline() throws Exception {
+        recommend("wait=9999999999").andExpect(header().string("Preference-Applied", "wait=20"));
+        assertDeadline(Duration.ofSeconds(20));
+
+        recommend("wait=99999999999999999999999").andExpect(header().string("Preference-Applied", "wait=20"));
+        assertDeadline(Duration.ofSeconds(20));
+
+        recommend("respond-async, wait=5").andExpect(header().string("Preference-Applied", "wait=5"));
+        assertDeadline(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void raisesPreferWaitOfZeroToOneSecond() throws Exception {
+        recommend("wait=0").andExpect(header().string("Preference-Applied", "wait=1"));
+        assertDeadline(Duration.ofSeconds(1));
+    }
+
+    @Test
+    void usesTheConfiguredDeadlineWithoutPreference() throws Exception {
+        recommend(null).andExpect(header().doesNotExist("Preference-Applied"));
+        assertDeadline(Duration.ofSeconds(20));
+    }
+
+    private ResultActions recommend(String prefer) throws Exception {
+        MockHttpServletRequestBuilder request = post("/ollama/getRecommendation")
+                .header("Authorization", "Bearer token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"frequency\":3,\"lvlOfTraining\":\"BEGINNER\"}");
+        if (prefer != null) {
+            request.header("Prefer", prefer);
+        }
+        return mvc.perform(request).andExpect(status().isOk());
+    }
+
+    private List<String> stream() throws Exception {
+        MvcResult started = mvc.perform(post("/ollama/conversation/stream")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .accept(MediaType.TEXT_EVENT_STREAM)
+                        .content(QUESTION))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        started.getAsyncResult(5_000);
+
+        String body = mvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn()
+                .getResponse()
+                .getContentAsString();
+        return body.lines().filter(line -> !line.isBlank()).toList();
+    }
+
+    private static List<String> withoutHeartbeats(List<String> events) {
+        return events.stream().filter(line -> !line.equals(":heartbeat")).toList();
+    }
+
+    private void streams(Flux<String> tokens) {
+        when(ollamaService.streamGeneralAnswer(any(Question.class))).thenReturn(tokens);
+    }
+
+    private void assertDeadline(Duration expected) {
+        ArgumentCaptor<Duration> deadline = ArgumentCaptor.forClass(Duration.class);
+        verify(ollamaService, atLeastOnce())
+                .getStructuredAnswer(any(PreferencesDto.class), anyString(), deadline.capture());
+        assertEquals(expected, deadline.getValue());
+    }
+}
@@ -0,0 +1,162 @@
+package com.muscledia.muscledia_ai_service.controller;
+
+import com.muscledia.muscledia_ai_service.config.RecommendationJobProperties;
+import com.muscledia.muscledia_ai_service.dto.PreferencesDto;
+import com.muscledia.muscledia_ai_service.dto.UserData;
+import com.muscledia.muscledia_ai_service.exception.OllamaException.OllamaException;
+import com.muscledia.muscledia_ai_service.exception.UnauthorizedException;
+import com.muscledia.muscledia_ai_service.exception.UserServiceException;
+import com.muscledia.muscledia_ai_service.service.AuthenticationService;
+import com.muscledia.muscledia_ai_service.service.OllamaService;
+import com.muscledia.muscledia_ai_service.service.RecommendationJob;
+import com.muscledia.muscledia_ai_service.service.RecommendationJobService;
+import com.muscledia.muscledia_ai_service.service.UserDataMapper;
+import com.muscledia.muscledia_ai_service.service.UserServiceClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static com.muscledia.muscledia_ai_service.TestFixtures.profile;
+import static com.muscledia.muscledia_ai_service.TestFixtures.recommendation;
+import static org.hamcrest.Matchers.startsWith;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class RecommendationJobControllerTest {
+
+    private static final String PREFERENCES = "{\"frequency\":3,\"lvlOfTraining\":\"BEGINNER\"}";
+
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(4));
+    private final UserServiceClient userServiceClient = mock(UserServiceClient.class);
+    private final OllamaService ollamaService = mock(OllamaService.class);
+    private final RecommendationJobService jobService = new RecommendationJobService(ollamaService,
+            userServiceClient, new UserDataMapper(), executor, new RecommendationJobProperties(),
+            new SimpleMeterRegistry());
+    private final MockMvc mvc = MockMvcBuilders
+            .standaloneSetup(new RecommendationJobController(jobService, new FixedUserAuthentication(),
+                    new RecommendationJobProperties()))
+            .build();
+
+    @BeforeEach
+    void stub() {
+        when(userServiceClient.getUserData("token")).thenReturn(profile(7L));
+        when(ollamaService.getStructuredAnswer(any(UserData.class), any(PreferencesDto.class)))
+                .thenAnswer(invocation -> recommendation("For " + invocation.<UserData>getArgument(0).userId()));
+    }
+
+    @AfterEach
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void queuesJobAndServesItsResult() throws Exception {
+        RecommendationJob job = submitJob();
+        job.result().get(5, TimeUnit.SECONDS);
+
+        mvc.perform(get("/ollama/recommendations/" + job.getJobId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"))
+                .andExpect(jsonPath("$.result.description").value("For 7"))
+                .andExpect(jsonPath("$.error").doesNotExist());
+    }
+
+    @Test
+    void failedJobExposesOnlyTheStableMessage() throws Exception {
+        when(ollamaService.getStructuredAnswer(any(UserData.class), any(PreferencesDto.class)))
+                .thenThrow(new OllamaException("Connection refused: ollama-2.internal:11434"));
+
+        RecommendationJob job = submitJob();
+        assertThrows(Exception.class, () -> job.result().get(5, TimeUnit.SECONDS));
+
+        mvc.perform(get("/ollama/recommendations/" + job.getJobId()))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("FAILED"))
+                .andExpect(jsonPath("$.error").value("Failed to generate recommendation"));
+    }
+
+    @Test
+    void rejectsSubmitWhenUserServiceRejectsTheToken() throws Exception {
+        when(userServiceClient.getUserData("token"))
+                .thenThrow(new UnauthorizedException("Unauthorized: Invalid or expired JWT token"));
+
+        mvc.perform(submit())
+                .andExpect(status().isUnauthorized())
+                .andExpect(status().reason("Invalid or expired JWT token"));
+        assertEquals(0, executor.getTaskCount());
+    }
+
+    @Test
+    void rejectsSubmitWhenUserDataCannotBeFetched() throws Exception {
+        when(userServiceClient.getUserData("token"))
+                .thenThrow(new UserServiceException("Failed to retrieve user data: Connection refused"));
+
+        mvc.perform(submit())
+                .andExpect(status().isBadGateway())
+                .andExpect(status().reason("Failed to retrieve user data"));
+        assertEquals(0, executor.getTaskCount());
+    }
+
+    @Test
+    void unexpectedSubmitFailuresAreServerErrors() throws Exception {
+        when(userServiceClient.getUserData("token")).thenThrow(new IllegalStateException("mapper bug"));
+
+        mvc.perform(submit())
+                .andExpect(status().isInternalServerError())
+                .andExpect(status().reason("Failed to queue recommendation job"));
+    }
+
+    @Test
+    void requiresBearerTokenAndHidesUnknownJobs() throws Exception {
+        mvc.perform(post("/ollama/recommendations")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(PREFERENCES))
+                .andExpect(status().isUnauthorized());
+
+        mvc.perform(get("/ollama/recommendations/missing"))
+                .andExpect(status().isNotFound());
+    }
+
+    private RecommendationJob submitJob() throws Exception {
+        String location = mvc.perform(submit())
+                .andExpect(status().isAccepted())
+                .andExpect(header().string("Location", startsWith("http://localhost/ollama/recommendations/")))
+                .andExpect(jsonPath("$.status").exists())
+                .andReturn()
+                .getResponse()
+                .getHeader("Location");
+        String jobId = location.substring(location.lastIndexOf('/') + 1);
+        return jobService.find(jobId, 7L).orElseThrow();
+    }
+
+    private static RequestBuilder submit() {
+        return post("/ollama/recommendations")
+                .header("Authorization", "Bearer token")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(PREFERENCES);
+    }
+
+    private static class FixedUserAuthentication extends AuthenticationService {
+        @Override
+        public Long getCurrentUserId() {
+            return 7L;
+        }
+    }
+}
@@ -0,0 +1,65 @@
+package com.muscledia.muscledia_ai_service.controller;
+
+import com.muscledia.muscledia_ai_service.util.ServerTiming;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.Matchers.containsString;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ServerTimingAdviceTest {
+
+    private static final String TIMING_ALLOW_ORIGIN = "Timing-Allow-Origin";
+
+    private final MockMvc mvc = MockMvcBuilders
+            .standaloneSetup(new TimedController())
+            .setControllerAdvice(new ServerTimingAdvice(corsConfigurationSource()))
+            .addFilters(new ServerTimingFilter())
+            .build();
+
+    @Test
+    void allowsTimingOnlyForCorsOrigins() throws Exception {
+        mvc.perform(get("/timed").header(HttpHeaders.ORIGIN, "http://localhost:3000"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(ServerTiming.HEADER, containsString("total;dur=")))
+                .andExpect(header().string(TIMING_ALLOW_ORIGIN, "http://localhost:3000"));
+
+        mvc.perform(get("/timed").header(HttpHeaders.ORIGIN, "https://elsewhere.example"))
+                .andExpect(header().string(ServerTiming.HEADER, containsString("total;dur=")))
+                .andExpect(header().doesNotExist(TIMING_ALLOW_ORIGIN));
+    }
+
+    @Test
+    void sameOriginRequestsGetNoTimingAllowOrigin() throws Exception {
+        mvc.perform(get("/timed"))
+                .andExpect(header().exists(ServerTiming.HEADER))
+                .andExpect(header().doesNotExist(TIMING_ALLOW_ORIGIN));
+    }
+
+    private static UrlBasedCorsConfigurationSource corsConfigurationSource() {
+        CorsConfiguration configuration = new CorsConfiguration();
+        configuration.setAllowedOrigins(List.of("http://localhost:3000"));
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", configuration);
+        return source;
+    }
+
+    @RestController
+    static class TimedController {
+        @GetMapping("/timed")
+        Map<String, String> timed() {
+            return Map.of("status", "ok");
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.muscledia.muscledia_ai_service.model;
+
+import com.muscledia.muscledia_ai_service.dto.PreferencesDto;
+import com.muscledia.muscledia_ai_service.dto.UserData;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProfileBucketTest {
+
+    private static final PreferencesDto PREFERENCES = PreferencesDto.of(3, "beginner", " dumbbells ");
+
+    @Test
+    void floorsAgeToFiveYearBands() {
+        assertEquals(25, bucket(180, 80, 25).ageBand());
+        assertEquals(25, bucket(180, 80, 29).ageBand());
+        assertEquals(30, bucket(180, 80, 30).ageBand());
+        assertEquals(bucket(180, 80, 25), bucket(180, 80, 29));
+        assertNotEquals(bucket(180, 80, 29), bucket(180, 80, 30));
+    }
+
+    @Test
+    void floorsBmiToBandsOfTwoAndAHalf() {
+        // 100 cm: BMI equals the weight
+        assertEquals(22.5, bucket(100, 22.5, 30).bmiBand());
+        assertEquals(22.5, bucket(100, 24.99, 30).bmiBand());
+        assertEquals(25.0, bucket(100, 25.0, 30).bmiBand());
+        assertNotEquals(bucket(100, 24.99, 30), bucket(100, 25.0, 30));
+    }
+
+    @Test
+    void normalizesTextValuesAndKeepsPreferences() {
+        ProfileBucket bucket = ProfileBucket.of(
+                new UserData("1", 180, 80, " build_muscle", "male ", 30), PREFERENCES);
+
+        assertEquals("MALE", bucket.gender());
+        assertEquals("BUILD_MUSCLE", bucket.goalType());
+        assertEquals("BEGINNER", bucket.level());
+        assertEquals("DUMBBELLS", bucket.equipment());
+        assertEquals(3, bucket.frequency());
+        assertEquals("", ProfileBucket.of(new UserData("1", 180, 80, "X", "M", 30),
+                PreferencesDto.of(3, "BEGINNER")).equipment());
+        assertThrows(IllegalArgumentException.class, () -> ProfileBucket.of(null, PREFERENCES));
+    }
+
+    private static ProfileBucket bucket(double heightCm, double weightKg, int age) {
+        return ProfileBucket.of(new UserData("1", heightCm, weightKg, "BUILD_MUSCLE", "MALE", age), PREFERENCES);
+    }
+}
@@ -0,0 +1,92 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.muscledia.muscledia_ai_service.config.OllamaLimiterProperties;
+import com.muscledia.muscledia_ai_service.exception.OllamaException.OllamaOverloadedException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdaptiveConcurrencyLimiterTest {
+
+    private AdaptiveConcurrencyLimiter limiter(int initialLimit, int maxQueueSize, Duration maxQueueTime) {
+        OllamaLimiterProperties properties = new OllamaLimiterProperties();
+        properties.setInitialLimit(initialLimit);
+        properties.setMaxQueueSize(maxQueueSize);
+        properties.setMaxQueueTime(maxQueueTime);
+        return new AdaptiveConcurrencyLimiter(properties, new SimpleMeterRegistry());
+    }
+
+    @Test
+    void shedsWith429WhenQueueIsFull() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 0, Duration.ofSeconds(1));
+        limiter.acquire();
+
+        OllamaOverloadedException e = assertThrows(OllamaOverloadedException.class, limiter::acquire);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, e.getStatus());
+    }
+
+    @Test
+    void shedsWith503WhenQueueTimeExpires() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 5, Duration.ofMillis(50));
+        limiter.acquire();
+
+        OllamaOverloadedException e = assertThrows(OllamaOverloadedException.class, limiter::acquire);
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, e.getStatus());
+        assertEquals(0, limiter.getQueueSize());
+    }
+
+    @Test
+    void checkCapacityShedsFullQueueWithoutTakingASlot() {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 0, Duration.ofSeconds(1));
+
+        limiter.checkCapacity();
+        assertEquals(0, limiter.getInFlight());
+
+        AdaptiveConcurrencyLimiter.Permit permit = limiter.acquire();
+        OllamaOverloadedException e = assertThrows(OllamaOverloadedException.class, limiter::checkCapacity);
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, e.getStatus());
+        assertEquals(1, limiter.getInFlight());
+
+        permit.release(true);
+        limiter.checkCapacity();
+    }
+
+    @Test
+    void queuedCallerGetsSlotOnRelease() throws Exception {
+        AdaptiveConcurrencyLimiter limiter = limiter(1, 5, Duration.ofSeconds(5));
+        AdaptiveConcurrencyLimiter.Permit first = limiter.acquire();
+
+        CountDownLatch started = new CountDownLatch(1);
+        CompletableFuture<AdaptiveConcurrencyLimiter.Permit> second = CompletableFuture.supplyAsync(() -> {
+            started.countDown();
+            return limiter.acquire();
+        });
+        started.await();
+        while (limiter.getQueueSize() == 0 && !second.isDone()) {
+            Thread.onSpinWait();
+        }
+
+        first.release(true);
+        assertNotNull(second.get(5, TimeUnit.SECONDS));
+        assertEquals(1, limiter.getInFlight());
+    }
+
+    @Test
+    void failuresBackOffTheLimit() {
+        AdaptiveConcurrencyLimiter limiter = limiter(4, 5, Duration.ofSeconds(1));
+
+        for (int i = 0; i < 10; i++) {
+            limiter.acquire().release(false);
+        }
+
+        assertEquals(1, limiter.getLimit());
+        assertEquals(0, limiter.getInFlight());
+    }
+}
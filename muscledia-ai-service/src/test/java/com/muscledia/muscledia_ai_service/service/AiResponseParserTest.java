@@ -0,0 +1,103 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.muscledia.muscledia_ai_service.exception.OllamaException.OllamaResponseParseException;
+import com.muscledia.muscledia_ai_service.model.WorkoutRecommendation;
+import com.muscledia.muscledia_ai_service.util.JsonObjectExtractor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AiResponseParserTest {
+
+    private static final String JSON = """
+            {"suggestedWorkoutRoutine":"Full Body {Beginner}","routineId":"r1",\
+            "description":"Says \\"hi\\" and } closes nothing","difficultyLevel":"BEGINNER",\
+            "workoutSplit":"FULL_BODY"}""";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AiResponseParser parser = new AiResponseParser(new ObjectMapper(), meterRegistry);
+
+    @Test
+    void extractsFirstObjectTrackingDepthStringsAndEscapes() {
+        String nested = "{\"a\":{\"b\":{\"c\":{\"d\":\"}\"}}}}";
+
+        assertEquals(nested, JsonObjectExtractor.extract("Sure! ```json\n" + nested + "\n``` Hope that helps {"));
+        assertEquals(JSON, JsonObjectExtractor.extract(JSON + " trailing {\"x\":1}"));
+        assertNull(JsonObjectExtractor.extract("{\"a\": \"unterminated}"));
+        assertNull(JsonObjectExtractor.extract("no json here"));
+    }
+
+    @Test
+    void parsesWholeResponseWrappedInMarkdown() {
+        WorkoutRecommendation recommendation = parser.parseRecommendation("```json\n" + JSON + "\n```");
+
+        assertEquals("Full Body {Beginner}", recommendation.suggestedWorkoutRoutine());
+        assertEquals("Says \"hi\" and } closes nothing", recommendation.description());
+    }
+
+    @Test
+    void stopsConsumingTheStreamOnceTheObjectCloses() {
+        List<String> tokens = new ArrayList<>();
+        for (int i = 0; i < JSON.length(); i += 7) {
+            tokens.add(JSON.substring(i, Math.min(JSON.length(), i + 7)));
+        }
+        tokens.add("\n\nThis routine is great because");
+        tokens.add(" it covers every muscle group...");
+
+        AtomicInteger emitted = new AtomicInteger();
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Flux<String> stream = Flux.concat(Flux.just("Here you go: "), Flux.fromIterable(tokens))
+                .doOnNext(token -> emitted.incrementAndGet())
+                .doOnCancel(() -> cancelled.set(true));
+
+        WorkoutRecommendation recommendation = parser.parseRecommendation(stream);
+
+        assertEquals("r1", recommendation.routineId());
+        assertTrue(cancelled.get());
+        assertEquals(tokens.size() - 1, emitted.get());
+    }
+
+    @Test
+    void readsTrailingChunksPastTheObjectWithoutParsingThem() {
+        AtomicInteger emitted = new AtomicInteger();
+        Flux<String> stream = Flux.just(JSON.substring(0, 40), JSON.substring(40), "", "{\"late\":1}", "never read")
+                .doOnNext(token -> emitted.incrementAndGet());
+
+        AiResponseParser.StreamedResponse response = parser.collect(stream, 2);
+
+        assertEquals(4, emitted.get());
+        assertEquals(JSON, response.raw().toString());
+        assertEquals("r1", parser.parseRecommendation(response).routineId());
+    }
+
+    @Test
+    void repairsOutputCutOffInsideTheLastValue() {
+        String truncated = JSON.substring(0, JSON.indexOf("and }"));
+
+        WorkoutRecommendation recommendation = parser.parseRecommendation(Flux.just(truncated));
+
+        assertEquals("Says \"hi\" ", recommendation.description());
+        assertEquals(1.0, outcome("repaired"));
+    }
+
+    @Test
+    void countsUnrepairableOutputAsFailure() {
+        assertThrows(OllamaResponseParseException.class,
+                () -> parser.parseRecommendation(Flux.just("{\"suggestedWorkoutRoutine\":", " ")));
+        assertThrows(OllamaResponseParseException.class, () -> parser.parseRecommendation("no json"));
+        assertEquals(2.0, outcome("failure"));
+        assertEquals(0.0, outcome("success"));
+    }
+
+    private double outcome(String outcome) {
+        return meterRegistry.get("recommendation.parse").tag("outcome", outcome).counter().count();
+    }
+}
@@ -0,0 +1,92 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.muscledia.muscledia_ai_service.config.AnswerCacheProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.unit.DataSize;
+
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AnswerCacheTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void servesExactAndNearDuplicateQuestionsFromCache() {
+        AnswerCache cache = new AnswerCache(new AnswerCacheProperties(), meterRegistry);
+        AtomicInteger modelCalls = new AtomicInteger();
+
+        cache.getOrAnswer("How many sets for hypertrophy?", () -> "answer-" + modelCalls.incrementAndGet());
+
+        assertEquals("answer-1", cache.getOrAnswer("  how many SETS for hypertrophy ", () -> "unused"));
+        assertEquals(Optional.of("answer-1"), cache.get("How many sets should I do for hypertrophy?"));
+        assertEquals(Optional.of("answer-1"), cache.get("how many set for hypertrophy"));
+        assertEquals(1, modelCalls.get());
+        assertEquals(1.0, requests("exact"));
+        assertEquals(2.0, requests("near"));
+    }
+
+    @Test
+    void keepsQuestionsThatDifferInAKeyWordApart() {
+        AnswerCache cache = new AnswerCache(new AnswerCacheProperties(), meterRegistry);
+        cache.put("How many sets for hypertrophy?", "sets answer");
+
+        assertTrue(cache.get("How many reps for hypertrophy?").isEmpty());
+        assertTrue(cache.get("How many sets for fat loss?").isEmpty());
+        assertTrue(cache.get("How are you?").isEmpty());
+        assertEquals(3.0, requests("miss"));
+    }
+
+    @Test
+    void evictsToStayWithinTheMemoryCapAndUnindexesEvicted() {
+        AnswerCacheProperties properties = new AnswerCacheProperties();
+        properties.setMaxMemory(DataSize.ofKilobytes(4));
+        AnswerCache cache = new AnswerCache(properties, meterRegistry);
+        String answer = "x".repeat(500);
+
+        for (int i = 0; i < 50; i++) {
+            cache.put("question number " + i + " about squat depth", answer);
+        }
+        cache.get("warm up");
+
+        assertTrue(cache.size() < 5, "size " + cache.size());
+        assertTrue(meterRegistry.get("conversation.cache.memory").gauge().value() <= 4096);
+        cache.invalidateAll();
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void bandIndexShrinksWithEvictions() {
+        AnswerCacheProperties properties = new AnswerCacheProperties();
+        properties.setMaxMemory(DataSize.ofKilobytes(4));
+        AnswerCache cache = new AnswerCache(properties, meterRegistry);
+
+        for (int i = 0; i < 200; i++) {
+            cache.put("question number " + i + " about squat depth", "x".repeat(500));
+        }
+
+        assertTrue(cache.size() < 5, "size " + cache.size());
+        assertEquals(cache.size() * properties.getLshBands(), cache.indexedBandEntries());
+        // Too large for the cap on its own: evicted by its own put
+        cache.put("one oversized answer about deadlift", "x".repeat(8192));
+        assertTrue(cache.get("one oversized answer about deadlift").isEmpty());
+        assertEquals(cache.size() * properties.getLshBands(), cache.indexedBandEntries());
+
+        cache.invalidateAll();
+        assertEquals(0, cache.indexedBandEntries());
+    }
+
+    @Test
+    void normalizesCaseWhitespaceAndPunctuation() {
+        assertEquals("whats a good split", AnswerCache.normalize("  What's a GOOD split?!"));
+        assertEquals(Set.of("good", "split"), AnswerCache.terms("whats a good split"));
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("conversation.cache.requests").tag("result", result).counter().count();
+    }
+}
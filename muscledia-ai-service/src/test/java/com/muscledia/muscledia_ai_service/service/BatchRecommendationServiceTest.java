@@ -0,0 +1,241 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.muscledia.muscledia_ai_service.config.BatchRecommendationProperties;
+import com.muscledia.muscledia_ai_service.dto.BatchRecommendationRequest.Item;
+import com.muscledia.muscledia_ai_service.dto.BatchRecommendationResult;
+import com.muscledia.muscledia_ai_service.dto.PreferencesDto;
+import com.muscledia.muscledia_ai_service.dto.UserData;
+import com.muscledia.muscledia_ai_service.exception.OllamaException.OllamaException;
+import com.muscledia.muscledia_ai_service.model.ProfileBucket;
+import com.muscledia.muscledia_ai_service.model.WorkoutRecommendation;
+import com.muscledia.muscledia_ai_service.util.SingleFlight;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.muscledia.muscledia_ai_service.TestFixtures.profile;
+import static com.muscledia.muscledia_ai_service.TestFixtures.recommendation;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class BatchRecommendationServiceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Generations generations = new Generations();
+    private final ConcurrentHashMap<Long, Integer> fetches = new ConcurrentHashMap<>();
+    private final OllamaService ollamaService = mock(OllamaService.class);
+    private final UserServiceClient userServiceClient = mock(UserServiceClient.class);
+    private BatchRecommendationService service;
+
+    @BeforeEach
+    void stub() {
+        when(ollamaService.getStructuredAnswer(any(UserData.class), any(PreferencesDto.class)))
+                .thenAnswer(invocation -> generations.execute(invocation.getArgument(0), invocation.getArgument(1)));
+        when(userServiceClient.getUserDataById(anyLong(), anyString())).thenAnswer(invocation -> {
+            Long userId = invocation.getArgument(0);
+            return Mono.fromCallable(() -> {
+                fetches.merge(userId, 1, Integer::sum);
+                if (userId == 404L) {
+                    throw new RuntimeException("User not found");
+                }
+                return profile(userId);
+            });
+        });
+    }
+
+    @AfterEach
+    void stop() {
+        if (service != null) {
+            service.stop();
+        }
+    }
+
+    @Test
+    void fetchesEachUserOnceAndGeneratesEachBucketOnce() {
+        service = service(4);
+        List<Item> items = List.of(
+                new Item(1L, PreferencesDto.of(3, "BEGINNER"), null),
+                new Item(1L, PreferencesDto.of(3, "BEGINNER"), null),
+                new Item(2L, PreferencesDto.of(3, "BEGINNER"), null),
+                new Item(3L, PreferencesDto.of(5, "ADVANCED"), profile(3L)));
+
+        List<BatchRecommendationResult> results = run(items);
+
+        assertEquals(List.of(0, 1, 2, 3), results.stream().map(BatchRecommendationResult::index).toList());
+        assertTrue(results.stream().allMatch(r -> BatchRecommendationResult.COMPLETED.equals(r.status())));
+        assertEquals(Integer.valueOf(1), fetches.get(1L));
+        assertEquals(Integer.valueOf(1), fetches.get(2L));
+        assertNull(fetches.get(3L));
+        // Users 1 and 2 share a profile bucket
+        assertEquals(2, generations.count.get());
+        assertEquals(4.0, meterRegistry.get("recommendation.batch.items").tag("status", "COMPLETED").counter().count());
+    }
+
+    @Test
+    void reportsFailuresPerItem() {
+        service = service(2);
+        generations.failFrequency = 4;
+        List<Item> items = List.of(
+                new Item(null, PreferencesDto.of(3, "BEGINNER"), null),
+                new Item(1L, new PreferencesDto(0, "BEGINNER", null), null),
+                new Item(404L, PreferencesDto.of(3, "BEGINNER"), null),
+                new Item(2L, PreferencesDto.of(4, "BEGINNER"), null),
+                new Item(3L, PreferencesDto.of(3, "BEGINNER"), profile(9L)),
+                new Item(4L, PreferencesDto.of(3, "BEGINNER"), null));
+
+        List<BatchRecommendationResult> results = run(items);
+
+        assertEquals(6, results.size());
+        assertEquals("userId is required", results.get(0).error());
+        assertEquals("Frequency must be positive", results.get(1).error());
+        assertEquals("User not found", results.get(2).error());
+        assertEquals("Model unavailable", results.get(3).error());
+        assertEquals("userData.userId does not match userId", results.get(4).error());
+        assertEquals(BatchRecommendationResult.COMPLETED, results.get(5).status());
+        assertNotNull(results.get(5).result());
+        assertEquals(5.0, meterRegistry.get("recommendation.batch.items").tag("status", "FAILED").counter().count());
+    }
+
+    @Test
+    void capsConcurrentGenerations() {
+        service = service(2);
+        generations.delay = Duration.ofMillis(50);
+        List<Item> items = new ArrayList<>();
+        for (int frequency = 1; frequency <= 8; frequency++) {
+            items.add(new Item((long) frequency, PreferencesDto.of(frequency, "BEGINNER"), profile((long) frequency)));
+        }
+
+        List<BatchRecommendationResult> results = run(items);
+
+        assertEquals(8, results.size());
+        assertEquals(8, generations.count.get());
+        assertEquals(2, generations.maxConcurrent.get());
+    }
+
+    @Test
+    void cancellingTheBatchStopsQueuedGenerations() throws Exception {
+        service = service(1);
+        generations.delay = Duration.ofMillis(50);
+        List<Item> items = new ArrayList<>();
+        for (int frequency = 1; frequency <= 8; frequency++) {
+            items.add(new Item((long) frequency, PreferencesDto.of(frequency, "BEGINNER"), profile((long) frequency)));
+        }
+
+        // take(1) cancels the batch as soon as the first item is done
+        List<BatchRecommendationResult> first = service.recommend(items, "token")
+                .take(1)
+                .collectList()
+                .block(Duration.ofSeconds(10));
+        int generated = generations.count.get();
+        Thread.sleep(300);
+
+        assertEquals(1, first.size());
+        assertEquals(1, generated);
+        assertEquals(generated, generations.count.get());
+    }
+
+    @Test
+    void cancellingTheBatchDoesNotFailCallersSharingItsGeneration() throws Exception {
+        service = service(1);
+        generations.delay = Duration.ofMillis(300);
+        PreferencesDto preferences = PreferencesDto.of(3, "BEGINNER");
+        Disposable batch = service.recommend(List.of(new Item(1L, preferences, profile(1L))), "token").subscribe();
+        while (generations.concurrent.get() == 0) {
+            Thread.sleep(5);
+        }
+
+        // An interactive request for the same profile bucket joins the batch's generation
+        CompletableFuture<WorkoutRecommendation> interactive = CompletableFuture.supplyAsync(() ->
+                ollamaService.getStructuredAnswer(new UserDataMapper().toDomain(profile(1L)), preferences));
+        while (generations.joined() == 0) {
+            Thread.sleep(5);
+        }
+        batch.dispose();
+
+        assertEquals("For 1", interactive.get(5, TimeUnit.SECONDS).description());
+        assertEquals(1, generations.count.get());
+    }
+
+    @Test
+    void rejectsEmptyAndOversizedBatches() {
+        BatchRecommendationProperties properties = new BatchRecommendationProperties();
+        properties.setMaxItems(1);
+        service = new BatchRecommendationService(ollamaService, userServiceClient, new UserDataMapper(),
+                properties, meterRegistry);
+        Item item = new Item(1L, PreferencesDto.of(3, "BEGINNER"), null);
+
+        assertThrows(IllegalArgumentException.class, () -> service.recommend(List.of(), "token"));
+        assertThrows(IllegalArgumentException.class, () -> service.recommend(List.of(item, item), "token"));
+    }
+
+    private List<BatchRecommendationResult> run(List<Item> items) {
+        List<BatchRecommendationResult> results = service.recommend(items, "token")
+                .collectList()
+                .block(Duration.ofSeconds(10));
+        assertNotNull(results);
+        return results.stream().sorted(Comparator.comparingInt(BatchRecommendationResult::index)).toList();
+    }
+
+    private BatchRecommendationService service(int generationParallelism) {
+        BatchRecommendationProperties properties = new BatchRecommendationProperties();
+        properties.setGenerationParallelism(generationParallelism);
+        return new BatchRecommendationService(ollamaService, userServiceClient, new UserDataMapper(),
+                properties, meterRegistry);
+    }
+
+    /**
+     * Shares generations per profile bucket, as OllamaServiceImpl does across batches,
+     * interactive requests and jobs
+     */
+    private static class Generations {
+        final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        final SingleFlight<ProfileBucket, WorkoutRecommendation> inFlight =
+                new SingleFlight<>("generation", meterRegistry);
+        final AtomicInteger count = new AtomicInteger();
+        final AtomicInteger concurrent = new AtomicInteger();
+        final AtomicInteger maxConcurrent = new AtomicInteger();
+        volatile int failFrequency = -1;
+        volatile Duration delay = Duration.ZERO;
+
+        WorkoutRecommendation execute(UserData userData, PreferencesDto preferences) {
+            return inFlight.execute(ProfileBucket.of(userData, preferences), () -> generate(userData, preferences));
+        }
+
+        double joined() {
+            return meterRegistry.get("singleflight.coalesced").counter().count();
+        }
+
+        private WorkoutRecommendation generate(UserData userData, PreferencesDto preferences) {
+            count.incrementAndGet();
+            maxConcurrent.accumulateAndGet(concurrent.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(delay.toMillis());
+                if (preferences.frequency() == failFrequency) {
+                    throw new OllamaException("Model unavailable");
+                }
+                return recommendation("Full Body " + preferences.frequency(), "For " + userData.userId());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new OllamaException("Interrupted", e);
+            } finally {
+                concurrent.decrementAndGet();
+            }
+        }
+    }
+}
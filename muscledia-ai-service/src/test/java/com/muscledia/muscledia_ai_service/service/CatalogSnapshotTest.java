@@ -0,0 +1,153 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.muscledia.muscledia_ai_service.config.CatalogSnapshotProperties;
+import com.muscledia.muscledia_ai_service.config.WorkoutPlanCatalogProperties;
+import com.muscledia.muscledia_ai_service.model.WorkoutPlan;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.lang.management.ManagementFactory;
+import java.nio.ByteBuffer;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Snapshot round trip against the JSON catalogs, staleness fallback, and bytes
+ * allocated on the way to a ready catalog for the JSON and snapshot paths
+ */
+class CatalogSnapshotTest {
+
+    private static final Path DATA = Path.of("src/main/resources/data");
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @TempDir
+    Path directory;
+    private Path snapshotFile;
+
+    @BeforeEach
+    void writeSnapshot() throws Exception {
+        snapshotFile = directory.resolve("catalog.snapshot");
+        CatalogSnapshotWriter.write(DATA, snapshotFile, objectMapper);
+    }
+
+    @Test
+    void snapshotMatchesTheJsonCatalogs() throws Exception {
+        CatalogSnapshot snapshot = CatalogSnapshot.open(snapshotFile);
+        RoutineCatalog routines = new RoutineCatalog(new ResourceLoaderService(), objectMapper);
+        WorkoutPlanCatalog plans = jsonPlans();
+
+        assertEquals(routines.all(), snapshot.routines());
+        assertEquals(List.copyOf(plans.ids()), List.copyOf(snapshot.planIds()));
+        for (String id : plans.ids()) {
+            assertEquals(plans.findById(id).orElseThrow(), snapshot.plan(id).orElseThrow());
+        }
+        assertTrue(snapshot.plan("missing").isEmpty());
+        assertTrue(snapshot.sizeBytes() < Files.size(DATA.resolve(CatalogSnapshotWriter.PLANS_FILENAME)));
+    }
+
+    @Test
+    void catalogsReadTheSnapshotWhenPresent() {
+        CatalogSnapshotLoader loader = loader(snapshotFile);
+        RoutineCatalog routines = new RoutineCatalog(new ResourceLoaderService(), objectMapper, loader);
+        WorkoutPlanCatalog plans = snapshotPlans(loader);
+
+        assertTrue(loader.snapshot().isPresent());
+        assertEquals(new RoutineCatalog(new ResourceLoaderService(), objectMapper).rawJson(), routines.rawJson());
+        assertEquals(routines.all().getFirst().workoutPlanIds(),
+                plans.findAll(routines.all().getFirst().workoutPlanIds()).stream().map(WorkoutPlan::id).toList());
+    }
+
+    @Test
+    void fallsBackToJsonWhenSnapshotIsMissingOrFromAnotherVersion() throws Exception {
+        assertTrue(loader(directory.resolve("missing.snapshot")).snapshot().isEmpty());
+
+        byte[] bytes = Files.readAllBytes(snapshotFile);
+        ByteBuffer.wrap(bytes).putInt(4, CatalogSnapshot.VERSION + 1);
+        Path other = Files.write(directory.resolve("other.snapshot"), bytes);
+
+        assertThrows(IllegalStateException.class, () -> CatalogSnapshot.open(other));
+        assertTrue(loader(other).snapshot().isEmpty());
+    }
+
+    @Test
+    void fallsBackToJsonWhenSnapshotIsStale() throws Exception {
+        Path data = Files.createDirectories(directory.resolve("data"));
+        Files.copy(DATA.resolve(CatalogSnapshotWriter.ROUTINES_FILENAME),
+                data.resolve(CatalogSnapshotWriter.ROUTINES_FILENAME));
+        String plans = Files.readString(DATA.resolve(CatalogSnapshotWriter.PLANS_FILENAME));
+        // Same size, different content: only the checksum tells them apart
+        Files.writeString(data.resolve(CatalogSnapshotWriter.PLANS_FILENAME), plans.replaceFirst("\\d", "0"));
+        Path stale = directory.resolve("stale.snapshot");
+        CatalogSnapshotWriter.write(data, stale, objectMapper);
+
+        assertNotEquals(CatalogSnapshot.open(snapshotFile).source(CatalogSnapshot.PLANS_SOURCE),
+                CatalogSnapshot.open(stale).source(CatalogSnapshot.PLANS_SOURCE));
+        assertEquals(CatalogSnapshot.open(snapshotFile).source(CatalogSnapshot.ROUTINES_SOURCE),
+                CatalogSnapshot.open(stale).source(CatalogSnapshot.ROUTINES_SOURCE));
+        assertTrue(loader(stale).snapshot().isEmpty());
+    }
+
+    @Test
+    void explicitPlansLocationTurnsTheSnapshotOff() {
+        WorkoutPlanCatalogProperties planProperties = new WorkoutPlanCatalogProperties();
+        planProperties.setLocation(DATA.resolve(CatalogSnapshotWriter.PLANS_FILENAME).toUri().toString());
+
+        assertTrue(loader(snapshotFile, planProperties).snapshot().isEmpty());
+    }
+
+    @Test
+    void snapshotAllocatesLessThanParsingTheJson() {
+        long json = allocatedBytes(() -> List.of(
+                new RoutineCatalog(new ResourceLoaderService(), objectMapper), jsonPlans()));
+        long snapshot = allocatedBytes(() -> {
+            CatalogSnapshotLoader loader = loader(snapshotFile);
+            return List.of(new RoutineCatalog(new ResourceLoaderService(), objectMapper, loader), snapshotPlans(loader));
+        });
+
+        assertTrue(snapshot < json, "snapshot " + snapshot + " bytes, json " + json + " bytes");
+    }
+
+    /**
+     * Bytes allocated by the last of a few runs, once warm
+     */
+    private static long allocatedBytes(Supplier<List<Object>> catalogs) {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        long allocated = 0;
+        for (int run = 0; run < 5; run++) {
+            long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+            List<Object> ready = catalogs.get();
+            allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+            assertEquals(2, ready.size());
+        }
+        return allocated;
+    }
+
+    private WorkoutPlanCatalog jsonPlans() {
+        return new WorkoutPlanCatalog(
+                new WorkoutPlanCatalogProperties(), new DefaultResourceLoader(), objectMapper, new SimpleMeterRegistry());
+    }
+
+    private WorkoutPlanCatalog snapshotPlans(CatalogSnapshotLoader loader) {
+        return new WorkoutPlanCatalog(new WorkoutPlanCatalogProperties(), new DefaultResourceLoader(),
+                objectMapper, new SimpleMeterRegistry(), loader);
+    }
+
+    private static CatalogSnapshotLoader loader(Path file) {
+        return loader(file, new WorkoutPlanCatalogProperties());
+    }
+
+    private static CatalogSnapshotLoader loader(Path file, WorkoutPlanCatalogProperties planProperties) {
+        CatalogSnapshotProperties properties = new CatalogSnapshotProperties();
+        properties.setLocation(file.toUri().toString());
+        return new CatalogSnapshotLoader(properties, planProperties, new DefaultResourceLoader());
+    }
+}
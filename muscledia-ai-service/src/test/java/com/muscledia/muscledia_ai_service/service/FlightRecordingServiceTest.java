@@ -0,0 +1,78 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.muscledia.muscledia_ai_service.config.FlightRecorderProperties;
+import com.muscledia.muscledia_ai_service.jfr.OllamaCallEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FlightRecordingServiceTest {
+
+    @TempDir
+    Path directory;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private FlightRecordingService service;
+
+    @BeforeEach
+    void startRecording() {
+        FlightRecorderProperties properties = new FlightRecorderProperties();
+        properties.setDirectory(directory.toString());
+        properties.setSlowRequestThreshold(Duration.ofMillis(100));
+        service = new FlightRecordingService(properties, meterRegistry);
+        service.start();
+    }
+
+    @AfterEach
+    void stopRecording() throws InterruptedException {
+        service.stop();
+    }
+
+    @Test
+    void dumpsRecentEventsOncePerInterval() throws Exception {
+        assertTrue(service.isRecording());
+        assertFalse(service.isSlow(Duration.ofMillis(50)));
+        assertTrue(service.isSlow(Duration.ofMillis(150)));
+
+        OllamaCallEvent event = new OllamaCallEvent();
+        event.begin();
+        event.model = "llama3";
+        event.evalTokens = 42;
+        event.outcome = "success";
+        event.commit();
+
+        assertTrue(service.dumpSlowRequest("POST /ollama/getRecommendation"));
+        assertFalse(service.dumpSlowRequest("POST /ollama/getRecommendation"));
+        service.stop();
+
+        List<FlightRecordingService.Dump> dumps = service.dumps();
+        assertEquals(1, dumps.size());
+        assertEquals(1.0, meterRegistry.get("flight.recording.dumps").tag("outcome", "written").counter().count());
+        assertEquals(1.0, meterRegistry.get("flight.recording.dumps").tag("outcome", "skipped").counter().count());
+
+        Path file = service.dump(dumps.getFirst().name()).orElseThrow();
+        RecordedEvent recorded = RecordingFile.readAllEvents(file).stream()
+                .filter(e -> e.getEventType().getName().equals("muscledia.OllamaCall"))
+                .findFirst()
+                .orElseThrow();
+        assertEquals("llama3", recorded.getString("model"));
+        assertEquals(42, recorded.getInt("evalTokens"));
+    }
+
+    @Test
+    void resolvesOnlyItsOwnDumps() {
+        assertTrue(service.dump("../../etc/passwd").isEmpty());
+        assertTrue(service.dump("slow-20260101-000000-000.jfr").isEmpty());
+        assertTrue(service.dumps().isEmpty());
+    }
+}
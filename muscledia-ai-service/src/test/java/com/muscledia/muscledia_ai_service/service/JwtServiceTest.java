@@ -0,0 +1,55 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.muscledia.muscledia_ai_service.dto.VerifiedJwt;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[64]);
+
+    private final JwtService jwtService = new JwtService(SECRET, 100, Duration.ofMinutes(5), new SimpleMeterRegistry());
+
+    private String token(Instant expiresAt) {
+        return Jwts.builder()
+                .subject("lifter")
+                .claim("userId", "42")
+                .claim("roles", List.of("USER"))
+                .expiration(Date.from(expiresAt))
+                .signWith(Keys.hmacShaKeyFor(Base64.getDecoder().decode(SECRET)))
+                .compact();
+    }
+
+    @Test
+    void verifyOnceReturnsAllClaimsAndCachesResult() {
+        String token = token(Instant.now().plusSeconds(600));
+
+        VerifiedJwt first = jwtService.verifyOnce(token);
+
+        assertEquals(42L, first.userId());
+        assertEquals("lifter", first.username());
+        assertEquals(List.of("USER"), first.roles());
+        assertSame(first, jwtService.verifyOnce(token));
+    }
+
+    @Test
+    void rejectsTamperedAndExpiredTokens() {
+        String token = token(Instant.now().plusSeconds(600));
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertThrows(JwtException.class, () -> jwtService.verifyOnce(tampered));
+        assertThrows(JwtException.class, () -> jwtService.verifyOnce(token(Instant.now().minusSeconds(60))));
+        assertFalse(jwtService.validateToken(tampered));
+    }
+}
@@ -0,0 +1,209 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.muscledia.muscledia_ai_service.config.OllamaPoolProperties;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.ollama.api.OllamaApi;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OllamaBackendPoolTest {
+
+    private static final String MODEL = "llama3.2:1b";
+
+    private final List<StubOllama> stubs = new ArrayList<>();
+    private OllamaBackendPool pool;
+
+    @AfterEach
+    void tearDown() {
+        if (pool != null) {
+            pool.close();
+        }
+        stubs.forEach(stub -> stub.server.stop(0));
+    }
+
+    @Test
+    void routesToEndpointWithFewestOutstandingRequests() throws Exception {
+        StubOllama first = stub();
+        StubOllama second = stub();
+        pool = pool(properties(endpoint(first), endpoint(second)));
+        pool.checkHealth();
+
+        OllamaBackendPool.Lease held = pool.acquire(MODEL);
+        OllamaBackendPool.Lease next = pool.acquire(MODEL);
+
+        assertNotEquals(held.backend(), next.backend());
+        held.release(true);
+        next.release(true);
+        assertTrue(pool.backends().stream().allMatch(backend -> backend.inFlight() == 0));
+    }
+
+    @Test
+    void ejectsFailingEndpointAndReadmitsWithSlowStart() throws Exception {
+        StubOllama flaky = stub();
+        StubOllama healthy = stub();
+        OllamaPoolProperties properties = properties(endpoint(flaky), endpoint(healthy));
+        properties.setFailureThreshold(2);
+        properties.setEjectionDuration(Duration.ZERO);
+        properties.setSlowStart(Duration.ofMinutes(1));
+        pool = pool(properties);
+        OllamaBackendPool.Backend flakyBackend = pool.backends().get(0);
+
+        flaky.failing.set(true);
+        pool.checkHealth();
+        pool.checkHealth();
+        assertFalse(flakyBackend.isAvailable());
+        for (int i = 0; i < 4; i++) {
+            OllamaBackendPool.Lease lease = pool.acquire(MODEL);
+            assertNotEquals(flakyBackend, lease.backend());
+            lease.release(true);
+        }
+
+        flaky.failing.set(false);
+        pool.checkHealth();
+        assertTrue(flakyBackend.isAvailable());
+        // Readmitted endpoint starts at a fraction of its weight
+        OllamaBackendPool.Lease lease = pool.acquire(MODEL);
+        assertNotEquals(flakyBackend, lease.backend());
+        lease.release(true);
+    }
+
+    @Test
+    void ollamaApiCallsAreRoutedByModelAffinity() throws Exception {
+        StubOllama other = stub();
+        StubOllama llama = stub();
+        OllamaPoolProperties.Endpoint otherEndpoint = endpoint(other);
+        otherEndpoint.setModels(List.of("mistral"));
+        OllamaPoolProperties.Endpoint llamaEndpoint = endpoint(llama);
+        llamaEndpoint.setModels(List.of(MODEL));
+        pool = pool(properties(otherEndpoint, llamaEndpoint));
+
+        OllamaPoolRouter router = new OllamaPoolRouter(pool);
+        OllamaApi api = OllamaApi.builder()
+                .baseUrl("http://ollama-pool")
+                .restClientBuilder(RestClient.builder().requestInterceptor(router))
+                .webClientBuilder(WebClient.builder().filter(router))
+                .build();
+        OllamaApi.ChatRequest request = OllamaApi.ChatRequest.builder(MODEL)
+                .messages(List.of(OllamaApi.Message.builder(OllamaApi.Message.Role.USER).content("hi").build()))
+                .stream(false)
+                .build();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals("hello", api.chat(request).message().content());
+        }
+        String streamed = api.streamingChat(OllamaApi.ChatRequest.builder(MODEL)
+                        .messages(request.messages())
+                        .stream(true)
+                        .build())
+                .map(response -> response.message().content())
+                .reduce("", String::concat)
+                .block(Duration.ofSeconds(5));
+
+        assertEquals("hello", streamed);
+        assertEquals(4, llama.chatCalls.get());
+        assertEquals(0, other.chatCalls.get());
+        // The streaming lease is released when the body completes, just after the caller sees the result
+        long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        while (pool.backends().stream().anyMatch(backend -> backend.inFlight() != 0) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertTrue(pool.backends().stream().allMatch(backend -> backend.inFlight() == 0));
+    }
+
+    @Test
+    void readsModelFromRequestBodyPrefix() {
+        byte[] body = "{\"model\":\"llama3.2:1b\",\"messages\":[{\"role\":\"user\",\"content\":\"{model}\"}]}"
+                .getBytes(StandardCharsets.UTF_8);
+        byte[] nested = "{\"options\":{\"model\":\"x\"},\"model\":\"y\"}".getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(MODEL, OllamaPoolRouter.modelOf(body));
+        assertEquals("y", OllamaPoolRouter.modelOf(nested));
+        assertNull(OllamaPoolRouter.modelOf(new byte[0]));
+    }
+
+    private OllamaBackendPool pool(OllamaPoolProperties properties) {
+        return new OllamaBackendPool(properties, MODEL, new SimpleMeterRegistry());
+    }
+
+    private static OllamaPoolProperties properties(OllamaPoolProperties.Endpoint... endpoints) {
+        OllamaPoolProperties properties = new OllamaPoolProperties();
+        properties.setEnabled(true);
+        properties.setEndpoints(List.of(endpoints));
+        properties.setSlowStart(Duration.ZERO);
+        return properties;
+    }
+
+    private static OllamaPoolProperties.Endpoint endpoint(StubOllama stub) {
+        OllamaPoolProperties.Endpoint endpoint = new OllamaPoolProperties.Endpoint();
+        endpoint.setUrl("http://localhost:" + stub.server.getAddress().getPort());
+        return endpoint;
+    }
+
+    private StubOllama stub() throws IOException {
+        StubOllama stub = new StubOllama();
+        stubs.add(stub);
+        return stub;
+    }
+
+    /**
+     * Minimal Ollama HTTP API: /api/ps and /api/chat (blocking and NDJSON streaming)
+     */
+    private static final class StubOllama {
+        private final HttpServer server;
+        private final AtomicBoolean failing = new AtomicBoolean();
+        private final AtomicInteger chatCalls = new AtomicInteger();
+
+        StubOllama() throws IOException {
+            server = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            server.createContext("/api/ps", exchange -> {
+                if (failing.get()) {
+                    respond(exchange, 500, "application/json", "{}");
+                } else {
+                    respond(exchange, 200, "application/json",
+                            "{\"models\":[{\"name\":\"" + MODEL + "\",\"model\":\"" + MODEL + "\"}]}");
+                }
+            });
+            server.createContext("/api/chat", exchange -> {
+                chatCalls.incrementAndGet();
+                String request = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+                if (request.contains("\"stream\":true")) {
+                    respond(exchange, 200, "application/x-ndjson",
+                            chunk("hel", false) + "\n" + chunk("lo", true) + "\n");
+                } else {
+                    respond(exchange, 200, "application/json", chunk("hello", true));
+                }
+            });
+            server.start();
+        }
+
+        private static String chunk(String content, boolean done) {
+            return "{\"model\":\"" + MODEL + "\",\"created_at\":\"2024-01-01T00:00:00Z\","
+                    + "\"message\":{\"role\":\"assistant\",\"content\":\"" + content + "\"},\"done\":" + done + "}";
+        }
+
+        private static void respond(com.sun.net.httpserver.HttpExchange exchange, int status,
+                                    String contentType, String body) throws IOException {
+            byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", contentType);
+            exchange.sendResponseHeaders(status, bytes.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(bytes);
+            }
+        }
+    }
+}
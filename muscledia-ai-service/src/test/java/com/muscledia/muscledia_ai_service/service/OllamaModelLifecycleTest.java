@@ -0,0 +1,141 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.muscledia.muscledia_ai_service.config.OllamaWarmupProperties;
+import com.muscledia.muscledia_ai_service.config.PromptProperties;
+import com.netflix.appinfo.ApplicationInfoManager;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.ollama.api.OllamaApi;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.actuate.health.Status;
+import org.springframework.boot.availability.AvailabilityChangeEvent;
+import org.springframework.boot.availability.ReadinessState;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.client.MockClientHttpRequest;
+import org.springframework.mock.http.client.MockClientHttpResponse;
+import org.springframework.web.client.RestClient;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OllamaModelLifecycleTest {
+
+    private static final String MODEL = "llama3.2:1B-Q4_0";
+    private static final String CHAT_RESPONSE = "{\"model\":\"" + MODEL + "\",\"done\":true,"
+            + "\"message\":{\"role\":\"assistant\",\"content\":\"\"}}";
+
+    private final List<ReadinessState> readiness = new CopyOnWriteArrayList<>();
+    private volatile boolean ollamaUp = true;
+    private volatile int requests;
+
+    private final OllamaModelLifecycle lifecycle = lifecycle();
+    private final OllamaModelHealthIndicator health = new OllamaModelHealthIndicator(lifecycle);
+
+    @AfterEach
+    void stop() {
+        lifecycle.stop();
+    }
+
+    @Test
+    void acceptsTrafficOnceWarm() {
+        lifecycle.warmUp();
+
+        assertTrue(lifecycle.isWarm());
+        assertEquals(List.of(ReadinessState.ACCEPTING_TRAFFIC), readiness);
+        assertEquals(Status.UP, health.health().getStatus());
+        // One warm-up request per static system prompt
+        assertEquals(2, requests);
+    }
+
+    @Test
+    void refusesTrafficAfterRepeatedKeepAliveFailures() {
+        lifecycle.warmUp();
+        ollamaUp = false;
+
+        lifecycle.keepAlive();
+        lifecycle.keepAlive();
+        assertTrue(lifecycle.isWarm(), "a couple of failed pings must not flap readiness");
+
+        lifecycle.keepAlive();
+
+        assertFalse(lifecycle.isWarm());
+        assertEquals(List.of(ReadinessState.ACCEPTING_TRAFFIC, ReadinessState.REFUSING_TRAFFIC), readiness);
+        assertEquals(Status.UNKNOWN, health.health().getStatus());
+        assertEquals("unreachable", health.health().getDetails().get("state"));
+        assertEquals(3, health.health().getDetails().get("keepAliveFailures"));
+    }
+
+    @Test
+    void acceptsTrafficAgainOnceAPingSucceeds() {
+        lifecycle.warmUp();
+        ollamaUp = false;
+        for (int i = 0; i < 4; i++) {
+            lifecycle.keepAlive();
+        }
+
+        ollamaUp = true;
+        lifecycle.keepAlive();
+
+        assertTrue(lifecycle.isWarm());
+        assertEquals(List.of(ReadinessState.ACCEPTING_TRAFFIC, ReadinessState.REFUSING_TRAFFIC,
+                ReadinessState.ACCEPTING_TRAFFIC), readiness);
+        assertEquals(Status.UP, health.health().getStatus());
+        assertNull(health.health().getDetails().get("keepAliveFailures"));
+    }
+
+    @Test
+    void intermittentFailuresResetTheCount() {
+        lifecycle.warmUp();
+        for (int i = 0; i < 5; i++) {
+            ollamaUp = false;
+            lifecycle.keepAlive();
+            lifecycle.keepAlive();
+            ollamaUp = true;
+            lifecycle.keepAlive();
+        }
+
+        assertTrue(lifecycle.isWarm());
+        assertEquals(List.of(ReadinessState.ACCEPTING_TRAFFIC), readiness);
+    }
+
+    private OllamaModelLifecycle lifecycle() {
+        RestClient.Builder restClient = RestClient.builder().requestFactory((uri, method) -> {
+            requests++;
+            MockClientHttpRequest request = new MockClientHttpRequest(method, uri);
+            MockClientHttpResponse response = ollamaUp
+                    ? new MockClientHttpResponse(CHAT_RESPONSE.getBytes(StandardCharsets.UTF_8), HttpStatus.OK)
+                    : new MockClientHttpResponse(new byte[0], HttpStatus.SERVICE_UNAVAILABLE);
+            response.getHeaders().set(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE);
+            request.setResponse(response);
+            return request;
+        });
+        OllamaApi ollamaApi = OllamaApi.builder().restClientBuilder(restClient).build();
+
+        OllamaWarmupProperties properties = new OllamaWarmupProperties();
+        properties.setPullModel(false);
+        // Pings are driven by the test
+        properties.setKeepAliveInterval(Duration.ofHours(1));
+
+        StaticListableBeanFactory beans = new StaticListableBeanFactory();
+        return new OllamaModelLifecycle(
+                ollamaApi,
+                beans.getBeanProvider(OllamaBackendPool.class),
+                beans.getBeanProvider(ApplicationInfoManager.class),
+                event -> {
+                    if (event instanceof AvailabilityChangeEvent<?> change
+                            && change.getState() instanceof ReadinessState state) {
+                        readiness.add(state);
+                    }
+                },
+                new PromptTemplateRegistry(new PromptProperties(), new SimpleMeterRegistry()),
+                properties,
+                MODEL);
+    }
+}
@@ -0,0 +1,79 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.muscledia.muscledia_ai_service.util.ServerTiming;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.metadata.ChatResponseMetadata;
+import org.springframework.ai.chat.model.ChatResponse;
+import org.springframework.ai.chat.model.Generation;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OllamaResponseMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OllamaResponseMetrics metrics = new OllamaResponseMetrics(meterRegistry);
+
+    @AfterEach
+    void clearTiming() {
+        ServerTiming.clear();
+    }
+
+    @Test
+    void recordsOnlyTheFinalChunkPerModel() {
+        ServerTiming timing = new ServerTiming();
+
+        metrics.record(chunk("{\"a\"", ChatResponseMetadata.builder().model("llama3").build()), timing);
+        metrics.record(chunk("", ChatResponseMetadata.builder()
+                .model("llama3")
+                .keyValue("done", true)
+                .keyValue("load-duration", Duration.ofMillis(40))
+                .keyValue("prompt-eval-duration", Duration.ofMillis(300))
+                .keyValue("eval-duration", Duration.ofMillis(2000))
+                .keyValue("prompt-eval-count", 812)
+                .keyValue("eval-count", 95)
+                .build()), timing);
+
+        assertEquals(1, meterRegistry.get("ollama.eval.duration").tag("model", "llama3").timer().count());
+        assertEquals(2000.0, meterRegistry.get("ollama.eval.duration").timer().totalTime(TimeUnit.MILLISECONDS));
+        assertEquals(812.0, meterRegistry.get("ollama.prompt.eval.count").summary().totalAmount());
+        assertEquals(95.0, meterRegistry.get("ollama.eval.count").summary().totalAmount());
+        assertTrue(timing.header().startsWith("ollama_load;dur=40.0, ollama_prompt_eval;dur=300.0, ollama_eval;dur=2000.0"),
+                timing.header());
+    }
+
+    @Test
+    void modelDefaultsToUnknownAndMissingValuesAreSkipped() {
+        metrics.record(chunk("hi", ChatResponseMetadata.builder().keyValue("done", true).keyValue("eval-count", 3).build()));
+
+        assertEquals(3.0, meterRegistry.get("ollama.eval.count").tag("model", "unknown").summary().totalAmount());
+        assertEquals(0, meterRegistry.get("ollama.eval.duration").timer().count());
+        assertEquals("hi", OllamaResponseMetrics.text(chunk("hi", ChatResponseMetadata.builder().build())));
+    }
+
+    @Test
+    void serverTimingFollowsWrappedWorkAndAddsUpRepeats() throws Exception {
+        ServerTiming timing = ServerTiming.start();
+
+        CompletableFuture.supplyAsync(ServerTiming.wrap(() -> {
+            ServerTiming.current().orElseThrow().add("llm_call", 2, TimeUnit.MILLISECONDS);
+            return null;
+        })).get();
+        timing.add("llm_call", 3, TimeUnit.MILLISECONDS);
+
+        assertTrue(timing.header().matches("llm_call;dur=5\\.0, total;dur=\\d+\\.\\d"), timing.header());
+        ServerTiming.clear();
+        assertTrue(ServerTiming.current().isEmpty());
+    }
+
+    private static ChatResponse chunk(String text, ChatResponseMetadata metadata) {
+        return new ChatResponse(List.of(new Generation(new AssistantMessage(text))), metadata);
+    }
+}
@@ -0,0 +1,90 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.muscledia.muscledia_ai_service.exception.OllamaException.OllamaException;
+import com.muscledia.muscledia_ai_service.model.Pipeline;
+import com.muscledia.muscledia_ai_service.model.PipelineStage;
+import com.muscledia.muscledia_ai_service.util.ServerTiming;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Flux;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PipelineStageExecutorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final PipelineStageExecutor pipeline = new PipelineStageExecutor(meterRegistry);
+
+    @AfterEach
+    void clearTiming() {
+        ServerTiming.clear();
+    }
+
+    @Test
+    void timedOutStageBecomesOllamaExceptionAndCancelsTheCall() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Flux<String> hung = Flux.<String>never().doOnCancel(() -> cancelled.set(true));
+
+        OllamaException e = assertThrows(OllamaException.class, () -> pipeline.run(PipelineStage.LLM_CALL,
+                () -> pipeline.timeout(PipelineStage.LLM_CALL, Duration.ofMillis(50), hung).blockLast()));
+
+        assertEquals("Pipeline stage llm_call timed out after 50 ms", e.getMessage());
+        assertInstanceOf(TimeoutException.class, e.getCause());
+        assertTrue(cancelled.get());
+        assertEquals(1, timer(Pipeline.RECOMMENDATION, PipelineStage.LLM_CALL, "failure").count());
+    }
+
+    @Test
+    void rethrowsTheStagesOwnExceptionUnchanged() {
+        IllegalStateException failure = new IllegalStateException("catalog not loaded");
+
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> pipeline.run(
+                PipelineStage.CATALOG_SUMMARY, () -> {
+                    throw failure;
+                })));
+        assertSame(failure, assertThrows(IllegalStateException.class, () -> pipeline.timeout(
+                PipelineStage.LLM_CALL, Duration.ofSeconds(5), Flux.error(failure)).blockLast()));
+    }
+
+    @Test
+    void timesEachStageByPipelineStageAndOutcome() {
+        pipeline.run(PipelineStage.PROMPT_BUILD, () -> "prompt");
+        pipeline.run(Pipeline.CHAT, PipelineStage.PROMPT_BUILD, () -> "prompt");
+        assertThrows(IllegalArgumentException.class, () -> pipeline.run(Pipeline.CHAT, PipelineStage.PROMPT_BUILD,
+                () -> {
+                    throw new IllegalArgumentException("empty question");
+                }));
+
+        assertEquals(1, timer(Pipeline.RECOMMENDATION, PipelineStage.PROMPT_BUILD, "success").count());
+        assertEquals(1, timer(Pipeline.CHAT, PipelineStage.PROMPT_BUILD, "success").count());
+        assertEquals(1, timer(Pipeline.CHAT, PipelineStage.PROMPT_BUILD, "failure").count());
+    }
+
+    @Test
+    void addsStageTimesToTheRequestsServerTiming() {
+        ServerTiming timing = ServerTiming.start();
+
+        pipeline.run(PipelineStage.USER_FETCH, () -> "user");
+        pipeline.run(PipelineStage.PARSE, () -> "recommendation");
+        pipeline.run(PipelineStage.PARSE, () -> "recommendation");
+
+        String header = timing.header();
+        assertTrue(header.startsWith("user_fetch;dur="), header);
+        assertEquals(1, header.split("parse;dur=", -1).length - 1, "repeated stages add up: " + header);
+        assertTrue(header.contains("total;dur="), header);
+    }
+
+    private Timer timer(Pipeline pipeline, PipelineStage stage, String outcome) {
+        return meterRegistry.get("recommendation.pipeline.stage")
+                .tag("pipeline", pipeline.tag())
+                .tag("stage", stage.tag())
+                .tag("outcome", outcome)
+                .timer();
+    }
+}
@@ -0,0 +1,77 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.muscledia.muscledia_ai_service.config.PromptProperties;
+import com.muscledia.muscledia_ai_service.dto.PreferencesDto;
+import com.muscledia.muscledia_ai_service.dto.UserData;
+import com.muscledia.muscledia_ai_service.util.PromptTemplate;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PromptTemplateRegistryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @TempDir
+    Path templateDirectory;
+
+    @Test
+    void rendersSegmentsAndRejectsMissingValues() {
+        PromptTemplate template = PromptTemplate.compile("t", "Hi {{ name }}, {\"x\": {{n}}}{{name}}");
+
+        assertEquals(Set.of("name", "n"), template.variables());
+        assertEquals("Hi Ann, {\"x\": 3}Ann", template.render(Map.of("name", "Ann", "n", 3)));
+        assertThrows(IllegalArgumentException.class, () -> template.render(Map.of("name", "Ann")));
+        assertThrows(IllegalArgumentException.class, () -> PromptTemplate.compile("bad", "Hi {{name"));
+        assertEquals("plain", PromptTemplate.compile("plain", "plain").text());
+    }
+
+    @Test
+    void rendersBundledTemplatesLikeTheFormerFormatStrings() {
+        AiPromptService promptService = new AiPromptService(registry(new PromptProperties()));
+
+        String userContext = promptService.buildUserContext(
+                new UserData("1", 180.4, 79.6, "BUILD_MUSCLE", "MALE", 30), PreferencesDto.of(3, "BEGINNER"));
+
+        assertEquals("User: 30 yrs, MALE, 180 cm, 80 kg\nGoal: BUILD_MUSCLE\nTraining: BEGINNER, 3 days/week\n",
+                userContext);
+        String prompt = promptService.buildRecommendationPrompt(userContext, "ref|title");
+        assertTrue(prompt.startsWith(userContext + "\n\nAvailable routines:\nref|title\n"));
+        assertFalse(prompt.contains("\"routineId\""), "schema is sent as the format option, not in the prompt");
+        assertEquals(2, meterRegistry.get("prompt.template.render").timers().size());
+    }
+
+    @Test
+    void hotReloadsOverridesAndKeepsTemplatesWhenReloadFails() throws Exception {
+        PromptProperties properties = new PromptProperties();
+        properties.setTemplateDirectory(templateDirectory.toString());
+        Path override = templateDirectory.resolve("assistant_role.txt");
+        Files.writeString(override, "v1 {{who}}");
+        PromptTemplateRegistry registry = registry(properties);
+
+        assertEquals("v1 coach", registry.render("assistant_role", Map.of("who", "coach")));
+
+        Files.writeString(override, "v2 {{who}}!");
+        Files.setLastModifiedTime(override, FileTime.fromMillis(System.currentTimeMillis() + 1000));
+        registry.reload();
+        assertEquals("v2 coach!", registry.render("assistant_role", Map.of("who", "coach")));
+
+        Files.writeString(override, "v3 {{who");
+        Files.setLastModifiedTime(override, FileTime.fromMillis(System.currentTimeMillis() + 2000));
+        registry.reload();
+        assertEquals("v2 coach!", registry.render("assistant_role", Map.of("who", "coach")));
+        assertNotNull(registry.get("user_context"));
+    }
+
+    private PromptTemplateRegistry registry(PromptProperties properties) {
+        return new PromptTemplateRegistry(properties, meterRegistry);
+    }
+}
@@ -0,0 +1,38 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.muscledia.muscledia_ai_service.config.RoutineRankingProperties;
+import com.muscledia.muscledia_ai_service.dto.PreferencesDto;
+import com.muscledia.muscledia_ai_service.dto.UserData;
+import com.muscledia.muscledia_ai_service.model.WorkoutRecommendation;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProvisionalRecommendationServiceTest {
+
+    private final RoutineCatalog catalog = new RoutineCatalog(new ResourceLoaderService(), new ObjectMapper());
+    private final RoutineRankingProperties properties = new RoutineRankingProperties();
+    private final ProvisionalRecommendationService service = new ProvisionalRecommendationService(
+            new RoutineRanker(catalog, new WeightedRoutineScorer(properties), properties));
+
+    @Test
+    void recommendsBestCatalogRoutineMarkedProvisional() throws Exception {
+        UserData user = new UserData("7", 180, 80, "BUILD_MUSCLE", "MALE", 30);
+
+        WorkoutRecommendation recommendation = service
+                .recommend(user, PreferencesDto.of(3, "BEGINNER", "GYM_EQUIPMENT"))
+                .orElseThrow();
+
+        assertTrue(recommendation.provisional());
+        assertEquals("BEGINNER", recommendation.difficultyLevel());
+        assertTrue(catalog.findById(recommendation.routineId()).isPresent());
+        assertTrue(recommendation.description().contains("build muscle"));
+
+        ObjectMapper objectMapper = new ObjectMapper();
+        String json = objectMapper.writeValueAsString(recommendation);
+        assertTrue(json.contains("\"provisional\":true"));
+        // Model output can never mark itself provisional
+        assertFalse(objectMapper.readValue(json, WorkoutRecommendation.class).provisional());
+    }
+}
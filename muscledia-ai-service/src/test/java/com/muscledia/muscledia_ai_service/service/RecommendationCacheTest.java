@@ -0,0 +1,72 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.muscledia.muscledia_ai_service.config.RecommendationCacheProperties;
+import com.muscledia.muscledia_ai_service.dto.PreferencesDto;
+import com.muscledia.muscledia_ai_service.dto.UserData;
+import com.muscledia.muscledia_ai_service.model.ProfileBucket;
+import com.muscledia.muscledia_ai_service.model.WorkoutRecommendation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RecommendationCacheTest {
+
+    private static final ProfileBucket BUCKET = ProfileBucket.of(
+            new UserData("1", 180, 80, "BUILD_MUSCLE", "MALE", 30), PreferencesDto.of(3, "BEGINNER"));
+    private static final WorkoutRecommendation RECOMMENDATION = new WorkoutRecommendation(
+            "Full Body", "r1", "Three days a week", "BEGINNER", "FULL_BODY", false);
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicInteger generations = new AtomicInteger();
+
+    @Test
+    void generatesOnMissAndServesHitsFromCache() {
+        RecommendationCache cache = new RecommendationCache(new RecommendationCacheProperties(), meterRegistry);
+
+        assertSame(RECOMMENDATION, cache.getOrGenerate(BUCKET, this::generate));
+        assertSame(RECOMMENDATION, cache.getOrGenerate(BUCKET, this::generate));
+
+        assertEquals(1, generations.get());
+        assertEquals(1, cache.size());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "recommendations").tag("result", "hit")
+                .functionCounter().count());
+        assertEquals(1.0, meterRegistry.get("cache.gets").tag("cache", "recommendations").tag("result", "miss")
+                .functionCounter().count());
+
+        assertEquals(1, cache.invalidateAll());
+        cache.getOrGenerate(BUCKET, this::generate);
+        assertEquals(2, generations.get());
+    }
+
+    @Test
+    void doesNotCacheFailuresOrNulls() {
+        RecommendationCache cache = new RecommendationCache(new RecommendationCacheProperties(), meterRegistry);
+
+        assertThrows(IllegalStateException.class, () -> cache.getOrGenerate(BUCKET, () -> {
+            throw new IllegalStateException("model down");
+        }));
+        assertNull(cache.getOrGenerate(BUCKET, () -> null));
+        assertTrue(cache.get(BUCKET).isEmpty());
+    }
+
+    @Test
+    void generatesEveryTimeWhenDisabled() {
+        RecommendationCacheProperties properties = new RecommendationCacheProperties();
+        properties.setEnabled(false);
+        RecommendationCache cache = new RecommendationCache(properties, meterRegistry);
+
+        cache.getOrGenerate(BUCKET, this::generate);
+        cache.getOrGenerate(BUCKET, this::generate);
+
+        assertEquals(2, generations.get());
+        assertEquals(0, cache.size());
+    }
+
+    private WorkoutRecommendation generate() {
+        generations.incrementAndGet();
+        return RECOMMENDATION;
+    }
+}
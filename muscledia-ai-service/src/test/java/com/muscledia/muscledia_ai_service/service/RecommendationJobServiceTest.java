@@ -0,0 +1,165 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.muscledia.muscledia_ai_service.TestFixtures;
+import com.muscledia.muscledia_ai_service.config.RecommendationJobProperties;
+import com.muscledia.muscledia_ai_service.dto.PreferencesDto;
+import com.muscledia.muscledia_ai_service.dto.RecommendationJobResponse;
+import com.muscledia.muscledia_ai_service.dto.UserData;
+import com.muscledia.muscledia_ai_service.exception.OllamaException.OllamaException;
+import com.muscledia.muscledia_ai_service.exception.OllamaException.OllamaOverloadedException;
+import com.muscledia.muscledia_ai_service.exception.UnauthorizedException;
+import com.muscledia.muscledia_ai_service.model.WorkoutRecommendation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+import static com.muscledia.muscledia_ai_service.TestFixtures.profile;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class RecommendationJobServiceTest {
+
+    private final ThreadPoolExecutor executor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1));
+    private final UserServiceClient userServiceClient = mock(UserServiceClient.class);
+    private final OllamaService ollamaService = mock(OllamaService.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void stub() {
+        when(userServiceClient.getUserData("token")).thenReturn(profile(7L));
+    }
+
+    @AfterEach
+    void stop() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void fetchesUserDataAtSubmitAndRunsWithoutTheToken() throws Exception {
+        RecommendationJobService service = service(userData -> recommendation(userData.userId()));
+
+        RecommendationJob job = service.submit(PreferencesDto.of(3, "BEGINNER"), "token", 7L);
+        // The token is only used before the job is queued
+        expire();
+        WorkoutRecommendation result = job.result().get(5, TimeUnit.SECONDS);
+
+        assertEquals("For 7", result.description());
+        verify(userServiceClient, times(1)).getUserData("token");
+        verify(ollamaService, never()).getStructuredAnswer(any(PreferencesDto.class), anyString());
+        verify(ollamaService, never()).getStructuredAnswer(any(PreferencesDto.class), anyString(), any(Duration.class));
+        assertEquals(RecommendationJob.Status.COMPLETED, job.getStatus());
+        assertSame(job, service.find(job.getJobId(), 7L).orElseThrow());
+        assertTrue(service.find(job.getJobId(), 8L).isEmpty());
+    }
+
+    @Test
+    void resultCallbacksSeeTheFinishedJob() throws Exception {
+        RecommendationJobService service = service(userData -> recommendation(userData.userId()));
+
+        RecommendationJob job = service.submit(PreferencesDto.of(3, "BEGINNER"), "token", 7L);
+        RecommendationJobResponse done = job.result().thenApply(result -> job.toResponse()).get(5, TimeUnit.SECONDS);
+
+        assertEquals("COMPLETED", done.status());
+        assertNotNull(done.result());
+        assertNotNull(done.finishedAt());
+    }
+
+    @Test
+    void failsAtSubmitWhenUserDataCannotBeFetched() {
+        RecommendationJobService service = service(userData -> recommendation(userData.userId()));
+        expire();
+
+        UnauthorizedException e = assertThrows(UnauthorizedException.class,
+                () -> service.submit(PreferencesDto.of(3, "BEGINNER"), "token", 7L));
+
+        assertEquals("Unauthorized: Invalid or expired JWT token", e.getMessage());
+        assertEquals(0, executor.getCompletedTaskCount() + executor.getQueue().size());
+    }
+
+    @Test
+    void reportsStableErrorsWithoutInternalDetail() {
+        RecommendationJobService service = service(userData -> {
+            throw new OllamaException("Connection refused: ollama-2.internal:11434");
+        });
+
+        RecommendationJobResponse failed = awaitFinished(service.submit(PreferencesDto.of(3, "BEGINNER"), "token", 7L));
+
+        assertEquals("FAILED", failed.status());
+        assertEquals(RecommendationJobService.GENERATION_FAILED, failed.error());
+
+        RecommendationJobService overloaded = service(userData -> {
+            throw new OllamaOverloadedException("Queue full: 64 waiting", HttpStatus.TOO_MANY_REQUESTS,
+                    Duration.ofSeconds(5));
+        });
+        assertEquals(RecommendationJobService.OVERLOADED,
+                awaitFinished(overloaded.submit(PreferencesDto.of(3, "BEGINNER"), "token", 7L)).error());
+    }
+
+    @Test
+    void rejectsWhenQueueIsFullWithoutFetchingUserData() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        RecommendationJobService service = service(userData -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return recommendation(userData.userId());
+        });
+
+        RecommendationJob running = service.submit(PreferencesDto.of(3, "BEGINNER"), "token", 7L);
+        while (running.getStatus() != RecommendationJob.Status.RUNNING) {
+            Thread.sleep(5);
+        }
+        service.submit(PreferencesDto.of(3, "BEGINNER"), "token", 7L);
+
+        assertThrows(RejectedExecutionException.class,
+                () -> service.submit(PreferencesDto.of(3, "BEGINNER"), "token", 7L));
+        verify(userServiceClient, times(2)).getUserData("token");
+        assertEquals(1.0, meterRegistry.get("recommendation.jobs.rejected").counter().count());
+        release.countDown();
+    }
+
+    private RecommendationJobResponse awaitFinished(RecommendationJob job) {
+        try {
+            job.result().get(5, TimeUnit.SECONDS);
+        } catch (Exception ignored) {
+            // Failure is recorded on the job
+        }
+        return job.toResponse();
+    }
+
+    private void expire() {
+        doThrow(new UnauthorizedException("Unauthorized: Invalid or expired JWT token"))
+                .when(userServiceClient).getUserData("token");
+    }
+
+    private RecommendationJobService service(Function<UserData, WorkoutRecommendation> generator) {
+        when(ollamaService.getStructuredAnswer(any(UserData.class), any(PreferencesDto.class)))
+                .thenAnswer(invocation -> generator.apply(invocation.getArgument(0)));
+        return new RecommendationJobService(ollamaService, userServiceClient,
+                new UserDataMapper(), executor, new RecommendationJobProperties(), meterRegistry);
+    }
+
+    private static WorkoutRecommendation recommendation(String userId) {
+        return TestFixtures.recommendation("For " + userId);
+    }
+}
@@ -0,0 +1,49 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.muscledia.muscledia_ai_service.model.DifficultyLevel;
+import com.muscledia.muscledia_ai_service.model.EquipmentType;
+import com.muscledia.muscledia_ai_service.model.WorkoutSplit;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoutineCatalogTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final RoutineCatalog catalog = new RoutineCatalog(new ResourceLoaderService(), objectMapper);
+
+    @Test
+    void indexesRoutinesByEnumKeys() {
+        assertFalse(catalog.all().isEmpty());
+        assertTrue(catalog.byDifficulty(DifficultyLevel.BEGINNER).stream()
+                .allMatch(r -> r.difficultyLevel() == DifficultyLevel.BEGINNER));
+        assertTrue(catalog.byEquipment(EquipmentType.DUMBBELLS).stream()
+                .allMatch(r -> r.equipmentType() == EquipmentType.DUMBBELLS));
+        assertTrue(catalog.bySplit(WorkoutSplit.FULL_BODY).stream()
+                .allMatch(r -> r.workoutSplit() == WorkoutSplit.FULL_BODY));
+    }
+
+    @Test
+    void summariesArePreSerializedPerLevel() throws Exception {
+        JsonNode summaries = objectMapper.readTree(catalog.summaryJson(DifficultyLevel.ADVANCED).orElseThrow());
+
+        assertTrue(summaries.isArray());
+        assertTrue(summaries.size() <= RoutineCatalog.MAX_SUMMARIES_PER_LEVEL);
+        summaries.forEach(node -> {
+            assertEquals("ADVANCED", node.get("difficultyLevel").asText());
+            assertEquals(6, node.size());
+        });
+        assertArrayEquals(
+                catalog.summaryJson(DifficultyLevel.ADVANCED).orElseThrow().getBytes(),
+                catalog.summaryBytes(DifficultyLevel.ADVANCED).orElseThrow());
+    }
+
+    @Test
+    void findsRoutineById() {
+        String id = catalog.all().get(0).id();
+        assertEquals(id, catalog.findById(id).orElseThrow().id());
+        assertTrue(catalog.findById("missing").isEmpty());
+    }
+}
@@ -0,0 +1,90 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.muscledia.muscledia_ai_service.config.PromptProperties;
+import com.muscledia.muscledia_ai_service.dto.PreferencesDto;
+import com.muscledia.muscledia_ai_service.dto.UserData;
+import com.muscledia.muscledia_ai_service.exception.OllamaException.OllamaResponseParseException;
+import com.muscledia.muscledia_ai_service.model.DifficultyLevel;
+import com.muscledia.muscledia_ai_service.model.EncodedRoutines;
+import com.muscledia.muscledia_ai_service.model.PublicRoutine;
+import com.muscledia.muscledia_ai_service.model.WorkoutRecommendation;
+import com.muscledia.muscledia_ai_service.util.TokenEstimator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Size check of the routine prompt encodings: the tabular encoding must use well under
+ * half the characters and estimated tokens of the JSON one, for the routines section and
+ * a substantial share of the full prompt, and round-trip its refs
+ * Encoding time is measured by RoutinePromptEncodingBenchmark (benchmarks profile)
+ */
+class RoutinePromptEncodingBenchmarkTest {
+
+    private final RoutineCatalog catalog = new RoutineCatalog(new ResourceLoaderService(), new ObjectMapper());
+    private final AiPromptService promptService = new AiPromptService(
+            new PromptTemplateRegistry(new PromptProperties(), new SimpleMeterRegistry()));
+
+    @Test
+    void tabularEncodingCutsRoutineTokens() {
+        String userContext = promptService.buildUserContext(
+                new UserData("1", 180, 80, "BUILD_MUSCLE", "MALE", 30), PreferencesDto.of(3, "BEGINNER"));
+
+        for (DifficultyLevel level : DifficultyLevel.values()) {
+            List<PublicRoutine> routines = catalog.byDifficulty(level).stream()
+                    .limit(RoutineCatalog.MAX_SUMMARIES_PER_LEVEL)
+                    .toList();
+            if (routines.isEmpty()) {
+                continue;
+            }
+
+            EncodedRoutines json = new JsonRoutinePromptEncoder(catalog).encode(routines);
+            EncodedRoutines tabular = new TabularRoutinePromptEncoder().encode(routines);
+            String jsonPrompt = promptService.buildRecommendationPrompt(userContext, json.text());
+            String tabularPrompt = promptService.buildRecommendationPrompt(userContext, tabular.text());
+
+            assertTrue(tabular.text().length() * 2 < json.text().length(),
+                    "tabular should use under half the characters of json for " + level);
+            assertTrue(TokenEstimator.estimate(tabular.text()) * 2 < TokenEstimator.estimate(json.text()),
+                    "tabular should use under half the tokens of json for " + level);
+            assertTrue(TokenEstimator.estimate(tabularPrompt) * 10 < TokenEstimator.estimate(jsonPrompt) * 6,
+                    "tabular should cut the full prompt by over 40% for " + level);
+        }
+    }
+
+    @Test
+    void tabularRefsMapBackToCatalogIds() {
+        List<PublicRoutine> routines = catalog.byDifficulty(DifficultyLevel.INTERMEDIATE);
+        EncodedRoutines encoded = new TabularRoutinePromptEncoder().encode(routines);
+
+        String[] lines = encoded.text().split("\n");
+        assertEquals(TabularRoutinePromptEncoder.HEADER, lines[0]);
+        assertEquals(routines.size() + 1, lines.length);
+
+        WorkoutRecommendation answer = new WorkoutRecommendation(
+                routines.get(1).title(), "r2", "fits", "INTERMEDIATE", "FULL_BODY");
+        assertEquals(routines.get(1).id(), encoded.resolve(answer).routineId());
+        assertEquals(routines.get(1).id(), encoded.resolveId(routines.get(1).id()));
+        assertThrows(OllamaResponseParseException.class, () -> encoded.resolveId("r" + (routines.size() + 1)));
+        assertThrows(OllamaResponseParseException.class, () -> encoded.resolveId(null));
+    }
+
+    @Test
+    void jsonAnswersMustNameACandidate() {
+        List<PublicRoutine> routines = catalog.byDifficulty(DifficultyLevel.BEGINNER).stream().limit(3).toList();
+        EncodedRoutines encoded = new JsonRoutinePromptEncoder(catalog).encode(routines);
+        String outsider = catalog.all().stream()
+                .map(PublicRoutine::id)
+                .filter(id -> !encoded.candidateIds().contains(id))
+                .findFirst()
+                .orElseThrow();
+
+        assertEquals(routines.get(2).id(), encoded.resolveId(" " + routines.get(2).id() + " "));
+        assertThrows(OllamaResponseParseException.class, () -> encoded.resolve(
+                new WorkoutRecommendation("Other", outsider, "fits", "BEGINNER", "FULL_BODY")));
+    }
+}
@@ -0,0 +1,56 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.muscledia.muscledia_ai_service.config.RoutineRankingProperties;
+import com.muscledia.muscledia_ai_service.model.DifficultyLevel;
+import com.muscledia.muscledia_ai_service.model.EquipmentType;
+import com.muscledia.muscledia_ai_service.model.PublicRoutine;
+import com.muscledia.muscledia_ai_service.model.RoutineQuery;
+import com.muscledia.muscledia_ai_service.model.ScoredRoutine;
+import com.muscledia.muscledia_ai_service.model.WorkoutSplit;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RoutineRankerTest {
+
+    private final RoutineCatalog catalog = new RoutineCatalog(new ResourceLoaderService(), new ObjectMapper());
+    private final RoutineRankingProperties properties = new RoutineRankingProperties();
+    private final RoutineRanker ranker = new RoutineRanker(catalog, new WeightedRoutineScorer(properties), properties);
+
+    @Test
+    void topKKeepsOnlyBestCandidatesOfTheLevel() {
+        RoutineQuery query = new RoutineQuery(DifficultyLevel.INTERMEDIATE, 3, "BUILD_MUSCLE", EquipmentType.DUMBBELLS);
+
+        List<PublicRoutine> top = ranker.topK(query);
+
+        assertEquals(properties.getTopK(), top.size());
+        assertTrue(top.stream().allMatch(r -> r.difficultyLevel() == DifficultyLevel.INTERMEDIATE));
+        PublicRoutine best = top.get(0);
+        assertEquals(WorkoutSplit.PUSH_PULL_LEGS, best.workoutSplit());
+        assertEquals(EquipmentType.DUMBBELLS, best.equipmentType());
+        assertEquals(3, best.workoutPlanCount());
+    }
+
+    @Test
+    void rankingIsSortedAndDeterministic() {
+        RoutineQuery query = new RoutineQuery(DifficultyLevel.ADVANCED, 4, "LOSE_WEIGHT", null);
+
+        List<ScoredRoutine> ranked = ranker.rank(query);
+
+        for (int i = 1; i < ranked.size(); i++) {
+            assertTrue(ranked.get(i - 1).score() >= ranked.get(i).score());
+        }
+        assertEquals(ranked, ranker.rank(query));
+        assertEquals(WorkoutSplit.FULL_BODY, ranker.best(query).orElseThrow().routine().workoutSplit());
+    }
+
+    @Test
+    void unknownLevelRanksWholeCatalog() {
+        RoutineQuery query = new RoutineQuery(null, 3, "UNKNOWN_GOAL", null);
+
+        assertEquals(catalog.all().size(), ranker.rank(query).size());
+    }
+}
@@ -0,0 +1,72 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.muscledia.muscledia_ai_service.config.ConversationMemoryProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.ai.chat.messages.AssistantMessage;
+import org.springframework.ai.chat.messages.Message;
+import org.springframework.ai.chat.messages.UserMessage;
+import org.springframework.util.unit.DataSize;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TokenBudgetChatMemoryTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void dropsOldestTurnsToStayWithinTheTokenBudget() {
+        ConversationMemoryProperties properties = new ConversationMemoryProperties();
+        properties.setMaxTokens(60);
+        TokenBudgetChatMemory memory = new TokenBudgetChatMemory(properties, meterRegistry);
+
+        for (int turn = 1; turn <= 5; turn++) {
+            memory.add("42", new UserMessage("question " + turn + " about squats and deadlifts"));
+            memory.add("42", new AssistantMessage("answer " + turn + " with some training advice"));
+        }
+
+        List<Message> history = memory.get("42");
+        int tokens = history.stream().mapToInt(TokenBudgetChatMemory::tokens).sum();
+        assertTrue(tokens <= 60, "tokens " + tokens);
+        assertTrue(history.get(0) instanceof UserMessage, "history starts at a turn boundary");
+        assertTrue(history.get(history.size() - 1).getText().startsWith("answer 5"));
+        assertTrue(meterRegistry.get("conversation.memory.evicted.turns").counter().count() >= 1);
+        assertEquals(tokens, meterRegistry.get("conversation.memory.prompt.tokens").summary().mean(), 0.001);
+    }
+
+    @Test
+    void keepsTheNewestTurnEvenWhenItAloneExceedsTheBudget() {
+        ConversationMemoryProperties properties = new ConversationMemoryProperties();
+        properties.setMaxTokens(5);
+        TokenBudgetChatMemory memory = new TokenBudgetChatMemory(properties, meterRegistry);
+
+        memory.add("1", List.of(new UserMessage("first question here"), new AssistantMessage("first answer")));
+        memory.add("1", new UserMessage("a much longer second question about progressive overload"));
+
+        List<Message> history = memory.get("1");
+        assertEquals(1, history.size());
+        assertTrue(history.get(0).getText().startsWith("a much longer"));
+    }
+
+    @Test
+    void separatesUsersAndEvictsIdleConversationsPastTheMemoryCap() {
+        ConversationMemoryProperties properties = new ConversationMemoryProperties();
+        properties.setMaxMemory(DataSize.ofKilobytes(2));
+        TokenBudgetChatMemory memory = new TokenBudgetChatMemory(properties, meterRegistry);
+
+        memory.add("1", new UserMessage("user one"));
+        memory.add("2", new UserMessage("user two"));
+        assertEquals("user one", memory.get("1").get(0).getText());
+        assertFalse(memory.hasHistory("3"));
+
+        for (int user = 10; user < 40; user++) {
+            memory.add(String.valueOf(user), new UserMessage("x".repeat(200)));
+        }
+        assertTrue(meterRegistry.get("conversation.memory.bytes").gauge().value() <= 2048);
+
+        memory.clear("2");
+        assertTrue(memory.get("2").isEmpty());
+    }
+}
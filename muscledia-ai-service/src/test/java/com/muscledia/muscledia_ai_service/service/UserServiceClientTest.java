@@ -0,0 +1,116 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.muscledia.muscledia_ai_service.config.PipelineProperties;
+import com.muscledia.muscledia_ai_service.config.UserDataCacheProperties;
+import com.muscledia.muscledia_ai_service.dto.UserDataDTO;
+import com.muscledia.muscledia_ai_service.exception.UserServiceException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class UserServiceClientTest {
+
+    private static final String SECRET = Base64.getEncoder().encodeToString(new byte[64]);
+
+    private final UserDataCacheProperties properties = new UserDataCacheProperties();
+    private final PipelineProperties pipelineProperties = new PipelineProperties();
+    private final UserDataCache cache = new UserDataCache(properties, new SimpleMeterRegistry());
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile double weight = 80.0;
+    private volatile Sinks.Empty<Void> gate;
+
+    private final UserServiceClient client = client();
+
+    @Test
+    void servesStaleDataWhileRefreshingInBackground() {
+        properties.setRefreshAfter(Duration.ZERO);
+        assertEquals(80.0, client.getUserData("token").getWeight());
+
+        weight = 82.5;
+        // Stale: answered from the cache, the refresh updates it for the next caller
+        assertEquals(80.0, client.getUserData("token").getWeight());
+
+        assertEquals(2, requests.get());
+        assertEquals(82.5, cache.get(42L).orElseThrow().userData().getWeight());
+    }
+
+    @Test
+    void refreshInFlightDuringInvalidationIsNotCached() {
+        properties.setRefreshAfter(Duration.ZERO);
+        client.getUserData("token");
+        gate = Sinks.empty();
+
+        weight = 82.5;
+        client.getUserData("token");
+        cache.invalidate(42L);
+        gate.tryEmitEmpty();
+
+        assertEquals(2, requests.get());
+        assertTrue(cache.get(42L).isEmpty());
+        // The next call fetches again instead of being served the pre-invalidation refresh
+        assertEquals(82.5, client.getUserData("token").getWeight());
+        assertEquals(3, requests.get());
+    }
+
+    @Test
+    void fetchStartedBeforeInvalidateAllIsNotCached() {
+        long epoch = cache.epoch();
+        cache.invalidateAll();
+
+        assertFalse(cache.put(42L, UserDataDTO.builder().userId(42L).build(), epoch));
+        assertTrue(cache.get(42L).isEmpty());
+        assertTrue(cache.put(42L, UserDataDTO.builder().userId(42L).build(), cache.epoch()));
+        assertTrue(cache.get(42L).isPresent());
+    }
+
+    @Test
+    void cancelsAHungUserServiceCallAfterTheFetchTimeout() {
+        pipelineProperties.setUserFetchTimeout(Duration.ofMillis(100));
+        gate = Sinks.empty();
+
+        long start = System.nanoTime();
+        UserServiceException e = assertThrows(UserServiceException.class, () -> client.getUserData("token"));
+
+        assertEquals("user-service did not answer within 100 ms", e.getMessage());
+        assertTrue(Duration.ofNanos(System.nanoTime() - start).compareTo(Duration.ofSeconds(2)) < 0);
+        assertEquals(0, gate.currentSubscriberCount(), "the request must be cancelled, not left waiting");
+        assertTrue(cache.get(42L).isEmpty());
+    }
+
+    private UserServiceClient client() {
+        WebClient.Builder webClient = WebClient.builder().exchangeFunction(request -> {
+            requests.incrementAndGet();
+            String body = "{\"userId\":42,\"height\":180.0,\"weight\":" + weight
+                    + ",\"goalType\":\"BUILD_MUSCLE\",\"gender\":\"MALE\",\"age\":30}";
+            Mono<ClientResponse> response = Mono.just(ClientResponse.create(HttpStatus.OK)
+                    .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                    .body(body)
+                    .build());
+            Sinks.Empty<Void> pending = gate;
+            return pending == null ? response : pending.asMono().then(response);
+        });
+        JwtService jwtService = new JwtService(SECRET, 100, Duration.ofMinutes(5), new SimpleMeterRegistry()) {
+            @Override
+            public Long extractUserId(String token) {
+                return 42L;
+            }
+        };
+        UserServiceClient userServiceClient = new UserServiceClient(webClient, cache, properties, jwtService,
+                pipelineProperties);
+        ReflectionTestUtils.setField(userServiceClient, "userServiceUrl", "http://user-service");
+        return userServiceClient;
+    }
+}
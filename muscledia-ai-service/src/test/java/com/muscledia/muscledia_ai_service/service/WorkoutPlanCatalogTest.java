@@ -0,0 +1,49 @@
+package com.muscledia.muscledia_ai_service.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.muscledia.muscledia_ai_service.config.WorkoutPlanCatalogProperties;
+import com.muscledia.muscledia_ai_service.model.PublicRoutine;
+import com.muscledia.muscledia_ai_service.model.WorkoutPlan;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.core.io.DefaultResourceLoader;
+
+import java.io.InputStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class WorkoutPlanCatalogTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final WorkoutPlanCatalog catalog = new WorkoutPlanCatalog(
+            new WorkoutPlanCatalogProperties(), new DefaultResourceLoader(), objectMapper, new SimpleMeterRegistry());
+
+    @Test
+    void lazilyLoadedPlansMatchTheFullParse() throws Exception {
+        JsonNode all;
+        try (InputStream in = new ClassPathResource("data/public_workout_plans.json").getInputStream()) {
+            all = objectMapper.readTree(in);
+        }
+
+        assertEquals(all.size(), catalog.ids().size());
+        for (JsonNode node : all) {
+            WorkoutPlan expected = objectMapper.treeToValue(node, WorkoutPlan.class);
+            assertEquals(expected, catalog.findById(node.path("id").asText()).orElseThrow());
+        }
+        assertTrue(catalog.findById("missing").isEmpty());
+    }
+
+    @Test
+    void expandsEveryCatalogRoutineIntoItsPlans() {
+        RoutineCatalog routines = new RoutineCatalog(new ResourceLoaderService(), objectMapper);
+
+        for (PublicRoutine routine : routines.all()) {
+            List<WorkoutPlan> plans = catalog.findAll(routine.workoutPlanIds());
+            assertEquals(routine.workoutPlanIds(), plans.stream().map(WorkoutPlan::id).toList());
+            assertFalse(plans.get(0).exercises().get(0).sets().isEmpty());
+        }
+    }
+}
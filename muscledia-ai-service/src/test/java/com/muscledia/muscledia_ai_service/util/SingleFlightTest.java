@@ -0,0 +1,137 @@
+package com.muscledia.muscledia_ai_service.util;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>("test", meterRegistry);
+    private final ExecutorService callers = Executors.newFixedThreadPool(2);
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final AtomicInteger computations = new AtomicInteger();
+
+    @AfterEach
+    void stop() {
+        release.countDown();
+        callers.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersShareOneComputation() throws Exception {
+        CompletableFuture<String> leader = call(blocking(() -> "answer"));
+        awaitInFlight();
+        CompletableFuture<String> joiner = call(() -> "other answer");
+        awaitCoalesced(1);
+
+        release.countDown();
+
+        assertEquals("answer", leader.get(5, TimeUnit.SECONDS));
+        assertEquals("answer", joiner.get(5, TimeUnit.SECONDS));
+        assertEquals(1, computations.get());
+        assertEquals(1.0, coalesced());
+        assertEquals(0, singleFlight.inFlightCount());
+
+        // The key is gone once the call finished, so the next one computes again
+        assertEquals("fresh", singleFlight.execute("key", () -> "fresh"));
+        assertEquals(1.0, coalesced());
+    }
+
+    @Test
+    void failureReachesEveryWaiterAndClearsTheKey() throws Exception {
+        IllegalStateException failure = new IllegalStateException("model unavailable");
+        CompletableFuture<String> leader = call(blocking(() -> {
+            throw failure;
+        }));
+        awaitInFlight();
+        CompletableFuture<String> joiner = call(() -> "other answer");
+        awaitCoalesced(1);
+
+        release.countDown();
+
+        assertSame(failure, assertThrows(ExecutionException.class, () -> leader.get(5, TimeUnit.SECONDS)).getCause());
+        assertSame(failure, assertThrows(ExecutionException.class, () -> joiner.get(5, TimeUnit.SECONDS)).getCause());
+        assertEquals(0, singleFlight.inFlightCount());
+        assertEquals("retried", singleFlight.execute("key", () -> "retried"));
+    }
+
+    @Test
+    void submitSharesTheRunningComputation() throws Exception {
+        CompletableFuture<String> first = singleFlight.submit("key", blocking(() -> "answer"), callers);
+        CompletableFuture<String> second = singleFlight.submit("key", () -> "other answer", callers);
+
+        release.countDown();
+
+        assertSame(first, second);
+        assertEquals("answer", first.get(5, TimeUnit.SECONDS));
+        assertEquals(1.0, coalesced());
+        awaitInFlightCount(0);
+    }
+
+    @Test
+    void submitRemovesTheKeyWhenTheExecutorRejects() {
+        RejectedExecutionException rejected = new RejectedExecutionException("queue full");
+
+        CompletableFuture<String> future = singleFlight.submit("key", () -> "answer", task -> {
+            throw rejected;
+        });
+
+        assertSame(rejected, assertThrows(ExecutionException.class, future::get).getCause());
+        assertEquals(0, singleFlight.inFlightCount());
+        assertEquals("answer", singleFlight.execute("key", () -> "answer"));
+    }
+
+    /**
+     * Counts the computation and holds it until released
+     */
+    private Supplier<String> blocking(Supplier<String> result) {
+        return () -> {
+            computations.incrementAndGet();
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return result.get();
+        };
+    }
+
+    private CompletableFuture<String> call(Supplier<String> supplier) {
+        return CompletableFuture.supplyAsync(() -> singleFlight.execute("key", supplier), callers);
+    }
+
+    private double coalesced() {
+        return meterRegistry.get("singleflight.coalesced").tag("name", "test").counter().count();
+    }
+
+    private void awaitInFlight() throws InterruptedException {
+        while (computations.get() == 0) {
+            Thread.sleep(5);
+        }
+    }
+
+    private void awaitCoalesced(int callers) throws InterruptedException {
+        while (coalesced() < callers) {
+            Thread.sleep(5);
+        }
+    }
+
+    private void awaitInFlightCount(int count) throws InterruptedException {
+        while (singleFlight.inFlightCount() != count) {
+            Thread.sleep(5);
+        }
+    }
+}